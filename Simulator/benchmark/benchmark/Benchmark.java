@@ -0,0 +1,72 @@
+package benchmark;
+
+/**
+ * A benchmark measures the duration of a single operation. The
+ * {@link BenchmarkRunner} calls {@link #setUp()} once, then calls
+ * {@link #run()} repeatedly during the warm up and measurement iterations, and
+ * finally calls {@link #tearDown()}.
+ * 
+ * @author S.A.M. Janssen
+ */
+public abstract class Benchmark {
+
+	/**
+	 * The name of the benchmark.
+	 */
+	private final String name;
+	/**
+	 * The parameters of the benchmark.
+	 */
+	private final String parameters;
+
+	/**
+	 * Creates a benchmark.
+	 * 
+	 * @param name
+	 *            The name.
+	 * @param parameters
+	 *            The parameters, as a human readable string.
+	 */
+	public Benchmark(String name, String parameters) {
+		this.name = name;
+		this.parameters = parameters;
+	}
+
+	/**
+	 * Gets the name.
+	 * 
+	 * @return The name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the parameters.
+	 * 
+	 * @return The parameters.
+	 */
+	public String getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Performs the measured operation. The result is consumed by the runner,
+	 * to prevent the operation from being optimized away.
+	 * 
+	 * @return The result of the operation.
+	 */
+	public abstract Object run();
+
+	/**
+	 * Prepares the benchmark.
+	 */
+	public void setUp() {
+	}
+
+	/**
+	 * Cleans up the benchmark.
+	 */
+	public void tearDown() {
+	}
+}
@@ -0,0 +1,149 @@
+package benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import model.agent.humanAgent.aatom.Passenger;
+import model.environment.objects.area.Area;
+import model.environment.objects.physicalObject.PhysicalObject;
+
+/**
+ * Runs the benchmarks and writes the results to a CSV file. Each benchmark is
+ * run for a number of warm up iterations, followed by a number of measurement
+ * iterations. Each iteration calls the benchmark repeatedly for a fixed
+ * duration. The runner can be configured using the following system
+ * properties:
+ * <ul>
+ * <li>benchmark.scenario: the airport scenario (default
+ * rotterdamTheHagueAirport).</li>
+ * <li>benchmark.seed: the random seed (default 0).</li>
+ * <li>benchmark.passengers: the number of passengers (default 50).</li>
+ * <li>benchmark.warmup: the number of warm up iterations (default 5).</li>
+ * <li>benchmark.iterations: the number of measurement iterations (default
+ * 10).</li>
+ * <li>benchmark.time: the duration of an iteration (in milliseconds, default
+ * 1000).</li>
+ * <li>benchmark.filter: only run the benchmarks of which the name contains
+ * this text (default empty).</li>
+ * <li>benchmark.output: the folder of the CSV file (default benchmarks).</li>
+ * </ul>
+ * 
+ * @author S.A.M. Janssen
+ */
+public final class BenchmarkRunner {
+
+	/**
+	 * The sink that consumes the benchmark results. Volatile, so the results
+	 * cannot be optimized away.
+	 */
+	private static volatile Object sink;
+
+	/**
+	 * Runs the benchmarks.
+	 * 
+	 * @param args
+	 *            Not used.
+	 * @throws IOException
+	 *             If the results cannot be written.
+	 */
+	public static void main(String[] args) throws IOException {
+		String scenario = System.getProperty("benchmark.scenario", Scenarios.ROTTERDAM);
+		long seed = Long.getLong("benchmark.seed", 0);
+		int passengers = Integer.getInteger("benchmark.passengers", 50);
+		int warmup = Integer.getInteger("benchmark.warmup", 5);
+		int iterations = Integer.getInteger("benchmark.iterations", 10);
+		long time = Long.getLong("benchmark.time", 1000);
+		String filter = System.getProperty("benchmark.filter", "");
+		File folder = new File(System.getProperty("benchmark.output", "benchmarks"));
+
+		List<Benchmark> benchmarks = new ArrayList<>();
+		benchmarks.add(new SimulatorStepBenchmark(scenario, seed, passengers));
+		benchmarks.add(new HelbingMovementBenchmark(scenario, seed, passengers, false));
+		benchmarks.add(new HelbingMovementBenchmark(scenario, seed, passengers, true));
+		benchmarks.add(new ObservationBenchmark(scenario, seed, passengers, Passenger.class));
+		benchmarks.add(new ObservationBenchmark(scenario, seed, passengers, PhysicalObject.class));
+		benchmarks.add(new ObservationBenchmark(scenario, seed, passengers, Area.class));
+		benchmarks.add(new VectorToPositionBenchmark(scenario, seed, passengers));
+		benchmarks.add(new JumpPointSearchBenchmark(scenario, seed));
+		benchmarks.add(new DiscretizedMapBenchmark(scenario, seed, 0.35));
+
+		folder.mkdirs();
+		String date = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss").format(new Date());
+		File file = new File(folder, "results-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".csv");
+		try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+			writer.println("date,java_version,processors,benchmark,parameters,iterations,operations,mean_ns,stddev_ns,"
+					+ "min_ns,max_ns");
+			for (Benchmark benchmark : benchmarks) {
+				if (!benchmark.getName().contains(filter))
+					continue;
+				System.out.println("Running " + benchmark.getName() + " (" + benchmark.getParameters() + ")");
+				benchmark.setUp();
+				for (int i = 0; i < warmup; i++)
+					runIteration(benchmark, time);
+				double[] results = new double[iterations];
+				long operations = 0;
+				for (int i = 0; i < iterations; i++) {
+					long[] iteration = runIteration(benchmark, time);
+					operations += iteration[0];
+					results[i] = iteration[1] / (double) iteration[0];
+					System.out.println("  iteration " + (i + 1) + ": " + String.format("%.1f", results[i]) + " ns/op");
+				}
+				benchmark.tearDown();
+
+				double mean = 0;
+				double minimum = Double.MAX_VALUE;
+				double maximum = 0;
+				for (double result : results) {
+					mean += result / results.length;
+					minimum = Math.min(minimum, result);
+					maximum = Math.max(maximum, result);
+				}
+				double variance = 0;
+				for (double result : results)
+					variance += (result - mean) * (result - mean) / Math.max(1, results.length - 1);
+				writer.println(date + "," + System.getProperty("java.version") + ","
+						+ Runtime.getRuntime().availableProcessors() + "," + benchmark.getName() + ","
+						+ benchmark.getParameters() + "," + iterations + "," + operations + ","
+						+ String.format("%.1f,%.1f,%.1f,%.1f", mean, Math.sqrt(variance), minimum, maximum));
+				writer.flush();
+				System.out.println("  mean: " + String.format("%.1f", mean) + " ns/op");
+			}
+		}
+		System.out.println("Results written to " + file.getPath());
+	}
+
+	/**
+	 * Runs a single iteration of a benchmark.
+	 * 
+	 * @param benchmark
+	 *            The benchmark.
+	 * @param time
+	 *            The duration of the iteration (in milliseconds).
+	 * @return The number of operations and the total duration (in
+	 *         nanoseconds).
+	 */
+	private static long[] runIteration(Benchmark benchmark, long time) {
+		long start = System.nanoTime();
+		long end = start + time * 1000000L;
+		long operations = 0;
+		long now;
+		do {
+			sink = benchmark.run();
+			operations++;
+			now = System.nanoTime();
+		} while (now < end);
+		return new long[] { operations, now - start };
+	}
+
+	/**
+	 * Private constructor to prevent object creation.
+	 */
+	private BenchmarkRunner() {
+	}
+}
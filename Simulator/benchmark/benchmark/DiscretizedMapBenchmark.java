@@ -0,0 +1,56 @@
+package benchmark;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.DiscretizedMap;
+import model.map.Map;
+
+/**
+ * Measures the creation of a {@link DiscretizedMap} of an airport scenario.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class DiscretizedMapBenchmark extends Benchmark {
+
+	/**
+	 * The scenario.
+	 */
+	private final String scenario;
+	/**
+	 * The random seed.
+	 */
+	private final long seed;
+	/**
+	 * The precision.
+	 */
+	private final double precision;
+	/**
+	 * The map.
+	 */
+	private Map map;
+
+	/**
+	 * Creates the benchmark.
+	 * 
+	 * @param scenario
+	 *            The scenario.
+	 * @param seed
+	 *            The random seed.
+	 * @param precision
+	 *            The precision.
+	 */
+	public DiscretizedMapBenchmark(String scenario, long seed, double precision) {
+		super("DiscretizedMap.new", "scenario=" + scenario + ";seed=" + seed + ";precision=" + precision);
+		this.scenario = scenario;
+		this.seed = seed;
+		this.precision = precision;
+	}
+
+	@Override
+	public Object run() {
+		return new DiscretizedMap(map, precision);
+	}
+
+	@Override
+	public void setUp() {
+		map = Scenarios.shared(scenario, seed, 0).getMap();
+	}
+}
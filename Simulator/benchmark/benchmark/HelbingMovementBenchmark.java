@@ -0,0 +1,94 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.HelbingMovementModule;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.PrimitiveHelbingMovementModule;
+import model.agent.humanAgent.aatom.operationalLevel.observation.ObservationModule;
+import model.agent.humanAgent.aatom.operationalLevel.observation.impl.BasicPassengerObservationModule;
+import model.map.Map;
+
+/**
+ * Measures {@link HelbingMovementModule#getMove(int)} for the passengers of an
+ * airport scenario. Each passenger gets a separate movement module, so the
+ * passengers themselves are not changed. Optionally, the
+ * {@link PrimitiveHelbingMovementModule} is measured instead. Its moves still
+ * allocate the lists of the three observations (nearby agents, physical
+ * objects and areas) and two vectors (the move and the current velocity), so
+ * the difference between the modules is the allocation of the intermediate
+ * vectors.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class HelbingMovementBenchmark extends Benchmark {
+
+	/**
+	 * The scenario.
+	 */
+	private final String scenario;
+	/**
+	 * The random seed.
+	 */
+	private final long seed;
+	/**
+	 * The number of passengers.
+	 */
+	private final int passengers;
+	/**
+	 * Use the primitive movement module or not.
+	 */
+	private final boolean primitive;
+	/**
+	 * The movement modules.
+	 */
+	private List<HelbingMovementModule> modules;
+	/**
+	 * The index of the next module.
+	 */
+	private int index;
+
+	/**
+	 * Creates the benchmark.
+	 * 
+	 * @param scenario
+	 *            The scenario.
+	 * @param seed
+	 *            The random seed.
+	 * @param passengers
+	 *            The number of passengers.
+	 * @param primitive
+	 *            Use the primitive movement module or not.
+	 */
+	public HelbingMovementBenchmark(String scenario, long seed, int passengers, boolean primitive) {
+		super(primitive ? "PrimitiveHelbingMovementModule.getMove" : "HelbingMovementModule.getMove",
+				"scenario=" + scenario + ";seed=" + seed + ";passengers=" + passengers);
+		this.scenario = scenario;
+		this.seed = seed;
+		this.passengers = passengers;
+		this.primitive = primitive;
+	}
+
+	@Override
+	public Object run() {
+		index = (index + 1) % modules.size();
+		return modules.get(index).getMove(100);
+	}
+
+	@Override
+	public void setUp() {
+		Map map = Scenarios.shared(scenario, seed, passengers).getMap();
+		modules = new ArrayList<>();
+		for (Passenger passenger : map.getMapComponents(Passenger.class)) {
+			HelbingMovementModule module = primitive ? new PrimitiveHelbingMovementModule(1.3)
+					: new HelbingMovementModule(1.3);
+			ObservationModule observation = new BasicPassengerObservationModule();
+			observation.init(map, module);
+			module.init(passenger, observation);
+			modules.add(module);
+		}
+		if (modules.isEmpty())
+			throw new IllegalStateException("The scenario has no passengers.");
+	}
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.JumpPointSearchPathFinder;
+import model.environment.position.Position;
+import model.map.Map;
+
+/**
+ * Measures {@link JumpPointSearchPathFinder#getPath(Position, Position, boolean)}
+ * between random free tiles of an airport scenario.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class JumpPointSearchBenchmark extends Benchmark {
+
+	/**
+	 * The precision of the path finder.
+	 */
+	private static final double PRECISION = 0.35;
+	/**
+	 * The number of start and goal pairs.
+	 */
+	private static final int NUMBER_OF_PAIRS = 100;
+	/**
+	 * The scenario.
+	 */
+	private final String scenario;
+	/**
+	 * The random seed.
+	 */
+	private final long seed;
+	/**
+	 * The path finder.
+	 */
+	private JumpPointSearchPathFinder pathFinder;
+	/**
+	 * The start positions.
+	 */
+	private List<Position> starts;
+	/**
+	 * The goal positions.
+	 */
+	private List<Position> goals;
+	/**
+	 * The index of the next pair.
+	 */
+	private int index;
+
+	/**
+	 * Creates the benchmark.
+	 * 
+	 * @param scenario
+	 *            The scenario.
+	 * @param seed
+	 *            The random seed.
+	 */
+	public JumpPointSearchBenchmark(String scenario, long seed) {
+		super("JumpPointSearchPathFinder.getPath", "scenario=" + scenario + ";seed=" + seed);
+		this.scenario = scenario;
+		this.seed = seed;
+	}
+
+	/**
+	 * Gets the center of a random free tile.
+	 * 
+	 * @param tiles
+	 *            The discretized map.
+	 * @param random
+	 *            The random generator.
+	 * @return The position.
+	 */
+	private Position getFreePosition(boolean[][] tiles, Random random) {
+		while (true) {
+			int y = random.nextInt(tiles.length);
+			int x = random.nextInt(tiles[0].length);
+			if (!tiles[y][x])
+				return new Position((x + 0.5) * PRECISION, (y + 0.5) * PRECISION);
+		}
+	}
+
+	@Override
+	public Object run() {
+		index = (index + 1) % starts.size();
+		return pathFinder.getPath(starts.get(index), goals.get(index), false);
+	}
+
+	@Override
+	public void setUp() {
+		Map map = Scenarios.shared(scenario, seed, 0).getMap();
+		pathFinder = new JumpPointSearchPathFinder(map, PRECISION);
+		boolean[][] tiles = map.getContext().getDiscretizedMap(PRECISION).getMap();
+		Random random = new Random(seed);
+		starts = new ArrayList<>();
+		goals = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_PAIRS; i++) {
+			starts.add(getFreePosition(tiles, random));
+			goals.add(getFreePosition(tiles, random));
+		}
+	}
+}
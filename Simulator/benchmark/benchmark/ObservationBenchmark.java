@@ -0,0 +1,86 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.StaticMovementModule;
+import model.agent.humanAgent.aatom.operationalLevel.observation.ObservationModule;
+import model.agent.humanAgent.aatom.operationalLevel.observation.impl.BasicPassengerObservationModule;
+import model.map.Map;
+
+/**
+ * Measures {@link BasicPassengerObservationModule#getObservation(Class)} of a
+ * specific type for the passengers of an airport scenario.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class ObservationBenchmark extends Benchmark {
+
+	/**
+	 * The scenario.
+	 */
+	private final String scenario;
+	/**
+	 * The random seed.
+	 */
+	private final long seed;
+	/**
+	 * The number of passengers.
+	 */
+	private final int passengers;
+	/**
+	 * The observed type.
+	 */
+	private final Class<?> type;
+	/**
+	 * The observation modules.
+	 */
+	private List<ObservationModule> modules;
+	/**
+	 * The index of the next module.
+	 */
+	private int index;
+
+	/**
+	 * Creates the benchmark.
+	 * 
+	 * @param scenario
+	 *            The scenario.
+	 * @param seed
+	 *            The random seed.
+	 * @param passengers
+	 *            The number of passengers.
+	 * @param type
+	 *            The observed type.
+	 */
+	public ObservationBenchmark(String scenario, long seed, int passengers, Class<?> type) {
+		super("BasicPassengerObservationModule.getObservation", "scenario=" + scenario + ";seed=" + seed
+				+ ";passengers=" + passengers + ";type=" + type.getSimpleName());
+		this.scenario = scenario;
+		this.seed = seed;
+		this.passengers = passengers;
+		this.type = type;
+	}
+
+	@Override
+	public Object run() {
+		index = (index + 1) % modules.size();
+		return modules.get(index).getObservation(type).size();
+	}
+
+	@Override
+	public void setUp() {
+		Map map = Scenarios.shared(scenario, seed, passengers).getMap();
+		modules = new ArrayList<>();
+		for (Passenger passenger : map.getMapComponents(Passenger.class)) {
+			StaticMovementModule movement = new StaticMovementModule();
+			ObservationModule observation = new BasicPassengerObservationModule();
+			observation.init(map, movement);
+			movement.init(passenger, observation);
+			modules.add(observation);
+		}
+		if (modules.isEmpty())
+			throw new IllegalStateException("The scenario has no passengers.");
+	}
+}
@@ -0,0 +1,111 @@
+package benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import model.agent.humanAgent.aatom.Passenger;
+import simulation.modelBuilder.ModelBuilder;
+import simulation.simulation.Simulator;
+import util.io.logger.Logger;
+
+/**
+ * Creates the airport scenarios that are used by the benchmarks. A scenario is
+ * a simulator of one of the airports of the {@link ModelBuilder}, created with
+ * a fixed random seed and run until it contains a specified number of
+ * passengers.
+ * 
+ * @author S.A.M. Janssen
+ */
+public final class Scenarios {
+
+	/**
+	 * The name of the Rotterdam The Hague Airport scenario.
+	 */
+	public static final String ROTTERDAM = "rotterdamTheHagueAirport";
+	/**
+	 * The name of the Eindhoven Airport scenario.
+	 */
+	public static final String EINDHOVEN = "eindhovenAirport";
+	/**
+	 * The maximum number of steps that is performed to reach the number of
+	 * passengers.
+	 */
+	private static final int MAXIMUM_STEPS = 100000;
+	/**
+	 * The shared scenarios.
+	 */
+	private static final Map<String, Simulator> SHARED = new HashMap<>();
+
+	/**
+	 * Creates a scenario.
+	 * 
+	 * @param scenario
+	 *            The name of the scenario.
+	 * @param seed
+	 *            The random seed.
+	 * @param passengers
+	 *            The number of passengers.
+	 * @return The initialized simulator.
+	 */
+	public static Simulator create(String scenario, long seed, int passengers) {
+		Simulator.Builder<?> builder = new Simulator.Builder<>().setGui(false).setTimeStep(100).setRandomSeed(seed)
+				.setLogger(Logger.NO_LOGGER);
+		Simulator simulator;
+		if (ROTTERDAM.equals(scenario))
+			simulator = ModelBuilder.rotterdamTheHagueAirport(builder);
+		else if (EINDHOVEN.equals(scenario))
+			simulator = ModelBuilder.eindhovenAirport(builder);
+		else
+			throw new IllegalArgumentException("Unknown scenario " + scenario);
+
+		simulator.init();
+		int steps = 0;
+		while (getNumberOfPassengers(simulator) < passengers && steps < MAXIMUM_STEPS) {
+			simulator.step();
+			steps++;
+		}
+		if (getNumberOfPassengers(simulator) < passengers)
+			System.err.println("Scenario " + scenario + " reached only " + getNumberOfPassengers(simulator)
+					+ " of " + passengers + " passengers.");
+		return simulator;
+	}
+
+	/**
+	 * Gets the number of passengers in a simulation.
+	 * 
+	 * @param simulator
+	 *            The simulator.
+	 * @return The number of passengers.
+	 */
+	public static int getNumberOfPassengers(Simulator simulator) {
+		return simulator.getMap().getMapComponents(Passenger.class).size();
+	}
+
+	/**
+	 * Gets a shared scenario. Shared scenarios are created once and should only
+	 * be used by benchmarks that do not change the simulation.
+	 * 
+	 * @param scenario
+	 *            The name of the scenario.
+	 * @param seed
+	 *            The random seed.
+	 * @param passengers
+	 *            The number of passengers.
+	 * @return The initialized simulator.
+	 */
+	public static synchronized Simulator shared(String scenario, long seed, int passengers) {
+		String key = scenario + "_" + seed + "_" + passengers;
+		Simulator simulator = SHARED.get(key);
+		if (simulator == null) {
+			simulator = create(scenario, seed, passengers);
+			SHARED.put(key, simulator);
+		}
+		return simulator;
+	}
+
+	/**
+	 * Private constructor to prevent object creation.
+	 */
+	private Scenarios() {
+	}
+}
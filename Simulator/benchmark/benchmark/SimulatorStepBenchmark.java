@@ -0,0 +1,60 @@
+package benchmark;
+
+import simulation.simulation.Simulator;
+
+/**
+ * Measures a complete {@link Simulator#step()} of an airport scenario.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class SimulatorStepBenchmark extends Benchmark {
+
+	/**
+	 * The scenario.
+	 */
+	private final String scenario;
+	/**
+	 * The random seed.
+	 */
+	private final long seed;
+	/**
+	 * The number of passengers.
+	 */
+	private final int passengers;
+	/**
+	 * The simulator.
+	 */
+	private Simulator simulator;
+
+	/**
+	 * Creates the benchmark.
+	 * 
+	 * @param scenario
+	 *            The scenario.
+	 * @param seed
+	 *            The random seed.
+	 * @param passengers
+	 *            The number of passengers at the start of the measurements.
+	 */
+	public SimulatorStepBenchmark(String scenario, long seed, int passengers) {
+		super("Simulator.step", "scenario=" + scenario + ";seed=" + seed + ";passengers=" + passengers);
+		this.scenario = scenario;
+		this.seed = seed;
+		this.passengers = passengers;
+	}
+
+	@Override
+	public Object run() {
+		return simulator.step();
+	}
+
+	@Override
+	public void setUp() {
+		simulator = Scenarios.create(scenario, seed, passengers);
+	}
+
+	@Override
+	public void tearDown() {
+		simulator = null;
+	}
+}
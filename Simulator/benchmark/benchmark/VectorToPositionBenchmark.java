@@ -0,0 +1,87 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.agent.humanAgent.aatom.Passenger;
+import model.environment.objects.physicalObject.PhysicalObject;
+import model.environment.position.Position;
+import model.map.Map;
+
+/**
+ * Measures {@link PhysicalObject#getVectorToPosition(Position)} for all
+ * combinations of the physical objects and the passenger positions of an
+ * airport scenario.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class VectorToPositionBenchmark extends Benchmark {
+
+	/**
+	 * The scenario.
+	 */
+	private final String scenario;
+	/**
+	 * The random seed.
+	 */
+	private final long seed;
+	/**
+	 * The number of passengers.
+	 */
+	private final int passengers;
+	/**
+	 * The physical objects.
+	 */
+	private List<PhysicalObject> objects;
+	/**
+	 * The positions.
+	 */
+	private List<Position> positions;
+	/**
+	 * The index of the next object.
+	 */
+	private int objectIndex;
+	/**
+	 * The index of the next position.
+	 */
+	private int positionIndex;
+
+	/**
+	 * Creates the benchmark.
+	 * 
+	 * @param scenario
+	 *            The scenario.
+	 * @param seed
+	 *            The random seed.
+	 * @param passengers
+	 *            The number of passengers.
+	 */
+	public VectorToPositionBenchmark(String scenario, long seed, int passengers) {
+		super("PhysicalObject.getVectorToPosition",
+				"scenario=" + scenario + ";seed=" + seed + ";passengers=" + passengers);
+		this.scenario = scenario;
+		this.seed = seed;
+		this.passengers = passengers;
+	}
+
+	@Override
+	public Object run() {
+		objectIndex++;
+		if (objectIndex == objects.size()) {
+			objectIndex = 0;
+			positionIndex = (positionIndex + 1) % positions.size();
+		}
+		return objects.get(objectIndex).getVectorToPosition(positions.get(positionIndex));
+	}
+
+	@Override
+	public void setUp() {
+		Map map = Scenarios.shared(scenario, seed, passengers).getMap();
+		objects = new ArrayList<>(map.getMapComponents(PhysicalObject.class));
+		positions = new ArrayList<>();
+		for (Passenger passenger : map.getMapComponents(Passenger.class))
+			positions.add(passenger.getPosition());
+		if (objects.isEmpty() || positions.isEmpty())
+			throw new IllegalStateException("The scenario has no physical objects or passengers.");
+	}
+}
@@ -0,0 +1,6 @@
+/**
+ * Benchmarks of the simulation hot paths. Run them using "ant benchmark".
+ * 
+ * @author S.A.M. Janssen
+ */
+package benchmark;
\ No newline at end of file
@@ -15,6 +15,10 @@ import simulation.simulation.util.DirectlyUpdatable;
  */
 public abstract class Agent extends CircularMapComponent implements DirectlyUpdatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The log value.
 	 */
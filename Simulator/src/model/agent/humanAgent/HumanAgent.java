@@ -15,6 +15,10 @@ import model.environment.position.Position;
  */
 public abstract class HumanAgent extends Agent {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The {@link Color} of the agent.
 	 */
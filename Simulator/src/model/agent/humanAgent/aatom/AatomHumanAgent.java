@@ -3,6 +3,8 @@ package model.agent.humanAgent.aatom;
 import java.awt.Color;
 import java.util.Collection;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import model.agent.humanAgent.HumanAgent;
 import model.agent.humanAgent.aatom.operationalLevel.OperationalModel;
@@ -13,6 +15,11 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
 import model.environment.objects.physicalObject.Chair;
 import model.environment.position.Position;
 import model.environment.position.Vector;
+import simulation.simulation.util.SimulationContext;
+import simulation.simulation.util.TimedEvent;
+import simulation.simulation.util.TimingWheel;
+import simulation.simulation.util.TimingWheel.Timer;
+import simulation.simulation.util.UpdateRates;
 
 /**
  * A AatomHumanAgent is a human that can move around on a map. It contains three
@@ -31,6 +38,74 @@ import model.environment.position.Vector;
  */
 public abstract class AatomHumanAgent extends HumanAgent {
 
+	/**
+	 * A communication that is received during a two-phase update and is
+	 * delivered when the update is committed.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class PendingCommunication {
+		/**
+		 * The type of communication.
+		 */
+		private final CommunicationType type;
+		/**
+		 * The communication.
+		 */
+		private final Object communication;
+
+		/**
+		 * Creates a pending communication.
+		 * 
+		 * @param type
+		 *            The type of communication.
+		 * @param communication
+		 *            The communication.
+		 */
+		private PendingCommunication(CommunicationType type, Object communication) {
+			this.type = type;
+			this.communication = communication;
+		}
+	}
+
+	/**
+	 * The event that wakes up a dormant agent when one of its timers requires
+	 * an update.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class WakeUpEvent implements TimedEvent {
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The agent.
+		 */
+		private final AatomHumanAgent agent;
+
+		/**
+		 * Creates a wake up event.
+		 * 
+		 * @param agent
+		 *            The agent.
+		 */
+		private WakeUpEvent(AatomHumanAgent agent) {
+			this.agent = agent;
+		}
+
+		@Override
+		public void fire(long step) {
+			agent.wakeUpTimer = null;
+			if (!agent.isDestroyed())
+				agent.wakeUp();
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The {@link StrategicModel}.
 	 */
@@ -43,6 +118,56 @@ public abstract class AatomHumanAgent extends HumanAgent {
 	 * The {@link OperationalModel}.
 	 */
 	protected OperationalModel operationalModel;
+	/**
+	 * The position computed in the current step that is not yet committed.
+	 */
+	private Position nextPosition;
+	/**
+	 * Flag to specify if the agent is in a two-phase update.
+	 */
+	private boolean twoPhaseUpdate;
+	/**
+	 * The velocity at the start of a two-phase update.
+	 */
+	private Vector stepVelocity;
+	/**
+	 * The communications received during a two-phase update.
+	 */
+	private final Queue<PendingCommunication> pendingCommunications = new ConcurrentLinkedQueue<>();
+	/**
+	 * Flag to specify if the agent is dormant.
+	 */
+	private boolean dormant;
+	/**
+	 * The timer that wakes up the dormant agent. Null if the agent is not
+	 * dormant, or if it is dormant until it receives a communication.
+	 */
+	private Timer wakeUpTimer;
+	/**
+	 * The number of steps that the agent skipped while dormant.
+	 */
+	private int skippedSteps;
+	/**
+	 * The time step of the last update.
+	 */
+	private int lastTimeStep;
+	/**
+	 * The number of the agent in the simulation, used to stagger the updates
+	 * of the levels. -1 if the agent has no number yet.
+	 */
+	private long agentNumber = -1;
+	/**
+	 * The number of steps since the last update of the strategic model.
+	 */
+	private int strategicSteps;
+	/**
+	 * The number of steps since the last update of the tactical model.
+	 */
+	private int tacticalSteps;
+	/**
+	 * The number of steps since the last update of the operational model.
+	 */
+	private int operationalSteps;
 
 	/**
 	 * Creates a human agent with a specified {@link StrategicModel} and
@@ -101,7 +226,8 @@ public abstract class AatomHumanAgent extends HumanAgent {
 	}
 
 	/**
-	 * Communicate.
+	 * Communicate. During a two-phase update the communication is delivered
+	 * when the update is committed.
 	 * 
 	 * @param type
 	 *            The type of communication.
@@ -110,7 +236,69 @@ public abstract class AatomHumanAgent extends HumanAgent {
 	 */
 	@Override
 	public void communicate(CommunicationType type, Object communication) {
-		operationalModel.communicate(type, communication);
+		if (twoPhaseUpdate)
+			pendingCommunications.add(new PendingCommunication(type, communication));
+		else {
+			wakeUp();
+			operationalModel.communicate(type, communication);
+		}
+	}
+
+	/**
+	 * Computes the number of steps that the agent can be dormant after the
+	 * current step. An agent is dormant if it stands still and all of its
+	 * models can do without updates. A dormant agent skips its updates, and
+	 * catches up with them when it wakes up.
+	 * 
+	 * @param timeStep
+	 *            The time step.
+	 * @return The number of steps, 0 if the agent has to be updated in the
+	 *         next step.
+	 */
+	private long computeDormantSteps(int timeStep) {
+		if (!operationalModel.getStopOrder() || !pendingCommunications.isEmpty())
+			return 0;
+		double time = operationalModel.getDormantTime();
+		if (time > 0)
+			time = Math.min(time, tacticalModel.getDormantTime());
+		if (time > 0)
+			time = Math.min(time, strategicModel.getDormantTime());
+		if (time == Double.POSITIVE_INFINITY)
+			return Long.MAX_VALUE;
+		// one step margin for rounding errors in the timers.
+		return Math.max(0, (long) Math.floor(time * 1000 / timeStep) - 1);
+	}
+
+	/**
+	 * Commits the position that was computed in {@link #update(int)} and
+	 * delivers the communications that were received during a two-phase
+	 * update.
+	 */
+	public void commitUpdate() {
+		if (nextPosition != null) {
+			position = nextPosition;
+			nextPosition = null;
+
+			// sitting routine
+			if (operationalModel.isSitting()) {
+				tacticalModel.setGoal(Position.NO_POSITION);
+				Chair chair = operationalModel.getMovementModel().getChair();
+				position = new Position(chair.getPosition().x + 0.5 * chair.getWidth(),
+						chair.getPosition().y + 0.5 * chair.getWidth());
+			}
+			if (map != null)
+				map.updateAgentPosition(this);
+		}
+
+		if (twoPhaseUpdate) {
+			twoPhaseUpdate = false;
+			stepVelocity = null;
+			PendingCommunication pending;
+			while ((pending = pendingCommunications.poll()) != null) {
+				wakeUp();
+				operationalModel.communicate(pending.type, pending.communication);
+			}
+		}
 	}
 
 	/**
@@ -123,11 +311,14 @@ public abstract class AatomHumanAgent extends HumanAgent {
 	}
 
 	/**
-	 * Gets the current velocity from the {@link OperationalModel}.
+	 * Gets the current velocity from the {@link OperationalModel}. During a
+	 * two-phase update, the velocity at the start of the step is returned.
 	 * 
 	 * @return The current velocity.
 	 */
 	public Vector getCurrentVelocity() {
+		if (twoPhaseUpdate)
+			return stepVelocity;
 		return operationalModel.getCurrentVelocity();
 	}
 
@@ -198,6 +389,21 @@ public abstract class AatomHumanAgent extends HumanAgent {
 		strategicModel.init(operationalModel.getObservationModule());
 		tacticalModel.init(map, this, operationalModel.getMovementModel(), operationalModel.getObservationModule(),
 				strategicModel.getActivityPlanner(), strategicModel.getGoalModule().getGoalActivities());
+		if (agentNumber < 0 && map != null)
+			agentNumber = map.getContext().nextAgentNumber();
+	}
+
+	/**
+	 * Determines if a level is updated in a step.
+	 * 
+	 * @param step
+	 *            The step.
+	 * @param interval
+	 *            The number of steps between two updates of the level.
+	 * @return True if the level is updated, false otherwise.
+	 */
+	private boolean isDue(long step, int interval) {
+		return interval == 1 || (step + agentNumber) % interval == 0;
 	}
 
 	/**
@@ -218,11 +424,36 @@ public abstract class AatomHumanAgent extends HumanAgent {
 		return operationalModel.isSitting();
 	}
 
+	/**
+	 * Prepares a two-phase update. In a two-phase update, {@link #update(int)}
+	 * only computes the next position of the agent, such that all agents can
+	 * be updated in parallel against the state of the previous step. The
+	 * position is set when {@link #commitUpdate()} is called.
+	 */
+	public void prepareUpdate() {
+		stepVelocity = operationalModel.getCurrentVelocity();
+		twoPhaseUpdate = true;
+	}
+
+	/**
+	 * Determines if the agent is dormant. A dormant agent stands still and
+	 * skips its updates until it is woken up by a communication or until one
+	 * of its timers requires an update.
+	 * 
+	 * @return True if the agent is dormant, false otherwise.
+	 */
+	public boolean isDormant() {
+		return dormant;
+	}
+
 	/**
 	 * Update the agent's position and internal representations using the
 	 * generated move of the {@link OperationalModel}, the
 	 * {@link StrategicModel#update(int)} and {@link TacticalModel#update(int)}
-	 * methods.
+	 * methods. During a two-phase update (see {@link #prepareUpdate()}) the
+	 * position is not changed until {@link #commitUpdate()} is called. A
+	 * dormant agent (see {@link #isDormant()}) skips the update. The models
+	 * are updated at the {@link UpdateRates} of the simulation.
 	 * 
 	 * @param timeStep
 	 *            The used time step (in milliseconds) in the simulation.
@@ -230,23 +461,83 @@ public abstract class AatomHumanAgent extends HumanAgent {
 	@Override
 	public void update(int timeStep) {
 		super.update(timeStep);
+		if (dormant && timeStep == lastTimeStep) {
+			skippedSteps++;
+			return;
+		}
+		wakeUp();
+		lastTimeStep = timeStep;
+
+		UpdateRates rates = UpdateRates.EVERY_STEP;
+		long step = 0;
+		if (map != null) {
+			rates = map.getContext().getUpdateRates();
+			step = map.getContext().getStep();
+		}
+		strategicSteps++;
+		tacticalSteps++;
+		operationalSteps++;
+
 		// think first...
-		strategicModel.update(timeStep);
-		tacticalModel.update(timeStep);
+		if (isDue(step, rates.getStrategicInterval(timeStep))) {
+			strategicModel.update(strategicSteps * timeStep);
+			strategicSteps = 0;
+		}
+		if (isDue(step, rates.getTacticalInterval(timeStep))) {
+			tacticalModel.update(tacticalSteps * timeStep);
+			tacticalSteps = 0;
+		}
 
 		// then act...
-		operationalModel.update(timeStep);
-		Vector move = operationalModel.getMove(timeStep);
-		position = new Position(position.x + move.x, position.y + move.y);
-
-		// sitting routine
-		if (operationalModel.isSitting()) {
-			tacticalModel.setGoal(Position.NO_POSITION);
-			Chair chair = operationalModel.getMovementModel().getChair();
-			position = new Position(chair.getPosition().x + 0.5 * chair.getWidth(),
-					chair.getPosition().y + 0.5 * chair.getWidth());
+		if (isDue(step, rates.getOperationalInterval(timeStep))) {
+			operationalModel.update(operationalSteps * timeStep);
+			Vector move = operationalModel.getMove(operationalSteps * timeStep);
+			nextPosition = new Position(position.x + move.x, position.y + move.y);
+			operationalSteps = 0;
 		}
 
+		if (!twoPhaseUpdate)
+			commitUpdate();
+		sleep(computeDormantSteps(timeStep));
+	}
+
+	/**
+	 * Makes the agent dormant for a number of steps, if the simulation allows
+	 * it (see {@link SimulationContext#isDormancy()}). The agent is woken up
+	 * by a {@link TimedEvent} on the {@link TimingWheel} of the map, or by a
+	 * communication.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps, {@link Long#MAX_VALUE} to sleep until a
+	 *            communication is received.
+	 */
+	private void sleep(long numberOfSteps) {
+		if (numberOfSteps <= 0 || map == null || !map.getContext().isDormancy())
+			return;
+		dormant = true;
+		TimingWheel timingWheel = map.getContext().getTimingWheel();
+		long step = timingWheel.getCurrentStep();
+		if (numberOfSteps < Long.MAX_VALUE - step - 1)
+			wakeUpTimer = timingWheel.schedule(step + numberOfSteps + 1, new WakeUpEvent(this));
+	}
+
+	/**
+	 * Wakes up a dormant agent. The models catch up with the skipped steps,
+	 * such that the agent is in the same state as when it had been updated in
+	 * every step.
+	 */
+	private void wakeUp() {
+		dormant = false;
+		if (wakeUpTimer != null) {
+			map.getContext().getTimingWheel().cancel(wakeUpTimer);
+			wakeUpTimer = null;
+		}
+		if (skippedSteps > 0) {
+			strategicModel.catchUp(skippedSteps, lastTimeStep);
+			tacticalModel.catchUp(skippedSteps, lastTimeStep);
+			operationalModel.catchUp(skippedSteps, lastTimeStep);
+			skippedSteps = 0;
+		}
 	}
 
 	@Override
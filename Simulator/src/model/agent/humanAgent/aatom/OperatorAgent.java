@@ -17,6 +17,10 @@ import model.environment.position.Position;
  */
 public class OperatorAgent extends AatomHumanAgent {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The assignment.
 	 */
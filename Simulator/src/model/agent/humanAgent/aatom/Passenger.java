@@ -3,14 +3,19 @@ package model.agent.humanAgent.aatom;
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import model.agent.humanAgent.HumanAgent;
 import model.agent.humanAgent.aatom.operationalLevel.BasicPassengerOperationalModel;
 import model.agent.humanAgent.aatom.operationalLevel.OperationalModel;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.HelbingMovementModule;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.PrimitiveHelbingMovementModule;
 import model.agent.humanAgent.aatom.strategicLevel.BasicPassengerStrategicModel;
 import model.agent.humanAgent.aatom.strategicLevel.StrategicModel;
 import model.agent.humanAgent.aatom.tacticalLevel.BasicPassengerTacticalModel;
 import model.agent.humanAgent.aatom.tacticalLevel.TacticalModel;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
+import model.environment.objects.area.Area;
 import model.environment.objects.area.Facility;
 import model.environment.objects.flight.Flight;
 import model.environment.objects.physicalObject.luggage.Luggage;
@@ -53,6 +58,10 @@ public class Passenger extends AatomHumanAgent {
 		protected Color color = Color.RED;
 		protected MathDistribution checkPointDropTime = new NormalDistribution(54.6, 36.09);
 		protected MathDistribution checkPointCollectTime = new NormalDistribution(71.5, 54.95);
+		protected boolean primitiveMovement = false;
+		protected boolean flowFieldNavigation = false;
+		protected boolean hierarchicalNavigation = false;
+		protected boolean visibilityGraphNavigation = false;
 
 		/**
 		 * Creates the passenger.
@@ -64,11 +73,20 @@ public class Passenger extends AatomHumanAgent {
 				strategicModel = new BasicPassengerStrategicModel(facility, checkedIn, checkPointDropTime,
 						checkPointCollectTime, flight);
 
-			if (tacticalModel == null)
+			if (tacticalModel == null) {
 				tacticalModel = new BasicPassengerTacticalModel(flight);
+				tacticalModel.getNavigationModule().setFlowFieldNavigation(flowFieldNavigation);
+				tacticalModel.getNavigationModule().setHierarchicalNavigation(hierarchicalNavigation);
+				tacticalModel.getNavigationModule().setVisibilityGraphNavigation(visibilityGraphNavigation);
+			}
 
-			if (operationalModel == null)
-				operationalModel = new BasicPassengerOperationalModel(desiredSpeed);
+			if (operationalModel == null) {
+				if (primitiveMovement)
+					operationalModel = new BasicPassengerOperationalModel(
+							new PrimitiveHelbingMovementModule(desiredSpeed));
+				else
+					operationalModel = new BasicPassengerOperationalModel(desiredSpeed);
+			}
 
 			return new Passenger(flight, checkedIn, facility, position, radius, mass, luggage, strategicModel,
 					tacticalModel, operationalModel, color);
@@ -205,6 +223,21 @@ public class Passenger extends AatomHumanAgent {
 			return (T) this;
 		}
 
+		/**
+		 * Set if the {@link PrimitiveHelbingMovementModule} is used instead of
+		 * the {@link HelbingMovementModule}. Both generate the same moves, but
+		 * the primitive module creates fewer objects. Only used if no
+		 * operational model is set.
+		 * 
+		 * @param primitiveMovement
+		 *            Use the primitive movement module or not.
+		 * @return The builder.
+		 */
+		public T setPrimitiveMovement(boolean primitiveMovement) {
+			this.primitiveMovement = primitiveMovement;
+			return (T) this;
+		}
+
 		/**
 		 * Set the {@link Position}.
 		 * 
@@ -229,6 +262,49 @@ public class Passenger extends AatomHumanAgent {
 			return (T) this;
 		}
 
+		/**
+		 * Set if shared flow fields are used to determine the paths of the
+		 * passenger, instead of a path search per passenger. Only used if no
+		 * tactical model is set.
+		 * 
+		 * @param flowFieldNavigation
+		 *            Use shared flow fields or not.
+		 * @return The builder.
+		 */
+		public T setFlowFieldNavigation(boolean flowFieldNavigation) {
+			this.flowFieldNavigation = flowFieldNavigation;
+			return (T) this;
+		}
+
+		/**
+		 * Set if hierarchical path finding is used to determine the paths of
+		 * the passenger, which is faster on large maps. Only used if no
+		 * tactical model is set.
+		 * 
+		 * @param hierarchicalNavigation
+		 *            Use hierarchical path finding or not.
+		 * @return The builder.
+		 */
+		public T setHierarchicalNavigation(boolean hierarchicalNavigation) {
+			this.hierarchicalNavigation = hierarchicalNavigation;
+			return (T) this;
+		}
+
+		/**
+		 * Set if a visibility graph of the obstacles is used to determine the
+		 * paths of the passenger, which gives shorter paths that keep the
+		 * radius of the passenger from the obstacles. Only used if no tactical
+		 * model is set.
+		 * 
+		 * @param visibilityGraphNavigation
+		 *            Use a visibility graph or not.
+		 * @return The builder.
+		 */
+		public T setVisibilityGraphNavigation(boolean visibilityGraphNavigation) {
+			this.visibilityGraphNavigation = visibilityGraphNavigation;
+			return (T) this;
+		}
+
 		/**
 		 * Set the strategic model.
 		 * 
@@ -255,6 +331,10 @@ public class Passenger extends AatomHumanAgent {
 
 	}
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The {@link Flight} of the agent.
 	 */
@@ -271,6 +351,20 @@ public class Passenger extends AatomHumanAgent {
 	 * Facility visit or not.
 	 */
 	private boolean checkedIn;
+	/**
+	 * The {@link Area}s that contain the passenger, as last published to the
+	 * {@link PassengerEventListener}.
+	 */
+	private List<Area> areas;
+	/**
+	 * The {@link Position} for which the areas were determined.
+	 */
+	private Position areasPosition;
+	/**
+	 * The active {@link Activity}, as last published to the
+	 * {@link PassengerEventListener}.
+	 */
+	private Activity publishedActivity;
 
 	/**
 	 * Creates a passenger with a specified {@link StrategicModel} and
@@ -314,6 +408,7 @@ public class Passenger extends AatomHumanAgent {
 		if (luggage.isEmpty())
 			luggage.add(Luggage.NO_LUGGAGE);
 		this.facility = facility;
+		areas = new ArrayList<>();
 		for (Luggage l : this.luggage)
 			l.setOwner(this);
 
@@ -362,14 +457,70 @@ public class Passenger extends AatomHumanAgent {
 	}
 
 	@Override
-	public void update(int timeStep) {
+	public void commitUpdate() {
 		Position prev = position;
-		super.update(timeStep);
+		super.commitUpdate();
 
 		// move luggage with the passenger
 		for (Luggage l : luggage) {
 			if (l.getPosition().equals(prev))
 				l.setPosition(position);
 		}
+		publishEvents();
+	}
+
+	/**
+	 * Publishes the changes of the active {@link Activity} and the
+	 * {@link Area}s since the last update to the
+	 * {@link PassengerEventListener} of the map, if there is one. The areas
+	 * are only looked up if the listener is notified of them.
+	 */
+	private void publishEvents() {
+		PassengerEventListener listener = map == null ? null : map.getPassengerEventListener();
+		if (listener == null)
+			return;
+
+		Activity activity = getActiveActivity();
+		if (activity != publishedActivity) {
+			Activity previous = publishedActivity;
+			publishedActivity = activity;
+			listener.activityChanged(this, previous, activity);
+		}
+
+		if (position != areasPosition && listener.isAreaListener()) {
+			List<Area> current = map.getAreasContaining(position);
+			for (Area area : areas) {
+				if (!current.contains(area))
+					listener.areaLeft(this, area);
+			}
+			for (Area area : current) {
+				if (!areas.contains(area))
+					listener.areaEntered(this, area);
+			}
+			areas = current;
+			areasPosition = position;
+		}
+	}
+
+	/**
+	 * Publishes that the passenger left all its {@link Area}s and its
+	 * {@link Activity} to the {@link PassengerEventListener} of the map. Only
+	 * to be called by the map when the passenger is removed.
+	 */
+	public void publishRemoval() {
+		PassengerEventListener listener = map == null ? null : map.getPassengerEventListener();
+		List<Area> left = areas;
+		Activity previous = publishedActivity;
+		areas = new ArrayList<>();
+		areasPosition = null;
+		publishedActivity = null;
+		if (listener == null)
+			return;
+
+		for (Area area : left)
+			listener.areaLeft(this, area);
+		if (previous != null)
+			listener.activityChanged(this, previous, null);
+		listener.passengerRemoved(this);
 	}
 }
@@ -0,0 +1,67 @@
+package model.agent.humanAgent.aatom;
+
+import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
+import model.environment.objects.area.Area;
+
+/**
+ * A passenger event listener is notified of the transitions of the
+ * {@link Passenger}s on a {@link model.map.Map}, such as entering a queue,
+ * leaving a queue or reaching the gate. The passengers publish the events
+ * after they moved, so the listener does not have to inspect all passengers
+ * to find the changes. A passenger that is removed from the map first leaves
+ * all its areas and its activity.
+ * 
+ * @author S.A.M. Janssen
+ */
+public interface PassengerEventListener {
+
+	/**
+	 * A passenger changed its active {@link Activity}.
+	 * 
+	 * @param passenger
+	 *            The passenger.
+	 * @param previous
+	 *            The previous activity, null if it had none.
+	 * @param current
+	 *            The current activity, null if it has none.
+	 */
+	public void activityChanged(Passenger passenger, Activity previous, Activity current);
+
+	/**
+	 * A passenger entered an {@link Area}.
+	 * 
+	 * @param passenger
+	 *            The passenger.
+	 * @param area
+	 *            The area.
+	 */
+	public void areaEntered(Passenger passenger, Area area);
+
+	/**
+	 * A passenger left an {@link Area}.
+	 * 
+	 * @param passenger
+	 *            The passenger.
+	 * @param area
+	 *            The area.
+	 */
+	public void areaLeft(Passenger passenger, Area area);
+
+	/**
+	 * Determines if the listener is notified of the {@link Area}s that the
+	 * passengers enter and leave. If it is not, the passengers do not look up
+	 * the areas that contain them.
+	 * 
+	 * @return True if it is, false otherwise.
+	 */
+	public boolean isAreaListener();
+
+	/**
+	 * A passenger is removed from the map. It already left its areas and its
+	 * activity.
+	 * 
+	 * @param passenger
+	 *            The passenger.
+	 */
+	public void passengerRemoved(Passenger passenger);
+}
@@ -13,6 +13,11 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public class BasicOperatorOperationalModel extends OperationalModel {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a basic operator low level model.
 	 * 
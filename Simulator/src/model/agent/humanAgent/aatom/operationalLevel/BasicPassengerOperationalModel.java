@@ -2,6 +2,7 @@ package model.agent.humanAgent.aatom.operationalLevel;
 
 import model.agent.humanAgent.HumanAgent;
 import model.agent.humanAgent.aatom.operationalLevel.action.communication.impl.BasicPassengerCommunicationModule;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.MovementModule;
 import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.HelbingMovementModule;
 import model.agent.humanAgent.aatom.operationalLevel.observation.impl.BasicPassengerObservationModule;
 
@@ -14,6 +15,11 @@ import model.agent.humanAgent.aatom.operationalLevel.observation.impl.BasicPasse
  */
 public class BasicPassengerOperationalModel extends OperationalModel {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a basic passenger low level model, containing a
 	 * {@link HelbingMovementModule} and a
@@ -23,7 +29,17 @@ public class BasicPassengerOperationalModel extends OperationalModel {
 	 *            The desired speed.
 	 */
 	public BasicPassengerOperationalModel(double desiredSpeed) {
-		super(new HelbingMovementModule(desiredSpeed), new BasicPassengerObservationModule(),
-				new BasicPassengerCommunicationModule());
+		this(new HelbingMovementModule(desiredSpeed));
+	}
+
+	/**
+	 * Creates a basic passenger low level model, containing a specified
+	 * {@link MovementModule} and a {@link BasicPassengerObservationModule}.
+	 * 
+	 * @param movementModule
+	 *            The movement module.
+	 */
+	public BasicPassengerOperationalModel(MovementModule movementModule) {
+		super(movementModule, new BasicPassengerObservationModule(), new BasicPassengerCommunicationModule());
 	}
 }
\ No newline at end of file
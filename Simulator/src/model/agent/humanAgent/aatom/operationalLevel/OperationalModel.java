@@ -21,6 +21,10 @@ import simulation.simulation.util.Updatable;
  */
 public abstract class OperationalModel implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The movement model.
 	 */
@@ -49,6 +53,18 @@ public abstract class OperationalModel implements Updatable {
 		this.communicationModule = communicationModule;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		movementModel.catchUp(numberOfSteps, timeStep);
+	}
+
 	/**
 	 * Communicate.
 	 * 
@@ -79,6 +95,16 @@ public abstract class OperationalModel implements Updatable {
 		return movementModel.getDesiredSpeed();
 	}
 
+	/**
+	 * Gets the time (in seconds) that the model can do without updates, while
+	 * the agent stands still.
+	 * 
+	 * @return The time, 0 if the model has to be updated every step.
+	 */
+	public double getDormantTime() {
+		return movementModel.getDormantTime();
+	}
+
 	/**
 	 * Gets the next move given a certain time step.
 	 * 
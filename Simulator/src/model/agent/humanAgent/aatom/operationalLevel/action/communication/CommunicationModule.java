@@ -1,5 +1,7 @@
 package model.agent.humanAgent.aatom.operationalLevel.action.communication;
 
+import java.io.Serializable;
+
 import model.agent.humanAgent.aatom.operationalLevel.action.movement.MovementModule;
 import model.agent.humanAgent.aatom.tacticalLevel.activity.ActivityModule;
 import model.agent.humanAgent.aatom.tacticalLevel.navigation.NavigationModule;
@@ -10,8 +12,12 @@ import model.agent.humanAgent.aatom.tacticalLevel.navigation.NavigationModule;
  * 
  * @author S.A.M. Janssen
  */
-public abstract class CommunicationModule {
+public abstract class CommunicationModule implements Serializable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The movement model.
 	 */
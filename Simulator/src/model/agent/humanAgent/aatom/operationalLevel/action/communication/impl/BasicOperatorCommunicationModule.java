@@ -13,6 +13,10 @@ import model.environment.objects.physicalObject.luggage.Luggage;
  */
 public class BasicOperatorCommunicationModule extends CommunicationModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The assignment.
 	 */
@@ -11,6 +11,11 @@ import model.environment.position.Position;
  */
 public class BasicPassengerCommunicationModule extends CommunicationModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public void communicate(CommunicationType type, Object communication) {
 		if (type.equals(CommunicationType.WAIT)) {
@@ -14,6 +14,10 @@ import simulation.simulation.util.Updatable;
  */
 public abstract class MovementModule implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The agent. TODO fix
 	 */
@@ -65,6 +69,22 @@ public abstract class MovementModule implements Updatable {
 		return vector;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant, by advancing
+	 * the stop moving time as if the module had been updated. The time is
+	 * decreased step by step, so it is rounded exactly as in the updates. Once
+	 * the stop order has ended, the remaining steps do not change it.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		for (int i = 0; i < numberOfSteps && stopMovingTime != 0 && stopMovingTime != -1; i++)
+			update(timeStep);
+	}
+
 	/**
 	 * Gets the chair the agent is sitting on. Null if not sitting.
 	 * 
@@ -94,6 +114,20 @@ public abstract class MovementModule implements Updatable {
 		return desiredSpeed;
 	}
 
+	/**
+	 * Gets the time (in seconds) that the module can do without updates. The
+	 * agent does not move until its stop order ends.
+	 * 
+	 * @return The time, 0 if the module has to be updated every step.
+	 */
+	public double getDormantTime() {
+		if (stopMovingTime == -1)
+			return Double.POSITIVE_INFINITY;
+		if (stopMovingTime > 0)
+			return stopMovingTime;
+		return 0;
+	}
+
 	/**
 	 * Gets the next move. When overriding this method, please ensure that you
 	 * scalar multiply the generated vector with the timestep/1000.0, and update
@@ -167,14 +201,16 @@ public abstract class MovementModule implements Updatable {
 	 *         he will not.
 	 */
 	public boolean setSitDown(Chair chair) {
-		if (chair.isOccupied())
-			return false;
-
-		if (agent.getDistance(chair.getEntryPosition()) < 1) {
-			this.chair = chair;
-			chair.setOccupied(agent);
-			setStopOrder(-1);
-			return true;
+		synchronized (chair) {
+			if (chair.isOccupied())
+				return false;
+
+			if (agent.getDistance(chair.getEntryPosition()) < 1) {
+				this.chair = chair;
+				chair.setOccupied(agent);
+				setStopOrder(-1);
+				return true;
+			}
 		}
 		return false;
 	}
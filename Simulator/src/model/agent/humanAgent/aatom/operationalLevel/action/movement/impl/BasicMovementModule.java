@@ -13,6 +13,11 @@ import model.environment.position.Vector;
  */
 public class BasicMovementModule extends MovementModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a basic model.
 	 * 
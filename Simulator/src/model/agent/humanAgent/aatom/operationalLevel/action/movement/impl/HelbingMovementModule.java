@@ -23,35 +23,40 @@ import model.environment.position.Vector;
  */
 public class HelbingMovementModule extends MovementModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/////// HELBING CONSTANTS ///////
 	/**
 	 * Helbing constant A.
 	 */
-	private static final double A = 250;
+	protected static final double A = 250;
 	/**
 	 * Helbing constant tau.
 	 */
-	private static final double accelerationTime = 0.5;
+	protected static final double accelerationTime = 0.5;
 	/**
 	 * Helbing constant B.
 	 */
-	private static final double B = 0.1;
+	protected static final double B = 0.1;
 	/**
 	 * An error term to prevent accumulating errors.
 	 */
-	private static final double errorTerm = 0.0001;
+	protected static final double errorTerm = 0.0001;
 	/**
 	 * Helbing constant k.
 	 */
-	private static final double k = 1.2e5;
+	protected static final double k = 1.2e5;
 	/**
 	 * Helbing constant kappa.
 	 */
-	private static final double kappa = 2.4e5;
+	protected static final double kappa = 2.4e5;
 	/**
 	 * Specifies if only passengers are considered in the walking behavior.
 	 */
-	private boolean onlyPassengers;
+	protected boolean onlyPassengers;
 
 	/**
 	 * Creates a Helbing model.
@@ -85,10 +90,11 @@ public class HelbingMovementModule extends MovementModule {
 		Vector agentInteractionForce = new Vector(0, 0);
 		Collection<HumanAgent> humanAgents = observationModule.getObservation(HumanAgent.class);
 
-		// we only care about passengers
+		// we only care about passengers, unless other agents are considered
 		for (HumanAgent other : humanAgents) {
 			if (!other.equals(agent) && (other instanceof Passenger || !onlyPassengers)) {
-				if (!(((Passenger) other).getActiveActivity() instanceof CheckpointActivity)) {
+				if (!(other instanceof Passenger
+						&& ((Passenger) other).getActiveActivity() instanceof CheckpointActivity)) {
 					agentInteractionForce = agentInteractionForce.addVector(getSingleAgentInteractionForce(other));
 				}
 			}
@@ -266,7 +272,7 @@ public class HelbingMovementModule extends MovementModule {
 	 * 
 	 * @return True if it is, false otherwise.
 	 */
-	private boolean isInQueue() {
+	protected boolean isInQueue() {
 		Collection<Area> areas = observationModule.getObservation(Area.class);
 		if (areas != null) {
 			for (Area a : areas) {
@@ -0,0 +1,379 @@
+package model.agent.humanAgent.aatom.operationalLevel.action.movement.impl;
+
+import java.util.List;
+
+import model.agent.humanAgent.HumanAgent;
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.passenger.CheckpointActivity;
+import model.environment.objects.physicalObject.PhysicalObject;
+import model.environment.position.Position;
+import model.environment.position.Vector;
+
+/**
+ * A {@link HelbingMovementModule} that computes the social forces with
+ * primitive accumulators, instead of creating a new {@link Vector} for each
+ * intermediate result. The computations are performed in the same order and
+ * in the same (single) precision as the {@link HelbingMovementModule}, and the
+ * intermediate results are converted with {@link Position#toCoordinate(float)}
+ * as if they were stored in a vector, so both modules generate the same moves.
+ * Only the returned move and the current velocity are stored in new vectors.
+ * 
+ * The module itself does not allocate other objects, but the observations it
+ * uses do. Each move requests the nearby {@link HumanAgent}s and
+ * {@link PhysicalObject}s from the
+ * {@link model.agent.humanAgent.aatom.operationalLevel.observation.ObservationModule},
+ * which creates a new list (and iterator) for each request, and
+ * {@link #isInQueue()} requests the nearby areas, which creates another list.
+ * The observations are made by a module that can be replaced, so their lists
+ * are not reused here.
+ * 
+ * The distance to a {@link PhysicalObject} is computed as in
+ * {@link model.map.shapes.PolygonMapComponent#getVectorToPosition(Position)}.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class PrimitiveHelbingMovementModule extends HelbingMovementModule {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The x component of the force that is being computed.
+	 */
+	private float forceX;
+	/**
+	 * The y component of the force that is being computed.
+	 */
+	private float forceY;
+	/**
+	 * The x component of the vector that is being computed.
+	 */
+	private float vectorX;
+	/**
+	 * The y component of the vector that is being computed.
+	 */
+	private float vectorY;
+
+	/**
+	 * Creates a primitive Helbing model.
+	 * 
+	 * @param desiredSpeed
+	 *            The desired speed.
+	 */
+	public PrimitiveHelbingMovementModule(double desiredSpeed) {
+		super(desiredSpeed);
+	}
+
+	/**
+	 * Creates a primitive Helbing model.
+	 * 
+	 * @param desiredSpeed
+	 *            The desired speed.
+	 * @param onlyPassengers
+	 *            Only passengers are considered in the walking behavior or not.
+	 */
+	public PrimitiveHelbingMovementModule(double desiredSpeed, boolean onlyPassengers) {
+		super(desiredSpeed, onlyPassengers);
+	}
+
+	/**
+	 * Adds the agent interaction force to the force that is being computed.
+	 */
+	private void addAgentInteractionForce() {
+		float sumX = 0;
+		float sumY = 0;
+		Position position = getPosition();
+		for (HumanAgent other : observationModule.getObservation(HumanAgent.class)) {
+			if (!other.equals(agent) && (other instanceof Passenger || !onlyPassengers)) {
+				if (!(other instanceof Passenger
+						&& ((Passenger) other).getActiveActivity() instanceof CheckpointActivity)) {
+					setSingleAgentInteractionForce(position, other);
+					sumX = Position.toCoordinate(sumX + vectorX);
+					sumY = Position.toCoordinate(sumY + vectorY);
+				}
+			}
+		}
+		forceX = Position.toCoordinate(forceX + sumX);
+		forceY = Position.toCoordinate(forceY + sumY);
+	}
+
+	/**
+	 * Adds the physical obstacle force to the force that is being computed.
+	 */
+	private void addPhysicalObstacleForce() {
+		float sumX = 0;
+		float sumY = 0;
+		Position position = agent.getPosition();
+		for (PhysicalObject physicalObstacle : observationModule.getObservation(PhysicalObject.class)) {
+			setSinglePhysicalObstacleForce(position, physicalObstacle);
+			sumX = Position.toCoordinate(sumX + vectorX);
+			sumY = Position.toCoordinate(sumY + vectorY);
+		}
+		forceX = Position.toCoordinate(forceX + sumX);
+		forceY = Position.toCoordinate(forceY + sumY);
+	}
+
+	@Override
+	public Vector getMove(int timeStep) {
+		Position goalPosition = agent.getGoalPosition();
+		if (goalPosition.equals(Position.NO_POSITION))
+			return new Vector(0, 0);
+
+		float velocityX = currentVelocity.x;
+		float velocityY = currentVelocity.y;
+
+		// internal acceleration force
+		Position position = getPosition();
+		setNormalized(goalPosition.x - position.x, goalPosition.y - position.y);
+		float speed = isInQueue() ? 1 : (float) desiredSpeed;
+		float factor = (float) (15 / accelerationTime);
+		forceX = Position.toCoordinate(
+				factor * Position.toCoordinate(Position.toCoordinate(speed * vectorX) - velocityX));
+		forceY = Position.toCoordinate(
+				factor * Position.toCoordinate(Position.toCoordinate(speed * vectorY) - velocityY));
+
+		addAgentInteractionForce();
+		addPhysicalObstacleForce();
+
+		// take into account the small accumulating errors
+		if (length(forceX, forceY) < errorTerm) {
+			forceX = 0;
+			forceY = 0;
+		}
+
+		// delta v
+		float inverseMass = (float) (1 / agent.getMass());
+		float newSpeedX = Position.toCoordinate(velocityX + Position.toCoordinate(inverseMass * forceX));
+		float newSpeedY = Position.toCoordinate(velocityY + Position.toCoordinate(inverseMass * forceY));
+
+		// bound the speed
+		if (length(newSpeedX, newSpeedY) > 1.5 * desiredSpeed) {
+			setNormalized(newSpeedX, newSpeedY);
+			float maximumSpeed = (float) (1.5 * desiredSpeed);
+			newSpeedX = Position.toCoordinate(maximumSpeed * vectorX);
+			newSpeedY = Position.toCoordinate(maximumSpeed * vectorY);
+		}
+
+		// we have a shaking effect
+		float angle = 90 * ((float) Math.PI / 180);
+		float cos = (float) Math.cos(angle);
+		float sin = (float) Math.sin(angle);
+		float differenceX = Position.toCoordinate(newSpeedX - velocityX * cos - velocityY * sin);
+		float differenceY = Position.toCoordinate(newSpeedY - velocityY * cos + velocityX * sin);
+		if (length(differenceX, differenceY) < 0.1) {
+			setNormalized(goalPosition.x - position.x, goalPosition.y - position.y);
+			newSpeedX = Position.toCoordinate((float) desiredSpeed * vectorX);
+			newSpeedY = Position.toCoordinate((float) desiredSpeed * vectorY);
+		}
+
+		currentVelocity = new Vector(newSpeedX, newSpeedY);
+		float seconds = (float) (timeStep / 1000.0);
+		return new Vector(seconds * newSpeedX, seconds * newSpeedY);
+	}
+
+	/**
+	 * Gets the length of a vector, as {@link Vector#length()}.
+	 * 
+	 * @param x
+	 *            The x component.
+	 * @param y
+	 *            The y component.
+	 * @return The length.
+	 */
+	private static float length(float x, float y) {
+		return (float) Math.sqrt(x * x + y * y);
+	}
+
+	/**
+	 * Sets {@link #vectorX} and {@link #vectorY} to a normalized vector, as
+	 * {@link Vector#normalize()}.
+	 * 
+	 * @param x
+	 *            The x component.
+	 * @param y
+	 *            The y component.
+	 */
+	private void setNormalized(float x, float y) {
+		x = Position.toCoordinate(x);
+		y = Position.toCoordinate(y);
+		float length = length(x, y);
+		if (length == 0) {
+			vectorX = 0;
+			vectorY = 0;
+		} else {
+			vectorX = Position.toCoordinate(x / length);
+			vectorY = Position.toCoordinate(y / length);
+		}
+	}
+
+	/**
+	 * Sets {@link #vectorX} and {@link #vectorY} to the force that another
+	 * {@link HumanAgent} applies to us.
+	 * 
+	 * @param position
+	 *            Our position.
+	 * @param other
+	 *            The other agent.
+	 */
+	private void setSingleAgentInteractionForce(Position position, HumanAgent other) {
+		float dx = Position.toCoordinate(position.x - other.getPosition().x);
+		float dy = Position.toCoordinate(position.y - other.getPosition().y);
+
+		// dij (distance between centers of mass)
+		double dij = length(dx, dy);
+
+		// rij (differences between radi)
+		double rij = agent.getRadius() + other.getRadius();
+
+		// nij (normalized vector pointing from other agent to current)
+		setNormalized(dx, dy);
+		float nx = vectorX;
+		float ny = vectorY;
+
+		// tij (tangential direction)
+		float tx = -ny;
+		float ty = nx;
+		float velocityX = currentVelocity.x;
+		float velocityY = currentVelocity.y;
+		if (tx * velocityX + ty * velocityY < 0) {
+			tx = -tx;
+			ty = -ty;
+		}
+
+		// delta vji(t) (tangential velocity difference)
+		float speedX = 0;
+		float speedY = 0;
+		if (other instanceof Passenger) {
+			Vector speed = ((Passenger) other).getCurrentVelocity();
+			speedX = speed.x;
+			speedY = speed.y;
+		}
+		double deltaTij = tx * Position.toCoordinate(speedX - velocityX)
+				+ ty * Position.toCoordinate(speedY - velocityY);
+
+		// g(rij-dij)
+		double gx = rij - dij;
+
+		// [A * exp((rij-dij)/B)]*nij
+		float repulsion = (float) (A * Math.exp((rij - dij) / B));
+		vectorX = Position.toCoordinate(repulsion * nx);
+		vectorY = Position.toCoordinate(repulsion * ny);
+
+		if (gx > 0) {
+			// [k * g(rij-dij)]*nij
+			float body = (float) (k * gx);
+			vectorX = Position.toCoordinate(vectorX + Position.toCoordinate(body * nx));
+			vectorY = Position.toCoordinate(vectorY + Position.toCoordinate(body * ny));
+
+			// [kappa * g(rij-dij) * deltavji(t)]*tij
+			float friction = (float) (kappa * gx * deltaTij);
+			vectorX = Position.toCoordinate(vectorX + Position.toCoordinate(friction * tx));
+			vectorY = Position.toCoordinate(vectorY + Position.toCoordinate(friction * ty));
+		}
+	}
+
+	/**
+	 * Sets {@link #vectorX} and {@link #vectorY} to the force that a
+	 * {@link PhysicalObject} applies to us.
+	 * 
+	 * @param position
+	 *            Our position.
+	 * @param physicalObstacle
+	 *            The physical obstacle.
+	 */
+	private void setSinglePhysicalObstacleForce(Position position, PhysicalObject physicalObstacle) {
+		// niw (direction from physicalObstacle to agent) - to normalize
+		float niwX = 0;
+		float niwY = 0;
+		if (!physicalObstacle.contains(position)) {
+			List<Position> corners = physicalObstacle.getCorners();
+			double minDistance = Double.MAX_VALUE;
+			for (int i = 0; i < corners.size(); i++) {
+				setPositionToLineVector(position, corners.get(i), corners.get((i + 1) % corners.size()));
+				double currentDistance = length(vectorX, vectorY);
+				if (currentDistance < minDistance) {
+					minDistance = currentDistance;
+					niwX = vectorX;
+					niwY = vectorY;
+				}
+			}
+		}
+
+		// diw (distance between center of mass and physicalObstacle)
+		double diw = length(niwX, niwY);
+
+		// niw normalization
+		setNormalized(niwX, niwY);
+		float nx = vectorX;
+		float ny = vectorY;
+
+		// tiW (tangential direction)
+		float tx = -ny;
+		float ty = nx;
+
+		// g(ri-diw)
+		double radius = agent.getRadius();
+		double gx = 0;
+		if (radius - diw > 0) {
+			gx = radius - diw;
+		}
+
+		// [A * exp((ri-diw)/B)]*niw
+		float repulsion = (float) (A * Math.exp((radius - diw) / B));
+		vectorX = Position.toCoordinate(repulsion * nx);
+		vectorY = Position.toCoordinate(repulsion * ny);
+
+		if (gx > 0) {
+			// k * g(ri-diw)]*niw
+			float body = (float) (k * gx);
+			vectorX = Position.toCoordinate(vectorX + Position.toCoordinate(body * nx));
+			vectorY = Position.toCoordinate(vectorY + Position.toCoordinate(body * ny));
+
+			// [kappa * g(ri-diw) * viTiw]*tiw
+			float viTiw = currentVelocity.x * tx + currentVelocity.y * ty;
+			float friction = (float) (kappa * gx * viTiw);
+			vectorX = Position.toCoordinate(vectorX - Position.toCoordinate(friction * tx));
+			vectorY = Position.toCoordinate(vectorY - Position.toCoordinate(friction * ty));
+		}
+	}
+
+	/**
+	 * Sets {@link #vectorX} and {@link #vectorY} to the vector pointing from a
+	 * line to a {@link Position}, as
+	 * {@link simulation.simulation.util.Utilities#getPositionToLineVector(Position, Position, Position)}.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @param lineStart
+	 *            The starting position of a line.
+	 * @param lineEnd
+	 *            The ending position of a line.
+	 */
+	private void setPositionToLineVector(Position position, Position lineStart, Position lineEnd) {
+		float a = position.x - lineStart.x;
+		float b = position.y - lineStart.y;
+		float c = lineEnd.x - lineStart.x;
+		float d = lineEnd.y - lineStart.y;
+
+		float dot = a * c + b * d;
+		float lengthSquared = c * c + d * d;
+		float param = -1;
+		if (lengthSquared != 0)
+			param = dot / lengthSquared;
+
+		float xx, yy;
+		if (param < 0) {
+			xx = lineStart.x;
+			yy = lineStart.y;
+		} else if (param > 1) {
+			xx = lineEnd.x;
+			yy = lineEnd.y;
+		} else {
+			xx = lineStart.x + param * c;
+			yy = lineStart.y + param * d;
+		}
+		vectorX = Position.toCoordinate(position.x - xx);
+		vectorY = Position.toCoordinate(position.y - yy);
+	}
+}
@@ -3,7 +3,7 @@ package model.agent.humanAgent.aatom.operationalLevel.action.movement.impl;
 import model.agent.humanAgent.HumanAgent;
 import model.agent.humanAgent.aatom.operationalLevel.action.movement.MovementModule;
 import model.environment.position.Vector;
-import simulation.simulation.util.Utilities;
+import simulation.simulation.util.SimulationContext;
 import util.math.RandomPlus;
 
 /**
@@ -16,18 +16,25 @@ import util.math.RandomPlus;
 public class RandomMovementModule extends MovementModule {
 
 	/**
-	 * The random generator.
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The random generator, or null if the random generator of the simulation
+	 * is used.
 	 */
 	private RandomPlus random;
 
 	/**
-	 * Creates a random model.
+	 * Creates a random model that draws from the random generator of the
+	 * simulation, which is looked up at each move (see
+	 * {@link SimulationContext#current()}).
 	 * 
 	 * @param desiredSpeed
 	 *            The desired speed.
 	 */
 	public RandomMovementModule(double desiredSpeed) {
-		this(desiredSpeed, Utilities.RANDOM_GENERATOR);
+		this(desiredSpeed, null);
 	}
 
 	/**
@@ -45,6 +52,9 @@ public class RandomMovementModule extends MovementModule {
 
 	@Override
 	public Vector getMove(int timeStep) {
+		RandomPlus random = this.random;
+		if (random == null)
+			random = SimulationContext.current().getRandomGenerator();
 		double x = random.nextDouble() * 2 - 1;
 		double y = random.nextDouble() * 2 - 1;
 		currentVelocity = new Vector(x, y).scalarMultiply(desiredSpeed);
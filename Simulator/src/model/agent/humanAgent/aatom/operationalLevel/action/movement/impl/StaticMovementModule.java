@@ -11,6 +11,11 @@ import model.environment.position.Vector;
  */
 public class StaticMovementModule extends MovementModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a static model.
 	 */
@@ -1,5 +1,6 @@
 package model.agent.humanAgent.aatom.operationalLevel.observation;
 
+import java.io.Serializable;
 import java.util.Collection;
 
 import model.agent.humanAgent.aatom.operationalLevel.action.movement.MovementModule;
@@ -10,8 +11,12 @@ import model.map.Map;
  * 
  * @author S.A.M. Janssen
  */
-public abstract class ObservationModule {
+public abstract class ObservationModule implements Serializable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The movement model.
 	 */
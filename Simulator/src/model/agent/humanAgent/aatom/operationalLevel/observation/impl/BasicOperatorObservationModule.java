@@ -16,20 +16,25 @@ import simulation.simulation.util.Utilities;
  */
 public class BasicOperatorObservationModule extends ObservationModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> Collection<T> getObservation(Class<T> type) {
 		if (type.equals(HumanAgent.class)) {
-			Collection<HumanAgent> movementModelsInNeighborhood = Utilities.getMapComponentsInNeighborhood(
-					movementModel.getPosition(), 1, map.getMapComponents(HumanAgent.class));
+			Collection<HumanAgent> movementModelsInNeighborhood = map.getAgentsInNeighborhood(
+					movementModel.getPosition(), 1, HumanAgent.class);
 			return (Collection<T>) movementModelsInNeighborhood;
 		} else if (type.equals(PhysicalObject.class)) {
-			Collection<PhysicalObject> physicalObjects = Utilities.getMapComponentsInNeighborhood(
-					movementModel.getPosition(), 1, map.getMapComponents(PhysicalObject.class));
+			Collection<PhysicalObject> physicalObjects = map
+					.getPhysicalObjectsInNeighborhood(movementModel.getPosition(), 1);
 			return (Collection<T>) physicalObjects;
 		} else if (type.equals(Passenger.class)) {
-			Collection<Passenger> passengers = Utilities.getMapComponentsInNeighborhood(movementModel.getPosition(), 10,
-					map.getMapComponents(Passenger.class));
+			Collection<Passenger> passengers = map.getAgentsInNeighborhood(movementModel.getPosition(), 10,
+					Passenger.class);
 			return (Collection<T>) passengers;
 		} else if (type.equals(Area.class)) {
 			Collection<Area> area = Utilities.getMapComponentsInNeighborhood(movementModel.getPosition(), 0.1,
@@ -23,20 +23,25 @@ import simulation.simulation.util.Utilities;
  */
 public class BasicPassengerObservationModule extends ObservationModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> Collection<T> getObservation(Class<T> type) {
 		if (type.equals(HumanAgent.class)) {
-			Collection<HumanAgent> agentsInNeighborhood = Utilities.getMapComponentsInNeighborhood(
-					movementModel.getPosition(), 1, map.getMapComponents(HumanAgent.class));
+			Collection<HumanAgent> agentsInNeighborhood = map.getAgentsInNeighborhood(movementModel.getPosition(), 1,
+					HumanAgent.class);
 			return (Collection<T>) agentsInNeighborhood;
 		} else if (type.equals(PhysicalObject.class)) {
-			Collection<PhysicalObject> physicalObjects = Utilities.getMapComponentsInNeighborhood(
-					movementModel.getPosition(), 1, map.getMapComponents(PhysicalObject.class));
+			Collection<PhysicalObject> physicalObjects = map
+					.getPhysicalObjectsInNeighborhood(movementModel.getPosition(), 1);
 			return (Collection<T>) physicalObjects;
 		} else if (type.equals(Passenger.class)) {
-			Collection<Passenger> passenger = Utilities.getMapComponentsInNeighborhood(movementModel.getPosition(), 4,
-					map.getMapComponents(Passenger.class));
+			Collection<Passenger> passenger = map.getAgentsInNeighborhood(movementModel.getPosition(), 4,
+					Passenger.class);
 			return (Collection<T>) passenger;
 		} else if (type.equals(Desk.class)) {
 			Collection<Desk> desks = Utilities.getMapComponentsInNeighborhood(movementModel.getPosition(), 15,
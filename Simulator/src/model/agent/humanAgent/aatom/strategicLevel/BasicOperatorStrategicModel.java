@@ -12,6 +12,11 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public class BasicOperatorStrategicModel extends StrategicModel {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates the strategic model.
 	 * 
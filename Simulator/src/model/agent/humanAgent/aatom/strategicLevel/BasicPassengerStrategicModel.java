@@ -14,6 +14,10 @@ import util.math.distributions.MathDistribution;
  */
 public class BasicPassengerStrategicModel extends StrategicModel {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The flight.
 	 */
@@ -15,6 +15,10 @@ import simulation.simulation.util.Updatable;
  */
 public abstract class StrategicModel implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The activity planner.
 	 */
@@ -44,6 +48,20 @@ public abstract class StrategicModel implements Updatable {
 		this.beliefModule = beliefModule;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant, by advancing
+	 * the timers of the goals as if they had been updated. The update of the
+	 * beliefs does not change them.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		goalModule.catchUp(numberOfSteps, timeStep);
+	}
+
 	/**
 	 * Gets the activity planner.
 	 * 
@@ -62,6 +80,16 @@ public abstract class StrategicModel implements Updatable {
 		return beliefModule;
 	}
 
+	/**
+	 * Gets the time (in seconds) that the planner can do without updates,
+	 * while the agent stands still.
+	 * 
+	 * @return The time, 0 if the model has to be updated every step.
+	 */
+	public double getDormantTime() {
+		return planner.getDormantTime();
+	}
+
 	/**
 	 * Gets the goal module.
 	 * 
@@ -1,5 +1,7 @@
 package model.agent.humanAgent.aatom.strategicLevel.belief;
 
+import java.io.Serializable;
+
 import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
 import model.agent.humanAgent.aatom.tacticalLevel.activity.ActivityState;
 
@@ -8,8 +10,12 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.ActivityState;
  * 
  * @author S.A.M. Janssen
  */
-public class ActivityStatePair {
+public class ActivityStatePair implements Serializable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The activity type.
 	 */
@@ -1,5 +1,6 @@
 package model.agent.humanAgent.aatom.strategicLevel.belief;
 
+import java.io.Serializable;
 import java.util.List;
 
 import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
@@ -10,8 +11,12 @@ import model.environment.objects.area.Area;
  * 
  * @author S.A.M. Janssen
  */
-public class Belief {
+public class Belief implements Serializable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The location.
 	 */
@@ -17,6 +17,10 @@ import simulation.simulation.util.Updatable;
  */
 public class BeliefModule implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The historic beliefs.
 	 */
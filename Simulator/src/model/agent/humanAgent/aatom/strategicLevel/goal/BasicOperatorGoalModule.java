@@ -12,6 +12,11 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public class BasicOperatorGoalModule extends GoalModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Gets the goals for the operator.
 	 * 
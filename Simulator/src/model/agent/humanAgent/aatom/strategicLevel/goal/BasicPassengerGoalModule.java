@@ -25,6 +25,11 @@ import util.math.distributions.MathDistribution;
  */
 public class BasicPassengerGoalModule extends GoalModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Gets the goals for the passenger.
 	 * 
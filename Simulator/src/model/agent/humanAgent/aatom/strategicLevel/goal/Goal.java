@@ -10,6 +10,10 @@ import simulation.simulation.util.Updatable;
  */
 public class Goal implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The goal activity.
 	 */
@@ -58,6 +62,22 @@ public class Goal implements Updatable {
 		this.activityTime = time;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant, by advancing
+	 * the time as if the goal had been updated. The time is increased step by
+	 * step, so it is rounded exactly as in the updates, until the goal is no
+	 * longer in progress.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		for (int i = 0; i < numberOfSteps && goalState == GoalState.IN_PROGRESS; i++)
+			update(timeStep);
+	}
+
 	/**
 	 * Gets the goal activity.
 	 * 
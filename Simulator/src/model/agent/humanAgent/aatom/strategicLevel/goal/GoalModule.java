@@ -13,6 +13,10 @@ import simulation.simulation.util.Updatable;
  */
 public abstract class GoalModule implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The goals.
 	 */
@@ -28,6 +32,20 @@ public abstract class GoalModule implements Updatable {
 		this.goals = goals;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant, by advancing
+	 * the timers of the goals as if they had been updated.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		for (Goal g : goals)
+			g.catchUp(numberOfSteps, timeStep);
+	}
+
 	/**
 	 * Gets the goal activities.
 	 * 
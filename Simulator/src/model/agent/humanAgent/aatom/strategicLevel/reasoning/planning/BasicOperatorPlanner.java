@@ -12,6 +12,10 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public class BasicOperatorPlanner extends PlanningModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The assignment.
 	 */
@@ -20,6 +20,10 @@ import model.environment.objects.flight.Flight;
  */
 public class BasicPassengerPlanner extends PlanningModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The flight.
 	 */
@@ -55,6 +59,24 @@ public class BasicPassengerPlanner extends PlanningModule {
 		return null;
 	}
 
+	/**
+	 * Gets the time that the planner can do without updates. The planning
+	 * only changes if the next activity finishes, or if the next activity is a
+	 * facility activity and the flight leaves within 30 minutes. The time
+	 * until then is halved, since the time to the flight is kept in single
+	 * precision.
+	 * 
+	 * @return The time, 0 if the planner has to be updated every step.
+	 */
+	@Override
+	public double getDormantTime() {
+		if (planning.isEmpty() || planning.get(0).isFinished())
+			return 0;
+		if (planning.get(0).equals(getActivityFromType(FacilityActivity.class)))
+			return Math.max(0, (flight.getTimeToFlight() - 1800) / 2);
+		return Double.POSITIVE_INFINITY;
+	}
+
 	@Override
 	public Activity getNextActivity() {
 		if (planning.isEmpty())
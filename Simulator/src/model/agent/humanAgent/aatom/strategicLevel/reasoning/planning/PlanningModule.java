@@ -14,6 +14,10 @@ import simulation.simulation.util.Updatable;
  */
 public abstract class PlanningModule implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The planning.
 	 */
@@ -23,6 +27,17 @@ public abstract class PlanningModule implements Updatable {
 	 */
 	protected GoalModule goalModule;
 
+	/**
+	 * Gets the time (in seconds) that the planner can do without updates,
+	 * while the agent stands still. By default, the planner has to be updated
+	 * every step.
+	 * 
+	 * @return The time, 0 if the planner has to be updated every step.
+	 */
+	public double getDormantTime() {
+		return 0;
+	}
+
 	/**
 	 * Gets the next activity.
 	 * 
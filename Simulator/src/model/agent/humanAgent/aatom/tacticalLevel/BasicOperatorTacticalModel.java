@@ -11,6 +11,11 @@ import model.agent.humanAgent.aatom.tacticalLevel.navigation.OperatorNavigationM
  */
 public class BasicOperatorTacticalModel extends TacticalModel {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a new operator tactical model.
 	 * 
@@ -15,6 +15,11 @@ import model.environment.objects.flight.Flight;
  */
 public class BasicPassengerTacticalModel extends TacticalModel {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a basic high level model with a certain desired speed.
 	 * 
@@ -21,6 +21,10 @@ import simulation.simulation.util.Updatable;
  */
 public abstract class TacticalModel implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The activity module.
 	 */
@@ -43,6 +47,19 @@ public abstract class TacticalModel implements Updatable {
 		this.navigationModule = navigationModule;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		activityModule.catchUp(numberOfSteps, timeStep);
+		navigationModule.catchUp(numberOfSteps, timeStep);
+	}
+
 	/**
 	 * Gets the active {@link Activity}.
 	 * 
@@ -70,6 +87,19 @@ public abstract class TacticalModel implements Updatable {
 		return activityModule;
 	}
 
+	/**
+	 * Gets the time (in seconds) that the model can do without updates, while
+	 * the agent stands still.
+	 * 
+	 * @return The time, 0 if the model has to be updated every step.
+	 */
+	public double getDormantTime() {
+		double time = activityModule.getDormantTime();
+		if (time > 0)
+			time = Math.min(time, navigationModule.getDormantTime());
+		return time;
+	}
+
 	/**
 	 * Gets the goal {@link Position}.
 	 * 
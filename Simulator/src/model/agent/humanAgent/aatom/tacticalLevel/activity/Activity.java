@@ -17,6 +17,10 @@ import simulation.simulation.util.Updatable;
  */
 public abstract class Activity implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The movement model.
 	 */
@@ -59,6 +63,19 @@ public abstract class Activity implements Updatable {
 	 */
 	public abstract boolean canStart(int timeStep);
 
+	/**
+	 * Catches up with the steps in which the agent was dormant, by advancing
+	 * the timers of the activity as if it had been updated. See
+	 * {@link #getDormantTime()}.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+	}
+
 	/**
 	 * Starts the activity.
 	 */
@@ -82,6 +99,20 @@ public abstract class Activity implements Updatable {
 		return activityState;
 	}
 
+	/**
+	 * Gets the time (in seconds) that the activity can do without updates,
+	 * while the agent stands still. In that time the update of the activity
+	 * may only advance timers, which are advanced afterwards by
+	 * {@link #catchUp(int, int)}. An agent of which the activity returns a
+	 * positive time can be made dormant, such that it is skipped by the
+	 * simulation. By default, the activity has to be updated every step.
+	 * 
+	 * @return The time, 0 if the activity has to be updated every step.
+	 */
+	public double getDormantTime() {
+		return 0;
+	}
+
 	/**
 	 * Sends the agent to the activity area.
 	 * 
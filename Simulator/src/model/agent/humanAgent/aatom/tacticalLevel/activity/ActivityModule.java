@@ -22,6 +22,10 @@ import simulation.simulation.util.Updatable;
  */
 public class ActivityModule implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * All activities of the agent.
 	 */
@@ -35,6 +39,21 @@ public class ActivityModule implements Updatable {
 	 */
 	protected PlanningModule planningModule;
 
+	/**
+	 * Catches up with the steps in which the agent was dormant. See
+	 * {@link #getDormantTime()}.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		Activity current = planningModule.getNextActivity();
+		if (current != null)
+			current.catchUp(numberOfSteps, timeStep);
+	}
+
 	/**
 	 * Gets the active activity.
 	 * 
@@ -62,6 +81,25 @@ public class ActivityModule implements Updatable {
 		return activities;
 	}
 
+	/**
+	 * Gets the time (in seconds) that the module can do without updates, while
+	 * the agent stands still. That is the case if the next activity is in
+	 * progress and can do without updates (see
+	 * {@link Activity#getDormantTime()}), and the agent does not start
+	 * queuing.
+	 * 
+	 * @return The time, 0 if the module has to be updated every step.
+	 */
+	public double getDormantTime() {
+		Activity current = planningModule.getNextActivity();
+		if (current == null || !current.isInProgress() || current != getActiveActivity())
+			return 0;
+		double time = current.getDormantTime();
+		if (time > 0 && queueActivity != null)
+			time = Math.min(time, queueActivity.getDormantTime());
+		return time;
+	}
+
 	/**
 	 * Get the next activity.
 	 * 
@@ -10,6 +10,10 @@ import model.environment.objects.physicalObject.luggage.Luggage;
  */
 public abstract class LuggageCheckActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The luggage to search.
 	 */
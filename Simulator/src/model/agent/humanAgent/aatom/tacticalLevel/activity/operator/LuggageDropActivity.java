@@ -9,4 +9,9 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public abstract class LuggageDropActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 }
@@ -9,4 +9,9 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public abstract class OperatorBorderControlActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 }
@@ -7,4 +7,9 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public abstract class OperatorCheckInActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 }
\ No newline at end of file
@@ -10,4 +10,9 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public abstract class PhysicalCheckActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 }
@@ -16,6 +16,10 @@ import util.math.distributions.NormalDistribution;
  */
 public class BasicETDCheckActivity extends ETDCheckActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The WTMD.
 	 */
@@ -14,6 +14,10 @@ import util.math.distributions.NormalDistribution;
  */
 public class BasicLuggageCheckActivity extends LuggageCheckActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The time distribution.
 	 */
@@ -10,6 +10,11 @@ import model.environment.position.Position;
  */
 public class BasicLuggageDropActivity extends LuggageDropActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public boolean canStart(int timeStep) {
 		return true;
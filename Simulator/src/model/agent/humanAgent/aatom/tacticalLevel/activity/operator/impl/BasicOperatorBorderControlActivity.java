@@ -18,6 +18,10 @@ import util.math.distributions.MathDistribution;
  */
 public class BasicOperatorBorderControlActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The {@link Passenger}s that he already instructed.
 	 */
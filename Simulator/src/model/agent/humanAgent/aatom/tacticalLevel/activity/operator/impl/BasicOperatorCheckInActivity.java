@@ -15,6 +15,10 @@ import util.math.distributions.MathDistribution;
  */
 public class BasicOperatorCheckInActivity extends OperatorCheckInActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The {@link Passenger}s that he already instructed.
 	 */
@@ -14,6 +14,10 @@ import model.environment.position.Position;
  */
 public class BasicPhysicalCheckActivity extends PhysicalCheckActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The wtmd.
 	 */
@@ -12,6 +12,11 @@ import model.environment.position.Position;
  */
 public class BasicTravelDocumentCheckActivity extends TravelDocumentCheckActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public boolean canStart(int timeStep) {
 		return false;
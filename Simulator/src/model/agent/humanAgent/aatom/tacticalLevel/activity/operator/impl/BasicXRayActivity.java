@@ -7,22 +7,64 @@ import model.environment.objects.physicalObject.luggage.Luggage;
 import model.environment.objects.physicalObject.sensor.Observation;
 import model.environment.objects.physicalObject.sensor.XRaySystem;
 import model.environment.position.Position;
+import simulation.simulation.util.SimulationContext;
+import simulation.simulation.util.TimedEvent;
+import simulation.simulation.util.TimingWheel;
 
 /**
- * The x-ray activity.
+ * The x-ray activity. After an observation, the x-ray system is paused while
+ * the x-ray agent recovers. The end of the recovery is an event on the
+ * {@link TimingWheel}.
  * 
  * @author S.A.M. Janssen
  */
 public class BasicXRayActivity extends XRayActivity {
 
 	/**
-	 * The x-ray system.
+	 * The event that ends the recovery of the x-ray agent.
+	 * 
+	 * @author S.A.M. Janssen
 	 */
-	private XRaySystem xRaySystem;
+	private static class RecoveryEvent implements TimedEvent {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The activity.
+		 */
+		private final BasicXRayActivity activity;
+
+		/**
+		 * Creates the event.
+		 * 
+		 * @param activity
+		 *            The activity.
+		 */
+		private RecoveryEvent(BasicXRayActivity activity) {
+			this.activity = activity;
+		}
+
+		@Override
+		public void fire(long step) {
+			activity.xRaySystem.pauseSystem(false);
+			activity.endActivity();
+		}
+	}
+
 	/**
-	 * The recovery time of an x-ray agent.
+	 * Serial version UID.
 	 */
-	private double recoverTime;
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The recovery time (in seconds) of an x-ray agent.
+	 */
+	private static final double RECOVERY_TIME = 3.0;
+	/**
+	 * The x-ray system.
+	 */
+	private XRaySystem xRaySystem;
 	/**
 	 * The threat level threshold.
 	 */
@@ -91,20 +133,19 @@ public class BasicXRayActivity extends XRayActivity {
 			bagChecker.communicate(CommunicationType.SEARCH, luggage);
 		}
 
-		recoverTime = 3.0;
 		xRaySystem.pauseSystem(true);
 		super.startActivity();
+
+		// the recovery is counted from the step after the start
+		SimulationContext context = map.getContext();
+		TimingWheel timingWheel = context.getTimingWheel();
+		long recoverySteps = (long) Math.ceil(RECOVERY_TIME * 1000 / context.getTimeStep());
+		timingWheel.schedule(timingWheel.getCurrentStep() + 1 + recoverySteps, new RecoveryEvent(this));
 	}
 
 	@Override
 	public void update(int timeStep) {
-		recoverTime -= timeStep / 1000.0;
-
-		if (recoverTime > 0)
-			return;
-
-		xRaySystem.pauseSystem(false);
-		endActivity();
+		// the recovery is ended by the timing wheel
 	}
 
 }
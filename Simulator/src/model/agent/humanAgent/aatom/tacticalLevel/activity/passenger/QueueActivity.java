@@ -16,6 +16,10 @@ import util.math.FastMath;
  */
 public class QueueActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The time the agent is queuing.
 	 */
@@ -70,6 +74,20 @@ public class QueueActivity extends Activity {
 		movement.setStopOrder(0);
 	}
 
+	/**
+	 * Gets the time that the activity can do without updates. The activity
+	 * only starts in a queuing area, so an agent that stands still outside a
+	 * queuing area never starts queuing.
+	 * 
+	 * @return The time, 0 if the activity has to be updated every step.
+	 */
+	@Override
+	public double getDormantTime() {
+		if (isInProgress() || inFrontOfQueue || isInQueue())
+			return 0;
+		return Double.POSITIVE_INFINITY;
+	}
+
 	@Override
 	public Position getActivityPosition() {
 		return Position.NO_POSITION;
@@ -13,6 +13,11 @@ import model.environment.position.Position;
  */
 public class BasicExitActivity extends ExitActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public boolean canStart(int timeStep) {
 		return true;
@@ -16,6 +16,10 @@ import model.environment.position.Position;
  */
 public class BasicFacilityActivity extends FacilityActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The current facility.
 	 */
@@ -85,6 +89,21 @@ public class BasicFacilityActivity extends FacilityActivity {
 		return currentFacility.getPosition();
 	}
 
+	/**
+	 * Gets the time that the activity can do without updates. An agent that
+	 * waits in a restaurant or toilet only needs an update when the waiting
+	 * time has passed.
+	 * 
+	 * @return The time, 0 if the activity has to be updated every step.
+	 */
+	@Override
+	public double getDormantTime() {
+		if ((currentFacility instanceof Restaurant || currentFacility instanceof Toilet) && waited
+				&& navigationModule.getReachedGoal() && movement.getStopMovingTime() > 0)
+			return movement.getStopMovingTime();
+		return 0;
+	}
+
 	/**
 	 * Determine if there is a goal position in the current shop.
 	 * 
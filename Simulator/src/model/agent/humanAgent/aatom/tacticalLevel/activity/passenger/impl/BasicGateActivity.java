@@ -13,6 +13,10 @@ import model.environment.position.Position;
  */
 public class BasicGateActivity extends GateActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The chosen chair.
 	 */
@@ -47,11 +51,36 @@ public class BasicGateActivity extends GateActivity {
 		return false;
 	}
 
+	@Override
+	public void catchUp(int numberOfSteps, int timeStep) {
+		if (movement.isSitting() || chair != null || timer < 0)
+			return;
+		// the timer is increased step by step, as in the updates
+		for (int i = 0; i < numberOfSteps; i++)
+			timer += timeStep / 1000.0;
+	}
+
 	@Override
 	public Position getActivityPosition() {
 		return gateArea.getCorners().get(0);
 	}
 
+	/**
+	 * Gets the time that the activity can do without updates. A sitting agent
+	 * does not need updates, and an agent that waits because all chairs are
+	 * taken only needs an update when it looks for a chair again.
+	 * 
+	 * @return The time, 0 if the activity has to be updated every step.
+	 */
+	@Override
+	public double getDormantTime() {
+		if (movement.isSitting())
+			return Double.POSITIVE_INFINITY;
+		if (chair == null && timer >= 0 && movement.getStopMovingTime() == -1)
+			return 600 - timer;
+		return 0;
+	}
+
 	@Override
 	public void goToActivity() {
 		if (isGoingToActivity())
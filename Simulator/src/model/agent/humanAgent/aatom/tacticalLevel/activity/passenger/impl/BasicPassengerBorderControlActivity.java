@@ -19,6 +19,10 @@ import model.environment.position.Vector;
  */
 public class BasicPassengerBorderControlActivity extends Activity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The gate.
 	 */
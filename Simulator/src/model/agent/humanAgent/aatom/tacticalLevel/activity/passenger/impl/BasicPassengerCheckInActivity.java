@@ -18,6 +18,10 @@ import model.environment.position.Vector;
  */
 public class BasicPassengerCheckInActivity extends PassengerCheckInActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The flight of the agent.
 	 */
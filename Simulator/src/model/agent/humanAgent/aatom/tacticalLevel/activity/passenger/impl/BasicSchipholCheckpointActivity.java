@@ -21,6 +21,10 @@ import util.math.distributions.MathDistribution;
  */
 public class BasicSchipholCheckpointActivity extends CheckpointActivity {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The x-ray system that the agent is assigned to.
 	 */
@@ -1,44 +1,285 @@
 package model.agent.humanAgent.aatom.tacticalLevel.navigation;
 
+import java.awt.geom.Path2D;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
 import model.environment.objects.physicalObject.PhysicalObject;
 import model.environment.position.Position;
 import model.map.Map;
+import model.map.shapes.PathShape;
 import model.map.shapes.PolygonMapComponent;
+import simulation.simulation.util.SimulationContext;
+import simulation.simulation.util.Utilities;
 
 /**
- * The discretized version of the map used for navigation. It follows the
- * singleton design pattern.
+ * The discretized version of the map used for navigation. Each
+ * {@link SimulationContext} holds one discretized map per precision, which can
+ * be obtained through {@link SimulationContext#getDiscretizedMap(double)}.
+ * 
+ * A tile is blocked if its square collides with a {@link PhysicalObject}. The
+ * objects are rasterized in parallel, each within its own bounding box.
  * 
  * @author S.A.M. Janssen
  */
-public final class DiscretizedMap {
-
-	/**
-	 * Singleton object.
-	 */
-	private static DiscretizedMap instance;
-	/**
-	 * The corresponding map.
-	 */
-	private static Map instanceMap;
+public final class DiscretizedMap implements Serializable {
 
 	/**
-	 * Gets the singleton instance of the map.
+	 * Rasterizes a range of {@link PhysicalObject}s on a {@link ForkJoinPool}.
+	 * The range is split until it contains at most {@link #THRESHOLD} objects.
 	 * 
-	 * @param map
-	 *            The map.
-	 * @param precision
-	 *            The precision.
-	 * @return The discretized map object.
+	 * @author S.A.M. Janssen
 	 */
-	public static DiscretizedMap getInstance(Map map, double precision) {
-		if (instance == null || (instanceMap != null && !instanceMap.equals(map))) {
-			instance = new DiscretizedMap(map, precision);
-			instanceMap = map;
+	private static class RasterizeTask extends RecursiveAction {
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The maximum number of objects that is rasterized without splitting.
+		 */
+		private static final int THRESHOLD = 8;
+		/**
+		 * The objects.
+		 */
+		private final List<PolygonMapComponent> objects;
+		/**
+		 * The first index (inclusive).
+		 */
+		private final int from;
+		/**
+		 * The last index (exclusive).
+		 */
+		private final int to;
+		/**
+		 * The precision.
+		 */
+		private final double precision;
+		/**
+		 * The number of tiles in the x direction.
+		 */
+		private final int xSize;
+		/**
+		 * The number of tiles in the y direction.
+		 */
+		private final int ySize;
+		/**
+		 * The blocked tiles, one bit per tile, by row.
+		 */
+		private final AtomicLongArray tiles;
+
+		/**
+		 * Creates the task.
+		 * 
+		 * @param objects
+		 *            The objects.
+		 * @param from
+		 *            The first index (inclusive).
+		 * @param to
+		 *            The last index (exclusive).
+		 * @param precision
+		 *            The precision.
+		 * @param xSize
+		 *            The number of tiles in the x direction.
+		 * @param ySize
+		 *            The number of tiles in the y direction.
+		 * @param tiles
+		 *            The blocked tiles, one bit per tile, by row.
+		 */
+		private RasterizeTask(List<PolygonMapComponent> objects, int from, int to, double precision, int xSize,
+				int ySize, AtomicLongArray tiles) {
+			this.objects = objects;
+			this.from = from;
+			this.to = to;
+			this.precision = precision;
+			this.xSize = xSize;
+			this.ySize = ySize;
+			this.tiles = tiles;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				Path2D.Float tile = new Path2D.Float();
+				boolean[] boundary = new boolean[xSize];
+				for (int i = from; i < to; i++)
+					rasterize(objects.get(i).getCorners(), tile, boundary);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RasterizeTask(objects, from, middle, precision, xSize, ySize, tiles),
+						new RasterizeTask(objects, middle, to, precision, xSize, ySize, tiles));
+			}
+		}
+
+		/**
+		 * Determines if a tile collides with an object. This gives the same
+		 * result as {@link PolygonMapComponent#isCollision(PolygonMapComponent)}
+		 * for the square of the tile, without creating it.
+		 * 
+		 * @param x
+		 *            The x coordinate of the tile.
+		 * @param y
+		 *            The y coordinate of the tile.
+		 * @param corners
+		 *            The corners of the object.
+		 * @param shape
+		 *            The shape of the object.
+		 * @param tile
+		 *            The path that is used for the shape of the tile.
+		 * @return True if they collide, false otherwise.
+		 */
+		private boolean isCollision(int x, int y, List<Position> corners, PathShape shape, Path2D.Float tile) {
+			// the corners of the tile, rounded as the positions of a shape
+			float left = Position.toCoordinate((float) (x * precision));
+			float top = Position.toCoordinate((float) (y * precision));
+			float right = Position.toCoordinate((float) (left + precision));
+			float bottom = Position.toCoordinate((float) (top + precision));
+			float[] tileX = { left, right, right, left };
+			float[] tileY = { top, top, bottom, bottom };
+
+			tile.reset();
+			tile.moveTo(left, top);
+			tile.lineTo(right, top);
+			tile.lineTo(right, bottom);
+			tile.lineTo(left, bottom);
+			tile.closePath();
+			for (Position corner : corners) {
+				if (tile.contains(corner.x, corner.y))
+					return true;
+			}
+			for (int i = 0; i < 4; i++) {
+				if (shape.contains(tileX[i], tileY[i]))
+					return true;
+			}
+			for (int i = 0; i < 4; i++) {
+				for (int j = 0; j < corners.size(); j++) {
+					Position start = corners.get(j);
+					Position end = corners.get((j + 1) % corners.size());
+					if (Utilities.isLineCollision(tileX[i], tileY[i], tileX[(i + 1) % 4], tileY[(i + 1) % 4], start.x,
+							start.y, end.x, end.y))
+						return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * Rasterizes an object. The rows of its bounding box are scanned one
+		 * by one. The tiles that lie close to an edge of the object are tested
+		 * one by one, while the tiles between them lie either completely
+		 * inside or completely outside the object, so only the first tile of
+		 * such a run is tested.
+		 * 
+		 * @param corners
+		 *            The corners of the object.
+		 * @param tile
+		 *            The path that is used for the shape of a tile.
+		 * @param boundary
+		 *            The array that is used to mark the tiles close to an
+		 *            edge, with one entry per column.
+		 */
+		private void rasterize(List<Position> corners, Path2D.Float tile, boolean[] boundary) {
+			PathShape shape = new PathShape(corners);
+			double minimumX = Double.POSITIVE_INFINITY;
+			double minimumY = Double.POSITIVE_INFINITY;
+			double maximumX = Double.NEGATIVE_INFINITY;
+			double maximumY = Double.NEGATIVE_INFINITY;
+			for (Position corner : corners) {
+				minimumX = Math.min(minimumX, corner.x);
+				minimumY = Math.min(minimumY, corner.y);
+				maximumX = Math.max(maximumX, corner.x);
+				maximumY = Math.max(maximumY, corner.y);
+			}
+			// tiles that lie more than one tile outside the bounding box
+			// cannot collide
+			int firstColumn = Math.max(0, (int) Math.floor(minimumX / precision) - 1);
+			int lastColumn = Math.min(xSize - 1, (int) Math.floor(maximumX / precision) + 1);
+			int firstRow = Math.max(0, (int) Math.floor(minimumY / precision) - 1);
+			int lastRow = Math.min(ySize - 1, (int) Math.floor(maximumY / precision) + 1);
+			// the object lies outside the map
+			if (firstColumn > lastColumn || firstRow > lastRow)
+				return;
+			double margin = precision / 4;
+
+			for (int row = firstRow; row <= lastRow; row++) {
+				// mark the tiles within the margin of an edge
+				Arrays.fill(boundary, firstColumn, lastColumn + 1, false);
+				double top = row * precision - margin;
+				double bottom = (row + 1) * precision + margin;
+				for (int i = 0; i < corners.size(); i++) {
+					Position start = corners.get(i);
+					Position end = corners.get((i + 1) % corners.size());
+					if (Math.max(start.y, end.y) < top || Math.min(start.y, end.y) > bottom)
+						continue;
+					double left = Math.min(start.x, end.x);
+					double right = Math.max(start.x, end.x);
+					if (start.y != end.y) {
+						double first = Math.max(0, Math.min(1, (top - start.y) / (end.y - start.y)));
+						double second = Math.max(0, Math.min(1, (bottom - start.y) / (end.y - start.y)));
+						left = start.x + Math.min(first, second) * (end.x - start.x);
+						right = start.x + Math.max(first, second) * (end.x - start.x);
+						if (left > right) {
+							double swap = left;
+							left = right;
+							right = swap;
+						}
+					}
+					int firstMarked = Math.max(firstColumn, (int) Math.floor((left - margin) / precision));
+					int lastMarked = Math.min(lastColumn, (int) Math.floor((right + margin) / precision));
+					for (int column = firstMarked; column <= lastMarked; column++)
+						boundary[column] = true;
+				}
+
+				boolean run = false;
+				boolean runBlocked = false;
+				for (int column = firstColumn; column <= lastColumn; column++) {
+					boolean blocked;
+					if (boundary[column]) {
+						blocked = isCollision(column, row, corners, shape, tile);
+						run = false;
+					} else {
+						if (!run)
+							runBlocked = isCollision(column, row, corners, shape, tile);
+						run = true;
+						blocked = runBlocked;
+					}
+					if (blocked)
+						set(row * xSize + column);
+				}
+			}
+		}
+
+		/**
+		 * Marks a tile as blocked.
+		 * 
+		 * @param index
+		 *            The index of the tile.
+		 */
+		private void set(int index) {
+			long bit = 1L << index;
+			int word = index >>> 6;
+			while (true) {
+				long value = tiles.get(word);
+				if ((value & bit) != 0 || tiles.compareAndSet(word, value, value | bit))
+					return;
+			}
 		}
-		return instance;
 	}
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The pool on which the objects are rasterized, which is shared by all
+	 * discretized maps. It is created when it is first needed.
+	 */
+	private static ForkJoinPool pool;
 	/**
 	 * A discrete version of the {@link Map}.
 	 */
@@ -48,26 +289,27 @@ public final class DiscretizedMap {
 	 * This constructor can be used if you have a boolean representation of the
 	 * map already. This saves computational time for larger maps. To generate a
 	 * boolean representation, use the {@link DiscretizedMap#printMap()}
-	 * function after generating the map using the standard
-	 * {@link DiscretizedMap#getInstance(Map, double)} method.
+	 * function after generating the map using
+	 * {@link SimulationContext#getDiscretizedMap(double)}. Use
+	 * {@link SimulationContext#setDiscretizedMap(double, DiscretizedMap)} to
+	 * use the representation in a simulation.
 	 * 
 	 * @param discretizedMap
 	 *            The boolean representation of the map.
 	 */
 	public DiscretizedMap(boolean[][] discretizedMap) {
 		this.discretizedMap = discretizedMap;
-		instance = this;
 	}
 
 	/**
-	 * Private method to prevent object creation.
+	 * Creates a discrete version of a {@link Map}.
 	 * 
-	 * @param precision
-	 *            The precision.
 	 * @param map
 	 *            The map.
+	 * @param precision
+	 *            The precision.
 	 */
-	private DiscretizedMap(Map map, double precision) {
+	public DiscretizedMap(Map map, double precision) {
 		discretizedMap = discretizeMap(map, precision);
 	}
 
@@ -87,41 +329,46 @@ public final class DiscretizedMap {
 
 		int xSize = (int) (map.getWidth() / precision);
 		int ySize = (int) (map.getHeight() / precision);
-		boolean[][] discreteMap = new boolean[ySize][xSize];
+		List<PolygonMapComponent> objects = new ArrayList<PolygonMapComponent>(
+				map.getMapComponents(PhysicalObject.class));
+		AtomicLongArray tiles = new AtomicLongArray((int) (((long) xSize * ySize + 63) >>> 6));
+		RasterizeTask task = new RasterizeTask(objects, 0, objects.size(), precision, xSize, ySize, tiles);
+		if (objects.size() <= RasterizeTask.THRESHOLD) {
+			task.compute();
+		} else {
+			getPool().invoke(task);
+		}
 
-		for (int i = 0; i < xSize; i++) {
-			for (int j = 0; j < ySize; j++) {
-				for (PolygonMapComponent shape : map.getMapComponents(PhysicalObject.class)) {
-					if (getShape(new Position(i * precision, j * precision), precision).isCollision(shape)) {
-						discreteMap[j][i] = true;
-					}
-				}
+		boolean[][] discreteMap = new boolean[ySize][xSize];
+		for (int j = 0; j < ySize; j++) {
+			for (int i = 0; i < xSize; i++) {
+				int index = j * xSize + i;
+				discreteMap[j][i] = (tiles.get(index >>> 6) & (1L << index)) != 0;
 			}
 		}
 		return discreteMap;
 	}
 
 	/**
-	 * Gets the map.
+	 * Gets the pool on which the objects are rasterized, and creates it the
+	 * first time. Its threads are daemon threads, so the pool does not have to
+	 * be shut down.
 	 * 
-	 * @return The map.
+	 * @return The pool.
 	 */
-	public boolean[][] getMap() {
-		return discretizedMap;
+	private static synchronized ForkJoinPool getPool() {
+		if (pool == null)
+			pool = new ForkJoinPool();
+		return pool;
 	}
 
 	/**
-	 * Gets the shape of a tile based on the position and radius.
+	 * Gets the map.
 	 * 
-	 * @param position
-	 *            The position.
-	 * @param radius
-	 *            The radius.
-	 * @return The shape.
+	 * @return The map.
 	 */
-	private PolygonMapComponent getShape(final Position position, final double radius) {
-		return new PolygonMapComponent(position.x, position.y, radius, radius) {
-		};
+	public boolean[][] getMap() {
+		return discretizedMap;
 	}
 
 	/**
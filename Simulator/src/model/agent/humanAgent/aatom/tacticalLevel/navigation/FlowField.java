@@ -0,0 +1,316 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.Arrays;
+
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * A flow field stores, for each tile of a {@link DiscretizedMap}, the direction
+ * of the shortest path towards a single destination tile. It is computed once
+ * with Dijkstra's algorithm starting from the destination, after which the
+ * next tile on the shortest path from any tile can be found in constant time.
+ * This makes flow fields useful for destinations that are used by many agents,
+ * such as queues, desks and gates. Flow fields are shared through
+ * {@link SimulationContext#getFlowField(double, int, int)}.
+ * 
+ * Tiles are connected to their eight neighbors. Diagonal steps are only
+ * allowed if both tiles next to the diagonal are free, so paths do not cut the
+ * corners of obstacles. The destination tile itself is always considered free,
+ * since destinations are often located next to or inside an obstacle (for
+ * instance a desk).
+ * 
+ * @author S.A.M. Janssen
+ */
+public final class FlowField {
+
+	/**
+	 * No direction, for the destination and for tiles that cannot reach it.
+	 */
+	private static final byte NO_DIRECTION = -1;
+	/**
+	 * The x offsets of the directions.
+	 */
+	private static final int[] DX = { 1, 1, 0, -1, -1, -1, 0, 1 };
+	/**
+	 * The y offsets of the directions.
+	 */
+	private static final int[] DY = { 0, 1, 1, 1, 0, -1, -1, -1 };
+	/**
+	 * The length of a diagonal step.
+	 */
+	private static final float DIAGONAL = (float) Math.sqrt(2);
+
+	/**
+	 * The width of the field (in tiles).
+	 */
+	private final int width;
+	/**
+	 * The height of the field (in tiles).
+	 */
+	private final int height;
+	/**
+	 * The x coordinate of the destination tile.
+	 */
+	private final int destinationX;
+	/**
+	 * The y coordinate of the destination tile.
+	 */
+	private final int destinationY;
+	/**
+	 * The direction of the next tile of each tile, as an index in {@link #DX}
+	 * and {@link #DY}.
+	 */
+	private final byte[] directions;
+
+	/**
+	 * Creates a flow field towards a destination tile. The destination is
+	 * moved inside the map if it lies outside.
+	 * 
+	 * @param discretizedMap
+	 *            The discretized map, where true means that a tile is blocked.
+	 * @param destinationX
+	 *            The x coordinate of the destination tile.
+	 * @param destinationY
+	 *            The y coordinate of the destination tile.
+	 */
+	public FlowField(boolean[][] discretizedMap, int destinationX, int destinationY) {
+		height = discretizedMap.length;
+		width = height == 0 ? 0 : discretizedMap[0].length;
+		if (width == 0)
+			throw new IllegalArgumentException("The discretized map cannot be empty.");
+		this.destinationX = Math.max(0, Math.min(width - 1, destinationX));
+		this.destinationY = Math.max(0, Math.min(height - 1, destinationY));
+		directions = new byte[width * height];
+		Arrays.fill(directions, NO_DIRECTION);
+		compute(discretizedMap);
+	}
+
+	/**
+	 * Computes the directions with Dijkstra's algorithm, starting from the
+	 * destination. The priority queue is a binary heap of tiles, in which
+	 * outdated entries are skipped instead of removed.
+	 * 
+	 * @param discretizedMap
+	 *            The discretized map.
+	 */
+	private void compute(boolean[][] discretizedMap) {
+		float[] distances = new float[width * height];
+		Arrays.fill(distances, Float.MAX_VALUE);
+		boolean[] closed = new boolean[width * height];
+		int destination = getTile(destinationX, destinationY);
+		distances[destination] = 0;
+
+		float[] heapDistances = new float[64];
+		int[] heapTiles = new int[64];
+		int heapSize = 0;
+		heapDistances[0] = 0;
+		heapTiles[0] = destination;
+		heapSize++;
+
+		while (heapSize > 0) {
+			// take the tile with the smallest distance from the heap
+			int tile = heapTiles[0];
+			float distance = heapDistances[0];
+			heapSize--;
+			siftDown(heapDistances, heapTiles, heapSize, heapDistances[heapSize], heapTiles[heapSize]);
+			if (closed[tile])
+				continue;
+			closed[tile] = true;
+
+			int x = tile % width;
+			int y = tile / width;
+			for (int direction = 0; direction < DX.length; direction++) {
+				int neighborX = x + DX[direction];
+				int neighborY = y + DY[direction];
+				if (!isFree(discretizedMap, neighborX, neighborY))
+					continue;
+				boolean diagonal = DX[direction] != 0 && DY[direction] != 0;
+				if (diagonal && (!isFree(discretizedMap, neighborX, y) || !isFree(discretizedMap, x, neighborY)))
+					continue;
+				int neighbor = getTile(neighborX, neighborY);
+				float neighborDistance = distance + (diagonal ? DIAGONAL : 1);
+				if (!closed[neighbor] && neighborDistance < distances[neighbor]) {
+					distances[neighbor] = neighborDistance;
+					// the neighbor moves in the opposite direction
+					directions[neighbor] = (byte) ((direction + 4) % 8);
+					if (heapSize == heapTiles.length) {
+						heapTiles = Arrays.copyOf(heapTiles, 2 * heapSize);
+						heapDistances = Arrays.copyOf(heapDistances, 2 * heapSize);
+					}
+					siftUp(heapDistances, heapTiles, heapSize, neighborDistance, neighbor);
+					heapSize++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the x coordinate of the destination tile.
+	 * 
+	 * @return The x coordinate.
+	 */
+	public int getDestinationX() {
+		return destinationX;
+	}
+
+	/**
+	 * Gets the y coordinate of the destination tile.
+	 * 
+	 * @return The y coordinate.
+	 */
+	public int getDestinationY() {
+		return destinationY;
+	}
+
+	/**
+	 * Gets the height of the field.
+	 * 
+	 * @return The height (in tiles).
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Gets the next tile on the shortest path from a tile to the destination.
+	 * 
+	 * @param x
+	 *            The x coordinate of the tile.
+	 * @param y
+	 *            The y coordinate of the tile.
+	 * @return The index of the next tile (y * width + x), or -1 if the tile is
+	 *         the destination, lies outside the field or cannot reach the
+	 *         destination.
+	 */
+	public int getNextTile(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return -1;
+		byte direction = directions[getTile(x, y)];
+		if (direction == NO_DIRECTION)
+			return -1;
+		return getTile(x + DX[direction], y + DY[direction]);
+	}
+
+	/**
+	 * Gets the index of a tile.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return The index.
+	 */
+	private int getTile(int x, int y) {
+		return y * width + x;
+	}
+
+	/**
+	 * Gets the width of the field.
+	 * 
+	 * @return The width (in tiles).
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Determines if a tile is the destination.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return True if it is, false otherwise.
+	 */
+	public boolean isDestination(int x, int y) {
+		return x == destinationX && y == destinationY;
+	}
+
+	/**
+	 * Determines if a tile can be used in a path.
+	 * 
+	 * @param discretizedMap
+	 *            The discretized map.
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return True if it can, false otherwise.
+	 */
+	private boolean isFree(boolean[][] discretizedMap, int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return false;
+		return !discretizedMap[y][x] || isDestination(x, y);
+	}
+
+	/**
+	 * Determines if the destination can be reached from a tile.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return True if it can, false otherwise.
+	 */
+	public boolean isReachable(int x, int y) {
+		return isDestination(x, y) || getNextTile(x, y) >= 0;
+	}
+
+	/**
+	 * Moves the last entry of a heap down to its place.
+	 * 
+	 * @param distances
+	 *            The distances of the heap.
+	 * @param tiles
+	 *            The tiles of the heap.
+	 * @param size
+	 *            The size of the heap, without the entry.
+	 * @param distance
+	 *            The distance of the entry.
+	 * @param tile
+	 *            The tile of the entry.
+	 */
+	private static void siftDown(float[] distances, int[] tiles, int size, float distance, int tile) {
+		int index = 0;
+		while (2 * index + 1 < size) {
+			int child = 2 * index + 1;
+			if (child + 1 < size && distances[child + 1] < distances[child])
+				child++;
+			if (distance <= distances[child])
+				break;
+			distances[index] = distances[child];
+			tiles[index] = tiles[child];
+			index = child;
+		}
+		distances[index] = distance;
+		tiles[index] = tile;
+	}
+
+	/**
+	 * Adds an entry to a heap.
+	 * 
+	 * @param distances
+	 *            The distances of the heap.
+	 * @param tiles
+	 *            The tiles of the heap.
+	 * @param size
+	 *            The size of the heap, without the entry.
+	 * @param distance
+	 *            The distance of the entry.
+	 * @param tile
+	 *            The tile of the entry.
+	 */
+	private static void siftUp(float[] distances, int[] tiles, int size, float distance, int tile) {
+		int index = size;
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (distances[parent] <= distance)
+				break;
+			distances[index] = distances[parent];
+			tiles[index] = tiles[parent];
+			index = parent;
+		}
+		distances[index] = distance;
+		tiles[index] = tile;
+	}
+}
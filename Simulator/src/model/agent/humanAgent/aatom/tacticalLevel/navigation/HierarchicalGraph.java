@@ -0,0 +1,955 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.HierarchicalPathFinder;
+import model.environment.position.Position;
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * The hierarchical graph is used for hierarchical path finding (HPA*) on a
+ * {@link DiscretizedMap}. The map is split in square clusters of tiles. Where
+ * two neighboring clusters share free tiles on their border, entrances are
+ * placed: one in the middle of a narrow opening, or one at each end of a wide
+ * opening. The entrances are the nodes of the abstract graph. Entrances of
+ * neighboring clusters are connected by a single step, and the entrances of
+ * the same cluster are connected by their shortest distance within the
+ * cluster, which is computed when the graph is created.
+ * 
+ * A path is found by connecting the start and goal to the entrances of their
+ * clusters and searching the (much smaller) abstract graph. The abstract path
+ * is then refined into tiles, one edge at a time. The refinement of an edge
+ * between two entrances of a cluster is computed the first time it is needed,
+ * and kept for later paths. Finally, the path is shortened by only keeping
+ * the tiles where the line of sight is lost. The paths are near optimal: the
+ * abstract path is not always the shortest, but the shortened paths are close
+ * to the shortest paths.
+ * 
+ * Tiles are connected to their eight neighbors, like in jump point search. If
+ * two clusters are only connected by a diagonal step between two blocked
+ * tiles, an entrance is placed there as well. The graph is shared by all
+ * {@link HierarchicalPathFinder}s of a map through
+ * {@link SimulationContext#getHierarchicalGraph(double)}, and can be used by
+ * multiple threads at the same time.
+ * 
+ * Original paper: Near Optimal Hierarchical Path-Finding, by Adi Botea, Martin
+ * Muller and Jonathan Schaeffer.
+ * 
+ * @author S.A.M. Janssen
+ */
+public final class HierarchicalGraph {
+
+	/**
+	 * A search over a graph with a fixed number of nodes. The values are
+	 * reused for the next search by increasing a generation counter instead of
+	 * clearing them. The open list is a binary heap.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static final class Search {
+
+		/**
+		 * The generation of the current search.
+		 */
+		private int generation;
+		/**
+		 * The generation in which each node was last used. The other values of
+		 * a node are only valid if this equals the current generation.
+		 */
+		private final int[] generations;
+		/**
+		 * Whether each node is closed.
+		 */
+		private final boolean[] closed;
+		/**
+		 * The distance of each node from the source.
+		 */
+		private final float[] g;
+		/**
+		 * The estimated length of a path through each node.
+		 */
+		private final float[] f;
+		/**
+		 * The parent of each node, -1 if it has none.
+		 */
+		private final int[] parents;
+		/**
+		 * The index of each open node in the heap, -1 if it is not in the heap.
+		 */
+		private final int[] heapIndex;
+		/**
+		 * The binary heap of open nodes.
+		 */
+		private final int[] heap;
+		/**
+		 * The number of nodes in the heap.
+		 */
+		private int heapSize;
+
+		/**
+		 * Creates a search.
+		 * 
+		 * @param size
+		 *            The number of nodes.
+		 */
+		private Search(int size) {
+			generations = new int[size];
+			closed = new boolean[size];
+			g = new float[size];
+			f = new float[size];
+			parents = new int[size];
+			heapIndex = new int[size];
+			heap = new int[size];
+		}
+
+		/**
+		 * Starts a new search from a source node.
+		 * 
+		 * @param source
+		 *            The source node.
+		 * @param h
+		 *            The estimated distance from the source to the target.
+		 */
+		private void start(int source, float h) {
+			if (generation == Integer.MAX_VALUE) {
+				Arrays.fill(generations, 0);
+				generation = 0;
+			}
+			generation++;
+			heapSize = 0;
+			update(source, 0, h, -1);
+		}
+
+		/**
+		 * Gets the distance of a node from the source.
+		 * 
+		 * @param node
+		 *            The node.
+		 * @return The distance, or {@link Float#MAX_VALUE} if the node is not
+		 *         reached.
+		 */
+		private float getDistance(int node) {
+			if (generations[node] != generation || !closed[node])
+				return Float.MAX_VALUE;
+			return g[node];
+		}
+
+		/**
+		 * Determines if a node comes before another node in the heap.
+		 * 
+		 * @param first
+		 *            The first node.
+		 * @param second
+		 *            The second node.
+		 * @return True if the first node comes first, false otherwise.
+		 */
+		private boolean less(int first, int second) {
+			return f[first] < f[second] || (f[first] == f[second] && first < second);
+		}
+
+		/**
+		 * Removes the first node from the heap and closes it.
+		 * 
+		 * @return The node.
+		 */
+		private int poll() {
+			int node = heap[0];
+			heapSize--;
+			if (heapSize > 0) {
+				heap[0] = heap[heapSize];
+				heapIndex[heap[0]] = 0;
+				siftDown(0);
+			}
+			heapIndex[node] = -1;
+			closed[node] = true;
+			return node;
+		}
+
+		/**
+		 * Moves a node down in the heap.
+		 * 
+		 * @param index
+		 *            The index of the node in the heap.
+		 */
+		private void siftDown(int index) {
+			int node = heap[index];
+			while (2 * index + 1 < heapSize) {
+				int child = 2 * index + 1;
+				if (child + 1 < heapSize && less(heap[child + 1], heap[child]))
+					child++;
+				if (!less(heap[child], node))
+					break;
+				heap[index] = heap[child];
+				heapIndex[heap[index]] = index;
+				index = child;
+			}
+			heap[index] = node;
+			heapIndex[node] = index;
+		}
+
+		/**
+		 * Moves a node up in the heap.
+		 * 
+		 * @param index
+		 *            The index of the node in the heap.
+		 */
+		private void siftUp(int index) {
+			int node = heap[index];
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (!less(node, heap[parent]))
+					break;
+				heap[index] = heap[parent];
+				heapIndex[heap[index]] = index;
+				index = parent;
+			}
+			heap[index] = node;
+			heapIndex[node] = index;
+		}
+
+		/**
+		 * Opens a node, or updates it if a shorter path is found. Nothing
+		 * happens if the node is closed or already has a shorter path.
+		 * 
+		 * @param node
+		 *            The node.
+		 * @param distance
+		 *            The distance from the source.
+		 * @param h
+		 *            The estimated distance to the target.
+		 * @param parent
+		 *            The parent.
+		 */
+		private void update(int node, float distance, float h, int parent) {
+			if (generations[node] != generation) {
+				generations[node] = generation;
+				closed[node] = false;
+				heapIndex[node] = -1;
+			} else if (closed[node] || distance >= g[node]) {
+				return;
+			}
+			g[node] = distance;
+			f[node] = distance + h;
+			parents[node] = parent;
+			if (heapIndex[node] < 0) {
+				heap[heapSize] = node;
+				heapIndex[node] = heapSize;
+				heapSize++;
+			}
+			siftUp(heapIndex[node]);
+		}
+	}
+
+	/**
+	 * The searches that are used by a single thread to find a path.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static final class SearchState {
+
+		/**
+		 * The search over the tiles of a cluster.
+		 */
+		private final Search tiles;
+		/**
+		 * The search over the abstract graph, including the start and goal.
+		 */
+		private final Search nodes;
+		/**
+		 * The tiles of the path.
+		 */
+		private int[] path;
+		/**
+		 * The number of tiles of the path.
+		 */
+		private int pathLength;
+
+		/**
+		 * Creates a search state.
+		 * 
+		 * @param clusterSize
+		 *            The width of a cluster (in tiles).
+		 * @param numberOfNodes
+		 *            The number of nodes of the abstract graph.
+		 */
+		private SearchState(int clusterSize, int numberOfNodes) {
+			tiles = new Search(clusterSize * clusterSize);
+			nodes = new Search(numberOfNodes + 2);
+			path = new int[64];
+		}
+
+		/**
+		 * Adds a tile to the path.
+		 * 
+		 * @param tile
+		 *            The tile.
+		 */
+		private void add(int tile) {
+			if (pathLength == path.length)
+				path = Arrays.copyOf(path, 2 * pathLength);
+			path[pathLength++] = tile;
+		}
+	}
+
+	/**
+	 * The x offsets of the directions.
+	 */
+	private static final int[] DX = { 1, 1, 0, -1, -1, -1, 0, 1 };
+	/**
+	 * The y offsets of the directions.
+	 */
+	private static final int[] DY = { 0, 1, 1, 1, 0, -1, -1, -1 };
+	/**
+	 * The x offsets of the neighbors that are used if a tile is blocked, in
+	 * the order of jump point search.
+	 */
+	private static final int[] NEIGHBOR_X = { 1, 1, 1, -1, -1, -1, 0, 0 };
+	/**
+	 * The y offsets of the neighbors that are used if a tile is blocked.
+	 */
+	private static final int[] NEIGHBOR_Y = { 0, 1, -1, 0, 1, -1, 1, -1 };
+	/**
+	 * The length of a diagonal step.
+	 */
+	private static final float DIAGONAL = (float) Math.sqrt(2);
+	/**
+	 * The width (in tiles) from which an opening between two clusters gets an
+	 * entrance at both ends instead of one in the middle.
+	 */
+	private static final int WIDE_OPENING = 6;
+
+	/**
+	 * The width of the map (in tiles).
+	 */
+	private final int width;
+	/**
+	 * The height of the map (in tiles).
+	 */
+	private final int height;
+	/**
+	 * The width of a tile.
+	 */
+	private final double precision;
+	/**
+	 * Whether each tile is blocked, by index y * width + x.
+	 */
+	private final boolean[] blocked;
+	/**
+	 * The width and height of a cluster (in tiles).
+	 */
+	private final int clusterSize;
+	/**
+	 * The number of clusters in the x direction.
+	 */
+	private final int clustersX;
+	/**
+	 * The tile of each node.
+	 */
+	private final int[] nodeTiles;
+	/**
+	 * The nodes of each cluster.
+	 */
+	private final int[][] clusterNodes;
+	/**
+	 * The index of the first edge of each node in {@link #edgeTargets}, and
+	 * the number of edges at the end.
+	 */
+	private final int[] edgeStarts;
+	/**
+	 * The target node of each edge.
+	 */
+	private final int[] edgeTargets;
+	/**
+	 * The cost of each edge.
+	 */
+	private final float[] edgeCosts;
+	/**
+	 * The refined edges between two nodes of the same cluster, as the tiles
+	 * after the first node.
+	 */
+	private final Map<Long, int[]> segments;
+	/**
+	 * The search states that are not in use.
+	 */
+	private final Queue<SearchState> states;
+
+	/**
+	 * Creates a hierarchical graph.
+	 * 
+	 * @param discretizedMap
+	 *            The discretized map, where true means that a tile is blocked.
+	 * @param precision
+	 *            The width of a tile.
+	 * @param clusterSize
+	 *            The width and height of a cluster (in tiles).
+	 */
+	public HierarchicalGraph(boolean[][] discretizedMap, double precision, int clusterSize) {
+		height = discretizedMap.length;
+		width = height == 0 ? 0 : discretizedMap[0].length;
+		if (width == 0)
+			throw new IllegalArgumentException("The discretized map cannot be empty.");
+		if (clusterSize < 2)
+			throw new IllegalArgumentException("The cluster size should be at least 2.");
+		this.precision = precision;
+		this.clusterSize = clusterSize;
+		blocked = new boolean[width * height];
+		for (int y = 0; y < height; y++)
+			System.arraycopy(discretizedMap[y], 0, blocked, y * width, width);
+		clustersX = (width + clusterSize - 1) / clusterSize;
+		int clustersY = (height + clusterSize - 1) / clusterSize;
+		segments = Collections.synchronizedMap(new HashMap<Long, int[]>());
+		states = new ConcurrentLinkedQueue<>();
+
+		// place the entrances between neighboring clusters
+		Map<Integer, Integer> tileNodes = new HashMap<>();
+		List<Integer> tiles = new ArrayList<>();
+		List<List<Integer>> targets = new ArrayList<>();
+		List<List<Float>> costs = new ArrayList<>();
+		for (int clusterY = 0; clusterY < clustersY; clusterY++) {
+			for (int clusterX = 0; clusterX < clustersX; clusterX++) {
+				int x0 = clusterX * clusterSize;
+				int y0 = clusterY * clusterSize;
+				int x1 = Math.min(width, x0 + clusterSize);
+				int y1 = Math.min(height, y0 + clusterSize);
+				if (x1 < width) {
+					int runStart = -1;
+					for (int y = y0; y <= y1; y++) {
+						boolean open = y < y1 && isFree(x1 - 1, y) && isFree(x1, y);
+						if (open && runStart < 0)
+							runStart = y;
+						if (!open && runStart >= 0) {
+							for (int entrance : getEntrances(runStart, y - 1))
+								connect(getTile(x1 - 1, entrance), getTile(x1, entrance), 1, tileNodes, tiles,
+										targets, costs);
+							runStart = -1;
+						}
+					}
+				}
+				if (y1 < height) {
+					int runStart = -1;
+					for (int x = x0; x <= x1; x++) {
+						boolean open = x < x1 && isFree(x, y1 - 1) && isFree(x, y1);
+						if (open && runStart < 0)
+							runStart = x;
+						if (!open && runStart >= 0) {
+							for (int entrance : getEntrances(runStart, x - 1))
+								connect(getTile(entrance, y1 - 1), getTile(entrance, y1), 1, tileNodes, tiles,
+										targets, costs);
+							runStart = -1;
+						}
+					}
+				}
+			}
+		}
+		// place the entrances of diagonal steps between two blocked tiles
+		for (int y = 0; y < height - 1; y++) {
+			for (int x = 0; x < width - 1; x++) {
+				if ((x + 1) % clusterSize != 0 && (y + 1) % clusterSize != 0)
+					continue;
+				if (isFree(x, y) && isFree(x + 1, y + 1) && !isFree(x + 1, y) && !isFree(x, y + 1))
+					connect(getTile(x, y), getTile(x + 1, y + 1), DIAGONAL, tileNodes, tiles, targets, costs);
+				if (isFree(x + 1, y) && isFree(x, y + 1) && !isFree(x, y) && !isFree(x + 1, y + 1))
+					connect(getTile(x + 1, y), getTile(x, y + 1), DIAGONAL, tileNodes, tiles, targets, costs);
+			}
+		}
+		nodeTiles = new int[tiles.size()];
+		for (int i = 0; i < nodeTiles.length; i++)
+			nodeTiles[i] = tiles.get(i);
+
+		// group the nodes by cluster
+		List<List<Integer>> nodesPerCluster = new ArrayList<>();
+		for (int i = 0; i < clustersX * clustersY; i++)
+			nodesPerCluster.add(new ArrayList<Integer>());
+		for (int node = 0; node < nodeTiles.length; node++)
+			nodesPerCluster.get(getCluster(nodeTiles[node])).add(node);
+		clusterNodes = new int[nodesPerCluster.size()][];
+		for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+			List<Integer> nodes = nodesPerCluster.get(cluster);
+			clusterNodes[cluster] = new int[nodes.size()];
+			for (int i = 0; i < nodes.size(); i++)
+				clusterNodes[cluster][i] = nodes.get(i);
+		}
+
+		// connect the nodes within each cluster
+		Search search = new Search(clusterSize * clusterSize);
+		for (int cluster = 0; cluster < clusterNodes.length; cluster++) {
+			for (int node : clusterNodes[cluster]) {
+				searchCluster(search, cluster, nodeTiles[node], -1);
+				for (int other : clusterNodes[cluster]) {
+					float distance = search.getDistance(getLocalTile(cluster, nodeTiles[other]));
+					if (other != node && distance < Float.MAX_VALUE) {
+						targets.get(node).add(other);
+						costs.get(node).add(distance);
+					}
+				}
+			}
+		}
+
+		edgeStarts = new int[nodeTiles.length + 1];
+		for (int node = 0; node < nodeTiles.length; node++)
+			edgeStarts[node + 1] = edgeStarts[node] + targets.get(node).size();
+		edgeTargets = new int[edgeStarts[nodeTiles.length]];
+		edgeCosts = new float[edgeTargets.length];
+		for (int node = 0; node < nodeTiles.length; node++) {
+			for (int i = 0; i < targets.get(node).size(); i++) {
+				edgeTargets[edgeStarts[node] + i] = targets.get(node).get(i);
+				edgeCosts[edgeStarts[node] + i] = costs.get(node).get(i);
+			}
+		}
+	}
+
+	/**
+	 * Connects two neighboring tiles of different clusters, and creates nodes
+	 * for them if they do not exist yet.
+	 * 
+	 * @param first
+	 *            The first tile.
+	 * @param second
+	 *            The second tile.
+	 * @param cost
+	 *            The cost of the step.
+	 * @param tileNodes
+	 *            The nodes, by tile.
+	 * @param tiles
+	 *            The tiles, by node.
+	 * @param targets
+	 *            The targets of the edges, by node.
+	 * @param costs
+	 *            The costs of the edges, by node.
+	 */
+	private static void connect(int first, int second, float cost, Map<Integer, Integer> tileNodes,
+			List<Integer> tiles, List<List<Integer>> targets, List<List<Float>> costs) {
+		int[] nodes = new int[2];
+		int[] pair = { first, second };
+		for (int i = 0; i < 2; i++) {
+			Integer node = tileNodes.get(pair[i]);
+			if (node == null) {
+				node = tiles.size();
+				tileNodes.put(pair[i], node);
+				tiles.add(pair[i]);
+				targets.add(new ArrayList<Integer>());
+				costs.add(new ArrayList<Float>());
+			}
+			nodes[i] = node;
+		}
+		targets.get(nodes[0]).add(nodes[1]);
+		costs.get(nodes[0]).add(cost);
+		targets.get(nodes[1]).add(nodes[0]);
+		costs.get(nodes[1]).add(cost);
+	}
+
+	/**
+	 * Finds a path between two {@link Position}s. The path consists of the
+	 * centers of the corner tiles, followed by the goal. A tile is a corner if
+	 * the next tile of the path cannot be seen from the previous corner. If the
+	 * start lies in a blocked tile, the first free neighboring tile is used.
+	 * If the goal lies in a blocked tile, the first free neighboring tile that
+	 * can be reached is used, since goals often lie in a wall between two
+	 * areas.
+	 * 
+	 * @param start
+	 *            The start position.
+	 * @param goal
+	 *            The goal position.
+	 * @return The path, or null if no path can be found.
+	 */
+	public List<Position> findPath(Position start, Position goal) {
+		int[] startTiles = getTiles(start);
+		int[] goalTiles = getTiles(goal);
+		if (startTiles.length == 0 || goalTiles.length == 0)
+			return null;
+		int startTile = startTiles[0];
+
+		SearchState state = states.poll();
+		if (state == null)
+			state = new SearchState(clusterSize, nodeTiles.length);
+		try {
+			boolean found = false;
+			for (int i = 0; i < goalTiles.length && !found; i++) {
+				state.pathLength = 0;
+				found = findTiles(state, startTile, goalTiles[i]);
+			}
+			if (!found)
+				return null;
+
+			// keep the tiles where the line of sight is lost
+			List<Position> positions = new ArrayList<>();
+			int corner = startTile;
+			for (int i = 1; i < state.pathLength; i++) {
+				if (!isVisible(corner, state.path[i])) {
+					corner = state.path[i - 1];
+					positions.add(getPosition(corner));
+				}
+			}
+			positions.add(goal);
+			return positions;
+		} finally {
+			states.add(state);
+		}
+	}
+
+	/**
+	 * Finds the tiles of a path between two tiles, and stores them (without
+	 * the start tile) in the path of the search state.
+	 * 
+	 * @param state
+	 *            The search state.
+	 * @param startTile
+	 *            The start tile.
+	 * @param goalTile
+	 *            The goal tile.
+	 * @return True if a path is found, false otherwise.
+	 */
+	private boolean findTiles(SearchState state, int startTile, int goalTile) {
+		int startCluster = getCluster(startTile);
+		int goalCluster = getCluster(goalTile);
+		if (startCluster == goalCluster) {
+			searchCluster(state.tiles, startCluster, startTile, goalTile);
+			if (addPath(state, startCluster, goalTile))
+				return true;
+		}
+
+		// connect the goal and the start to the nodes of their clusters
+		int[] goalNodes = clusterNodes[goalCluster];
+		float[] goalDistances = new float[goalNodes.length];
+		searchCluster(state.tiles, goalCluster, goalTile, -1);
+		for (int i = 0; i < goalNodes.length; i++)
+			goalDistances[i] = state.tiles.getDistance(getLocalTile(goalCluster, nodeTiles[goalNodes[i]]));
+		searchCluster(state.tiles, startCluster, startTile, -1);
+
+		// search the abstract graph
+		Search search = state.nodes;
+		int startNode = nodeTiles.length;
+		int goalNode = startNode + 1;
+		search.start(startNode, getHeuristic(startTile, goalTile));
+		boolean found = false;
+		while (search.heapSize > 0) {
+			int node = search.poll();
+			if (node == goalNode) {
+				found = true;
+				break;
+			}
+			float distance = search.g[node];
+			if (node == startNode) {
+				for (int other : clusterNodes[startCluster]) {
+					float cost = state.tiles.getDistance(getLocalTile(startCluster, nodeTiles[other]));
+					if (cost < Float.MAX_VALUE)
+						search.update(other, cost, getHeuristic(nodeTiles[other], goalTile), node);
+				}
+				continue;
+			}
+			for (int edge = edgeStarts[node]; edge < edgeStarts[node + 1]; edge++) {
+				int other = edgeTargets[edge];
+				search.update(other, distance + edgeCosts[edge], getHeuristic(nodeTiles[other], goalTile), node);
+			}
+			if (getCluster(nodeTiles[node]) == goalCluster) {
+				for (int i = 0; i < goalNodes.length; i++) {
+					if (goalNodes[i] == node && goalDistances[i] < Float.MAX_VALUE)
+						search.update(goalNode, distance + goalDistances[i], 0, node);
+				}
+			}
+		}
+		if (!found)
+			return false;
+
+		// refine the abstract path
+		int length = 0;
+		for (int node = search.parents[goalNode]; node != startNode; node = search.parents[node])
+			length++;
+		int[] nodes = new int[length];
+		for (int node = search.parents[goalNode]; node != startNode; node = search.parents[node])
+			nodes[--length] = node;
+
+		addPath(state, startCluster, nodeTiles[nodes[0]]);
+		for (int i = 1; i < nodes.length; i++) {
+			int tile = nodeTiles[nodes[i]];
+			int cluster = getCluster(tile);
+			if (cluster != getCluster(nodeTiles[nodes[i - 1]])) {
+				state.add(tile);
+				continue;
+			}
+			long key = ((long) nodes[i - 1] << 32) | nodes[i];
+			int[] segment = segments.get(key);
+			if (segment == null) {
+				int pathLength = state.pathLength;
+				searchCluster(state.tiles, cluster, nodeTiles[nodes[i - 1]], tile);
+				addPath(state, cluster, tile);
+				segment = Arrays.copyOfRange(state.path, pathLength, state.pathLength);
+				segments.put(key, segment);
+			} else {
+				for (int t : segment)
+					state.add(t);
+			}
+		}
+		int lastTile = nodeTiles[nodes[nodes.length - 1]];
+		searchCluster(state.tiles, goalCluster, lastTile, goalTile);
+		addPath(state, goalCluster, goalTile);
+		return true;
+	}
+
+	/**
+	 * Adds the tiles of the path from the source of the last search in a
+	 * cluster to a tile to the path of the search state.
+	 * 
+	 * @param state
+	 *            The search state.
+	 * @param cluster
+	 *            The cluster.
+	 * @param tile
+	 *            The tile.
+	 * @return True if the tile was reached, false otherwise.
+	 */
+	private boolean addPath(SearchState state, int cluster, int tile) {
+		Search search = state.tiles;
+		int local = getLocalTile(cluster, tile);
+		if (search.getDistance(local) == Float.MAX_VALUE)
+			return false;
+		int length = 0;
+		for (int node = local; search.parents[node] >= 0; node = search.parents[node])
+			length++;
+		int end = state.pathLength + length;
+		for (int i = 0; i < length; i++)
+			state.add(0);
+		for (int node = local; search.parents[node] >= 0; node = search.parents[node])
+			state.path[--end] = getGlobalTile(cluster, node);
+		return true;
+	}
+
+	/**
+	 * Gets the cluster of a tile.
+	 * 
+	 * @param tile
+	 *            The tile.
+	 * @return The cluster.
+	 */
+	private int getCluster(int tile) {
+		return (tile / width / clusterSize) * clustersX + (tile % width / clusterSize);
+	}
+
+	/**
+	 * Gets the entrances of an opening between two clusters.
+	 * 
+	 * @param first
+	 *            The first coordinate of the opening.
+	 * @param last
+	 *            The last coordinate of the opening.
+	 * @return The coordinates of the entrances.
+	 */
+	private static int[] getEntrances(int first, int last) {
+		if (last - first + 1 < WIDE_OPENING)
+			return new int[] { (first + last) / 2 };
+		return new int[] { first, last };
+	}
+
+	/**
+	 * Gets a tile from the index of a tile in a cluster.
+	 * 
+	 * @param cluster
+	 *            The cluster.
+	 * @param local
+	 *            The index in the cluster.
+	 * @return The tile.
+	 */
+	private int getGlobalTile(int cluster, int local) {
+		int x = cluster % clustersX * clusterSize + local % clusterSize;
+		int y = cluster / clustersX * clusterSize + local / clusterSize;
+		return getTile(x, y);
+	}
+
+	/**
+	 * Gets the octile distance between two tiles, which never overestimates
+	 * the length of a path.
+	 * 
+	 * @param first
+	 *            The first tile.
+	 * @param second
+	 *            The second tile.
+	 * @return The distance.
+	 */
+	private float getHeuristic(int first, int second) {
+		int dx = Math.abs(first % width - second % width);
+		int dy = Math.abs(first / width - second / width);
+		return Math.max(dx, dy) + (DIAGONAL - 1) * Math.min(dx, dy);
+	}
+
+	/**
+	 * Gets the index of a tile in its cluster.
+	 * 
+	 * @param cluster
+	 *            The cluster.
+	 * @param tile
+	 *            The tile.
+	 * @return The index in the cluster.
+	 */
+	private int getLocalTile(int cluster, int tile) {
+		int x = tile % width - cluster % clustersX * clusterSize;
+		int y = tile / width - cluster / clustersX * clusterSize;
+		return y * clusterSize + x;
+	}
+
+	/**
+	 * Gets the number of nodes of the abstract graph.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public int getNumberOfNodes() {
+		return nodeTiles.length;
+	}
+
+	/**
+	 * Gets the {@link Position} of the center of a tile.
+	 * 
+	 * @param tile
+	 *            The tile.
+	 * @return The position.
+	 */
+	private Position getPosition(int tile) {
+		double x = tile % width * precision + 0.5 * precision;
+		double y = tile / width * precision + 0.5 * precision;
+		return new Position(x, y);
+	}
+
+	/**
+	 * Gets the index of a tile.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return The index.
+	 */
+	private int getTile(int x, int y) {
+		return y * width + x;
+	}
+
+	/**
+	 * Gets the tiles that can be used for a {@link Position}. Positions
+	 * outside the map are moved to the border. If the tile of the position is
+	 * free, only that tile is used. Otherwise, its free neighbors are used.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @return The tiles, which is empty if the tile and its neighbors are
+	 *         blocked.
+	 */
+	private int[] getTiles(Position position) {
+		int x = Math.max(0, Math.min(width - 1, (int) (position.x / precision)));
+		int y = Math.max(0, Math.min(height - 1, (int) (position.y / precision)));
+		if (isFree(x, y))
+			return new int[] { getTile(x, y) };
+		int[] tiles = new int[NEIGHBOR_X.length];
+		int size = 0;
+		for (int i = 0; i < NEIGHBOR_X.length; i++) {
+			if (isFree(x + NEIGHBOR_X[i], y + NEIGHBOR_Y[i]))
+				tiles[size++] = getTile(x + NEIGHBOR_X[i], y + NEIGHBOR_Y[i]);
+		}
+		return Arrays.copyOf(tiles, size);
+	}
+
+	/**
+	 * Determines if a tile is free.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return True if it is free, false otherwise.
+	 */
+	private boolean isFree(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return false;
+		return !blocked[getTile(x, y)];
+	}
+
+	/**
+	 * Determines if a tile can be seen from another tile, i.e. all tiles that
+	 * are crossed by the line between their centers are free. If the line
+	 * crosses the corner of a tile, it can pass one blocked tile next to the
+	 * corner, but not two blocked tiles that touch at the corner.
+	 * 
+	 * @param from
+	 *            The first tile.
+	 * @param to
+	 *            The second tile.
+	 * @return True if it can be seen, false otherwise.
+	 */
+	private boolean isVisible(int from, int to) {
+		int x = from % width;
+		int y = from / width;
+		int targetX = to % width;
+		int targetY = to / width;
+		int dx = Math.abs(targetX - x);
+		int dy = Math.abs(targetY - y);
+		int stepX = Integer.signum(targetX - x);
+		int stepY = Integer.signum(targetY - y);
+		int error = dx - dy;
+		while (true) {
+			if (!isFree(x, y))
+				return false;
+			if (x == targetX && y == targetY)
+				return true;
+			if (error > 0) {
+				x += stepX;
+				error -= 2 * dy;
+			} else if (error < 0) {
+				y += stepY;
+				error += 2 * dx;
+			} else {
+				if (!isFree(x + stepX, y) && !isFree(x, y + stepY))
+					return false;
+				x += stepX;
+				y += stepY;
+				error += 2 * dx - 2 * dy;
+			}
+		}
+	}
+
+	/**
+	 * Searches the tiles of a cluster from a source tile. If a target is
+	 * given, the search stops when the target is reached. Otherwise, the
+	 * distances to all tiles of the cluster are computed.
+	 * 
+	 * @param search
+	 *            The search.
+	 * @param cluster
+	 *            The cluster.
+	 * @param source
+	 *            The source tile.
+	 * @param target
+	 *            The target tile, or -1.
+	 */
+	private void searchCluster(Search search, int cluster, int source, int target) {
+		int x0 = cluster % clustersX * clusterSize;
+		int y0 = cluster / clustersX * clusterSize;
+		int x1 = Math.min(width, x0 + clusterSize);
+		int y1 = Math.min(height, y0 + clusterSize);
+		int localTarget = target < 0 ? -1 : getLocalTile(cluster, target);
+		search.start(getLocalTile(cluster, source), target < 0 ? 0 : getHeuristic(source, target));
+		while (search.heapSize > 0) {
+			int local = search.poll();
+			if (local == localTarget)
+				return;
+			int x = x0 + local % clusterSize;
+			int y = y0 + local / clusterSize;
+			for (int direction = 0; direction < DX.length; direction++) {
+				int neighborX = x + DX[direction];
+				int neighborY = y + DY[direction];
+				if (neighborX < x0 || neighborY < y0 || neighborX >= x1 || neighborY >= y1
+						|| !isFree(neighborX, neighborY))
+					continue;
+				boolean diagonal = DX[direction] != 0 && DY[direction] != 0;
+				int neighbor = getTile(neighborX, neighborY);
+				float h = target < 0 ? 0 : getHeuristic(neighbor, target);
+				search.update(getLocalTile(cluster, neighbor), search.g[local] + (diagonal ? DIAGONAL : 1), h,
+						local);
+			}
+		}
+	}
+}
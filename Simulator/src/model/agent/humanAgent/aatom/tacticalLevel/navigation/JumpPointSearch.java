@@ -0,0 +1,633 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.JumpPointSearchPathFinder;
+import model.environment.position.Position;
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * Jump point search on a {@link DiscretizedMap}. One search is shared by all
+ * {@link JumpPointSearchPathFinder}s of a map through
+ * {@link SimulationContext#getJumpPointSearch(double)}, so the memory that is
+ * used does not depend on the number of agents. The state of a search is kept
+ * in flat primitive arrays, which are reused for the next search by increasing
+ * a generation counter instead of clearing them. The open list is a binary
+ * heap. Paths that are found are stored in a {@link PathCache}.
+ * 
+ * Multiple threads can search at the same time, each with its own search
+ * state. Nodes with the same f value are expanded in the order in which they
+ * were opened, such that the paths are the same as those of a linear scan
+ * over the open list.
+ * 
+ * Adapted from: https://github.com/qiao/PathFinding.js/ Original paper: Online
+ * Graph Pruning for Pathfinding on Grid Maps, by Daniel Harabor and Alban
+ * Grastien.
+ * 
+ * @author S.A.M. Janssen
+ */
+public final class JumpPointSearch {
+
+	/**
+	 * The state of a single search.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static final class SearchState {
+
+		/**
+		 * The node is opened.
+		 */
+		private static final byte OPENED = 1;
+		/**
+		 * The node is closed.
+		 */
+		private static final byte CLOSED = 2;
+
+		/**
+		 * The generation of the current search.
+		 */
+		private int generation;
+		/**
+		 * The generation in which each node was last used. The other values of
+		 * a node are only valid if this equals the current generation.
+		 */
+		private final int[] generations;
+		/**
+		 * The flags of each node.
+		 */
+		private final byte[] flags;
+		/**
+		 * The g value of each node.
+		 */
+		private final float[] g;
+		/**
+		 * The f value of each node.
+		 */
+		private final float[] f;
+		/**
+		 * The parent of each node, -1 if it has none.
+		 */
+		private final int[] parents;
+		/**
+		 * The order in which each node was opened.
+		 */
+		private final int[] order;
+		/**
+		 * The index of each open node in the heap.
+		 */
+		private final int[] heapIndex;
+		/**
+		 * The binary heap of open nodes.
+		 */
+		private final int[] heap;
+		/**
+		 * The number of nodes in the heap.
+		 */
+		private int heapSize;
+		/**
+		 * The number of nodes that were opened in the current search.
+		 */
+		private int opened;
+
+		/**
+		 * Creates a search state.
+		 * 
+		 * @param size
+		 *            The number of nodes.
+		 */
+		private SearchState(int size) {
+			generations = new int[size];
+			flags = new byte[size];
+			g = new float[size];
+			f = new float[size];
+			parents = new int[size];
+			order = new int[size];
+			heapIndex = new int[size];
+			heap = new int[size];
+		}
+
+		/**
+		 * Starts a new search.
+		 */
+		private void clear() {
+			if (generation == Integer.MAX_VALUE) {
+				Arrays.fill(generations, 0);
+				generation = 0;
+			}
+			generation++;
+			heapSize = 0;
+			opened = 0;
+		}
+
+		/**
+		 * Determines if a node is closed.
+		 * 
+		 * @param node
+		 *            The node.
+		 * @return True if it is closed, false otherwise.
+		 */
+		private boolean isClosed(int node) {
+			return generations[node] == generation && (flags[node] & CLOSED) != 0;
+		}
+
+		/**
+		 * Determines if a node is opened.
+		 * 
+		 * @param node
+		 *            The node.
+		 * @return True if it is opened, false otherwise.
+		 */
+		private boolean isOpened(int node) {
+			return generations[node] == generation && (flags[node] & OPENED) != 0;
+		}
+
+		/**
+		 * Determines if a node comes before another node in the heap.
+		 * 
+		 * @param first
+		 *            The first node.
+		 * @param second
+		 *            The second node.
+		 * @return True if the first node comes first, false otherwise.
+		 */
+		private boolean less(int first, int second) {
+			return f[first] < f[second] || (f[first] == f[second] && order[first] < order[second]);
+		}
+
+		/**
+		 * Removes the first node from the heap and closes it.
+		 * 
+		 * @return The node.
+		 */
+		private int poll() {
+			int node = heap[0];
+			heapSize--;
+			if (heapSize > 0) {
+				heap[0] = heap[heapSize];
+				heapIndex[heap[0]] = 0;
+				siftDown(0);
+			}
+			flags[node] |= CLOSED;
+			return node;
+		}
+
+		/**
+		 * Opens a node and adds it to the heap.
+		 * 
+		 * @param node
+		 *            The node.
+		 */
+		private void push(int node) {
+			flags[node] |= OPENED;
+			order[node] = opened++;
+			heap[heapSize] = node;
+			heapIndex[node] = heapSize;
+			heapSize++;
+			siftUp(heapIndex[node]);
+		}
+
+		/**
+		 * Moves a node down in the heap.
+		 * 
+		 * @param index
+		 *            The index of the node in the heap.
+		 */
+		private void siftDown(int index) {
+			int node = heap[index];
+			while (true) {
+				int child = 2 * index + 1;
+				if (child >= heapSize)
+					break;
+				if (child + 1 < heapSize && less(heap[child + 1], heap[child]))
+					child++;
+				if (!less(heap[child], node))
+					break;
+				heap[index] = heap[child];
+				heapIndex[heap[index]] = index;
+				index = child;
+			}
+			heap[index] = node;
+			heapIndex[node] = index;
+		}
+
+		/**
+		 * Moves a node up in the heap.
+		 * 
+		 * @param index
+		 *            The index of the node in the heap.
+		 */
+		private void siftUp(int index) {
+			int node = heap[index];
+			while (index > 0) {
+				int parent = (index - 1) / 2;
+				if (!less(node, heap[parent]))
+					break;
+				heap[index] = heap[parent];
+				heapIndex[heap[index]] = index;
+				index = parent;
+			}
+			heap[index] = node;
+			heapIndex[node] = index;
+		}
+
+		/**
+		 * Uses a node in the current search, if it is not used yet.
+		 * 
+		 * @param node
+		 *            The node.
+		 */
+		private void touch(int node) {
+			if (generations[node] != generation) {
+				generations[node] = generation;
+				flags[node] = 0;
+				g[node] = Float.MAX_VALUE;
+				f[node] = 0;
+				parents[node] = -1;
+			}
+		}
+	}
+
+	/**
+	 * The width of the map (in tiles).
+	 */
+	private final int width;
+	/**
+	 * The height of the map (in tiles).
+	 */
+	private final int height;
+	/**
+	 * The width of a tile.
+	 */
+	private final double precision;
+	/**
+	 * Whether each tile is blocked, by index y * width + x.
+	 */
+	private final boolean[] blocked;
+	/**
+	 * The search states that are not in use.
+	 */
+	private final Queue<SearchState> states;
+	/**
+	 * The path cache, or null if paths are not cached.
+	 */
+	private final PathCache pathCache;
+
+	/**
+	 * Creates a jump point search.
+	 * 
+	 * @param discretizedMap
+	 *            The discretized map, where true means that a tile is blocked.
+	 * @param precision
+	 *            The width of a tile.
+	 * @param pathCache
+	 *            The path cache, or null if paths should not be cached.
+	 */
+	public JumpPointSearch(boolean[][] discretizedMap, double precision, PathCache pathCache) {
+		height = discretizedMap.length;
+		width = height == 0 ? 0 : discretizedMap[0].length;
+		if (width == 0)
+			throw new IllegalArgumentException("The discretized map cannot be empty.");
+		this.precision = precision;
+		blocked = new boolean[width * height];
+		for (int y = 0; y < height; y++)
+			System.arraycopy(discretizedMap[y], 0, blocked, y * width, width);
+		states = new ConcurrentLinkedQueue<>();
+		this.pathCache = pathCache;
+	}
+
+	/**
+	 * Performs the successor step in the algorithm.
+	 * 
+	 * @param state
+	 *            The search state.
+	 * @param node
+	 *            The node.
+	 * @param goal
+	 *            The goal node.
+	 * @param neighbors
+	 *            An array to store the neighbors in.
+	 */
+	private void doSuccessor(SearchState state, int node, int goal, int[] neighbors) {
+		int numberOfNeighbors = getNeighbors(node, state.parents[node], neighbors);
+		for (int i = 0; i < numberOfNeighbors; i++) {
+			int jumpNode = jump(neighbors[i], node, goal);
+			if (jumpNode < 0)
+				continue;
+			state.touch(jumpNode);
+			if (state.isClosed(jumpNode))
+				continue;
+
+			float nextG = state.g[node] + getDistance(jumpNode, node);
+			boolean opened = state.isOpened(jumpNode);
+			if (!opened || nextG < state.g[jumpNode]) {
+				state.g[jumpNode] = nextG;
+				state.f[jumpNode] = nextG + getDistance(jumpNode, goal);
+				state.parents[jumpNode] = node;
+				if (!opened)
+					state.push(jumpNode);
+				else
+					state.siftUp(state.heapIndex[jumpNode]);
+			}
+		}
+	}
+
+	/**
+	 * Finds a path between two {@link Position}s. The path consists of the
+	 * centers of the jump points after the start, followed by the goal. If no
+	 * path can be found, the path is empty. If the start or goal lies in a
+	 * blocked tile, a free neighboring tile is used.
+	 * 
+	 * @param start
+	 *            The start position.
+	 * @param goal
+	 *            The goal position.
+	 * @return The path, or null if the start or goal tile cannot be used.
+	 */
+	public List<Position> findPath(Position start, Position goal) {
+		int goalNode = getNode(goal);
+		int startNode = getNode(start);
+		if (startNode < 0 || goalNode < 0)
+			return null;
+
+		int[] path = pathCache == null ? null : pathCache.get(startNode, goalNode);
+		if (path == null) {
+			SearchState state = states.poll();
+			if (state == null)
+				state = new SearchState(blocked.length);
+			try {
+				path = findPath(state, startNode, goalNode);
+			} finally {
+				states.add(state);
+			}
+			if (pathCache != null)
+				pathCache.put(startNode, goalNode, path);
+		}
+
+		// translate to real world coordinates
+		List<Position> positions = new ArrayList<>(path.length);
+		for (int node : path) {
+			if (node == goalNode)
+				positions.add(goal);
+			else
+				positions.add(getPosition(node));
+		}
+		return positions;
+	}
+
+	/**
+	 * Finds a path between two nodes.
+	 * 
+	 * @param state
+	 *            The search state.
+	 * @param startNode
+	 *            The start node.
+	 * @param goalNode
+	 *            The goal node.
+	 * @return The nodes of the path after the start node, ending with the goal
+	 *         node. The path is empty if the goal cannot be reached.
+	 */
+	private int[] findPath(SearchState state, int startNode, int goalNode) {
+		state.clear();
+		state.touch(startNode);
+		state.g[startNode] = 0;
+		state.push(startNode);
+
+		int[] neighbors = new int[8];
+		while (state.heapSize > 0) {
+			int current = state.poll();
+			if (current == goalNode) {
+				int length = 0;
+				for (int node = current; state.parents[node] >= 0; node = state.parents[node])
+					length++;
+				int[] path = new int[length];
+				for (int node = current; state.parents[node] >= 0; node = state.parents[node])
+					path[--length] = node;
+				return path;
+			}
+			doSuccessor(state, current, goalNode, neighbors);
+		}
+		return new int[0];
+	}
+
+	/**
+	 * Gets the distance between two nodes.
+	 * 
+	 * @param first
+	 *            The first node.
+	 * @param second
+	 *            The second node.
+	 * @return The distance.
+	 */
+	private float getDistance(int first, int second) {
+		float dx = first % width - second % width;
+		float dy = first / width - second / width;
+		return (float) Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * Gets the neighbors of a node that have to be considered, given the
+	 * direction from its parent.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @param parent
+	 *            The parent, or -1 if the node has no parent.
+	 * @param neighbors
+	 *            The array to store the neighbors in.
+	 * @return The number of neighbors.
+	 */
+	private int getNeighbors(int node, int parent, int[] neighbors) {
+		int x = node % width;
+		int y = node / width;
+		int size = 0;
+
+		if (parent >= 0) {
+			// get the normalized direction of travel
+			int dx = Integer.signum(x - parent % width);
+			int dy = Integer.signum(y - parent / width);
+
+			if (dx != 0 && dy != 0) {
+				size = add(neighbors, size, getNode(x, y + dy));
+				size = add(neighbors, size, getNode(x + dx, y));
+				size = add(neighbors, size, getNode(x + dx, y + dy));
+				if (!isTraversable(x - dx, y))
+					size = add(neighbors, size, getNode(x - dx, y + dy));
+				if (!isTraversable(x, y - dy))
+					size = add(neighbors, size, getNode(x + dx, y - dy));
+			}
+			// search horizontally/vertically
+			else if (dx == 0) {
+				size = add(neighbors, size, getNode(x, y + dy));
+				if (!isTraversable(x + 1, y))
+					size = add(neighbors, size, getNode(x + 1, y + dy));
+				if (!isTraversable(x - 1, y))
+					size = add(neighbors, size, getNode(x - 1, y + dy));
+			} else {
+				size = add(neighbors, size, getNode(x + dx, y));
+				if (!isTraversable(x, y + 1))
+					size = add(neighbors, size, getNode(x + dx, y + 1));
+				if (!isTraversable(x, y - 1))
+					size = add(neighbors, size, getNode(x + dx, y - 1));
+			}
+		} else {
+			size = add(neighbors, size, getNode(x + 1, y));
+			size = add(neighbors, size, getNode(x + 1, y + 1));
+			size = add(neighbors, size, getNode(x + 1, y - 1));
+			size = add(neighbors, size, getNode(x - 1, y));
+			size = add(neighbors, size, getNode(x - 1, y + 1));
+			size = add(neighbors, size, getNode(x - 1, y - 1));
+			size = add(neighbors, size, getNode(x, y + 1));
+			size = add(neighbors, size, getNode(x, y - 1));
+		}
+		return size;
+	}
+
+	/**
+	 * Adds a node to an array of neighbors, if it exists.
+	 * 
+	 * @param neighbors
+	 *            The neighbors.
+	 * @param size
+	 *            The number of neighbors.
+	 * @param node
+	 *            The node, or -1.
+	 * @return The new number of neighbors.
+	 */
+	private static int add(int[] neighbors, int size, int node) {
+		if (node < 0)
+			return size;
+		neighbors[size] = node;
+		return size + 1;
+	}
+
+	/**
+	 * Gets a node from its coordinates.
+	 * 
+	 * @param x
+	 *            X coordinate.
+	 * @param y
+	 *            Y coordinate.
+	 * @return The node, or -1 if the tile is not traversable.
+	 */
+	private int getNode(int x, int y) {
+		if (!isTraversable(x, y))
+			return -1;
+		return y * width + x;
+	}
+
+	/**
+	 * Gets the node of a {@link Position}. Positions outside the map are moved
+	 * to the border. If the tile is blocked, the first free neighbor is used.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @return The node, or -1 if the tile and its neighbors are blocked.
+	 */
+	private int getNode(Position position) {
+		int x = (int) (position.x / precision);
+		int y = (int) (position.y / precision);
+
+		// fix input
+		if (y >= height)
+			y = height - 1;
+		if (x >= width)
+			x = width - 1;
+		if (x < 0)
+			x = 0;
+		if (y < 0)
+			y = 0;
+
+		if (isTraversable(x, y))
+			return y * width + x;
+		// We take a neighboring node if we cannot find the node....
+		int[] neighbors = new int[8];
+		if (getNeighbors(y * width + x, -1, neighbors) > 0)
+			return neighbors[0];
+		return -1;
+	}
+
+	/**
+	 * Gets the {@link Position} of the center of a node.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @return The position.
+	 */
+	private Position getPosition(int node) {
+		double x = node % width * precision + 0.5 * precision;
+		double y = node / width * precision + 0.5 * precision;
+		return new Position(x, y);
+	}
+
+	/**
+	 * Determines if the tile at (x,y) is traversable.
+	 * 
+	 * @param x
+	 *            X coordinate
+	 * @param y
+	 *            Y coordinate
+	 * @return True if it is traversable, false otherwise.
+	 */
+	private boolean isTraversable(int x, int y) {
+		if (x >= width || y >= height || x < 0 || y < 0)
+			return false;
+		return !blocked[y * width + x];
+	}
+
+	/**
+	 * Perform the jump.
+	 * 
+	 * @param child
+	 *            The child, or -1.
+	 * @param parent
+	 *            The parent.
+	 * @param goal
+	 *            The goal node.
+	 * @return The jump node, or -1 if there is none.
+	 */
+	private int jump(int child, int parent, int goal) {
+		if (child < 0)
+			return -1;
+		if (child == goal)
+			return child;
+
+		int x = child % width;
+		int y = child / width;
+		int dx = x - parent % width;
+		int dy = y - parent / width;
+
+		// diagonal
+		if (dx != 0 && dy != 0) {
+			if ((isTraversable(x - dx, y + dy) && !isTraversable(x - dx, y))
+					|| (isTraversable(x + dx, y - dy) && !isTraversable(x, y - dy))) {
+				return child;
+			}
+
+			// when moving diagonally, must check for vertical/horizontal jump
+			// points
+			int first = jump(getNode(x + dx, y), child, goal);
+			int second = jump(getNode(x, y + dy), child, goal);
+			if (first >= 0 || second >= 0)
+				return child;
+		}
+		// horizontally/vertically
+		else if (dx != 0) {
+			if ((isTraversable(x + dx, y + 1) && !isTraversable(x, y + 1))
+					|| (isTraversable(x + dx, y - 1) && !isTraversable(x, y - 1))) {
+				return child;
+			}
+		} else {
+			if ((isTraversable(x + 1, y + dy) && !isTraversable(x + 1, y))
+					|| (isTraversable(x - 1, y + dy) && !isTraversable(x - 1, y))) {
+				return child;
+			}
+		}
+
+		return jump(getNode(x + dx, y + dy), child, goal);
+	}
+}
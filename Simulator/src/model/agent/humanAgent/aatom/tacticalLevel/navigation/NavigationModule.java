@@ -9,8 +9,11 @@ import model.agent.humanAgent.aatom.operationalLevel.action.movement.MovementMod
 import model.agent.humanAgent.aatom.operationalLevel.observation.ObservationModule;
 import model.agent.humanAgent.aatom.tacticalLevel.activity.ActivityModule;
 import model.agent.humanAgent.aatom.tacticalLevel.activity.passenger.QueueActivity;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.FlowFieldPathFinder;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.HierarchicalPathFinder;
 import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.JumpPointSearchPathFinder;
 import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.PathFinder;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.VisibilityGraphPathFinder;
 import model.environment.objects.area.Area;
 import model.environment.objects.area.QueuingArea;
 import model.environment.objects.physicalObject.PhysicalObject;
@@ -19,7 +22,6 @@ import model.environment.objects.physicalObject.sensor.XRaySystem;
 import model.environment.position.Position;
 import model.map.Map;
 import simulation.simulation.util.Updatable;
-import simulation.simulation.util.Utilities;
 
 /**
  * The goal activity is responsible for the goal setting of the agent. It
@@ -30,6 +32,10 @@ import simulation.simulation.util.Utilities;
  */
 public class NavigationModule implements Updatable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The goal {@link Position}s.
 	 */
@@ -62,6 +68,18 @@ public class NavigationModule implements Updatable {
 	 * The map.
 	 */
 	private Map map;
+	/**
+	 * Use shared flow fields to determine paths or not.
+	 */
+	private boolean flowFieldNavigation;
+	/**
+	 * Use hierarchical path finding to determine paths or not.
+	 */
+	private boolean hierarchicalNavigation;
+	/**
+	 * Use a visibility graph to determine paths or not.
+	 */
+	private boolean visibilityGraphNavigation;
 
 	/**
 	 * Create a goal activity.
@@ -80,6 +98,40 @@ public class NavigationModule implements Updatable {
 		this.goalPositions = goalPositions;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant, by advancing
+	 * the timers as if the module had been updated. The timers are increased
+	 * step by step, so they are rounded exactly as in the updates.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		if (movementModel.isSitting())
+			return;
+		for (int i = 0; i < numberOfSteps; i++)
+			goalRefreshTime += timeStep / 1000.0;
+		stuckDetector.catchUp(numberOfSteps, timeStep);
+	}
+
+	/**
+	 * Gets the time (in seconds) that the module can do without updates, while
+	 * the agent stands still. That is the case if the agent sits, or if it
+	 * performs an activity and has not reached one of its first goals, since
+	 * the update then only advances timers.
+	 * 
+	 * @return The time, 0 if the module has to be updated every step.
+	 */
+	public double getDormantTime() {
+		if (movementModel.isSitting())
+			return Double.POSITIVE_INFINITY;
+		if (activityModule.getActiveActivity() == null || isQueuing() || reachedGoal(0) || reachedGoal(1))
+			return 0;
+		return Double.POSITIVE_INFINITY;
+	}
+
 	/**
 	 * Gets the closest goal position.
 	 * 
@@ -150,8 +202,8 @@ public class NavigationModule implements Updatable {
 				setGoal(getGoalPositions().get(getGoalPositions().size() - 1));
 				if (!inQueuingArea()) {
 					setShortTermGoal(
-							new Position(movementModel.getPosition().x + Utilities.RANDOM_GENERATOR.nextDouble() - 0.5,
-									movementModel.getPosition().y + Utilities.RANDOM_GENERATOR.nextDouble() - 0.5));
+							new Position(movementModel.getPosition().x + map.getContext().getRandomGenerator().nextDouble() - 0.5,
+									movementModel.getPosition().y + map.getContext().getRandomGenerator().nextDouble() - 0.5));
 				}
 				stuckDetector.reset();
 
@@ -178,7 +230,14 @@ public class NavigationModule implements Updatable {
 		this.activityModule = activityModule;
 		this.observationModule = observationModule;
 		stuckDetector = new StuckDetector(movementModel);
-		pathFinder = new JumpPointSearchPathFinder(map, 0.35);
+		if (flowFieldNavigation)
+			pathFinder = new FlowFieldPathFinder(map, 0.35);
+		else if (hierarchicalNavigation)
+			pathFinder = new HierarchicalPathFinder(map, 0.35);
+		else if (visibilityGraphNavigation)
+			pathFinder = new VisibilityGraphPathFinder(map, 0.35, movementModel.agent.getRadius());
+		else
+			pathFinder = new JumpPointSearchPathFinder(map, 0.35);
 		if (goalPositions.size() == 1) {
 			Position p = goalPositions.get(0);
 			setGoal(p);
@@ -217,8 +276,7 @@ public class NavigationModule implements Updatable {
 			if (system.getDistance(goalPositions.get(goalIndex)) < 2)
 				return true;
 
-		return Utilities.isLineCollision(movementModel.getPosition(), goalPositions.get(goalIndex),
-				map.getMapComponents(PhysicalObject.class));
+		return map.isLineCollision(movementModel.getPosition(), goalPositions.get(goalIndex));
 	}
 
 	/**
@@ -287,6 +345,48 @@ public class NavigationModule implements Updatable {
 		}
 	}
 
+	/**
+	 * Sets the use of shared flow fields to determine paths. By default, each
+	 * agent searches its own paths with jump point search. With flow fields,
+	 * paths towards the same destination are determined once for all agents.
+	 * This has to be set before the module is initialized.
+	 * 
+	 * @param flowFieldNavigation
+	 *            Use shared flow fields or not.
+	 */
+	public void setFlowFieldNavigation(boolean flowFieldNavigation) {
+		this.flowFieldNavigation = flowFieldNavigation;
+	}
+
+	/**
+	 * Sets the use of hierarchical path finding to determine paths. This
+	 * searches paths faster on large maps, at the cost of paths that are
+	 * slightly longer than the shortest paths. Flow fields are used instead if
+	 * they are set as well. This has to be set before the module is
+	 * initialized.
+	 * 
+	 * @param hierarchicalNavigation
+	 *            Use hierarchical path finding or not.
+	 */
+	public void setHierarchicalNavigation(boolean hierarchicalNavigation) {
+		this.hierarchicalNavigation = hierarchicalNavigation;
+	}
+
+	/**
+	 * Sets the use of a visibility graph to determine paths. The graph is
+	 * built from the polygons of the obstacles instead of a discretized map,
+	 * which gives shorter paths that keep the radius of the agent from the
+	 * obstacles. Flow fields or hierarchical path finding are used instead if
+	 * they are set as well. This has to be set before the module is
+	 * initialized.
+	 * 
+	 * @param visibilityGraphNavigation
+	 *            Use a visibility graph or not.
+	 */
+	public void setVisibilityGraphNavigation(boolean visibilityGraphNavigation) {
+		this.visibilityGraphNavigation = visibilityGraphNavigation;
+	}
+
 	/**
 	 * Set a short term goal position.
 	 * 
@@ -13,6 +13,11 @@ import model.environment.position.Position;
  */
 public class OperatorNavigationModule extends NavigationModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a navigation module.
 	 */
@@ -30,6 +35,15 @@ public class OperatorNavigationModule extends NavigationModule {
 		super(goalPositions);
 	}
 
+	@Override
+	public void catchUp(int numberOfSteps, int timeStep) {
+	}
+
+	@Override
+	public double getDormantTime() {
+		return Double.POSITIVE_INFINITY;
+	}
+
 	@Override
 	public void update(int timeStep) {
 	}
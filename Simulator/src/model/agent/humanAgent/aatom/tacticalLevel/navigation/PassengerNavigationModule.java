@@ -19,6 +19,10 @@ import model.map.Map;
  */
 public class PassengerNavigationModule extends NavigationModule {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * Check in goals.
 	 */
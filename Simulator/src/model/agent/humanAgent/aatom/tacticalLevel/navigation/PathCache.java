@@ -0,0 +1,193 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+
+import model.environment.objects.physicalObject.Openable;
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * A path cache stores paths on a {@link DiscretizedMap}, keyed by their start
+ * and goal tile. Agents request the same routes over and over again (for
+ * instance after getting stuck, or when walking to a chair), so a path that
+ * is found once is kept for later requests. Only the path of the exact start
+ * and goal tile is stored, such that a path from the cache is the same as the
+ * path that the search returns.
+ * 
+ * The number of paths is bounded: if the cache is full, the least recently
+ * used path is evicted. The cache is shared through
+ * {@link SimulationContext#getPathCache(double)}. The paths only depend on the
+ * {@link DiscretizedMap}, which does not change when an {@link Openable}
+ * object is opened or closed. The cache is replaced when another discretized
+ * map is set.
+ * 
+ * @author S.A.M. Janssen
+ */
+public final class PathCache implements Serializable {
+
+	/**
+	 * The paths, in the order in which they were last used.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private class Paths extends LinkedHashMap<Long, int[]> {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Creates an empty map of paths.
+		 */
+		private Paths() {
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(java.util.Map.Entry<Long, int[]> eldest) {
+			if (size() <= capacity)
+				return false;
+			evictions++;
+			return true;
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The maximum number of paths.
+	 */
+	private final int capacity;
+	/**
+	 * The paths, by start and goal tile.
+	 */
+	private final Paths paths;
+	/**
+	 * The number of requests that were found in the cache.
+	 */
+	private long hits;
+	/**
+	 * The number of requests that were not found in the cache.
+	 */
+	private long misses;
+	/**
+	 * The number of paths that were evicted.
+	 */
+	private long evictions;
+
+	/**
+	 * Creates an empty path cache.
+	 * 
+	 * @param capacity
+	 *            The maximum number of paths.
+	 */
+	public PathCache(int capacity) {
+		if (capacity <= 0)
+			throw new IllegalArgumentException("The capacity should be larger than 0.");
+		this.capacity = capacity;
+		paths = new Paths();
+	}
+
+	/**
+	 * Removes all paths. The statistics are kept.
+	 */
+	public synchronized void clear() {
+		paths.clear();
+	}
+
+	/**
+	 * Gets a path.
+	 * 
+	 * @param start
+	 *            The index of the start tile.
+	 * @param goal
+	 *            The index of the goal tile.
+	 * @return The indices of the tiles of the path after the start, or null if
+	 *         the path is not in the cache.
+	 */
+	public synchronized int[] get(int start, int goal) {
+		int[] path = paths.get(getKey(start, goal));
+		if (path == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+		return path.clone();
+	}
+
+	/**
+	 * Gets the maximum number of paths.
+	 * 
+	 * @return The capacity.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Gets the number of paths that were evicted because the cache was full.
+	 * 
+	 * @return The number of evictions.
+	 */
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Gets the number of requests that were found in the cache.
+	 * 
+	 * @return The number of hits.
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the key of a start and goal tile.
+	 * 
+	 * @param start
+	 *            The index of the start tile.
+	 * @param goal
+	 *            The index of the goal tile.
+	 * @return The key.
+	 */
+	private static long getKey(int start, int goal) {
+		return ((long) start << 32) | (goal & 0xffffffffL);
+	}
+
+	/**
+	 * Gets the number of requests that were not found in the cache.
+	 * 
+	 * @return The number of misses.
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Stores a path.
+	 * 
+	 * @param start
+	 *            The index of the start tile.
+	 * @param goal
+	 *            The index of the goal tile.
+	 * @param path
+	 *            The indices of the tiles of the path after the start. If the
+	 *            goal can be reached, the last tile is the goal tile.
+	 */
+	public synchronized void put(int start, int goal, int[] path) {
+		paths.put(getKey(start, goal), path.clone());
+	}
+
+	/**
+	 * Gets the number of paths.
+	 * 
+	 * @return The number of paths.
+	 */
+	public synchronized int size() {
+		return paths.size();
+	}
+}
@@ -10,6 +10,10 @@ import simulation.simulation.util.Updatable;
  * @author S.A.M. Janssen
  */
 public class StuckDetector implements Updatable {
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The movement model.
 	 */
@@ -34,6 +38,32 @@ public class StuckDetector implements Updatable {
 		prevPos = Position.NO_POSITION;
 	}
 
+	/**
+	 * Catches up with the steps in which the agent was dormant, by advancing
+	 * the time at the same position as if the detector had been updated. The
+	 * agent does not move while it is dormant, so only the first update can
+	 * reset the time. The time is increased step by step, so it is rounded
+	 * exactly as in the updates.
+	 * 
+	 * @param numberOfSteps
+	 *            The number of steps the agent was dormant.
+	 * @param timeStep
+	 *            The time step.
+	 */
+	public void catchUp(int numberOfSteps, int timeStep) {
+		if (numberOfSteps <= 0 || movementModel.isSitting())
+			return;
+
+		int steps = numberOfSteps;
+		if (prevPos.distanceTo(movementModel.getPosition()) >= 0.2) {
+			prevPos = movementModel.getPosition();
+			timeSamePos = 0.0;
+			steps--;
+		}
+		for (int i = 0; i < steps; i++)
+			timeSamePos += timeStep / 1000.0;
+	}
+
 	/**
 	 * Determines if the agent is stuck for a given number of seconds. Stuck is
 	 * defined as moving at most 0.2m in <i>secondsStuck</i> seconds.
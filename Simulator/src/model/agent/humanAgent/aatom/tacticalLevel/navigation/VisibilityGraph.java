@@ -0,0 +1,701 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import model.environment.objects.physicalObject.PhysicalObject;
+import model.environment.position.Position;
+import model.map.Map;
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * A visibility graph is built directly from the polygons of the
+ * {@link PhysicalObject}s on a {@link Map}, instead of from a
+ * {@link DiscretizedMap}. The obstacles are inflated by the radius of an
+ * agent: the nodes of the graph lie just outside the convex corners of the
+ * obstacles, and two nodes are connected if an agent can walk in a straight
+ * line between them without coming closer to an obstacle than its radius.
+ * Only edges that are tangent to the obstacles at both ends are kept, since
+ * other edges are never part of a shortest path. The graph has a few nodes
+ * per obstacle, so a search visits a small number of nodes, and the resulting
+ * paths are not restricted to the directions of a grid.
+ * 
+ * The graph does not change after it is built, and is serializable, such that
+ * it can be stored and used again in a later run through
+ * {@link SimulationContext#setVisibilityGraph(VisibilityGraph)}.
+ * 
+ * @author S.A.M. Janssen
+ */
+public final class VisibilityGraph implements Serializable {
+
+	/**
+	 * An entry of the open list of a search.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class Entry implements Comparable<Entry> {
+
+		/**
+		 * The node.
+		 */
+		private final int node;
+		/**
+		 * The estimated length of the path through the node.
+		 */
+		private final double estimate;
+
+		/**
+		 * Creates an entry.
+		 * 
+		 * @param node
+		 *            The node.
+		 * @param estimate
+		 *            The estimated length of the path through the node.
+		 */
+		private Entry(int node, double estimate) {
+			this.node = node;
+			this.estimate = estimate;
+		}
+
+		@Override
+		public int compareTo(Entry other) {
+			int comparison = Double.compare(estimate, other.estimate);
+			if (comparison != 0)
+				return comparison;
+			return Integer.compare(node, other.node);
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The distance (in meters) that the nodes keep from the obstacles, in
+	 * addition to the radius.
+	 */
+	private static final double MARGIN = 0.01;
+	/**
+	 * The tolerance (in meters) of the clearance tests.
+	 */
+	private static final double EPSILON = 1e-6;
+	/**
+	 * The width and height (in meters) of the cells that index the obstacles.
+	 */
+	private static final double CELL_SIZE = 2;
+	/**
+	 * The maximum distance of a node to its corner, as a multiple of the
+	 * radius. This limits the distance for very sharp corners.
+	 */
+	private static final double MAXIMUM_OFFSET = 4;
+
+	/**
+	 * The radius (in meters).
+	 */
+	private final double radius;
+	/**
+	 * The x coordinates of the corners of the obstacles.
+	 */
+	private final double[][] cornersX;
+	/**
+	 * The y coordinates of the corners of the obstacles.
+	 */
+	private final double[][] cornersY;
+	/**
+	 * The bounding boxes of the obstacles, inflated by the radius, as minimum
+	 * x, minimum y, maximum x and maximum y per obstacle.
+	 */
+	private final double[] bounds;
+	/**
+	 * The x coordinate of the first cell.
+	 */
+	private final double originX;
+	/**
+	 * The y coordinate of the first cell.
+	 */
+	private final double originY;
+	/**
+	 * The number of columns of cells.
+	 */
+	private final int columns;
+	/**
+	 * The number of rows of cells.
+	 */
+	private final int rows;
+	/**
+	 * The index of the first obstacle of each cell in {@link #cellObstacles},
+	 * followed by the number of entries.
+	 */
+	private final int[] cellStarts;
+	/**
+	 * The obstacles whose inflated bounding box overlaps a cell, by cell.
+	 */
+	private final int[] cellObstacles;
+	/**
+	 * The positions of the nodes, as x and y coordinate per node.
+	 */
+	private final double[] nodes;
+	/**
+	 * The corners at which the nodes lie, and the corners before and after
+	 * them, as six coordinates per node.
+	 */
+	private final double[] corners;
+	/**
+	 * The index of the first edge of each node in {@link #edgeTargets},
+	 * followed by the number of edges.
+	 */
+	private final int[] edgeStarts;
+	/**
+	 * The target nodes of the edges.
+	 */
+	private final int[] edgeTargets;
+	/**
+	 * The lengths of the edges.
+	 */
+	private final double[] edgeCosts;
+
+	/**
+	 * Creates a visibility graph of a {@link Map}.
+	 * 
+	 * @param map
+	 *            The map.
+	 * @param radius
+	 *            The radius (in meters) of the agents.
+	 */
+	public VisibilityGraph(Map map, double radius) {
+		if (!(radius >= 0))
+			throw new IllegalArgumentException("The radius cannot be negative.");
+		this.radius = radius;
+
+		// obstacles
+		List<PhysicalObject> obstacles = new ArrayList<>(map.getMapComponents(PhysicalObject.class));
+		cornersX = new double[obstacles.size()][];
+		cornersY = new double[obstacles.size()][];
+		bounds = new double[4 * obstacles.size()];
+		double minimumX = 0;
+		double minimumY = 0;
+		double maximumX = map.getWidth();
+		double maximumY = map.getHeight();
+		for (int i = 0; i < obstacles.size(); i++) {
+			List<Position> positions = obstacles.get(i).getCorners();
+			cornersX[i] = new double[positions.size()];
+			cornersY[i] = new double[positions.size()];
+			double[] box = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+					Double.NEGATIVE_INFINITY };
+			for (int j = 0; j < positions.size(); j++) {
+				cornersX[i][j] = positions.get(j).x;
+				cornersY[i][j] = positions.get(j).y;
+				box[0] = Math.min(box[0], cornersX[i][j] - radius);
+				box[1] = Math.min(box[1], cornersY[i][j] - radius);
+				box[2] = Math.max(box[2], cornersX[i][j] + radius);
+				box[3] = Math.max(box[3], cornersY[i][j] + radius);
+			}
+			System.arraycopy(box, 0, bounds, 4 * i, 4);
+			minimumX = Math.min(minimumX, box[0]);
+			minimumY = Math.min(minimumY, box[1]);
+			maximumX = Math.max(maximumX, box[2]);
+			maximumY = Math.max(maximumY, box[3]);
+		}
+
+		// cells
+		originX = minimumX;
+		originY = minimumY;
+		columns = Math.max(1, (int) Math.ceil((maximumX - minimumX) / CELL_SIZE));
+		rows = Math.max(1, (int) Math.ceil((maximumY - minimumY) / CELL_SIZE));
+		cellStarts = new int[columns * rows + 1];
+		int[] cellBuffer = new int[0];
+		for (int pass = 0; pass < 2; pass++) {
+			int[] counts = new int[columns * rows];
+			for (int i = 0; i < cornersX.length; i++) {
+				if (cornersX[i].length == 0)
+					continue;
+				for (int x = getColumn(bounds[4 * i]); x <= getColumn(bounds[4 * i + 2]); x++) {
+					for (int y = getRow(bounds[4 * i + 1]); y <= getRow(bounds[4 * i + 3]); y++) {
+						int cell = y * columns + x;
+						if (pass == 1)
+							cellBuffer[cellStarts[cell] + counts[cell]] = i;
+						counts[cell]++;
+					}
+				}
+			}
+			if (pass == 0) {
+				for (int cell = 0; cell < counts.length; cell++)
+					cellStarts[cell + 1] = cellStarts[cell] + counts[cell];
+				cellBuffer = new int[cellStarts[counts.length]];
+			}
+		}
+		cellObstacles = cellBuffer;
+
+		// nodes
+		double[] nodeBuffer = new double[16];
+		double[] cornerBuffer = new double[48];
+		int n = 0;
+		for (int i = 0; i < cornersX.length; i++) {
+			double[] x = cornersX[i];
+			double[] y = cornersY[i];
+			int k = x.length;
+			if (k < 3)
+				continue;
+			double area = 0;
+			for (int j = 0; j < k; j++)
+				area += x[j] * y[(j + 1) % k] - x[(j + 1) % k] * y[j];
+			double orientation = Math.signum(area);
+			for (int j = 0; j < k; j++) {
+				int previous = (j + k - 1) % k;
+				int next = (j + 1) % k;
+				double inX = x[j] - x[previous];
+				double inY = y[j] - y[previous];
+				double outX = x[next] - x[j];
+				double outY = y[next] - y[j];
+				double inLength = Math.hypot(inX, inY);
+				double outLength = Math.hypot(outX, outY);
+				if (inLength == 0 || outLength == 0 || (inX * outY - inY * outX) * orientation <= 0)
+					continue;
+				// the outward normals of both edges and their bisector
+				double normalX = orientation * (inY / inLength + outY / outLength);
+				double normalY = -orientation * (inX / inLength + outX / outLength);
+				double length = Math.hypot(normalX, normalY);
+				double cosine = (normalX * inY - normalY * inX) * orientation / (length * inLength);
+				double offset = (radius + MARGIN) / Math.max(cosine, 1 / MAXIMUM_OFFSET);
+				double nodeX = x[j] + normalX / length * offset;
+				double nodeY = y[j] + normalY / length * offset;
+				if (nodeX < 0 || nodeY < 0 || nodeX > map.getWidth() || nodeY > map.getHeight()
+						|| getDistance(nodeX, nodeY, radius) < radius)
+					continue;
+				if (2 * n + 2 > nodeBuffer.length) {
+					nodeBuffer = Arrays.copyOf(nodeBuffer, 2 * nodeBuffer.length);
+					cornerBuffer = Arrays.copyOf(cornerBuffer, 2 * cornerBuffer.length);
+				}
+				nodeBuffer[2 * n] = nodeX;
+				nodeBuffer[2 * n + 1] = nodeY;
+				double[] corner = { x[j], y[j], x[previous], y[previous], x[next], y[next] };
+				System.arraycopy(corner, 0, cornerBuffer, 6 * n, 6);
+				n++;
+			}
+		}
+		nodes = Arrays.copyOf(nodeBuffer, 2 * n);
+		corners = Arrays.copyOf(cornerBuffer, 6 * n);
+
+		// edges
+		List<List<Integer>> neighbors = new ArrayList<>();
+		for (int i = 0; i < n; i++)
+			neighbors.add(new ArrayList<Integer>());
+		int numberOfEdges = 0;
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				if (isTangent(i, nodes[2 * j], nodes[2 * j + 1]) && isTangent(j, nodes[2 * i], nodes[2 * i + 1])
+						&& isVisible(nodes[2 * i], nodes[2 * i + 1], nodes[2 * j], nodes[2 * j + 1], null)) {
+					neighbors.get(i).add(j);
+					neighbors.get(j).add(i);
+					numberOfEdges += 2;
+				}
+			}
+		}
+		edgeStarts = new int[n + 1];
+		edgeTargets = new int[numberOfEdges];
+		edgeCosts = new double[numberOfEdges];
+		for (int i = 0; i < n; i++) {
+			edgeStarts[i + 1] = edgeStarts[i] + neighbors.get(i).size();
+			for (int j = 0; j < neighbors.get(i).size(); j++) {
+				int target = neighbors.get(i).get(j);
+				edgeTargets[edgeStarts[i] + j] = target;
+				edgeCosts[edgeStarts[i] + j] = getNodeDistance(i, nodes[2 * target], nodes[2 * target + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Determines if a point lies inside an obstacle.
+	 * 
+	 * @param obstacle
+	 *            The obstacle.
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return True if it does, false otherwise.
+	 */
+	private boolean contains(int obstacle, double x, double y) {
+		double[] cornerX = cornersX[obstacle];
+		double[] cornerY = cornersY[obstacle];
+		boolean inside = false;
+		for (int i = 0, j = cornerX.length - 1; i < cornerX.length; j = i++) {
+			if ((cornerY[i] > y) != (cornerY[j] > y)
+					&& x < (cornerX[j] - cornerX[i]) * (y - cornerY[i]) / (cornerY[j] - cornerY[i]) + cornerX[i])
+				inside = !inside;
+		}
+		return inside;
+	}
+
+	/**
+	 * Finds a path. The start and goal may lie close to or inside an obstacle:
+	 * such an obstacle is ignored for the parts of the path that start or end
+	 * there, as long as the path does not come closer to it.
+	 * 
+	 * @param start
+	 *            The start position.
+	 * @param goal
+	 *            The goal position.
+	 * @return The positions of the path after the start, ending with the goal,
+	 *         or null if the goal cannot be reached.
+	 */
+	public List<Position> findPath(Position start, Position goal) {
+		double[] startClearances = getClearances(start.x, start.y);
+		double[] goalClearances = getClearances(goal.x, goal.y);
+		List<Position> path = new ArrayList<>();
+		if (isVisible(start.x, start.y, goal.x, goal.y, getMinimum(startClearances, goalClearances))) {
+			path.add(goal);
+			return path;
+		}
+
+		// the edges from the start
+		int n = nodes.length / 2;
+		double[] distances = new double[n];
+		int[] parents = new int[n];
+		boolean[] closed = new boolean[n];
+		PriorityQueue<Entry> open = new PriorityQueue<>();
+		for (int i = 0; i < n; i++) {
+			distances[i] = Double.POSITIVE_INFINITY;
+			parents[i] = -1;
+			if (isTangent(i, start.x, start.y)
+					&& isVisible(start.x, start.y, nodes[2 * i], nodes[2 * i + 1], startClearances)) {
+				distances[i] = getNodeDistance(i, start.x, start.y);
+				open.add(new Entry(i, distances[i] + getNodeDistance(i, goal.x, goal.y)));
+			}
+		}
+
+		// A* search, where the edge towards the goal is only tested for the
+		// nodes that are expanded. Since the heuristic is the length of that
+		// edge, the first node that sees the goal lies on a shortest path.
+		int best = -1;
+		while (!open.isEmpty()) {
+			int node = open.poll().node;
+			if (closed[node])
+				continue;
+			closed[node] = true;
+			if (isTangent(node, goal.x, goal.y)
+					&& isVisible(nodes[2 * node], nodes[2 * node + 1], goal.x, goal.y, goalClearances)) {
+				best = node;
+				break;
+			}
+			for (int i = edgeStarts[node]; i < edgeStarts[node + 1]; i++) {
+				int target = edgeTargets[i];
+				double distance = distances[node] + edgeCosts[i];
+				if (!closed[target] && distance < distances[target]) {
+					distances[target] = distance;
+					parents[target] = node;
+					open.add(new Entry(target, distance + getNodeDistance(target, goal.x, goal.y)));
+				}
+			}
+		}
+		if (best < 0)
+			return null;
+
+		for (int node = best; node >= 0; node = parents[node])
+			path.add(0, new Position(nodes[2 * node], nodes[2 * node + 1]));
+		path.add(goal);
+		return path;
+	}
+
+	/**
+	 * Gets the clearances that a segment from or to a point should keep from
+	 * the obstacles. An obstacle that contains the point is ignored, and from
+	 * an obstacle that lies closer than the radius, the segment should keep
+	 * the current distance of the point.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return The clearance of each obstacle, where a negative clearance means
+	 *         that the obstacle is ignored, or null if all obstacles lie
+	 *         further than the radius.
+	 */
+	private double[] getClearances(double x, double y) {
+		double[] clearances = null;
+		int cell = getRow(y) * columns + getColumn(x);
+		for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+			int obstacle = cellObstacles[i];
+			double distance = getDistance(obstacle, x, y);
+			if (distance < radius) {
+				if (clearances == null) {
+					clearances = new double[cornersX.length];
+					Arrays.fill(clearances, radius);
+				}
+				clearances[obstacle] = distance > 0 ? distance : -1;
+			}
+		}
+		return clearances;
+	}
+
+	/**
+	 * Gets the column of the cell of an x coordinate.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @return The column, limited to the cells.
+	 */
+	private int getColumn(double x) {
+		return Math.max(0, Math.min(columns - 1, (int) Math.floor((x - originX) / CELL_SIZE)));
+	}
+
+	/**
+	 * Gets the distance between a point and the nearest obstacle.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @param limit
+	 *            The distance above which obstacles do not have to be
+	 *            considered.
+	 * @return The distance, or the limit if no obstacle lies closer.
+	 */
+	private double getDistance(double x, double y, double limit) {
+		double distance = limit;
+		int cell = getRow(y) * columns + getColumn(x);
+		for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++)
+			distance = Math.min(distance, getDistance(cellObstacles[i], x, y));
+		return distance;
+	}
+
+	/**
+	 * Gets the distance between a point and an obstacle.
+	 * 
+	 * @param obstacle
+	 *            The obstacle.
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return The distance, which is 0 if the point lies inside the obstacle.
+	 */
+	private double getDistance(int obstacle, double x, double y) {
+		if (contains(obstacle, x, y))
+			return 0;
+		double[] cornerX = cornersX[obstacle];
+		double[] cornerY = cornersY[obstacle];
+		double distance = Double.POSITIVE_INFINITY;
+		for (int i = 0, j = cornerX.length - 1; i < cornerX.length; j = i++)
+			distance = Math.min(distance, getDistance(x, y, cornerX[j], cornerY[j], cornerX[i], cornerY[i]));
+		return distance;
+	}
+
+	/**
+	 * Gets the distance between a point and a line segment.
+	 * 
+	 * @param x
+	 *            The x coordinate of the point.
+	 * @param y
+	 *            The y coordinate of the point.
+	 * @param x1
+	 *            The x coordinate of the start of the segment.
+	 * @param y1
+	 *            The y coordinate of the start of the segment.
+	 * @param x2
+	 *            The x coordinate of the end of the segment.
+	 * @param y2
+	 *            The y coordinate of the end of the segment.
+	 * @return The distance.
+	 */
+	private static double getDistance(double x, double y, double x1, double y1, double x2, double y2) {
+		double dx = x2 - x1;
+		double dy = y2 - y1;
+		double length = dx * dx + dy * dy;
+		double t = length == 0 ? 0 : Math.max(0, Math.min(1, ((x - x1) * dx + (y - y1) * dy) / length));
+		return Math.hypot(x1 + t * dx - x, y1 + t * dy - y);
+	}
+
+	/**
+	 * Gets the smallest of two sets of clearances.
+	 * 
+	 * @param first
+	 *            The first clearances, or null.
+	 * @param second
+	 *            The second clearances, or null.
+	 * @return The smallest clearance of each obstacle, or null if both are
+	 *         null.
+	 */
+	private static double[] getMinimum(double[] first, double[] second) {
+		if (first == null)
+			return second;
+		if (second == null)
+			return first;
+		double[] minimum = new double[first.length];
+		for (int i = 0; i < first.length; i++)
+			minimum[i] = Math.min(first[i], second[i]);
+		return minimum;
+	}
+
+	/**
+	 * Gets the distance between a node and a point.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @param x
+	 *            The x coordinate of the point.
+	 * @param y
+	 *            The y coordinate of the point.
+	 * @return The distance.
+	 */
+	private double getNodeDistance(int node, double x, double y) {
+		return Math.hypot(nodes[2 * node] - x, nodes[2 * node + 1] - y);
+	}
+
+	/**
+	 * Gets the number of edges. Each connection between two nodes counts as
+	 * two edges.
+	 * 
+	 * @return The number of edges.
+	 */
+	public int getNumberOfEdges() {
+		return edgeTargets.length;
+	}
+
+	/**
+	 * Gets the number of nodes.
+	 * 
+	 * @return The number of nodes.
+	 */
+	public int getNumberOfNodes() {
+		return nodes.length / 2;
+	}
+
+	/**
+	 * Gets the radius.
+	 * 
+	 * @return The radius (in meters).
+	 */
+	public double getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Gets the row of the cell of a y coordinate.
+	 * 
+	 * @param y
+	 *            The y coordinate.
+	 * @return The row, limited to the cells.
+	 */
+	private int getRow(double y) {
+		return Math.max(0, Math.min(rows - 1, (int) Math.floor((y - originY) / CELL_SIZE)));
+	}
+
+	/**
+	 * Determines if a segment keeps a clearance from an obstacle.
+	 * 
+	 * @param obstacle
+	 *            The obstacle.
+	 * @param x1
+	 *            The x coordinate of the start of the segment.
+	 * @param y1
+	 *            The y coordinate of the start of the segment.
+	 * @param x2
+	 *            The x coordinate of the end of the segment.
+	 * @param y2
+	 *            The y coordinate of the end of the segment.
+	 * @param clearance
+	 *            The clearance.
+	 * @return True if it does, false otherwise.
+	 */
+	private boolean isClear(int obstacle, double x1, double y1, double x2, double y2, double clearance) {
+		double limit = clearance - EPSILON;
+		if (contains(obstacle, x1, y1) || contains(obstacle, x2, y2))
+			return false;
+		double[] cornerX = cornersX[obstacle];
+		double[] cornerY = cornersY[obstacle];
+		for (int i = 0, j = cornerX.length - 1; i < cornerX.length; j = i++) {
+			double ax = cornerX[j];
+			double ay = cornerY[j];
+			double bx = cornerX[i];
+			double by = cornerY[i];
+			double d1 = (x2 - x1) * (ay - y1) - (y2 - y1) * (ax - x1);
+			double d2 = (x2 - x1) * (by - y1) - (y2 - y1) * (bx - x1);
+			double d3 = (bx - ax) * (y1 - ay) - (by - ay) * (x1 - ax);
+			double d4 = (bx - ax) * (y2 - ay) - (by - ay) * (x2 - ax);
+			if (((d1 > 0 && d2 < 0) || (d1 < 0 && d2 > 0)) && ((d3 > 0 && d4 < 0) || (d3 < 0 && d4 > 0)))
+				return false;
+			if (getDistance(ax, ay, x1, y1, x2, y2) < limit || getDistance(bx, by, x1, y1, x2, y2) < limit
+					|| getDistance(x1, y1, ax, ay, bx, by) < limit || getDistance(x2, y2, ax, ay, bx, by) < limit)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Determines if a line from a node towards a point is tangent to the
+	 * corner of the node, that is, if both edges of the corner lie on the same
+	 * side of the line. Only such lines can be part of a shortest path.
+	 * 
+	 * @param node
+	 *            The node.
+	 * @param x
+	 *            The x coordinate of the point.
+	 * @param y
+	 *            The y coordinate of the point.
+	 * @return True if it is, false otherwise.
+	 */
+	private boolean isTangent(int node, double x, double y) {
+		double dx = x - nodes[2 * node];
+		double dy = y - nodes[2 * node + 1];
+		double cornerX = corners[6 * node];
+		double cornerY = corners[6 * node + 1];
+		double previous = dx * (corners[6 * node + 3] - cornerY) - dy * (corners[6 * node + 2] - cornerX);
+		double next = dx * (corners[6 * node + 5] - cornerY) - dy * (corners[6 * node + 4] - cornerX);
+		return previous * next >= 0;
+	}
+
+	/**
+	 * Determines if a segment keeps its clearance from all obstacles. Only the
+	 * obstacles in the cells that the segment crosses are tested.
+	 * 
+	 * @param x1
+	 *            The x coordinate of the start of the segment.
+	 * @param y1
+	 *            The y coordinate of the start of the segment.
+	 * @param x2
+	 *            The x coordinate of the end of the segment.
+	 * @param y2
+	 *            The y coordinate of the end of the segment.
+	 * @param clearances
+	 *            The clearance of each obstacle (see
+	 *            {@link #getClearances(double, double)}), or null to use the
+	 *            radius for all obstacles.
+	 * @return True if it does, false otherwise.
+	 */
+	private boolean isVisible(double x1, double y1, double x2, double y2, double[] clearances) {
+		double minimumX = Math.min(x1, x2);
+		double maximumX = Math.max(x1, x2);
+		double minimumY = Math.min(y1, y2);
+		double maximumY = Math.max(y1, y2);
+		for (int column = getColumn(minimumX); column <= getColumn(maximumX); column++) {
+			// the part of the segment in this column
+			double left = Math.max(minimumX, originX + column * CELL_SIZE);
+			double right = Math.min(maximumX, originX + (column + 1) * CELL_SIZE);
+			if (left > right)
+				continue;
+			double top = y1;
+			double bottom = y2;
+			if (x1 != x2) {
+				top = y1 + (left - x1) * (y2 - y1) / (x2 - x1);
+				bottom = y1 + (right - x1) * (y2 - y1) / (x2 - x1);
+			}
+			for (int row = getRow(Math.min(top, bottom)); row <= getRow(Math.max(top, bottom)); row++) {
+				int cell = row * columns + column;
+				for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+					int obstacle = cellObstacles[i];
+					double clearance = clearances == null ? radius : clearances[obstacle];
+					if (clearance < 0 || bounds[4 * obstacle] > maximumX || bounds[4 * obstacle + 1] > maximumY
+							|| bounds[4 * obstacle + 2] < minimumX || bounds[4 * obstacle + 3] < minimumY)
+						continue;
+					if (!isClear(obstacle, x1, y1, x2, y2, clearance))
+						return false;
+				}
+			}
+		}
+		return true;
+	}
+}
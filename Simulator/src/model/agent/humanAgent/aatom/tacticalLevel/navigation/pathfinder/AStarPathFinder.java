@@ -18,6 +18,10 @@ import model.map.Map;
  */
 public class AStarPathFinder extends PathFinder {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The set of nodes that have been searched through
 	 */
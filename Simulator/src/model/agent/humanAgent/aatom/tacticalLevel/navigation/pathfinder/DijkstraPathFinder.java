@@ -17,6 +17,10 @@ import model.map.Map;
  */
 public class DijkstraPathFinder extends PathFinder {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * A list of unvisited nodes.
 	 */
@@ -0,0 +1,175 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.FlowField;
+import model.environment.position.Position;
+import model.map.Map;
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * The flow field path finder follows shared {@link FlowField}s to determine
+ * paths. Many agents walk to the same destinations (queues, desks, gates), so
+ * instead of searching a path for each agent, one flow field is computed per
+ * destination tile and shared through the {@link SimulationContext}. Following
+ * the flow field takes time proportional to the length of the path, and the
+ * next waypoint can be found in constant time.
+ * 
+ * Like the {@link JumpPointSearchPathFinder}, the path consists of the tiles
+ * where the direction changes, followed by the goal. Unlike the
+ * {@link DijkstraPathFinder} and the {@link AStarPathFinder}, the path is not
+ * smoothed with {@link #smooth(List)}: the tiles are already the corner points
+ * of the path, and agents that follow the field can take the next waypoint
+ * from {@link #getNextWaypoint(Position, Position)}. The smooth flag only
+ * decides whether a direct path to the goal is taken when it is possible.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class FlowFieldPathFinder extends PathFinder {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates the path finder.
+	 * 
+	 * @param map
+	 *            The map.
+	 * @param precision
+	 *            The precision.
+	 */
+	public FlowFieldPathFinder(Map map, double precision) {
+		super(map, precision);
+	}
+
+	/**
+	 * Gets the flow field towards a goal {@link Position}.
+	 * 
+	 * @param goal
+	 *            The goal position.
+	 * @return The flow field.
+	 */
+	private FlowField getFlowField(Position goal) {
+		SimulationContext context = map.getContext();
+		boolean[][] grid = context.getDiscretizedMap(precision).getMap();
+		return context.getFlowField(precision, getTile(goal.x, grid[0].length), getTile(goal.y, grid.length));
+	}
+
+	/**
+	 * Gets the next waypoint from a {@link Position} towards a goal
+	 * {@link Position}. This is the center of the next tile on the path, or
+	 * the goal if the position is in the goal tile or the goal cannot be
+	 * reached.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @param goal
+	 *            The goal position.
+	 * @return The next waypoint.
+	 */
+	public Position getNextWaypoint(Position position, Position goal) {
+		if (position.equals(Position.NO_POSITION) || goal.equals(Position.NO_POSITION))
+			return goal;
+		FlowField flowField = getFlowField(goal);
+		int tile = getStartTile(flowField, getTile(position.x, flowField.getWidth()),
+				getTile(position.y, flowField.getHeight()));
+		if (tile < 0)
+			return goal;
+		int next = flowField.getNextTile(tile % flowField.getWidth(), tile / flowField.getWidth());
+		if (next < 0)
+			return goal;
+		return getPositionFromTile(flowField, next);
+	}
+
+	@Override
+	public List<Position> getPath(Position start, Position goal, boolean smooth) {
+		List<Position> positions = new ArrayList<>();
+		if (start.equals(Position.NO_POSITION) || goal.equals(Position.NO_POSITION)
+				|| (smooth && directPathPossible(start, goal))) {
+			positions.add(goal);
+			return positions;
+		}
+
+		FlowField flowField = getFlowField(goal);
+		int width = flowField.getWidth();
+		int tile = getStartTile(flowField, getTile(start.x, width), getTile(start.y, flowField.getHeight()));
+		if (tile < 0) {
+			positions.add(goal);
+			return positions;
+		}
+
+		// follow the field and keep the tiles where the direction changes
+		int direction = 0;
+		int next = flowField.getNextTile(tile % width, tile / width);
+		while (next >= 0) {
+			int nextDirection = next - tile;
+			if (direction != 0 && nextDirection != direction)
+				positions.add(getPositionFromTile(flowField, tile));
+			direction = nextDirection;
+			tile = next;
+			next = flowField.getNextTile(tile % width, tile / width);
+		}
+		positions.add(goal);
+		return positions;
+	}
+
+	/**
+	 * Gets a {@link Position} from a tile.
+	 * 
+	 * @param flowField
+	 *            The flow field.
+	 * @param tile
+	 *            The index of the tile.
+	 * @return The position of the center of the tile.
+	 */
+	private Position getPositionFromTile(FlowField flowField, int tile) {
+		double x = (tile % flowField.getWidth()) * precision + 0.5 * precision;
+		double y = (tile / flowField.getWidth()) * precision + 0.5 * precision;
+		return new Position(x, y);
+	}
+
+	/**
+	 * Gets the tile from which a path starts. If the destination cannot be
+	 * reached from the tile (for instance since it is blocked), a neighboring
+	 * tile from which it can be reached is taken.
+	 * 
+	 * @param flowField
+	 *            The flow field.
+	 * @param x
+	 *            The x coordinate of the tile.
+	 * @param y
+	 *            The y coordinate of the tile.
+	 * @return The index of the tile, or -1 if there is no such tile.
+	 */
+	private int getStartTile(FlowField flowField, int x, int y) {
+		for (int i = 0; i <= 1; i++) {
+			for (int dx = -i; dx <= i; dx++) {
+				for (int dy = -i; dy <= i; dy++) {
+					int tileX = x + dx;
+					int tileY = y + dy;
+					if (tileX >= 0 && tileY >= 0 && tileX < flowField.getWidth() && tileY < flowField.getHeight()
+							&& flowField.isReachable(tileX, tileY))
+						return tileY * flowField.getWidth() + tileX;
+				}
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the coordinate of the tile of a coordinate, moved inside a grid
+	 * with the specified number of tiles in that direction.
+	 * 
+	 * @param coordinate
+	 *            The coordinate.
+	 * @param size
+	 *            The number of tiles.
+	 * @return The coordinate of the tile.
+	 */
+	private int getTile(double coordinate, int size) {
+		return Math.max(0, Math.min(size - 1, (int) (coordinate / precision)));
+	}
+}
@@ -0,0 +1,57 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.HierarchicalGraph;
+import model.environment.position.Position;
+import model.map.Map;
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * The hierarchical path finder uses hierarchical path finding (HPA*) to
+ * determine paths. Instead of searching all tiles of the map, it searches a
+ * graph of the entrances between clusters of tiles, and then refines the
+ * result into tiles. This makes the search time depend much less on the size
+ * of the map, at the cost of paths that are slightly longer than the shortest
+ * paths. The {@link HierarchicalGraph} is shared by all agents through the
+ * {@link SimulationContext}, and is looked up for each path.
+ * 
+ * The path consists of the corners of the path in the discretized map,
+ * followed by the goal.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class HierarchicalPathFinder extends PathFinder {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates the path finder.
+	 * 
+	 * @param map
+	 *            The map.
+	 * @param precision
+	 *            The precision.
+	 */
+	public HierarchicalPathFinder(Map map, double precision) {
+		super(map, precision);
+	}
+
+	@Override
+	public List<Position> getPath(Position start, Position goal, boolean smooth) {
+		List<Position> positions = null;
+		if (!start.equals(Position.NO_POSITION) && !goal.equals(Position.NO_POSITION)
+				&& !(smooth && directPathPossible(start, goal))) {
+			positions = map.getContext().getHierarchicalGraph(precision).findPath(start, goal);
+		}
+		if (positions == null) {
+			positions = new ArrayList<>();
+			positions.add(goal);
+		}
+		return positions;
+	}
+}
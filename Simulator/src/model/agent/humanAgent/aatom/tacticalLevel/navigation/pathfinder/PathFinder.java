@@ -1,15 +1,13 @@
 package model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import model.agent.humanAgent.aatom.tacticalLevel.navigation.DiscretizedMap;
-import model.environment.objects.physicalObject.PhysicalObject;
 import model.environment.position.Position;
 import model.environment.position.Vector;
 import model.map.Map;
-import simulation.simulation.util.Utilities;
 
 /**
  * A path finder finds a feasible path between a specified starting
@@ -21,8 +19,12 @@ import simulation.simulation.util.Utilities;
  * @author S.A.M. Janssen
  *
  */
-public abstract class PathFinder {
+public abstract class PathFinder implements Serializable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The discretized map.
 	 */
@@ -47,7 +49,7 @@ public abstract class PathFinder {
 	public PathFinder(Map map, double precision) {
 		this.map = map;
 		this.precision = precision;
-		discretizedMap = DiscretizedMap.getInstance(map, precision).getMap();
+		discretizedMap = map.getContext().getDiscretizedMap(precision).getMap();
 	}
 
 	/**
@@ -61,7 +63,7 @@ public abstract class PathFinder {
 	 * @return True if there is a direct path possible, false otherwise.
 	 */
 	protected boolean directPathPossible(Position start, Position goal) {
-		return !Utilities.isLineCollision(start, goal, map.getMapComponents((PhysicalObject.class)));
+		return !map.isLineCollision(start, goal);
 	}
 
 	/**
@@ -0,0 +1,64 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.VisibilityGraph;
+import model.environment.position.Position;
+import model.map.Map;
+import simulation.simulation.util.SimulationContext;
+
+/**
+ * The visibility graph path finder searches a {@link VisibilityGraph} that is
+ * built from the polygons of the obstacles, inflated by the radius of the
+ * agent, instead of the tiles of the discretized map. The paths are shortest
+ * paths that keep the radius from the obstacles, and are not restricted to
+ * the directions of a grid, so they do not have to be smoothed. The graph is
+ * shared through the {@link SimulationContext} by all agents whose radius is
+ * rounded up to the same multiple of 5 cm (see
+ * {@link SimulationContext#getVisibilityGraph(double)}). The graph is looked
+ * up for each path, such that a graph that is set later is used.
+ * 
+ * The path consists of the corners of the path, followed by the goal.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class VisibilityGraphPathFinder extends PathFinder {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The radius of the agent.
+	 */
+	private final double radius;
+
+	/**
+	 * Creates the path finder.
+	 * 
+	 * @param map
+	 *            The map.
+	 * @param precision
+	 *            The precision.
+	 * @param radius
+	 *            The radius (in meters) of the agent.
+	 */
+	public VisibilityGraphPathFinder(Map map, double precision, double radius) {
+		super(map, precision);
+		this.radius = radius;
+	}
+
+	@Override
+	public List<Position> getPath(Position start, Position goal, boolean smooth) {
+		List<Position> positions = null;
+		if (!start.equals(Position.NO_POSITION) && !goal.equals(Position.NO_POSITION)) {
+			positions = map.getContext().getVisibilityGraph(radius).findPath(start, goal);
+		}
+		if (positions == null) {
+			positions = new ArrayList<>();
+			positions.add(goal);
+		}
+		return positions;
+	}
+}
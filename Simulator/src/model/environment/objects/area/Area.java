@@ -14,6 +14,11 @@ import model.map.shapes.PolygonMapComponent;
  */
 public abstract class Area extends PolygonMapComponent {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a rectangular area with a specified top left corner, width and
 	 * height.
@@ -15,6 +15,10 @@ import model.environment.position.Position;
  */
 public class BorderControlGateArea extends GateArea {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The desks.
 	 */
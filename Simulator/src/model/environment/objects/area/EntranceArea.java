@@ -10,6 +10,11 @@ import model.environment.position.Position;
  */
 public class EntranceArea extends Area {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a rectangular area with a specified top left corner, width and
 	 * height.
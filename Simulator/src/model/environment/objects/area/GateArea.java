@@ -10,6 +10,10 @@ import model.environment.position.Position;
  */
 public class GateArea extends Area {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The gate number.
 	 */
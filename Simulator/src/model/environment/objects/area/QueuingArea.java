@@ -10,6 +10,10 @@ import model.environment.position.Position;
  */
 public class QueuingArea extends Area {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * Entrance position.
 	 */
@@ -11,6 +11,11 @@ import model.environment.position.Position;
  */
 public class Toilet extends Facility {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a rectangular area with a specified top left corner, width and
 	 * height.
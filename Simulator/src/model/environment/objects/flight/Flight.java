@@ -8,15 +8,56 @@ import model.environment.objects.area.GateArea;
 import model.environment.objects.area.QueuingArea;
 import model.environment.objects.physicalObject.Desk;
 import model.map.MapComponent;
-import simulation.simulation.util.DirectlyUpdatable;
+import simulation.simulation.util.TimedEvent;
+import simulation.simulation.util.TimingWheel;
 
 /**
- * A flight.
+ * A flight. The time to flight follows from the time of the simulation, and
+ * the departure is an event on the {@link TimingWheel}, such that the flight
+ * does not have to be updated on every step.
  * 
  * @author S.A.M. Janssen
  */
-public class Flight extends MapComponent implements DirectlyUpdatable {
+public class Flight extends MapComponent {
 
+	/**
+	 * The event that counts the passengers that missed the flight when it
+	 * departs.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class DepartureEvent implements TimedEvent {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The flight.
+		 */
+		private final Flight flight;
+
+		/**
+		 * Creates the event.
+		 * 
+		 * @param flight
+		 *            The flight.
+		 */
+		private DepartureEvent(Flight flight) {
+			this.flight = flight;
+		}
+
+		@Override
+		public void fire(long step) {
+			if (!flight.isDestroyed())
+				flight.setNumberOfPassengersMissedFlight();
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * Holder for no flight.
 	 */
@@ -30,9 +71,9 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 	 */
 	private float flightTime;
 	/**
-	 * The time to flight.
+	 * The timer of the departure, or null if it is not scheduled yet.
 	 */
-	private float timeToFlight;
+	private TimingWheel.Timer departure;
 	/**
 	 * The gate area.
 	 */
@@ -61,7 +102,6 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 	 * Missed flights.
 	 */
 	private int missedFlights = 0;
-	private boolean setMissed;
 
 	/**
 	 * Creates a new flight.
@@ -108,7 +148,6 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 			throw new IllegalArgumentException("Flight time should be bigger than zero.");
 		this.flightType = flightType;
 		this.flightTime = (float) flightTime;
-		timeToFlight = (float) flightTime;
 		this.checkInQueue = checkInQueue;
 		this.checkPointQueue = checkpointQueue;
 		this.gateArea = gateArea;
@@ -124,7 +163,7 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 	 *            The agent.
 	 * @return True if the agent is already checked in, false otherwise.
 	 */
-	public boolean alreadyCheckedIn(Passenger agent) {
+	public synchronized boolean alreadyCheckedIn(Passenger agent) {
 		return checkedIn.contains(agent);
 	}
 
@@ -134,7 +173,7 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 	 * @param agent
 	 *            The agent to check in.
 	 */
-	public void checkIn(Passenger agent) {
+	public synchronized void checkIn(Passenger agent) {
 		if (agent.getFlight().equals(this) && !checkedIn.contains(agent))
 			checkedIn.add(agent);
 	}
@@ -203,12 +242,29 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 	}
 
 	/**
-	 * Gets the time (s) to flight.
+	 * Gets the time (s) to flight. If the flight is not on a map, this is the
+	 * flight time.
 	 * 
 	 * @return The time to flight.
 	 */
 	public float getTimeToFlight() {
-		return timeToFlight;
+		if (map == null)
+			return flightTime;
+		return (float) (flightTime - map.getTime());
+	}
+
+	/**
+	 * Schedules the departure on the {@link TimingWheel} of the map, in the
+	 * first step in which the time to flight is exceeded. The passengers that
+	 * are not at the gate by then missed the flight. Nothing happens if the
+	 * departure is scheduled already.
+	 */
+	public void scheduleDeparture() {
+		if (departure != null)
+			return;
+		TimingWheel timingWheel = getContext().getTimingWheel();
+		long step = (long) Math.ceil(flightTime * 1000.0 / getContext().getTimeStep());
+		departure = timingWheel.schedule(Math.max(step, timingWheel.getCurrentStep() + 1), new DepartureEvent(this));
 	}
 
 	/**
@@ -217,7 +273,7 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 	 * @return True if it is, false if not.
 	 */
 	public boolean timeToFlightExceeded() {
-		return timeToFlight <= 0;
+		return getTimeToFlight() <= 0;
 	}
 
 	@Override
@@ -225,15 +281,6 @@ public class Flight extends MapComponent implements DirectlyUpdatable {
 		return flightType.toString() + " (" + flightTime + ")";
 	}
 
-	@Override
-	public void update(int timeStep) {
-		timeToFlight -= timeStep / 1000.0;
-		if (timeToFlightExceeded() && !setMissed) {
-			setNumberOfPassengersMissedFlight();
-			setMissed = true;
-		}
-	}
-
 	/**
 	 * The number of passengers that missed their flight.
 	 * 
@@ -11,6 +11,10 @@ import model.environment.position.Position;
  */
 public class Chair extends PhysicalObject {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The agent on the chair.
 	 */
@@ -68,7 +72,7 @@ public class Chair extends PhysicalObject {
 	 * 
 	 * @return True if it is occupied, false otherwise.
 	 */
-	public boolean isOccupied() {
+	public synchronized boolean isOccupied() {
 		if (agent == null)
 			return false;
 		if (agent.isDestroyed()) {
@@ -84,7 +88,7 @@ public class Chair extends PhysicalObject {
 	 * @param agent
 	 *            The agent.
 	 */
-	public void setOccupied(HumanAgent agent) {
+	public synchronized void setOccupied(HumanAgent agent) {
 		if (agent.getDistance(entryPosition) > 2)
 			throw new IllegalArgumentException("The agent is over 2 meters away from the chair. It cannot access it.");
 		if (!isOccupied())
@@ -12,6 +12,10 @@ import model.environment.position.Position;
  */
 public class Desk extends PhysicalObject implements Openable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The serving position.
 	 */
@@ -124,7 +128,7 @@ public class Desk extends PhysicalObject implements Openable {
 	/**
 	 * Empties the reservation of the desk.
 	 */
-	public void emptyReservation() {
+	public synchronized void emptyReservation() {
 		agentAtDesk = null;
 	}
 
@@ -133,7 +137,7 @@ public class Desk extends PhysicalObject implements Openable {
 	 * 
 	 * @return The agent at the desk.
 	 */
-	public HumanAgent getAgentAtDesk() {
+	public synchronized HumanAgent getAgentAtDesk() {
 		if (agentAtDesk != null) {
 			if (agentAtDesk.isDestroyed())
 				agentAtDesk = null;
@@ -155,7 +159,7 @@ public class Desk extends PhysicalObject implements Openable {
 	 * 
 	 * @return True if it is, false otherwise.
 	 */
-	public boolean isOccupied() {
+	public synchronized boolean isOccupied() {
 		if (agentAtDesk == null)
 			return false;
 		if (agentAtDesk.isDestroyed()) {
@@ -176,7 +180,7 @@ public class Desk extends PhysicalObject implements Openable {
 	 * @param agentAtDesk
 	 *            The agent at the desk.
 	 */
-	public void reserveDesk(HumanAgent agentAtDesk) {
+	public synchronized void reserveDesk(HumanAgent agentAtDesk) {
 		if (!isOccupied())
 			this.agentAtDesk = agentAtDesk;
 	}
@@ -16,6 +16,11 @@ import model.map.shapes.PolygonMapComponent;
  */
 public abstract class PhysicalObject extends PolygonMapComponent {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a rectangular physical object with a specified top left corner,
 	 * width and height.
@@ -12,6 +12,10 @@ import model.map.shapes.CircularMapComponent;
  */
 public class Luggage extends CircularMapComponent {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * Holder to indicate no luggage.
 	 */
@@ -1,5 +1,7 @@
 package model.environment.objects.physicalObject.sensor;
 
+import java.io.Serializable;
+
 /**
  * Creates an observation.
  * 
@@ -7,8 +9,12 @@ package model.environment.objects.physicalObject.sensor;
  * @param <T>
  *            The observation type.
  */
-public class Observation<T> {
+public class Observation<T> implements Serializable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * No observation.
 	 */
@@ -12,6 +12,10 @@ import model.map.shapes.PolygonMapComponent;
  */
 public abstract class Sensor extends PolygonMapComponent {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The sensor state.
 	 */
@@ -14,6 +14,10 @@ import simulation.simulation.util.Utilities;
  */
 public abstract class WalkThroughMetalDetector extends Sensor {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The check position.
 	 */
@@ -13,6 +13,10 @@ import model.environment.position.Position;
  */
 public abstract class XRaySensor extends Sensor {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The last observed luggage.
 	 */
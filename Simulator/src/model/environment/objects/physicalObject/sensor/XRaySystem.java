@@ -23,6 +23,10 @@ import simulation.simulation.util.Utilities;
  */
 public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdatable, Openable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The collect position for luggage.
 	 */
@@ -216,7 +220,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * @param luggage
 	 *            The luggage.
 	 */
-	public void addLuggage(Luggage luggage) {
+	public synchronized void addLuggage(Luggage luggage) {
 		luggageInSystem.add(luggage);
 		luggage.setPosition(luggageStartPosition);
 	}
@@ -228,7 +232,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 *            The luggage.
 	 * @return True if successful, false otherwise.
 	 */
-	public boolean collectLuggage(Luggage luggage) {
+	public synchronized boolean collectLuggage(Luggage luggage) {
 		if (luggage.getPosition().distanceTo(luggageEndPosition) <= 0.1) {
 			luggage.setPosition(luggage.getOwner().getPosition());
 			luggageInSystem.remove(luggage);
@@ -254,7 +258,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * 
 	 * @return The passenger.
 	 */
-	public Passenger getCollectPassenger(int position) {
+	public synchronized Passenger getCollectPassenger(int position) {
 		for (int i = 0; i < collectPassengers.length; i++) {
 			if (collectPassengers[i] != null) {
 				if (collectPassengers[i].isDestroyed())
@@ -286,7 +290,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * 
 	 * @return The passenger.
 	 */
-	public Passenger getDropOffPassenger(int index) {
+	public synchronized Passenger getDropOffPassenger(int index) {
 		for (int i = 0; i < dropOffPassengers.length; i++) {
 			if (dropOffPassengers[i] != null) {
 				if (dropOffPassengers[i].isDestroyed())
@@ -333,7 +337,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * 
 	 * @return The next index.
 	 */
-	public int getNextCollectIndex() {
+	public synchronized int getNextCollectIndex() {
 		for (int i = 0; i < getNumberOfCollectIndices(); i++) {
 			if (getCollectPassenger(i) == null)
 				return i;
@@ -347,7 +351,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * 
 	 * @return The next index.
 	 */
-	public int getNextDropOffIndex() {
+	public synchronized int getNextDropOffIndex() {
 		for (int i = 0; i < getNumberOfDropoffIndices(); i++) {
 			if (getDropOffPassenger(i) == null)
 				return i;
@@ -405,7 +409,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * @param luggage
 	 *            The luggage.
 	 */
-	public void removeLuggage(Luggage luggage) {
+	public synchronized void removeLuggage(Luggage luggage) {
 		luggageInSystem.remove(luggage);
 		Position ownerPosition = luggage.getOwner().getPosition();
 		luggage.setPosition(ownerPosition);
@@ -419,7 +423,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * @param index
 	 *            The index.
 	 */
-	public void setCollectPassenger(Passenger collectPassenger, int index) {
+	public synchronized void setCollectPassenger(Passenger collectPassenger, int index) {
 		if (index >= getNumberOfCollectIndices() || index < 0)
 			return;
 		this.collectPassengers[index] = collectPassenger;
@@ -433,7 +437,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	 * @param index
 	 *            The index.
 	 */
-	public void setDropOffPassenger(Passenger dropOffPassenger, int index) {
+	public synchronized void setDropOffPassenger(Passenger dropOffPassenger, int index) {
 		if (index >= getNumberOfDropoffIndices() || index < 0)
 			return;
 		this.dropOffPassengers[index] = dropOffPassenger;
@@ -445,7 +449,7 @@ public abstract class XRaySystem extends PhysicalObject implements DirectlyUpdat
 	}
 
 	@Override
-	public void update(int timeStep) {
+	public synchronized void update(int timeStep) {
 		if (!paused) {
 			for (Luggage luggage : luggageInSystem) {
 				if (luggage.getPosition().distanceTo(luggageEndPosition) > 0.1) {
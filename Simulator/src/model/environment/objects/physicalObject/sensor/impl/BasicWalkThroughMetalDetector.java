@@ -5,7 +5,6 @@ import java.util.List;
 import model.environment.objects.physicalObject.sensor.Observation;
 import model.environment.objects.physicalObject.sensor.WalkThroughMetalDetector;
 import model.environment.position.Position;
-import simulation.simulation.util.Utilities;
 
 /**
  * A Basic Walk Through Metal Detector (WTMD).
@@ -14,6 +13,10 @@ import simulation.simulation.util.Utilities;
  */
 public class BasicWalkThroughMetalDetector extends WalkThroughMetalDetector {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The etd threshold.
 	 */
@@ -65,11 +68,11 @@ public class BasicWalkThroughMetalDetector extends WalkThroughMetalDetector {
 				personsInCosideration = null;
 
 				// etd check.
-				if (Utilities.RANDOM_GENERATOR.nextDouble() < etdThreshold) {
+				if (getContext().getRandomGenerator().nextDouble() < etdThreshold) {
 					return new Observation<Integer>(1);
 				}
 				// wtmd check.
-				if (Utilities.RANDOM_GENERATOR.nextDouble() < wtmdThreshold) {
+				if (getContext().getRandomGenerator().nextDouble() < wtmdThreshold) {
 					return new Observation<Integer>(2);
 				}
 				// Detected nothing.
@@ -17,6 +17,10 @@ import model.environment.position.Position;
  */
 public class BasicXRaySensor extends XRaySensor {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The bags that are checked already.
 	 */
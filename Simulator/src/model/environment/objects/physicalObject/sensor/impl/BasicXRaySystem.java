@@ -13,6 +13,11 @@ import model.environment.position.Position;
  */
 public class BasicXRaySystem extends XRaySystem {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates an x-ray system from a set of corner points.
 	 * 
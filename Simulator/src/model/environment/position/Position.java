@@ -1,12 +1,18 @@
 package model.environment.position;
 
+import java.io.Serializable;
+
 /**
  * Position in the 2D plain.
  * 
  * @author S.A.M. Janssen
  */
-public class Position implements Cloneable {
+public class Position implements Cloneable, Serializable {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * Holder to indicate no position.
 	 */
@@ -45,12 +51,23 @@ public class Position implements Cloneable {
 	 *            y position.
 	 */
 	public Position(float x, float y) {
-		if (Math.abs(x) < epsilon)
-			x = 0;
-		if (Math.abs(y) < epsilon)
-			y = 0;
-		this.x = x;
-		this.y = y;
+		this.x = toCoordinate(x);
+		this.y = toCoordinate(y);
+	}
+
+	/**
+	 * Converts a value to a coordinate of a position. Values that are very
+	 * close to 0 are set to 0. This is applied to both coordinates of each
+	 * position that is created.
+	 * 
+	 * @param value
+	 *            The value.
+	 * @return The coordinate.
+	 */
+	public static float toCoordinate(float value) {
+		if (Math.abs(value) < epsilon)
+			return 0;
+		return value;
 	}
 
 	@Override
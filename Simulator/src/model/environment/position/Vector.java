@@ -7,6 +7,11 @@ package model.environment.position;
  */
 public class Vector extends Position {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Creates a vector.
 	 * 
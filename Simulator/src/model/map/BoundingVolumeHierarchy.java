@@ -0,0 +1,364 @@
+package model.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import model.environment.position.Position;
+import model.map.shapes.PolygonMapComponent;
+
+/**
+ * A bounding volume hierarchy is a binary tree of axis aligned bounding boxes
+ * over a fixed set of {@link PolygonMapComponent}s. It is used to quickly find
+ * the components that are close to a {@link Position} or that intersect with a
+ * line, since the subtrees of which the bounding box is too far away are
+ * skipped. The hierarchy is built once and cannot be changed afterwards, so it
+ * should only contain components that do not move.
+ * 
+ * The bounding boxes are only used to skip components. The components that are
+ * not skipped are tested exactly, so the results are the same as testing all
+ * components. The hierarchy can be queried from multiple threads.
+ * 
+ * @author S.A.M. Janssen
+ * @param <T>
+ *            The type of components in the hierarchy.
+ */
+public class BoundingVolumeHierarchy<T extends PolygonMapComponent> {
+
+	/**
+	 * The maximum number of components in a leaf.
+	 */
+	private static final int LEAF_SIZE = 4;
+	/**
+	 * The margin around each bounding box. The distances and intersections of
+	 * the components are computed in single precision, so the boxes are
+	 * slightly enlarged to never skip a component that would be found
+	 * otherwise.
+	 */
+	private static final double MARGIN = 0.001;
+
+	/**
+	 * The components, in the order in which they were given.
+	 */
+	private final List<T> components;
+	/**
+	 * The bounding boxes of the components, as (minimum x, minimum y, maximum
+	 * x, maximum y).
+	 */
+	private final double[] componentBounds;
+	/**
+	 * The indices of the components, ordered such that the components of each
+	 * node form a consecutive range.
+	 */
+	private final int[] order;
+	/**
+	 * The bounding boxes of the nodes, as (minimum x, minimum y, maximum x,
+	 * maximum y).
+	 */
+	private final double[] nodeBounds;
+	/**
+	 * The first index in {@link #order} of each node.
+	 */
+	private final int[] nodeStart;
+	/**
+	 * The number of components of each node.
+	 */
+	private final int[] nodeSize;
+	/**
+	 * The index of the left child of each node, -1 for leaves.
+	 */
+	private final int[] nodeLeft;
+	/**
+	 * The index of the right child of each node, -1 for leaves.
+	 */
+	private final int[] nodeRight;
+	/**
+	 * The number of nodes.
+	 */
+	private int numberOfNodes;
+
+	/**
+	 * Creates a bounding volume hierarchy.
+	 * 
+	 * @param components
+	 *            The components.
+	 */
+	public BoundingVolumeHierarchy(Collection<T> components) {
+		this.components = new ArrayList<>(components);
+		int n = this.components.size();
+		componentBounds = new double[4 * n];
+		order = new int[n];
+		for (int i = 0; i < n; i++) {
+			double minimumX = Double.MAX_VALUE;
+			double minimumY = Double.MAX_VALUE;
+			double maximumX = -Double.MAX_VALUE;
+			double maximumY = -Double.MAX_VALUE;
+			for (Position corner : this.components.get(i).getCorners()) {
+				minimumX = Math.min(minimumX, corner.x);
+				minimumY = Math.min(minimumY, corner.y);
+				maximumX = Math.max(maximumX, corner.x);
+				maximumY = Math.max(maximumY, corner.y);
+			}
+			componentBounds[4 * i] = minimumX - MARGIN;
+			componentBounds[4 * i + 1] = minimumY - MARGIN;
+			componentBounds[4 * i + 2] = maximumX + MARGIN;
+			componentBounds[4 * i + 3] = maximumY + MARGIN;
+			order[i] = i;
+		}
+
+		int maximumNodes = Math.max(1, 2 * n);
+		nodeBounds = new double[4 * maximumNodes];
+		nodeStart = new int[maximumNodes];
+		nodeSize = new int[maximumNodes];
+		nodeLeft = new int[maximumNodes];
+		nodeRight = new int[maximumNodes];
+		if (n > 0)
+			build(0, n);
+	}
+
+	/**
+	 * Builds the subtree of a range of components.
+	 * 
+	 * @param start
+	 *            The first index in {@link #order}.
+	 * @param size
+	 *            The number of components.
+	 * @return The index of the root node of the subtree.
+	 */
+	private int build(int start, int size) {
+		int node = numberOfNodes++;
+		nodeStart[node] = start;
+		nodeSize[node] = size;
+		nodeLeft[node] = -1;
+		nodeRight[node] = -1;
+
+		double minimumX = Double.MAX_VALUE;
+		double minimumY = Double.MAX_VALUE;
+		double maximumX = -Double.MAX_VALUE;
+		double maximumY = -Double.MAX_VALUE;
+		for (int i = start; i < start + size; i++) {
+			int c = 4 * order[i];
+			minimumX = Math.min(minimumX, componentBounds[c]);
+			minimumY = Math.min(minimumY, componentBounds[c + 1]);
+			maximumX = Math.max(maximumX, componentBounds[c + 2]);
+			maximumY = Math.max(maximumY, componentBounds[c + 3]);
+		}
+		nodeBounds[4 * node] = minimumX;
+		nodeBounds[4 * node + 1] = minimumY;
+		nodeBounds[4 * node + 2] = maximumX;
+		nodeBounds[4 * node + 3] = maximumY;
+
+		if (size > LEAF_SIZE) {
+			// split at the median of the centers, along the longest axis
+			sortByCenter(start, size, maximumX - minimumX >= maximumY - minimumY ? 0 : 1);
+			int half = size / 2;
+			nodeLeft[node] = build(start, half);
+			nodeRight[node] = build(start + half, size - half);
+		}
+		return node;
+	}
+
+	/**
+	 * Gets the distance from a {@link Position} to a bounding box.
+	 * 
+	 * @param bounds
+	 *            The bounding boxes.
+	 * @param index
+	 *            The index of the box.
+	 * @param position
+	 *            The position.
+	 * @return The distance, 0 if the position is in the box.
+	 */
+	private double getBoxDistance(double[] bounds, int index, Position position) {
+		double dx = Math.max(0, Math.max(bounds[4 * index] - position.x, position.x - bounds[4 * index + 2]));
+		double dy = Math.max(0, Math.max(bounds[4 * index + 1] - position.y, position.y - bounds[4 * index + 3]));
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	/**
+	 * Gets all components of which the distance to a {@link Position} is
+	 * smaller than a specified distance.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @param radius
+	 *            The specified distance.
+	 * @return The components within the radius, in the order in which they
+	 *         were given.
+	 */
+	public List<T> getNeighborhood(Position position, double radius) {
+		int[] found = new int[8];
+		int numberFound = 0;
+		if (numberOfNodes > 0) {
+			int[] stack = new int[64];
+			int top = 0;
+			stack[top++] = 0;
+			while (top > 0) {
+				int node = stack[--top];
+				if (getBoxDistance(nodeBounds, node, position) >= radius)
+					continue;
+				if (nodeLeft[node] >= 0) {
+					stack[top++] = nodeRight[node];
+					stack[top++] = nodeLeft[node];
+					continue;
+				}
+				for (int i = nodeStart[node]; i < nodeStart[node] + nodeSize[node]; i++) {
+					int c = order[i];
+					if (getBoxDistance(componentBounds, c, position) < radius
+							&& components.get(c).getDistance(position) < radius) {
+						if (numberFound == found.length)
+							found = Arrays.copyOf(found, 2 * found.length);
+						found[numberFound++] = c;
+					}
+				}
+			}
+		}
+
+		Arrays.sort(found, 0, numberFound);
+		List<T> result = new ArrayList<>(numberFound);
+		for (int i = 0; i < numberFound; i++)
+			result.add(components.get(found[i]));
+		return result;
+	}
+
+	/**
+	 * Gets all components that contain a {@link Position}.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @return The components that contain the position, in the order in which
+	 *         they were given.
+	 */
+	public List<T> getContaining(Position position) {
+		int[] found = new int[4];
+		int numberFound = 0;
+		if (numberOfNodes > 0) {
+			int[] stack = new int[64];
+			int top = 0;
+			stack[top++] = 0;
+			while (top > 0) {
+				int node = stack[--top];
+				if (getBoxDistance(nodeBounds, node, position) > 0)
+					continue;
+				if (nodeLeft[node] >= 0) {
+					stack[top++] = nodeRight[node];
+					stack[top++] = nodeLeft[node];
+					continue;
+				}
+				for (int i = nodeStart[node]; i < nodeStart[node] + nodeSize[node]; i++) {
+					int c = order[i];
+					if (getBoxDistance(componentBounds, c, position) == 0 && components.get(c).contains(position)) {
+						if (numberFound == found.length)
+							found = Arrays.copyOf(found, 2 * found.length);
+						found[numberFound++] = c;
+					}
+				}
+			}
+		}
+
+		Arrays.sort(found, 0, numberFound);
+		List<T> result = new ArrayList<>(numberFound);
+		for (int i = 0; i < numberFound; i++)
+			result.add(components.get(found[i]));
+		return result;
+	}
+
+	/**
+	 * Determines if a line intersects with one of the components.
+	 * 
+	 * @param start
+	 *            The start position of the line.
+	 * @param end
+	 *            The end position of the line.
+	 * @return True if it does, false otherwise.
+	 */
+	public boolean isLineCollision(Position start, Position end) {
+		if (numberOfNodes == 0)
+			return false;
+		double minimumX = Math.min(start.x, end.x);
+		double minimumY = Math.min(start.y, end.y);
+		double maximumX = Math.max(start.x, end.x);
+		double maximumY = Math.max(start.y, end.y);
+
+		int[] stack = new int[64];
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int node = stack[--top];
+			if (!overlaps(nodeBounds, node, minimumX, minimumY, maximumX, maximumY))
+				continue;
+			if (nodeLeft[node] >= 0) {
+				stack[top++] = nodeRight[node];
+				stack[top++] = nodeLeft[node];
+				continue;
+			}
+			for (int i = nodeStart[node]; i < nodeStart[node] + nodeSize[node]; i++) {
+				int c = order[i];
+				if (overlaps(componentBounds, c, minimumX, minimumY, maximumX, maximumY)
+						&& components.get(c).isLineCollision(start, end))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Determines if a bounding box overlaps with a rectangle.
+	 * 
+	 * @param bounds
+	 *            The bounding boxes.
+	 * @param index
+	 *            The index of the box.
+	 * @param minimumX
+	 *            The minimum x coordinate of the rectangle.
+	 * @param minimumY
+	 *            The minimum y coordinate of the rectangle.
+	 * @param maximumX
+	 *            The maximum x coordinate of the rectangle.
+	 * @param maximumY
+	 *            The maximum y coordinate of the rectangle.
+	 * @return True if they overlap, false otherwise.
+	 */
+	private boolean overlaps(double[] bounds, int index, double minimumX, double minimumY, double maximumX,
+			double maximumY) {
+		return bounds[4 * index] <= maximumX && bounds[4 * index + 2] >= minimumX && bounds[4 * index + 1] <= maximumY
+				&& bounds[4 * index + 3] >= minimumY;
+	}
+
+	/**
+	 * Gets the number of components.
+	 * 
+	 * @return The number of components.
+	 */
+	public int size() {
+		return components.size();
+	}
+
+	/**
+	 * Sorts a range of {@link #order} by the centers of the bounding boxes
+	 * along an axis.
+	 * 
+	 * @param start
+	 *            The first index.
+	 * @param size
+	 *            The number of indices.
+	 * @param axis
+	 *            The axis, 0 for x and 1 for y.
+	 */
+	private void sortByCenter(int start, int size, final int axis) {
+		Integer[] range = new Integer[size];
+		for (int i = 0; i < size; i++)
+			range[i] = order[start + i];
+		Arrays.sort(range, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				return Double.compare(componentBounds[4 * o1 + axis] + componentBounds[4 * o1 + axis + 2],
+						componentBounds[4 * o2 + axis] + componentBounds[4 * o2 + axis + 2]);
+			}
+		});
+		for (int i = 0; i < size; i++)
+			order[start + i] = range[i];
+	}
+}
@@ -1,19 +1,25 @@
 package model.map;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
-import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Multimap;
 
+import model.agent.Agent;
 import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.PassengerEventListener;
+import model.environment.objects.area.Area;
 import model.environment.objects.area.QueuingArea;
 import model.environment.objects.flight.Flight;
 import model.environment.objects.physicalObject.PhysicalObject;
 import model.environment.position.Position;
 import model.map.shapes.CircularMapComponent;
 import model.map.shapes.PolygonMapComponent;
+import simulation.simulation.util.SimulationContext;
 
 /**
  * The map forms the basis for the agent-based model. It gathers all physical
@@ -22,15 +28,67 @@ import model.map.shapes.PolygonMapComponent;
  * @author S.A.M. Janssen
  *
  */
-public class Map {
+public class Map implements Serializable {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The cell size of the {@link SpatialHashGrid} of the {@link Agent}s.
+	 */
+	private static final double AGENT_GRID_CELL_SIZE = 2;
+	/**
+	 * The keys under which the {@link MapComponent}s of a class are
+	 * registered: the class and its superclasses, and the interfaces they
+	 * implement directly. The keys are computed once per class.
+	 */
+	private static final ClassValue<Class<?>[]> REGISTRATION_KEYS = new ClassValue<Class<?>[]>() {
+		@Override
+		protected Class<?>[] computeValue(Class<?> type) {
+			List<Class<?>> keys = new ArrayList<>();
+			Class<?> mapComponentClass = type;
+			while (mapComponentClass != Object.class) {
+				keys.add(mapComponentClass);
+				Collections.addAll(keys, mapComponentClass.getInterfaces());
+				mapComponentClass = mapComponentClass.getSuperclass();
+			}
+			keys.add(Object.class);
+			return keys.toArray(new Class<?>[keys.size()]);
+		}
+	};
 
 	/**
 	 * The {@link MapComponent}s on the map. The {@link Multimap} is used as an
 	 * internal representation to quickly find collections of
 	 * {@link MapComponent}s of a specified type. This results in some extra
-	 * memory usage, but enables fast access times.
+	 * memory usage, but enables fast access times. The components of a type
+	 * are kept in the order in which they were added, and can be removed in
+	 * constant time.
 	 */
 	private Multimap<Class<?>, MapComponent> mapComponents;
+	/**
+	 * The {@link SpatialHashGrid} of the {@link Agent}s, used for fast
+	 * neighborhood queries.
+	 */
+	private final SpatialHashGrid<Agent> agentGrid;
+	/**
+	 * The {@link BoundingVolumeHierarchy} of the {@link PhysicalObject}s, used
+	 * for fast neighborhood and line collision queries. It is built when it is
+	 * first needed or when the first {@link Passenger} is added, and discarded
+	 * if a physical object is added or removed. Volatile for thread safety.
+	 */
+	private transient volatile BoundingVolumeHierarchy<PhysicalObject> physicalObjectHierarchy;
+	/**
+	 * The {@link BoundingVolumeHierarchy} of the {@link Area}s, used to find
+	 * the areas that contain a position. It is built when it is first needed,
+	 * and discarded if an area is added or removed. Volatile for thread safety.
+	 */
+	private transient volatile BoundingVolumeHierarchy<Area> areaHierarchy;
+	/**
+	 * The {@link PassengerEventListener}, null if there is none.
+	 */
+	private PassengerEventListener passengerEventListener;
 	/**
 	 * The height of the map.
 	 */
@@ -39,6 +97,34 @@ public class Map {
 	 * The width of the map.
 	 */
 	private float width;
+	/**
+	 * The largest x coordinate of the {@link PolygonMapComponent}s, which form
+	 * the static geometry of the map.
+	 */
+	private double staticMaximumX;
+	/**
+	 * The largest y coordinate of the {@link PolygonMapComponent}s.
+	 */
+	private double staticMaximumY;
+	/**
+	 * The largest x coordinate of the {@link CircularMapComponent}s (agents
+	 * and luggage).
+	 */
+	private double movingMaximumX;
+	/**
+	 * The largest y coordinate of the {@link CircularMapComponent}s.
+	 */
+	private double movingMaximumY;
+	/**
+	 * The {@link CircularMapComponent} with the largest x coordinate, null if
+	 * there is none.
+	 */
+	private CircularMapComponent movingMaximumXComponent;
+	/**
+	 * The {@link CircularMapComponent} with the largest y coordinate, null if
+	 * there is none.
+	 */
+	private CircularMapComponent movingMaximumYComponent;
 	/**
 	 * The minimum height of the map.
 	 */
@@ -48,9 +134,9 @@ public class Map {
 	 */
 	private final float minimumWidth;
 	/**
-	 * The time.
+	 * The simulation context.
 	 */
-	private double time;
+	private SimulationContext context;
 
 	/**
 	 * Creates a map that automatically scales to the items that are added.
@@ -75,7 +161,9 @@ public class Map {
 		this.height = height;
 		minimumWidth = width;
 		minimumHeight = height;
-		mapComponents = ArrayListMultimap.create();
+		mapComponents = LinkedHashMultimap.create();
+		agentGrid = new SpatialHashGrid<>(AGENT_GRID_CELL_SIZE);
+		context = new SimulationContext(this, SimulationContext.current().getRandomGenerator());
 	}
 
 	/**
@@ -88,21 +176,46 @@ public class Map {
 		// throw error messages in case of problems
 		checkForAddIssues(object);
 
-		// add a key for each superclass, up until the MapComponent class.
-		Class<?> mapComponentClass = object.getClass();
-
-		while (!mapComponentClass.getSimpleName().equals("Object")) {
-			mapComponents.put(mapComponentClass, object);
+		// add a key for each superclass and its interfaces.
+		for (Class<?> key : REGISTRATION_KEYS.get(object.getClass()))
+			mapComponents.put(key, object);
+		if (object instanceof Agent)
+			agentGrid.add((Agent) object);
+		if (object instanceof PhysicalObject)
+			physicalObjectHierarchy = null;
+		else if (object instanceof Passenger)
+			getPhysicalObjectHierarchy();
+		else if (object instanceof Area)
+			areaHierarchy = null;
+		object.setMap(this);
+		if (object instanceof PolygonMapComponent) {
+			double[] maximum = getMaximum((PolygonMapComponent) object);
+			staticMaximumX = Math.max(staticMaximumX, maximum[0]);
+			staticMaximumY = Math.max(staticMaximumY, maximum[1]);
+			updateDimensions();
+		} else if (object instanceof CircularMapComponent) {
+			addMovingMaximum((CircularMapComponent) object);
+			updateDimensions();
+		}
+	}
 
-			// check for interfaces
-			for (Class<?> c : mapComponentClass.getInterfaces()) {
-				mapComponents.put(c, object);
-			}
-			mapComponentClass = mapComponentClass.getSuperclass();
+	/**
+	 * Includes a {@link CircularMapComponent} in the largest coordinates of
+	 * the moving components.
+	 * 
+	 * @param component
+	 *            The component.
+	 */
+	private void addMovingMaximum(CircularMapComponent component) {
+		double[] maximum = getMaximum(component);
+		if (movingMaximumXComponent == null || maximum[0] > movingMaximumX) {
+			movingMaximumX = maximum[0];
+			movingMaximumXComponent = component;
+		}
+		if (movingMaximumYComponent == null || maximum[1] > movingMaximumY) {
+			movingMaximumY = maximum[1];
+			movingMaximumYComponent = component;
 		}
-		mapComponents.put(mapComponentClass, object);
-		object.setMap(this);
-		updateDimensions();
 	}
 
 	/**
@@ -131,6 +244,43 @@ public class Map {
 
 	}
 
+	/**
+	 * Gets all {@link Agent}s of a specific type within a specified distance
+	 * from a {@link Position}. This gives the same result as
+	 * {@link simulation.simulation.util.Utilities#getMapComponentsInNeighborhood(Position, double, Collection)}
+	 * applied to {@link #getMapComponents(Class)}, but only inspects the agents
+	 * that are close to the position.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @param radius
+	 *            The specified distance.
+	 * @param type
+	 *            The type of agents.
+	 * @param <T>
+	 *            The type of agents.
+	 * @return The agents within the radius.
+	 */
+	public <T extends Agent> Collection<T> getAgentsInNeighborhood(Position position, double radius, Class<T> type) {
+		return agentGrid.getNeighborhood(position, radius, type);
+	}
+
+	/**
+	 * Gets all {@link Area}s that contain a {@link Position}.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @return The areas, in the order in which they were added.
+	 */
+	public List<Area> getAreasContaining(Position position) {
+		BoundingVolumeHierarchy<Area> hierarchy = areaHierarchy;
+		if (hierarchy == null) {
+			hierarchy = new BoundingVolumeHierarchy<>(getMapComponents(Area.class));
+			areaHierarchy = hierarchy;
+		}
+		return hierarchy.getContaining(position);
+	}
+
 	/**
 	 * Gets the height of the map.
 	 * 
@@ -154,11 +304,54 @@ public class Map {
 		return (Collection<T>) mapComponents.get(className);
 	}
 
+	/**
+	 * Gets the largest coordinates of a {@link PhysicalMapComponent}, but at
+	 * least 0.
+	 * 
+	 * @param mapComponent
+	 *            The map component.
+	 * @return The largest x and y coordinate.
+	 */
+	private static double[] getMaximum(PhysicalMapComponent mapComponent) {
+		double maximumX = 0;
+		double maximumY = 0;
+		if (mapComponent instanceof CircularMapComponent) {
+			maximumX = mapComponent.position.x + ((CircularMapComponent) mapComponent).getRadius();
+			maximumY = mapComponent.position.y + ((CircularMapComponent) mapComponent).getRadius();
+		} else if (mapComponent instanceof PolygonMapComponent) {
+			for (Position corner : ((PolygonMapComponent) mapComponent).getCorners()) {
+				if (corner.x > maximumX)
+					maximumX = corner.x;
+				if (corner.y > maximumY)
+					maximumY = corner.y;
+			}
+		}
+		return new double[] { Math.max(0, maximumX), Math.max(0, maximumY) };
+	}
+
+	/**
+	 * Gets the {@link PassengerEventListener}.
+	 * 
+	 * @return The listener, null if there is none.
+	 */
+	public PassengerEventListener getPassengerEventListener() {
+		return passengerEventListener;
+	}
+
+	/**
+	 * Gets the {@link SimulationContext} of the map.
+	 * 
+	 * @return The context.
+	 */
+	public SimulationContext getContext() {
+		return context;
+	}
+
 	/**
 	 * @return the time
 	 */
 	public double getTime() {
-		return time;
+		return context.getTime();
 	}
 
 	/**
@@ -170,6 +363,55 @@ public class Map {
 		return width;
 	}
 
+	/**
+	 * Gets the {@link BoundingVolumeHierarchy} of the {@link PhysicalObject}s,
+	 * builds it if necessary.
+	 * 
+	 * @return The hierarchy.
+	 */
+	private BoundingVolumeHierarchy<PhysicalObject> getPhysicalObjectHierarchy() {
+		BoundingVolumeHierarchy<PhysicalObject> hierarchy = physicalObjectHierarchy;
+		if (hierarchy == null) {
+			hierarchy = new BoundingVolumeHierarchy<>(getMapComponents(PhysicalObject.class));
+			physicalObjectHierarchy = hierarchy;
+		}
+		return hierarchy;
+	}
+
+	/**
+	 * Gets all {@link PhysicalObject}s within a specified distance from a
+	 * {@link Position}. This gives the same result as
+	 * {@link simulation.simulation.util.Utilities#getMapComponentsInNeighborhood(Position, double, Collection)}
+	 * applied to all physical objects, but only inspects the objects that are
+	 * close to the position.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @param radius
+	 *            The specified distance.
+	 * @return The physical objects within the radius.
+	 */
+	public Collection<PhysicalObject> getPhysicalObjectsInNeighborhood(Position position, double radius) {
+		return getPhysicalObjectHierarchy().getNeighborhood(position, radius);
+	}
+
+	/**
+	 * Determines if a line intersects with a {@link PhysicalObject} on the map.
+	 * This gives the same result as
+	 * {@link simulation.simulation.util.Utilities#isLineCollision(Position, Position, Collection)}
+	 * applied to all physical objects, but only inspects the objects that are
+	 * close to the line.
+	 * 
+	 * @param start
+	 *            The start position of the line.
+	 * @param end
+	 *            The end position of the line.
+	 * @return True if it does, false otherwise.
+	 */
+	public boolean isLineCollision(Position start, Position end) {
+		return getPhysicalObjectHierarchy().isLineCollision(start, end);
+	}
+
 	/**
 	 * Check if a {@link Position} is out of map.
 	 * 
@@ -190,46 +432,126 @@ public class Map {
 	 *            The map component.
 	 */
 	public void remove(MapComponent mapComponent) {
-		mapComponents.values().removeAll(Collections.singleton(mapComponent));
+		for (Class<?> key : REGISTRATION_KEYS.get(mapComponent.getClass()))
+			mapComponents.remove(key, mapComponent);
+		if (mapComponent instanceof Agent)
+			agentGrid.remove((Agent) mapComponent);
+		if (mapComponent instanceof PhysicalObject)
+			physicalObjectHierarchy = null;
+		else if (mapComponent instanceof Area)
+			areaHierarchy = null;
+		else if (mapComponent instanceof Passenger)
+			((Passenger) mapComponent).publishRemoval();
 		mapComponent.destroy();
-		updateDimensions();
+		if (mapComponent instanceof PolygonMapComponent) {
+			staticMaximumX = 0;
+			staticMaximumY = 0;
+			for (PolygonMapComponent component : getMapComponents(PolygonMapComponent.class)) {
+				double[] maximum = getMaximum(component);
+				staticMaximumX = Math.max(staticMaximumX, maximum[0]);
+				staticMaximumY = Math.max(staticMaximumY, maximum[1]);
+			}
+			updateDimensions();
+		} else if (mapComponent == movingMaximumXComponent || mapComponent == movingMaximumYComponent) {
+			updateMovingMaximum();
+		}
 	}
 
 	/**
-	 * Updates the dimensions of the map.
+	 * Updates the neighborhood information of an {@link Agent} after its
+	 * {@link Position} changed.
+	 * 
+	 * @param agent
+	 *            The agent.
 	 */
-	private void updateDimensions() {
-		double tempWidth = 0;
-		double tempHeight = 0;
-		for (PhysicalMapComponent mapComponent : getMapComponents(PhysicalMapComponent.class)) {
-			if (mapComponent instanceof CircularMapComponent) {
-				double tempX = mapComponent.position.x + ((CircularMapComponent) mapComponent).getRadius();
-				double tempY = mapComponent.position.y + ((CircularMapComponent) mapComponent).getRadius();
-				if (tempX > tempWidth)
-					tempWidth = tempX;
-				if (tempY > tempHeight)
-					tempHeight = tempY;
-			} else if (mapComponent instanceof PolygonMapComponent) {
-				List<Position> corners = ((PolygonMapComponent) mapComponent).getCorners();
-				double tempX = 0;
-				double tempY = 0;
-				for (Position corner : corners) {
-					if (corner.x > tempX)
-						tempX = corner.x;
-					if (corner.y > tempY)
-						tempY = corner.y;
-				}
-				if (tempX > tempWidth)
-					tempWidth = tempX;
-				if (tempY > tempHeight)
-					tempHeight = tempY;
+	public void updateAgentPosition(Agent agent) {
+		agentGrid.update(agent);
+	}
+
+	/**
+	 * Updates the neighborhood information of all {@link Agent}s, and the
+	 * dimensions of the map. The largest coordinates of the
+	 * {@link CircularMapComponent}s are determined in the same pass, so the
+	 * dimensions cover all of them after they moved. Only to be called by the
+	 * simulator.
+	 */
+	public void updateAgentPositions() {
+		movingMaximumX = 0;
+		movingMaximumY = 0;
+		movingMaximumXComponent = null;
+		movingMaximumYComponent = null;
+		for (CircularMapComponent component : getMapComponents(CircularMapComponent.class)) {
+			if (component instanceof Agent)
+				agentGrid.update((Agent) component);
+			double maximumX = Math.max(0, component.position.x + component.getRadius());
+			double maximumY = Math.max(0, component.position.y + component.getRadius());
+			if (movingMaximumXComponent == null || maximumX > movingMaximumX) {
+				movingMaximumX = maximumX;
+				movingMaximumXComponent = component;
+			}
+			if (movingMaximumYComponent == null || maximumY > movingMaximumY) {
+				movingMaximumY = maximumY;
+				movingMaximumYComponent = component;
 			}
 		}
+		updateDimensions();
+	}
+
+	/**
+	 * Updates the dimensions of the map. The dimensions cover the
+	 * {@link PolygonMapComponent}s and the {@link CircularMapComponent}s. The
+	 * largest coordinates of both are maintained when components are added,
+	 * and recomputed from all components of the kind when the component with
+	 * the largest coordinate is removed. The largest coordinates of the
+	 * circular components are also recomputed each step, in
+	 * {@link #updateAgentPositions()}.
+	 */
+	private void updateDimensions() {
+		double maximumX = Math.max(staticMaximumX, movingMaximumX);
+		double maximumY = Math.max(staticMaximumY, movingMaximumY);
+		if (maximumX + 1 >= minimumWidth)
+			width = Math.round(maximumX + 1);
+		if (maximumY + 1 >= minimumHeight)
+			height = Math.round(maximumY + 1);
+	}
+
+	/**
+	 * Recomputes the largest coordinates of the {@link CircularMapComponent}s
+	 * from all of them, and updates the dimensions.
+	 */
+	private void updateMovingMaximum() {
+		movingMaximumX = 0;
+		movingMaximumY = 0;
+		movingMaximumXComponent = null;
+		movingMaximumYComponent = null;
+		for (CircularMapComponent component : getMapComponents(CircularMapComponent.class))
+			addMovingMaximum(component);
+		updateDimensions();
+	}
 
-		if (tempWidth + 1 >= minimumWidth)
-			width = Math.round(tempWidth + 1);
-		if (tempHeight + 1 >= minimumHeight)
-			height = Math.round(tempHeight + 1);
+	/**
+	 * Sets the {@link SimulationContext} of the map. Only to be called by the
+	 * simulator.
+	 * 
+	 * @param context
+	 *            The context.
+	 */
+	public void setContext(SimulationContext context) {
+		if (context == null || context.getMap() != this)
+			throw new IllegalArgumentException("The context should belong to this map.");
+		this.context = context;
+	}
+
+	/**
+	 * Sets the {@link PassengerEventListener} that is notified of the
+	 * transitions of the {@link Passenger}s on the map. The passengers only
+	 * publish events if there is a listener.
+	 * 
+	 * @param passengerEventListener
+	 *            The listener, null to remove it.
+	 */
+	public void setPassengerEventListener(PassengerEventListener passengerEventListener) {
+		this.passengerEventListener = passengerEventListener;
 	}
 
 	/**
@@ -239,6 +561,6 @@ public class Map {
 	 *            The time step.
 	 */
 	public void updateTime(int timeStep) {
-		time += (timeStep / 1000.0);
+		context.updateTime(timeStep);
 	}
 }
\ No newline at end of file
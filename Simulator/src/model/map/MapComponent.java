@@ -1,5 +1,6 @@
 package model.map;
 
+import simulation.simulation.util.SimulationContext;
 import simulation.simulation.util.SimulationObject;
 
 /**
@@ -10,6 +11,10 @@ import simulation.simulation.util.SimulationObject;
  */
 public abstract class MapComponent implements SimulationObject {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * States if the map component is destroyed.
 	 */
@@ -26,6 +31,19 @@ public abstract class MapComponent implements SimulationObject {
 		destroyed = true;
 	}
 
+	/**
+	 * Gets the {@link SimulationContext} of the {@link Map} of the component.
+	 * If the component is not on a map, the context of the current thread is
+	 * returned.
+	 * 
+	 * @return The context.
+	 */
+	protected SimulationContext getContext() {
+		if (map == null)
+			return SimulationContext.current();
+		return map.getContext();
+	}
+
 	/**
 	 * Determines if the component is destroyed.
 	 * 
@@ -23,6 +23,7 @@ import model.environment.objects.physicalObject.sensor.impl.BasicWalkThroughMeta
 import model.environment.objects.physicalObject.sensor.impl.BasicXRaySensor;
 import model.environment.objects.physicalObject.sensor.impl.BasicXRaySystem;
 import model.environment.position.Position;
+import simulation.simulation.util.SimulationContext;
 import simulation.simulation.util.SimulationObject;
 import simulation.simulation.util.Utilities;
 import util.math.distributions.GeneralizedExtremeValueMathDistribution;
@@ -656,7 +657,7 @@ public final class ModelComponentBuilder {
 				components.add(c);
 			}
 		}
-		Collections.shuffle(components, Utilities.RANDOM_GENERATOR);
+		Collections.shuffle(components, SimulationContext.current().getRandomGenerator());
 		return components;
 	}
 }
\ No newline at end of file
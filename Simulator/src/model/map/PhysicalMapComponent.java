@@ -10,6 +10,10 @@ import model.environment.position.Vector;
  */
 public abstract class PhysicalMapComponent extends MapComponent {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The position of the map component on the map.
 	 */
@@ -0,0 +1,335 @@
+package model.map;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import model.environment.position.Position;
+import model.map.shapes.CircularMapComponent;
+
+/**
+ * A spatial hash grid divides the plane into square cells and keeps track of
+ * the cell that contains the center {@link Position} of each of its
+ * {@link CircularMapComponent}s. This enables fast neighborhood queries, since
+ * only the cells that overlap with the neighborhood are inspected. Cells are
+ * only created if they contain a component, so the grid does not depend on the
+ * size of the {@link Map}.
+ * 
+ * A neighborhood query returns the components in the order in which they were
+ * added to the grid, which is the same order as
+ * {@link Map#getMapComponents(Class)}.
+ * 
+ * The grid does not observe the components. If the position of a component
+ * changes, {@link #update(CircularMapComponent)} or {@link #updateAll()} has
+ * to be called. Queries can be made from multiple threads, as long as no
+ * components are added, removed or updated at the same time.
+ * 
+ * @author S.A.M. Janssen
+ * @param <T>
+ *            The type of components in the grid.
+ */
+public class SpatialHashGrid<T extends CircularMapComponent> implements Serializable {
+
+	/**
+	 * An entry of the grid.
+	 * 
+	 * @author S.A.M. Janssen
+	 * @param <T>
+	 *            The type of components in the grid.
+	 */
+	private static class Entry<T> implements Serializable {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The component.
+		 */
+		private final T component;
+		/**
+		 * The order in which the component was added.
+		 */
+		private final long sequence;
+		/**
+		 * The key of the cell of the component.
+		 */
+		private long cell;
+
+		/**
+		 * Creates an entry.
+		 * 
+		 * @param component
+		 *            The component.
+		 * @param sequence
+		 *            The order in which the component was added.
+		 * @param cell
+		 *            The key of the cell.
+		 */
+		private Entry(T component, long sequence, long cell) {
+			this.component = component;
+			this.sequence = sequence;
+			this.cell = cell;
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The margin that is added to the query radius to determine the cells.
+	 */
+	private static final double MARGIN = 0.001;
+	/**
+	 * Compares entries by the order in which they were added.
+	 */
+	private static final Comparator<Entry<?>> SEQUENCE_ORDER = new Comparator<Entry<?>>() {
+		@Override
+		public int compare(Entry<?> o1, Entry<?> o2) {
+			return Long.compare(o1.sequence, o2.sequence);
+		}
+	};
+
+	/**
+	 * The width of a cell.
+	 */
+	private final double cellSize;
+	/**
+	 * The cells, by key.
+	 */
+	private final HashMap<Long, List<Entry<T>>> cells;
+	/**
+	 * The entries, by component.
+	 */
+	private final IdentityHashMap<T, Entry<T>> entries;
+	/**
+	 * The sequence number of the next component.
+	 */
+	private long nextSequence;
+
+	/**
+	 * Creates an empty spatial hash grid.
+	 * 
+	 * @param cellSize
+	 *            The width of a cell. A good cell size is in the order of the
+	 *            most common query radius.
+	 */
+	public SpatialHashGrid(double cellSize) {
+		if (!(cellSize > 0))
+			throw new IllegalArgumentException("The cell size should be larger than 0.");
+		this.cellSize = cellSize;
+		cells = new HashMap<>();
+		entries = new IdentityHashMap<>();
+	}
+
+	/**
+	 * Adds a component to the grid.
+	 * 
+	 * @param component
+	 *            The component.
+	 */
+	public void add(T component) {
+		if (entries.containsKey(component))
+			return;
+		Entry<T> entry = new Entry<>(component, nextSequence++, getCell(component.getPosition()));
+		entries.put(component, entry);
+		getOrCreateCell(entry.cell).add(entry);
+	}
+
+	/**
+	 * Gets the key of the cell that contains a position.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @return The key.
+	 */
+	private long getCell(Position position) {
+		return getCell(getCellIndex(position.x), getCellIndex(position.y));
+	}
+
+	/**
+	 * Gets the key of a cell.
+	 * 
+	 * @param x
+	 *            The x index of the cell.
+	 * @param y
+	 *            The y index of the cell.
+	 * @return The key.
+	 */
+	private long getCell(int x, int y) {
+		return ((long) x << 32) | (y & 0xffffffffL);
+	}
+
+	/**
+	 * Gets the index of the cell that contains a coordinate.
+	 * 
+	 * @param coordinate
+	 *            The coordinate.
+	 * @return The index.
+	 */
+	private int getCellIndex(double coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	/**
+	 * Gets the cell size.
+	 * 
+	 * @return The width of a cell.
+	 */
+	public double getCellSize() {
+		return cellSize;
+	}
+
+	/**
+	 * Gets all components of a specific type within a specified distance from
+	 * a {@link Position}. The result is the same as
+	 * {@link simulation.simulation.util.Utilities#getMapComponentsInNeighborhood(Position, double, Collection)}
+	 * applied to all components of the type in the grid.
+	 * 
+	 * @param position
+	 *            The position.
+	 * @param radius
+	 *            The specified distance.
+	 * @param type
+	 *            The type of components.
+	 * @param <S>
+	 *            The type of components.
+	 * @return The components within the radius, in the order in which they
+	 *         were added.
+	 */
+	@SuppressWarnings("unchecked")
+	public <S> Collection<S> getNeighborhood(Position position, double radius, Class<S> type) {
+		List<Entry<T>> found = new ArrayList<>();
+		// the distances are computed in single precision, so we add a margin
+		double range = radius + MARGIN;
+		int minimumX = getCellIndex(position.x - range);
+		int maximumX = getCellIndex(position.x + range);
+		int minimumY = getCellIndex(position.y - range);
+		int maximumY = getCellIndex(position.y + range);
+		if ((maximumX - minimumX + 1.0) * (maximumY - minimumY + 1.0) > cells.size()) {
+			// the neighborhood is large, so we inspect all cells
+			for (List<Entry<T>> cell : cells.values())
+				addNeighbors(cell, position, radius, type, found);
+		} else {
+			for (int x = minimumX; x <= maximumX; x++) {
+				for (int y = minimumY; y <= maximumY; y++) {
+					List<Entry<T>> cell = cells.get(getCell(x, y));
+					if (cell != null)
+						addNeighbors(cell, position, radius, type, found);
+				}
+			}
+		}
+		if (found.size() > 1)
+			Collections.sort(found, SEQUENCE_ORDER);
+
+		List<S> result = new ArrayList<>(found.size());
+		for (Entry<T> entry : found)
+			result.add((S) entry.component);
+		return result;
+	}
+
+	/**
+	 * Adds the entries of a cell that are within a specified distance from a
+	 * {@link Position} to a list.
+	 * 
+	 * @param cell
+	 *            The cell.
+	 * @param position
+	 *            The position.
+	 * @param radius
+	 *            The specified distance.
+	 * @param type
+	 *            The type of components.
+	 * @param found
+	 *            The list.
+	 */
+	private void addNeighbors(List<Entry<T>> cell, Position position, double radius, Class<?> type,
+			List<Entry<T>> found) {
+		for (Entry<T> entry : cell) {
+			if (type.isInstance(entry.component) && entry.component.getDistance(position) < radius)
+				found.add(entry);
+		}
+	}
+
+	/**
+	 * Gets a cell, creates it if it does not exist.
+	 * 
+	 * @param key
+	 *            The key of the cell.
+	 * @return The cell.
+	 */
+	private List<Entry<T>> getOrCreateCell(long key) {
+		List<Entry<T>> cell = cells.get(key);
+		if (cell == null) {
+			cell = new ArrayList<>(4);
+			cells.put(key, cell);
+		}
+		return cell;
+	}
+
+	/**
+	 * Removes a component from the grid.
+	 * 
+	 * @param component
+	 *            The component.
+	 */
+	public void remove(T component) {
+		Entry<T> entry = entries.remove(component);
+		if (entry != null)
+			removeFromCell(entry);
+	}
+
+	/**
+	 * Removes an entry from its cell. Empty cells are removed.
+	 * 
+	 * @param entry
+	 *            The entry.
+	 */
+	private void removeFromCell(Entry<T> entry) {
+		List<Entry<T>> cell = cells.get(entry.cell);
+		cell.remove(entry);
+		if (cell.isEmpty())
+			cells.remove(entry.cell);
+	}
+
+	/**
+	 * Gets the number of components in the grid.
+	 * 
+	 * @return The number of components.
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Updates the cell of a component after its position changed.
+	 * 
+	 * @param component
+	 *            The component.
+	 */
+	public void update(T component) {
+		Entry<T> entry = entries.get(component);
+		if (entry == null)
+			return;
+		long cell = getCell(component.getPosition());
+		if (cell != entry.cell) {
+			removeFromCell(entry);
+			entry.cell = cell;
+			getOrCreateCell(cell).add(entry);
+		}
+	}
+
+	/**
+	 * Updates the cells of all components.
+	 */
+	public void updateAll() {
+		for (T component : entries.keySet())
+			update(component);
+	}
+}
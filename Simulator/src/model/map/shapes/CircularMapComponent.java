@@ -13,6 +13,10 @@ import simulation.simulation.util.Utilities;
  */
 public abstract class CircularMapComponent extends PhysicalMapComponent implements CircularShape {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The radius (meter) of the agent.
 	 */
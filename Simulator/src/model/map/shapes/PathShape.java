@@ -2,10 +2,12 @@ package model.map.shapes;
 
 import java.awt.Rectangle;
 import java.awt.geom.Path2D;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 import model.environment.position.Position;
+import simulation.simulation.util.SimulationContext;
 import simulation.simulation.util.Utilities;
 import util.math.RandomPlus;
 
@@ -17,6 +19,43 @@ import util.math.RandomPlus;
 @SuppressWarnings("serial")
 public class PathShape extends Path2D.Float {
 
+	/**
+	 * The serialized form of a path shape. {@link Path2D} cannot be read from
+	 * a subclass, so only the corners are written and the shape is created
+	 * again when it is read.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class SerializedForm implements Serializable {
+
+		/**
+		 * The corners.
+		 */
+		private final List<Position> corners;
+
+		/**
+		 * Creates the serialized form.
+		 * 
+		 * @param corners
+		 *            The corners.
+		 */
+		private SerializedForm(List<Position> corners) {
+			this.corners = corners;
+		}
+
+		/**
+		 * Creates the path shape.
+		 * 
+		 * @return The path shape.
+		 */
+		private Object readResolve() {
+			return new PathShape(corners);
+		}
+	}
+
+	/**
+	 * The corners.
+	 */
 	private final List<Position> corners;
 
 	/**
@@ -66,7 +105,7 @@ public class PathShape extends Path2D.Float {
 	 * @return The position.
 	 */
 	public Position generatePosition() {
-		return generatePosition(Utilities.RANDOM_GENERATOR);
+		return generatePosition(SimulationContext.current().getRandomGenerator());
 	}
 
 	/**
@@ -100,7 +139,7 @@ public class PathShape extends Path2D.Float {
 	 * @return The positions.
 	 */
 	public List<Position> generatePositions(int numberOfPositions) {
-		return generatePositions(numberOfPositions, Utilities.RANDOM_GENERATOR);
+		return generatePositions(numberOfPositions, SimulationContext.current().getRandomGenerator());
 	}
 
 	/**
@@ -170,4 +209,12 @@ public class PathShape extends Path2D.Float {
 		return false;
 	}
 
+	/**
+	 * Replaces the shape by its serialized form.
+	 * 
+	 * @return The serialized form.
+	 */
+	private Object writeReplace() {
+		return new SerializedForm(corners);
+	}
 }
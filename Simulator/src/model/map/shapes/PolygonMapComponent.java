@@ -16,6 +16,10 @@ import util.math.RandomPlus;
  */
 public abstract class PolygonMapComponent extends PhysicalMapComponent implements PolygonShape {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The {@link PathShape} shape of the physical obstacle.
 	 */
@@ -0,0 +1,26 @@
+package simulation.main;
+
+import simulation.simulation.Simulator;
+
+/**
+ * A branch configurator prepares a branch of a {@link Simulator} for a set of
+ * inputs. It is used by the {@link Experimenter} to run several scenarios from
+ * the same simulation, of which the layout is shared by all branches (see
+ * {@link Simulator#fork(int)}).
+ * 
+ * @author S.A.M. Janssen
+ */
+public interface BranchConfigurator {
+
+	/**
+	 * Configures a branch, for instance by setting its random seed, agent
+	 * generator or the state of the desks. The branch is configured on the
+	 * thread that runs it, so the configurator should not start it.
+	 * 
+	 * @param branch
+	 *            The branch.
+	 * @param input
+	 *            The inputs.
+	 */
+	public void configure(Simulator branch, String[] input);
+}
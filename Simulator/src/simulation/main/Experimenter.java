@@ -3,12 +3,23 @@ package simulation.main;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import simulation.simulation.Simulator;
+import simulation.simulation.util.SimulationContext;
 
 /**
- * An experimenter allows for multiple simulations to run in parallel.
+ * An experimenter allows for multiple simulations to run in parallel. By
+ * default, each simulation runs in a separate process, using the main method of
+ * a specified class. If a {@link SimulatorFactory} is used, the simulations
+ * run in this process on a pool of threads and their return values are
+ * collected directly. If a simulator and a {@link BranchConfigurator} are
+ * used, the simulator is forked into one branch per input, which share the
+ * layout of the map, and the branches run in this process.
  * 
  * @author S.A.M. Janssen
  */
@@ -48,6 +59,90 @@ public class Experimenter implements Runnable {
 			} catch (Exception e) {
 				e.printStackTrace();
 			}
+			reportProgress();
+		}
+	}
+
+	/**
+	 * A branch task configures and runs a branch of a simulation in this
+	 * process and returns its return values.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private class BranchTask implements Callable<Object[]> {
+
+		/**
+		 * The branch.
+		 */
+		private Simulator branch;
+		/**
+		 * The inputs.
+		 */
+		private String[] input;
+
+		/**
+		 * Creates a branch task.
+		 * 
+		 * @param branch
+		 *            The branch.
+		 * @param input
+		 *            The inputs.
+		 */
+		public BranchTask(Simulator branch, String[] input) {
+			this.branch = branch;
+			this.input = input;
+		}
+
+		@Override
+		public Object[] call() {
+			try {
+				SimulationContext.setCurrent(branch.getContext());
+				branchConfigurator.configure(branch, input);
+				branch.run();
+				return branch.getReturnValues();
+			} finally {
+				SimulationContext.setCurrent(null);
+				reportProgress();
+			}
+		}
+	}
+
+	/**
+	 * A simulation task runs a simulation in this process and returns its
+	 * return values.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private class SimulationTask implements Callable<Object[]> {
+
+		/**
+		 * The inputs.
+		 */
+		private String[] input;
+
+		/**
+		 * Creates a simulation task.
+		 * 
+		 * @param input
+		 *            The inputs.
+		 */
+		public SimulationTask(String[] input) {
+			this.input = input;
+		}
+
+		@Override
+		public Object[] call() {
+			try {
+				// the random numbers that the factory draws before it creates
+				// the simulator are drawn in a context of this task
+				SimulationContext.setCurrent(SimulationContext.createDefault());
+				Simulator simulator = simulatorFactory.createSimulator(input);
+				simulator.run();
+				return simulator.getReturnValues();
+			} finally {
+				SimulationContext.setCurrent(null);
+				reportProgress();
+			}
 		}
 	}
 
@@ -55,13 +150,37 @@ public class Experimenter implements Runnable {
 	 * The different processes.
 	 */
 	private List<Future<?>> futures;
+	/**
+	 * The factory for simulations in this process. Null if the simulations run
+	 * in separate processes.
+	 */
+	private SimulatorFactory simulatorFactory;
+	/**
+	 * The simulator that is forked into a branch per input. Null if the
+	 * simulations are not branches.
+	 */
+	private Simulator simulator;
+	/**
+	 * The configurator of the branches. Null if the simulations are not
+	 * branches.
+	 */
+	private BranchConfigurator branchConfigurator;
+	/**
+	 * The number of finished simulations.
+	 */
+	private final AtomicInteger finished = new AtomicInteger();
+	/**
+	 * The return values of the simulations.
+	 */
+	private List<Object[]> returnValues;
 
 	/**
 	 * The inputs.
 	 */
 	private List<String[]> inputs;
 	/**
-	 * The location of the main class.
+	 * The location of the main class. Null if the simulations run in this
+	 * process.
 	 */
 	private String[] mainLocation;
 	/**
@@ -112,6 +231,76 @@ public class Experimenter implements Runnable {
 		this.inputs = inputs;
 	}
 
+	/**
+	 * Creates an experimenter that runs the simulations in this process.
+	 * 
+	 * @param inputs
+	 *            The inputs.
+	 * @param simulatorFactory
+	 *            The factory that creates a simulator for each input.
+	 */
+	public Experimenter(List<String[]> inputs, SimulatorFactory simulatorFactory) {
+		this(inputs, simulatorFactory, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an experimenter that runs the simulations in this process.
+	 * 
+	 * @param inputs
+	 *            The inputs.
+	 * @param simulatorFactory
+	 *            The factory that creates a simulator for each input.
+	 * @param cores
+	 *            The number of parallel threads to be used.
+	 */
+	public Experimenter(List<String[]> inputs, SimulatorFactory simulatorFactory, int cores) {
+		if (simulatorFactory == null)
+			throw new IllegalArgumentException("Simulator factory cannot be null");
+		this.cores = cores;
+		this.simulatorFactory = simulatorFactory;
+		this.inputs = inputs;
+	}
+
+	/**
+	 * Creates an experimenter that runs a branch of a simulator for each input
+	 * in this process.
+	 * 
+	 * @param inputs
+	 *            The inputs.
+	 * @param simulator
+	 *            The simulator, which is forked when the experiment starts.
+	 * @param branchConfigurator
+	 *            The configurator that prepares the branch of each input.
+	 */
+	public Experimenter(List<String[]> inputs, Simulator simulator, BranchConfigurator branchConfigurator) {
+		this(inputs, simulator, branchConfigurator, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates an experimenter that runs a branch of a simulator for each input
+	 * in this process.
+	 * 
+	 * @param inputs
+	 *            The inputs.
+	 * @param simulator
+	 *            The simulator, which is forked when the experiment starts.
+	 * @param branchConfigurator
+	 *            The configurator that prepares the branch of each input.
+	 * @param cores
+	 *            The number of parallel threads to be used.
+	 */
+	public Experimenter(List<String[]> inputs, Simulator simulator, BranchConfigurator branchConfigurator,
+			int cores) {
+		if (simulator == null)
+			throw new IllegalArgumentException("Simulator cannot be null");
+		if (branchConfigurator == null)
+			throw new IllegalArgumentException("Branch configurator cannot be null");
+		this.cores = cores;
+		this.simulator = simulator;
+		this.branchConfigurator = branchConfigurator;
+		this.inputs = inputs;
+	}
+
 	/**
 	 * Concatenates two arrays.
 	 * 
@@ -137,8 +326,10 @@ public class Experimenter implements Runnable {
 
 	/**
 	 * Execute the experiment.
+	 * 
+	 * @return The executor service.
 	 */
-	private void executeExperiment() {
+	private ExecutorService executeExperiment() {
 		System.out.println("Starting experiment...");
 		System.out
 				.println("Total of " + inputs.size() + " simulations to be ran using " + cores + " parallel threads.");
@@ -146,39 +337,66 @@ public class Experimenter implements Runnable {
 
 		// Prevent experiment from continuing running if this thread is
 		// closed.
-		Runtime.getRuntime().addShutdownHook(new Thread() {
-			@Override
-			public void run() {
-
-				service.shutdownNow();
-				if (futures != null) {
-					for (Future<?> future : futures) {
-						future.cancel(true);
+		if (mainLocation != null) {
+			Runtime.getRuntime().addShutdownHook(new Thread() {
+				@Override
+				public void run() {
+
+					service.shutdownNow();
+					if (futures != null) {
+						for (Future<?> future : futures) {
+							future.cancel(true);
+						}
 					}
 				}
-			}
-		});
+			});
+		}
 
 		// Add tasks and run them.
 		futures = new ArrayList<>();
-		for (String[] strings : inputs) {
-			ProcessTask t = new ProcessTask(concatenate(mainLocation, strings));
-			Future<?> f = service.submit(t);
+		finished.set(0);
+		List<Simulator> branches = null;
+		if (simulator != null && !inputs.isEmpty())
+			branches = simulator.fork(inputs.size());
+		for (int i = 0; i < inputs.size(); i++) {
+			String[] strings = inputs.get(i);
+			Future<?> f;
+			if (mainLocation != null)
+				f = service.submit(new ProcessTask(concatenate(mainLocation, strings)));
+			else if (simulatorFactory != null)
+				f = service.submit(new SimulationTask(strings));
+			else
+				f = service.submit(new BranchTask(branches.get(i), strings));
 			futures.add(f);
 		}
+		return service;
+	}
+
+	/**
+	 * Gets the return values of the simulations, in the order of the inputs.
+	 * The return values are only available if the simulations run in this
+	 * process. The value is null for simulations that failed.
+	 * 
+	 * @return The return values.
+	 */
+	public List<Object[]> getReturnValues() {
+		return returnValues;
 	}
 
 	/**
 	 * Post processing.
+	 * 
+	 * @param service
+	 *            The executor service.
 	 */
-	private void postProcess() {
-		int i = 0;
+	private void postProcess(ExecutorService service) {
+		returnValues = new ArrayList<>();
 		for (Future<?> future : futures) {
 			try {
-				future.get();
-				i++;
-				System.out.println(i + "/" + futures.size());
+				Object result = future.get();
+				returnValues.add(result instanceof Object[] ? (Object[]) result : null);
 			} catch (Exception e) {
+				returnValues.add(null);
 				e.printStackTrace();
 			}
 		}
@@ -198,13 +416,22 @@ public class Experimenter implements Runnable {
 			System.out.println(
 					"Unsuccesfully done in: " + ((System.currentTimeMillis() - startTime) / 1000.0) + " seconds.");
 
-		System.exit(0);
+		if (mainLocation != null)
+			System.exit(0);
+		service.shutdown();
+	}
+
+	/**
+	 * Reports that a simulation is finished.
+	 */
+	private synchronized void reportProgress() {
+		System.out.println(finished.incrementAndGet() + "/" + inputs.size() + " ("
+				+ ((System.currentTimeMillis() - startTime) / 1000.0) + " seconds)");
 	}
 
 	@Override
 	public void run() {
 		startTime = System.currentTimeMillis();
-		executeExperiment();
-		postProcess();
+		postProcess(executeExperiment());
 	}
 }
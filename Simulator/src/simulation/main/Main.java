@@ -2,8 +2,6 @@ package simulation.main;
 
 import simulation.modelBuilder.ModelBuilder;
 import simulation.simulation.Simulator;
-import simulation.simulation.util.Utilities;
-import util.math.RandomPlus;
 
 /**
  * Main class.
@@ -59,7 +57,6 @@ public class Main {
 	 *            The trial number.
 	 */
 	public static void performSimulation(int trialNumber) {
-		Utilities.RANDOM_GENERATOR = new RandomPlus(11111 + trialNumber);
 		Simulator sim = ModelBuilder.rotterdamTheHagueAirport(gui, 100);
 		Thread t = new Thread(sim);
 		t.start();
@@ -0,0 +1,23 @@
+package simulation.main;
+
+import simulation.simulation.Simulator;
+
+/**
+ * A simulator factory creates a {@link Simulator} for a set of inputs. It is
+ * used by the {@link Experimenter} to run simulations in the same process.
+ * 
+ * @author S.A.M. Janssen
+ */
+public interface SimulatorFactory {
+
+	/**
+	 * Creates a simulator. The simulator is created on the thread that runs
+	 * it, so the factory should not start it. The simulator should not have a
+	 * GUI.
+	 * 
+	 * @param input
+	 *            The inputs.
+	 * @return The simulator.
+	 */
+	public Simulator createSimulator(String[] input);
+}
@@ -360,10 +360,24 @@ public final class ModelBuilder {
 	 * @return The simulator.
 	 */
 	public static Simulator eindhovenAirport(boolean gui, int timeStep) {
-		Simulator sim = new Simulator.Builder<>().setGui(gui).setTimeStep(timeStep)
-				.setEndingConditions(new NoPassengerEndingConditions())
+		return eindhovenAirport(
+				new Simulator.Builder<>().setGui(gui).setTimeStep(timeStep).setLogger(new BaseLogger()));
+	}
+
+	/**
+	 * Creates a representation of Eindhoven Airport (EIN) and runs a
+	 * simulation. The ending conditions and agent generator of the builder are
+	 * set by this method, the other properties (gui, time step, seed, logger)
+	 * are taken from the builder.
+	 * 
+	 * @param builder
+	 *            The simulator builder.
+	 * @return The simulator.
+	 */
+	public static Simulator eindhovenAirport(Simulator.Builder<?> builder) {
+		Simulator sim = builder.setEndingConditions(new NoPassengerEndingConditions())
 				.setAgentGenerator(new FlightSpecificAgentGenerator(new double[] { 0.2, 0.6, 0.2 }, 7200, 1800))
-				.setLogger(new BaseLogger()).build();
+				.build();
 		Map map = sim.getMap();
 		// agent generation
 		List<Position> agentCorners = new ArrayList<>();
@@ -818,8 +832,21 @@ public final class ModelBuilder {
 	 * @return The simulator.
 	 */
 	public static Simulator rotterdamTheHagueAirport(boolean gui, int timeStep) {
-		Simulator sim = new Simulator.Builder<>().setGui(gui).setEndingConditions(new NoPassengerEndingConditions())
-				.setAgentGenerator(new BaseAgentGenerator(10)).setLogger(new BaseLogger()).build();
+		return rotterdamTheHagueAirport(new Simulator.Builder<>().setGui(gui).setLogger(new BaseLogger()));
+	}
+
+	/**
+	 * Creates RTHA. The ending conditions and agent generator of the builder
+	 * are set by this method, the other properties (gui, time step, seed,
+	 * logger) are taken from the builder.
+	 * 
+	 * @param builder
+	 *            The simulator builder.
+	 * @return The simulator.
+	 */
+	public static Simulator rotterdamTheHagueAirport(Simulator.Builder<?> builder) {
+		Simulator sim = builder.setEndingConditions(new NoPassengerEndingConditions())
+				.setAgentGenerator(new BaseAgentGenerator(10)).build();
 		Map map = sim.getMap();
 		sim.addAll(generateRTHAWalls());
 		Collection<Desk> desks1 = map.getMapComponents(Desk.class);
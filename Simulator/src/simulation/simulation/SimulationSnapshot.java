@@ -0,0 +1,441 @@
+package simulation.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.DiscretizedMap;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.VisibilityGraph;
+import model.environment.objects.flight.Flight;
+import model.environment.objects.physicalObject.luggage.Luggage;
+import model.environment.objects.physicalObject.sensor.Observation;
+import model.map.Map;
+import model.map.shapes.PolygonMapComponent;
+import simulation.simulation.agentGenerator.AgentGenerator;
+import simulation.simulation.endingCondition.EndingConditions;
+import simulation.simulation.util.SimulationContext;
+import util.analytics.AnalyzerCollection;
+import util.math.RandomPlus;
+
+/**
+ * A simulation snapshot holds the state of a {@link Simulator}: the
+ * {@link Map} with all its components (including the agents and their
+ * models), the {@link SimulationContext} with the random generators, the
+ * {@link AgentGenerator}, the {@link EndingConditions} and the analyzers. The
+ * GUI, the logger and the thread pool are not part of the snapshot.
+ * 
+ * Snapshots are written with Java serialization, so they can only be read by
+ * the same version of the simulator.
+ * 
+ * @author S.A.M. Janssen
+ */
+final class SimulationSnapshot implements Serializable {
+
+	/**
+	 * The shared constants that are compared by identity. They are written as
+	 * a reference, such that they are the same object after reading.
+	 */
+	private enum SharedConstant {
+		/**
+		 * {@link Flight#NO_FLIGHT}.
+		 */
+		NO_FLIGHT,
+		/**
+		 * {@link Luggage#NO_LUGGAGE}.
+		 */
+		NO_LUGGAGE,
+		/**
+		 * {@link Observation#NO_OBSERVATION}.
+		 */
+		NO_OBSERVATION;
+
+		/**
+		 * Gets the constant.
+		 * 
+		 * @return The constant.
+		 */
+		private Object getConstant() {
+			switch (this) {
+			case NO_FLIGHT:
+				return Flight.NO_FLIGHT;
+			case NO_LUGGAGE:
+				return Luggage.NO_LUGGAGE;
+			default:
+				return Observation.NO_OBSERVATION;
+			}
+		}
+
+		/**
+		 * Gets the reference to a shared constant.
+		 * 
+		 * @param object
+		 *            The object.
+		 * @return The reference, or null if the object is not a shared
+		 *         constant.
+		 */
+		private static SharedConstant getReference(Object object) {
+			for (SharedConstant constant : values()) {
+				if (constant.getConstant() == object)
+					return constant;
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * A reference to a shared object of the layout.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class SharedReference implements Serializable {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The index of the shared object.
+		 */
+		private final int index;
+
+		/**
+		 * Creates a reference.
+		 * 
+		 * @param index
+		 *            The index of the shared object.
+		 */
+		private SharedReference(int index) {
+			this.index = index;
+		}
+	}
+
+	/**
+	 * The output stream of a snapshot. It writes the shared constants and the
+	 * objects of the layout as references.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class SnapshotOutputStream extends ObjectOutputStream {
+
+		/**
+		 * The objects of the layout, with their index, or null if nothing is
+		 * shared. Discretized maps and visibility graphs are added when they
+		 * are written.
+		 */
+		private final IdentityHashMap<Object, Integer> layout;
+
+		/**
+		 * Creates the output stream.
+		 * 
+		 * @param output
+		 *            The underlying stream.
+		 * @param layout
+		 *            The objects of the layout, with their index, or null if
+		 *            nothing is shared.
+		 * @throws IOException
+		 *             If the stream header cannot be written.
+		 */
+		private SnapshotOutputStream(OutputStream output, IdentityHashMap<Object, Integer> layout)
+				throws IOException {
+			super(output);
+			this.layout = layout;
+			enableReplaceObject(true);
+		}
+
+		@Override
+		protected Object replaceObject(Object object) {
+			SharedConstant constant = SharedConstant.getReference(object);
+			if (constant != null)
+				return constant;
+			if (layout == null)
+				return object;
+			if (object instanceof DiscretizedMap || object instanceof VisibilityGraph)
+				addLayout(layout, object);
+			Integer index = layout.get(object);
+			return index == null ? object : new SharedReference(index);
+		}
+	}
+
+	/**
+	 * The input stream of a snapshot. It resolves the shared constants and the
+	 * objects of the layout, and seeds the random generators of a branch.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class SnapshotInputStream extends ObjectInputStream {
+
+		/**
+		 * The objects of the layout, by index.
+		 */
+		private final Object[] layout;
+		/**
+		 * The number of the branch, 0 if the random generators are kept.
+		 */
+		private final int branch;
+
+		/**
+		 * Creates the input stream.
+		 * 
+		 * @param input
+		 *            The underlying stream.
+		 * @param layout
+		 *            The objects of the layout, by index.
+		 * @param branch
+		 *            The number of the branch, 0 if the random generators are
+		 *            kept.
+		 * @throws IOException
+		 *             If the stream header cannot be read.
+		 */
+		private SnapshotInputStream(InputStream input, Object[] layout, int branch) throws IOException {
+			super(input);
+			this.layout = layout;
+			this.branch = branch;
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Object resolveObject(Object object) throws IOException {
+			if (object instanceof SharedConstant)
+				return ((SharedConstant) object).getConstant();
+			if (object instanceof SharedReference) {
+				int index = ((SharedReference) object).index;
+				if (index >= layout.length)
+					throw new IOException("The snapshot refers to a shared object that does not exist.");
+				return layout[index];
+			}
+			if (branch > 0 && object instanceof RandomPlus) {
+				RandomPlus random = (RandomPlus) object;
+				random.setSeed(random.nextLong() ^ (branch * 0x9E3779B97F4A7C15L));
+			}
+			return object;
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The map.
+	 */
+	final Map map;
+	/**
+	 * The simulation context.
+	 */
+	final SimulationContext context;
+	/**
+	 * The time step (in milliseconds).
+	 */
+	final int timeStep;
+	/**
+	 * The ending conditions.
+	 */
+	final EndingConditions endingConditions;
+	/**
+	 * The agent generator.
+	 */
+	final AgentGenerator agentGenerator;
+	/**
+	 * The analyzers.
+	 */
+	final AnalyzerCollection analytics;
+	/**
+	 * The number of steps performed.
+	 */
+	final long numberOfSteps;
+	/**
+	 * The simulation is initialized or not.
+	 */
+	final boolean initialized;
+	/**
+	 * The random seed.
+	 */
+	final long randomSeed;
+	/**
+	 * The name of the simulator.
+	 */
+	final String simulatorName;
+
+	/**
+	 * Creates the state of a new simulation, with a new context and no
+	 * analyzers.
+	 * 
+	 * @param map
+	 *            The map.
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 * @param endingConditions
+	 *            The ending conditions.
+	 * @param agentGenerator
+	 *            The agent generator.
+	 * @param randomSeed
+	 *            The random seed.
+	 * @param simulatorName
+	 *            The name of the simulator.
+	 */
+	SimulationSnapshot(Map map, int timeStep, EndingConditions endingConditions, AgentGenerator agentGenerator,
+			long randomSeed, String simulatorName) {
+		this(map, new SimulationContext(map, new RandomPlus(randomSeed)), timeStep, endingConditions,
+				agentGenerator, new AnalyzerCollection(), 0, false, randomSeed, simulatorName);
+	}
+
+	/**
+	 * Creates a snapshot.
+	 * 
+	 * @param map
+	 *            The map.
+	 * @param context
+	 *            The simulation context.
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 * @param endingConditions
+	 *            The ending conditions.
+	 * @param agentGenerator
+	 *            The agent generator.
+	 * @param analytics
+	 *            The analyzers.
+	 * @param numberOfSteps
+	 *            The number of steps performed.
+	 * @param initialized
+	 *            The simulation is initialized or not.
+	 * @param randomSeed
+	 *            The random seed.
+	 * @param simulatorName
+	 *            The name of the simulator.
+	 */
+	SimulationSnapshot(Map map, SimulationContext context, int timeStep, EndingConditions endingConditions,
+			AgentGenerator agentGenerator, AnalyzerCollection analytics, long numberOfSteps, boolean initialized,
+			long randomSeed, String simulatorName) {
+		this.map = map;
+		this.context = context;
+		this.timeStep = timeStep;
+		this.endingConditions = endingConditions;
+		this.agentGenerator = agentGenerator;
+		this.analytics = analytics;
+		this.numberOfSteps = numberOfSteps;
+		this.initialized = initialized;
+		this.randomSeed = randomSeed;
+		this.simulatorName = simulatorName;
+	}
+
+	/**
+	 * Creates copies of the snapshot for branches of the simulation. The
+	 * snapshot is written once and read once for every branch, so the state of
+	 * each branch can be changed without affecting the other branches. The
+	 * layout of the map that does not change during the simulation (the
+	 * corners of the map components, the discretized maps and the visibility
+	 * graphs) is not copied, but shared by all branches. The random generators
+	 * of each branch are seeded again with their current state and the number
+	 * of the branch, such that every branch has its own random streams.
+	 * 
+	 * @param numberOfCopies
+	 *            The number of copies.
+	 * @return The copies.
+	 */
+	List<SimulationSnapshot> copy(int numberOfCopies) {
+		IdentityHashMap<Object, Integer> layout = new IdentityHashMap<>();
+		for (PolygonMapComponent component : map.getMapComponents(PolygonMapComponent.class))
+			addLayout(layout, component.getCorners());
+		for (DiscretizedMap discretizedMap : context.getDiscretizedMaps()) {
+			addLayout(layout, discretizedMap);
+			addLayout(layout, discretizedMap.getMap());
+		}
+
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream output = new SnapshotOutputStream(bytes, layout)) {
+				output.writeObject(this);
+			}
+			byte[] state = bytes.toByteArray();
+			Object[] sharedObjects = new Object[layout.size()];
+			for (java.util.Map.Entry<Object, Integer> entry : layout.entrySet())
+				sharedObjects[entry.getValue()] = entry.getKey();
+
+			List<SimulationSnapshot> copies = new ArrayList<>();
+			for (int i = 1; i <= numberOfCopies; i++) {
+				try (ObjectInputStream input = new SnapshotInputStream(new ByteArrayInputStream(state), sharedObjects,
+						i)) {
+					copies.add((SimulationSnapshot) input.readObject());
+				}
+			}
+			return copies;
+		} catch (IOException | ClassNotFoundException e) {
+			throw new IllegalStateException("The simulation cannot be copied.", e);
+		}
+	}
+
+	/**
+	 * Adds an object to the shared layout.
+	 * 
+	 * @param layout
+	 *            The layout, with the index of each object.
+	 * @param object
+	 *            The object.
+	 */
+	private static void addLayout(IdentityHashMap<Object, Integer> layout, Object object) {
+		if (!layout.containsKey(object))
+			layout.put(object, layout.size());
+	}
+
+	/**
+	 * Reads a snapshot from a file.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @return The snapshot.
+	 * @throws IOException
+	 *             If the file cannot be read or does not contain a snapshot.
+	 */
+	static SimulationSnapshot read(String fileName) throws IOException {
+		try (InputStream file = new FileInputStream(fileName);
+				ObjectInputStream input = new SnapshotInputStream(
+						new GZIPInputStream(new BufferedInputStream(file)), new Object[0], 0)) {
+			return (SimulationSnapshot) input.readObject();
+		} catch (ClassNotFoundException | ClassCastException e) {
+			throw new IOException(fileName + " does not contain a simulation snapshot.", e);
+		}
+	}
+
+	/**
+	 * Gets a copy of the snapshot with another simulator name. The state is
+	 * not copied.
+	 * 
+	 * @param name
+	 *            The name of the simulator.
+	 * @return The snapshot.
+	 */
+	SimulationSnapshot rename(String name) {
+		return new SimulationSnapshot(map, context, timeStep, endingConditions, agentGenerator, analytics,
+				numberOfSteps, initialized, randomSeed, name);
+	}
+
+	/**
+	 * Writes the snapshot to a file.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	void write(String fileName) throws IOException {
+		try (OutputStream file = new FileOutputStream(fileName);
+				ObjectOutputStream output = new SnapshotOutputStream(
+						new GZIPOutputStream(new BufferedOutputStream(file)), null)) {
+			output.writeObject(this);
+		}
+	}
+}
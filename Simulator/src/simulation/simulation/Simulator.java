@@ -1,11 +1,17 @@
 package simulation.simulation;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
 
 import model.agent.Agent;
+import model.agent.humanAgent.aatom.AatomHumanAgent;
 import model.agent.humanAgent.aatom.Passenger;
+import model.environment.objects.flight.Flight;
 import model.environment.objects.physicalObject.luggage.Luggage;
 import model.environment.objects.physicalObject.sensor.XRaySystem;
 import model.map.Map;
@@ -14,14 +20,16 @@ import simulation.simulation.agentGenerator.AgentGenerator;
 import simulation.simulation.agentGenerator.EmptyAgentGenerator;
 import simulation.simulation.endingCondition.BaseEndingConditions;
 import simulation.simulation.endingCondition.EndingConditions;
+import simulation.simulation.profiler.StepPhase;
+import simulation.simulation.profiler.StepProfiler;
 import simulation.simulation.util.DirectlyUpdatable;
+import simulation.simulation.util.SimulationContext;
 import simulation.simulation.util.SimulationObject;
-import simulation.simulation.util.Utilities;
+import simulation.simulation.util.UpdateRates;
 import util.analytics.Analyzer;
 import util.analytics.AnalyzerCollection;
 import util.io.logger.BaseLogger;
 import util.io.logger.Logger;
-import util.math.RandomPlus;
 import view.GUI;
 import view.mapComponents.MapComponentView;
 
@@ -34,6 +42,86 @@ import view.mapComponents.MapComponentView;
  */
 public class Simulator implements Runnable {
 
+	/**
+	 * Updates a range of {@link AatomHumanAgent}s on a {@link ForkJoinPool}.
+	 * The range is split until it contains at most {@link #THRESHOLD} agents.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class AgentUpdateTask extends RecursiveAction {
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The maximum number of agents that is updated without splitting.
+		 */
+		private static final int THRESHOLD = 16;
+		/**
+		 * The agents.
+		 */
+		private final List<AatomHumanAgent> agents;
+		/**
+		 * The first index (inclusive).
+		 */
+		private final int from;
+		/**
+		 * The last index (exclusive).
+		 */
+		private final int to;
+		/**
+		 * The time step in milliseconds.
+		 */
+		private final int timeStep;
+		/**
+		 * The profiler that records the update durations. Null if nothing is
+		 * recorded.
+		 */
+		private final StepProfiler profiler;
+
+		/**
+		 * Creates the task.
+		 * 
+		 * @param agents
+		 *            The agents.
+		 * @param from
+		 *            The first index (inclusive).
+		 * @param to
+		 *            The last index (exclusive).
+		 * @param timeStep
+		 *            The time step in milliseconds.
+		 * @param profiler
+		 *            The profiler, or null.
+		 */
+		private AgentUpdateTask(List<AatomHumanAgent> agents, int from, int to, int timeStep,
+				StepProfiler profiler) {
+			this.agents = agents;
+			this.from = from;
+			this.to = to;
+			this.timeStep = timeStep;
+			this.profiler = profiler;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					if (profiler == null) {
+						agents.get(i).update(timeStep);
+					} else {
+						long time = System.nanoTime();
+						agents.get(i).update(timeStep);
+						profiler.recordUpdate(agents.get(i), System.nanoTime() - time);
+					}
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new AgentUpdateTask(agents, from, middle, timeStep, profiler),
+						new AgentUpdateTask(agents, middle, to, timeStep, profiler));
+			}
+		}
+	}
+
 	/**
 	 * Builder class for the simulator.
 	 * 
@@ -75,6 +163,22 @@ public class Simulator implements Runnable {
 		 * The name of the simulation.
 		 */
 		private String simulatorName = "Unnamed_Simulator";
+		/**
+		 * The number of threads used to update the agents.
+		 */
+		private int parallelism = 1;
+		/**
+		 * Flag to specify if the steps are profiled.
+		 */
+		private boolean profiling;
+		/**
+		 * The update rates of the agents.
+		 */
+		private UpdateRates updateRates = UpdateRates.EVERY_STEP;
+		/**
+		 * Flag to specify if agents can be dormant.
+		 */
+		private boolean dormancy = true;
 
 		/**
 		 * Creates the simulator.
@@ -84,8 +188,31 @@ public class Simulator implements Runnable {
 		public Simulator build() {
 			if (logger == null)
 				logger = new BaseLogger();
-			return new Simulator(map, gui, timeStep, endingConditions, agentGenerator, logger, randomSeed,
-					simulatorName);
+			Simulator simulator = new Simulator(map, gui, timeStep, endingConditions, agentGenerator, logger,
+					randomSeed, simulatorName, parallelism, profiling);
+			simulator.context.setUpdateRates(updateRates);
+			simulator.context.setDormancy(dormancy);
+			return simulator;
+		}
+
+		/**
+		 * Builds a simulator from a snapshot that was saved with
+		 * {@link Simulator#saveSnapshot(String)}. The simulation continues
+		 * where the snapshot was taken. The map, time step, ending conditions,
+		 * agent generator, random seed, update rates, dormancy and name are
+		 * taken from the snapshot; the GUI, logger, parallelism and profiling
+		 * settings of the builder are used.
+		 * 
+		 * @param fileName
+		 *            The file name of the snapshot.
+		 * @return The simulator.
+		 * @throws IOException
+		 *             If the snapshot cannot be read.
+		 */
+		public Simulator buildFromSnapshot(String fileName) throws IOException {
+			if (logger == null)
+				logger = new BaseLogger();
+			return new Simulator(SimulationSnapshot.read(fileName), true, gui, logger, parallelism, profiling);
 		}
 
 		/**
@@ -114,6 +241,22 @@ public class Simulator implements Runnable {
 			return (T) this;
 		}
 
+		/**
+		 * Sets if agents that stand still and have nothing to decide can be
+		 * dormant, such that they skip their updates until one of their timers
+		 * requires an update. Dormant agents end in the same state as agents
+		 * that are updated every step, so this is on by default.
+		 * 
+		 * @param dormancy
+		 *            True if agents can be dormant, false otherwise.
+		 * @return The builder.
+		 * 
+		 */
+		public T setDormancy(boolean dormancy) {
+			this.dormancy = dormancy;
+			return (T) this;
+		}
+
 		/**
 		 * Sets the gui.
 		 * 
@@ -152,6 +295,53 @@ public class Simulator implements Runnable {
 			return (T) this;
 		}
 
+		/**
+		 * Sets the number of threads that is used to update the agents. With a
+		 * parallelism of 1 (default), all {@link DirectlyUpdatable} objects are
+		 * updated one by one, in the order of the map. Each agent then sees the
+		 * positions and velocities that the agents before it already have in
+		 * the current step, and communications take effect immediately.
+		 * 
+		 * With a higher parallelism, the other directly updatable objects are
+		 * updated first, one by one. The {@link AatomHumanAgent}s are then
+		 * updated in parallel against the positions and velocities of the
+		 * previous step, after which their new positions are committed and the
+		 * communications they received during the update are delivered. Agents
+		 * that do not observe each other follow the same trajectories as with a
+		 * parallelism of 1. Agents that do observe each other do not, since
+		 * they react to each other one step later. The result does not depend
+		 * on the number of threads, but a parallel simulation is not exactly
+		 * reproducible with the same random seed, since the order in which
+		 * agents use the random generator and claim shared objects (desks,
+		 * chairs, x-ray positions) varies.
+		 * 
+		 * @param parallelism
+		 *            The number of threads.
+		 * @return The builder.
+		 * 
+		 */
+		public T setParallelism(int parallelism) {
+			if (parallelism < 1)
+				throw new IllegalArgumentException("The parallelism should be at least 1.");
+			this.parallelism = parallelism;
+			return (T) this;
+		}
+
+		/**
+		 * Sets the profiling of the simulation steps. If enabled, the duration
+		 * of each phase of a step is measured by the {@link StepProfiler} of
+		 * the simulator, which is also registered as MBean.
+		 * 
+		 * @param profiling
+		 *            True to profile the steps, false otherwise.
+		 * @return The builder.
+		 * 
+		 */
+		public T setProfiling(boolean profiling) {
+			this.profiling = profiling;
+			return (T) this;
+		}
+
 		/**
 		 * Sets the random seed.
 		 * 
@@ -190,6 +380,23 @@ public class Simulator implements Runnable {
 			this.timeStep = timeStep;
 			return (T) this;
 		}
+
+		/**
+		 * Sets the update rates of the strategic, tactical and operational
+		 * levels of the {@link AatomHumanAgent}s. By default, all levels are
+		 * updated every step.
+		 * 
+		 * @param updateRates
+		 *            The {@link UpdateRates}.
+		 * @return The builder.
+		 * 
+		 */
+		public T setUpdateRates(UpdateRates updateRates) {
+			if (updateRates == null)
+				throw new IllegalArgumentException("Update rates cannot be null");
+			this.updateRates = updateRates;
+			return (T) this;
+		}
 	}
 
 	/**
@@ -224,6 +431,15 @@ public class Simulator implements Runnable {
 	 * The number of steps that we performed so far.
 	 */
 	private long numberOfSteps;
+	/**
+	 * Flag to specify if the agents are initialized and the first agents are
+	 * generated.
+	 */
+	private boolean initialized;
+	/**
+	 * Flag to specify if the simulator is restored from a snapshot.
+	 */
+	private final boolean restored;
 	/**
 	 * Flag to specify if the simulation is running. Volatile for thread safety.
 	 */
@@ -241,6 +457,19 @@ public class Simulator implements Runnable {
 	 * The name of the simulation.
 	 */
 	private String simulatorName;
+	/**
+	 * The {@link SimulationContext}.
+	 */
+	private final SimulationContext context;
+	/**
+	 * The pool that updates the agents in parallel. Null if the agents are
+	 * updated sequentially.
+	 */
+	private final ForkJoinPool pool;
+	/**
+	 * The {@link StepProfiler}.
+	 */
+	private final StepProfiler profiler;
 
 	/**
 	 * Creates a simulator with a set of properties. Use the
@@ -262,26 +491,79 @@ public class Simulator implements Runnable {
 	 *            The random seed.
 	 * @param simulatorName
 	 *            The name of the simulator.
+	 * @param parallelism
+	 *            The number of threads used to update the agents.
+	 * @param profiling
+	 *            Profile the steps or not.
 	 */
 	private Simulator(Map map, boolean gui, int timeStep, EndingConditions endingConditions,
-			AgentGenerator agentGenerator, Logger logger, long randomSeed, String simulatorName) {
-		this.map = map;
+			AgentGenerator agentGenerator, Logger logger, long randomSeed, String simulatorName, int parallelism,
+			boolean profiling) {
+		this(new SimulationSnapshot(map, timeStep, endingConditions, agentGenerator, randomSeed, simulatorName), false,
+				gui, logger, parallelism, profiling);
+	}
+
+	/**
+	 * Creates a simulator with the state of a snapshot.
+	 * 
+	 * @param snapshot
+	 *            The snapshot.
+	 * @param restored
+	 *            The snapshot is restored from a file or not.
+	 * @param gui
+	 *            With or without {@link GUI}.
+	 * @param logger
+	 *            The {@link Logger}.
+	 * @param parallelism
+	 *            The number of threads used to update the agents.
+	 * @param profiling
+	 *            Profile the steps or not.
+	 */
+	private Simulator(SimulationSnapshot snapshot, boolean restored, boolean gui, Logger logger, int parallelism,
+			boolean profiling) {
+		this.map = snapshot.map;
 		if (gui) {
 			this.gui = new GUI(map, this);
 			this.gui.setControls(false);
 		}
-		this.timeStep = timeStep;
-		this.endingConditions = endingConditions;
-		this.agentGenerator = agentGenerator;
+		this.timeStep = snapshot.timeStep;
+		this.endingConditions = snapshot.endingConditions;
+		this.agentGenerator = snapshot.agentGenerator;
 		this.logger = logger;
-		this.randomSeed = randomSeed;
-		Utilities.RANDOM_GENERATOR = new RandomPlus(randomSeed);
-		this.simulatorName = simulatorName;
-		analytics = new AnalyzerCollection();
+		this.randomSeed = snapshot.randomSeed;
+		context = snapshot.context;
+		context.setTimeStep(timeStep);
+		map.setContext(context);
+		SimulationContext.setCurrent(context);
+		this.simulatorName = snapshot.simulatorName;
+		analytics = snapshot.analytics;
+		map.setPassengerEventListener(analytics);
 		endingConditions.setSimulator(this);
 		logger.setSimulator(this);
 		speedUpFactor = 1;
-		numberOfSteps = 0;
+		numberOfSteps = snapshot.numberOfSteps;
+		initialized = snapshot.initialized;
+		this.restored = restored;
+		if (parallelism > 1)
+			pool = new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+				@Override
+				public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+					return new ForkJoinWorkerThread(pool) {
+						@Override
+						protected void onStart() {
+							super.onStart();
+							SimulationContext.setCurrent(context);
+						}
+					};
+				}
+			}, null, false);
+		else
+			pool = null;
+		profiler = new StepProfiler();
+		if (profiling) {
+			profiler.setEnabled(true);
+			profiler.registerMBean(simulatorName);
+		}
 	}
 
 	/**
@@ -358,6 +640,8 @@ public class Simulator implements Runnable {
 			if (object instanceof Agent) {
 				((Agent) object).init();
 			}
+			if (object instanceof Flight)
+				((Flight) object).scheduleDeparture();
 		}
 
 	}
@@ -373,6 +657,16 @@ public class Simulator implements Runnable {
 			add(component);
 	}
 
+	/**
+	 * Creates a snapshot of the current state.
+	 * 
+	 * @return The snapshot.
+	 */
+	private SimulationSnapshot createSnapshot() {
+		return new SimulationSnapshot(map, context, timeStep, endingConditions, agentGenerator, analytics,
+				numberOfSteps, initialized, randomSeed, simulatorName);
+	}
+
 	/**
 	 * End the simulation.
 	 */
@@ -392,6 +686,49 @@ public class Simulator implements Runnable {
 
 		// End model.
 		endingConditions.forceEnd();
+
+		// End thread pool.
+		if (pool != null)
+			pool.shutdown();
+
+		// End profiler.
+		profiler.unregisterMBean();
+	}
+
+	/**
+	 * Forks the simulation into a number of branches that continue from the
+	 * current state, for instance to compare what happens if a
+	 * {@link model.environment.objects.physicalObject.Openable} is closed now.
+	 * Each branch is a simulator without GUI and logger that has its own copy
+	 * of the agents, the analyzers and the other state that changes during the
+	 * simulation, so it can be changed and run without affecting this
+	 * simulator or the other branches. The layout of the map that does not
+	 * change (the shapes of the map components, the discretized maps and the
+	 * visibility graphs) is shared. Each branch has its own random streams,
+	 * which depend on the current state of this simulation and the number of
+	 * the branch.
+	 * 
+	 * Only call this method between two steps. Initialize each branch with
+	 * {@link #init()} before performing its steps, or run it with
+	 * {@link #run()}. The branches can be run in parallel on separate threads.
+	 * 
+	 * @param numberOfBranches
+	 *            The number of branches.
+	 * @return The branches.
+	 */
+	public List<Simulator> fork(int numberOfBranches) {
+		if (numberOfBranches < 1)
+			throw new IllegalArgumentException("The number of branches should be at least 1.");
+		List<Simulator> branches = new ArrayList<>();
+		int branch = 1;
+		for (SimulationSnapshot snapshot : createSnapshot().copy(numberOfBranches)) {
+			branches.add(new Simulator(snapshot.rename(simulatorName + " (branch " + branch + ")"), true, false,
+					Logger.NO_LOGGER, getParallelism(), false));
+			branch++;
+		}
+		// creating a simulator binds its context to the current thread
+		SimulationContext.setCurrent(context);
+		return branches;
 	}
 
 	/**
@@ -403,6 +740,15 @@ public class Simulator implements Runnable {
 		return analytics;
 	}
 
+	/**
+	 * Gets the {@link SimulationContext}.
+	 * 
+	 * @return The context.
+	 */
+	public SimulationContext getContext() {
+		return context;
+	}
+
 	/**
 	 * Gets the {@link Map}.
 	 * 
@@ -421,6 +767,26 @@ public class Simulator implements Runnable {
 		return numberOfSteps;
 	}
 
+	/**
+	 * Gets the number of threads used to update the agents.
+	 * 
+	 * @return The parallelism.
+	 */
+	public int getParallelism() {
+		if (pool == null)
+			return 1;
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Gets the {@link StepProfiler}.
+	 * 
+	 * @return The profiler.
+	 */
+	public StepProfiler getProfiler() {
+		return profiler;
+	}
+
 	/**
 	 * Gets the random seed.
 	 * 
@@ -485,29 +851,47 @@ public class Simulator implements Runnable {
 	}
 
 	/**
-	 * Remove a collection of agents from the simulation.
+	 * Remove a collection of agents from the simulation. The logger is
+	 * notified of each removed agent.
 	 * 
 	 * @param agents
 	 *            The agents.
 	 */
 	private void removeAll(Collection<Agent> agents) {
 		for (Agent agent : agents) {
-			if (agent instanceof MapComponent)
+			if (agent instanceof MapComponent) {
 				remove(agent);
+				logger.agentRemoved(agent);
+			}
 		}
 	}
 
 	/**
-	 * Start the simulation.
+	 * Initializes the simulation: initializes all agents, schedules the
+	 * departures of the flights, starts the logger and generates the first
+	 * agents. This is done by {@link #run()}; call it directly only if you
+	 * perform the steps yourself using {@link #step()}.
 	 */
-	@Override
-	public void run() {
+	public void init() {
+		SimulationContext.setCurrent(context);
 		if (!logger.equals(Logger.NO_LOGGER))
 			logger.setSimulator(this);
 		agentGenerator.setSimulator(this);
 
-		for (Agent a : map.getMapComponents(Agent.class))
-			a.init();
+		if (restored && gui != null) {
+			for (MapComponent c : map.getMapComponents(MapComponent.class))
+				gui.add(c);
+			for (Analyzer a : analytics.getAnalyzers())
+				gui.add(a);
+		}
+
+		// restored agents continue with their current state
+		if (!initialized) {
+			for (Agent a : map.getMapComponents(Agent.class))
+				a.init();
+			for (Flight f : map.getMapComponents(Flight.class))
+				f.scheduleDeparture();
+		}
 
 		if (!logger.equals(Logger.NO_LOGGER))
 			logger.update(numberOfSteps * timeStep, false);
@@ -517,16 +901,27 @@ public class Simulator implements Runnable {
 		if (gui != null)
 			gui.setSizeAndRatio();
 
-		List<? extends Agent> agents = agentGenerator.generateAgent(numberOfSteps, timeStep, true);
-		if (agents != null) {
-			for (Agent a : agents)
-				add(a);
+		if (!initialized) {
+			List<? extends Agent> agents = agentGenerator.generateAgent(numberOfSteps, timeStep, true);
+			if (agents != null) {
+				for (Agent a : agents)
+					add(a);
+			}
+			initialized = true;
 		}
 
-		// main loop
 		if (gui != null)
 			gui.setControls(true);
+	}
+
+	/**
+	 * Start the simulation.
+	 */
+	@Override
+	public void run() {
+		init();
 
+		// main loop
 		while (!endingConditions.hasEnded(numberOfSteps)) {
 			long time = 0;
 			if (running) {
@@ -541,6 +936,36 @@ public class Simulator implements Runnable {
 		endSimulation();
 	}
 
+	/**
+	 * Saves the state of the simulation to a file, such that it can be
+	 * continued later with {@link Builder#buildFromSnapshot(String)}, for
+	 * instance to run several scenarios from the same warmed-up state. The
+	 * snapshot contains the map with all agents, the random generators, the
+	 * agent generator, the ending conditions and the analyzers, but not the
+	 * GUI, the logger and the thread pool. Only call this method between two
+	 * steps.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	public void saveSnapshot(String fileName) throws IOException {
+		createSnapshot().write(fileName);
+	}
+
+	/**
+	 * Sets the agent generator, for instance to change the arrival of
+	 * passengers in a branch of the simulation.
+	 * 
+	 * @param agentGenerator
+	 *            The agent generator.
+	 */
+	public void setAgentGenerator(AgentGenerator agentGenerator) {
+		this.agentGenerator = agentGenerator;
+		agentGenerator.setSimulator(this);
+	}
+
 	/**
 	 * Set the running flag.
 	 * 
@@ -561,6 +986,54 @@ public class Simulator implements Runnable {
 		this.speedUpFactor = speedUpFactor;
 	}
 
+	/**
+	 * Update a directly updatable item.
+	 * 
+	 * @param updatable
+	 *            The item.
+	 * @param profile
+	 *            Record the update duration or not.
+	 */
+	private void update(DirectlyUpdatable updatable, boolean profile) {
+		if (profile) {
+			long time = System.nanoTime();
+			updatable.update(timeStep);
+			profiler.recordUpdate(updatable, System.nanoTime() - time);
+		} else {
+			updatable.update(timeStep);
+		}
+	}
+
+	/**
+	 * Update all directly updatable items, using the {@link ForkJoinPool} for
+	 * the {@link AatomHumanAgent}s. Other items are updated first, one by one.
+	 * The agents then compute their next move in parallel and commit it
+	 * afterwards, such that every agent sees the positions of the previous
+	 * step.
+	 * 
+	 * @param profile
+	 *            Record the update durations or not.
+	 */
+	private void updateParallel(boolean profile) {
+		List<AatomHumanAgent> humans = new ArrayList<>();
+		List<DirectlyUpdatable> others = new ArrayList<>();
+		for (DirectlyUpdatable d : map.getMapComponents(DirectlyUpdatable.class)) {
+			if (d instanceof AatomHumanAgent)
+				humans.add((AatomHumanAgent) d);
+			else
+				others.add(d);
+		}
+
+		for (DirectlyUpdatable d : others)
+			update(d, profile);
+
+		for (AatomHumanAgent human : humans)
+			human.prepareUpdate();
+		pool.invoke(new AgentUpdateTask(humans, 0, humans.size(), timeStep, profile ? profiler : null));
+		for (AatomHumanAgent human : humans)
+			human.commitUpdate();
+	}
+
 	/**
 	 * Sleep for a specified amount of milliseconds.
 	 * 
@@ -582,18 +1055,37 @@ public class Simulator implements Runnable {
 	 * @return The time it took to perform the step.
 	 */
 	public long step() {
+		// several simulators can be stepped in turns on the same thread
+		SimulationContext.setCurrent(context);
+
 		// keep track of the time the step takes
 		long startTime = System.currentTimeMillis();
+		boolean profile = profiler.isEnabled();
+		long stepStartTime = profile ? System.nanoTime() : 0;
+		long phaseStartTime = stepStartTime;
+
+		// fire the timed events of this step
+		context.getTimingWheel().advance(numberOfSteps);
+
 		// add agents
 		List<? extends Agent> agents = agentGenerator.generateAgent(numberOfSteps, timeStep, false);
 		if (agents != null) {
 			for (Agent a : agents)
 				add(a);
 		}
+		if (profile)
+			phaseStartTime = profiler.recordPhase(StepPhase.AGENT_GENERATION, phaseStartTime);
 
 		// update all directly updatable items
-		for (DirectlyUpdatable d : map.getMapComponents(DirectlyUpdatable.class))
-			d.update(timeStep);
+		if (pool == null) {
+			for (DirectlyUpdatable d : map.getMapComponents(DirectlyUpdatable.class))
+				update(d, profile);
+		} else {
+			updateParallel(profile);
+		}
+		map.updateAgentPositions();
+		if (profile)
+			phaseStartTime = profiler.recordPhase(StepPhase.UPDATE, phaseStartTime);
 
 		// actual functionality
 		List<Agent> toBeRemoved = new ArrayList<>();
@@ -601,8 +1093,17 @@ public class Simulator implements Runnable {
 			if (a.wantsToBeDestoryed())
 				toBeRemoved.add(a);
 		}
+		// the search is part of the removal phase
+		long searchDuration = 0;
+		if (profile) {
+			long time = System.nanoTime();
+			searchDuration = time - phaseStartTime;
+			phaseStartTime = time;
+		}
 
 		analytics.update(timeStep);
+		if (profile)
+			phaseStartTime = profiler.recordPhase(StepPhase.ANALYTICS, phaseStartTime);
 
 		// update the simulation step
 		numberOfSteps++;
@@ -611,15 +1112,27 @@ public class Simulator implements Runnable {
 		// update the log
 		if (!logger.equals(Logger.NO_LOGGER))
 			logger.update(numberOfSteps * timeStep, false);
+		if (profile)
+			phaseStartTime = profiler.recordPhase(StepPhase.LOGGER, phaseStartTime);
 
 		// remove agents that want to leave
 		removeAll(toBeRemoved);
+		if (profile) {
+			long time = System.nanoTime();
+			profiler.recordPhaseDuration(StepPhase.REMOVAL, searchDuration + time - phaseStartTime);
+			phaseStartTime = time;
+		}
 
 		// GUI update if necessary
 		if (gui != null)
 			gui.update();
+		if (profile) {
+			phaseStartTime = profiler.recordPhase(StepPhase.GUI, phaseStartTime);
+			profiler.recordStep(phaseStartTime - stepStartTime);
+			profiler.recordAgentCount(map.getMapComponents(Agent.class).size());
+		}
 
 		// return the time the step took
 		return System.currentTimeMillis() - startTime;
 	}
-}
\ No newline at end of file
+}
@@ -1,21 +1,29 @@
 package simulation.simulation.agentGenerator;
 
+import java.io.Serializable;
 import java.util.List;
 
 import model.agent.Agent;
 import simulation.simulation.Simulator;
+import simulation.simulation.util.SimulationContext;
+import util.math.RandomPlus;
 
 /**
  * The agent generator is responsible for generating agents in a simulation.
  * 
  * @author S.A.M. Janssen
  */
-public abstract class AgentGenerator {
+public abstract class AgentGenerator implements Serializable {
 
 	/**
-	 * The {@link Simulator}.
+	 * Serial version UID.
 	 */
-	protected Simulator simulator;
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The {@link Simulator}. Not part of a snapshot, it is set again when the
+	 * simulation continues.
+	 */
+	protected transient Simulator simulator;
 
 	/**
 	 * Generates an agent for a simulation. It returns null if no agent is
@@ -35,6 +43,17 @@ public abstract class AgentGenerator {
 	 */
 	public abstract List<? extends Agent> generateAgent(long numberOfSteps, int timeStep, boolean forced);
 
+	/**
+	 * Gets the random generator of the {@link Simulator}.
+	 * 
+	 * @return The random generator.
+	 */
+	protected RandomPlus getRandomGenerator() {
+		if (simulator == null)
+			return SimulationContext.current().getRandomGenerator();
+		return simulator.getContext().getRandomGenerator();
+	}
+
 	/**
 	 * Sets the simulator.
 	 * 
@@ -13,7 +13,6 @@ import model.environment.objects.physicalObject.luggage.Luggage;
 import model.environment.objects.physicalObject.luggage.LuggageType;
 import model.environment.position.Position;
 import simulation.simulation.Simulator;
-import simulation.simulation.util.Utilities;
 
 /**
  * The base agent generator generates passengers in random intervals.
@@ -22,6 +21,10 @@ import simulation.simulation.util.Utilities;
  */
 public class BaseAgentGenerator extends AgentGenerator {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The area in which the agent is generated.
 	 */
@@ -50,7 +53,7 @@ public class BaseAgentGenerator extends AgentGenerator {
 	 * @return True if it is, false otherwise.
 	 */
 	protected boolean canGenerate(int timeStep) {
-		return Utilities.RANDOM_GENERATOR.nextDouble() < 1.0 / interArrivalTime / (1000.0 / timeStep);
+		return getRandomGenerator().nextDouble() < 1.0 / interArrivalTime / (1000.0 / timeStep);
 	}
 
 	@Override
@@ -58,16 +61,16 @@ public class BaseAgentGenerator extends AgentGenerator {
 		List<HumanAgent> agents = new ArrayList<>();
 		// if we allow agent generation OR if agent generation is forced
 		if (forced || canGenerate(timeStep)) {
-			Luggage luggage = new Luggage(LuggageType.CARRY_ON, Utilities.RANDOM_GENERATOR.nextDouble(),
-					Utilities.RANDOM_GENERATOR.nextDouble());
+			Luggage luggage = new Luggage(LuggageType.CARRY_ON, getRandomGenerator().nextDouble(),
+					getRandomGenerator().nextDouble());
 			if (areas.isEmpty())
 				return null;
-			EntranceArea area = areas.get(Utilities.RANDOM_GENERATOR.nextInt(areas.size()));
+			EntranceArea area = areas.get(getRandomGenerator().nextInt(areas.size()));
 			Position start = area.generatePosition();
 			Flight flight = getEligibleFlight();
 			if (flight != null) {
 				Passenger p = new Passenger.Builder<>().setFlight(flight)
-						.setCheckedIn(Utilities.RANDOM_GENERATOR.nextBoolean()).setFacility(getFacility())
+						.setCheckedIn(getRandomGenerator().nextBoolean()).setFacility(getFacility())
 						.setPosition(start).setLuggage(luggage).build();
 				agents.add(p);
 			}
@@ -89,7 +92,7 @@ public class BaseAgentGenerator extends AgentGenerator {
 
 		if (flights.size() == 0)
 			return null;
-		return flights.get(Utilities.RANDOM_GENERATOR.nextInt(flights.size()));
+		return flights.get(getRandomGenerator().nextInt(flights.size()));
 	}
 
 	/**
@@ -98,7 +101,7 @@ public class BaseAgentGenerator extends AgentGenerator {
 	 * @return The facility.
 	 */
 	private Class<? extends Facility> getFacility() {
-		int rand = Utilities.RANDOM_GENERATOR.nextInt(2);
+		int rand = getRandomGenerator().nextInt(2);
 		if (rand == 0)
 			return null;
 		return Shop.class;
@@ -11,6 +11,11 @@ import model.agent.humanAgent.HumanAgent;
  */
 public class EmptyAgentGenerator extends AgentGenerator {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public List<HumanAgent> generateAgent(long numberOfSteps, int timeStep, boolean forced) {
 		return null;
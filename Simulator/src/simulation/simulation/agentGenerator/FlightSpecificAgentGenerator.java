@@ -15,7 +15,6 @@ import model.environment.objects.physicalObject.luggage.Luggage;
 import model.environment.objects.physicalObject.luggage.LuggageType;
 import model.environment.position.Position;
 import simulation.simulation.Simulator;
-import simulation.simulation.util.Utilities;
 
 /**
  * The base agent generator generates passengers in random intervals.
@@ -23,6 +22,10 @@ import simulation.simulation.util.Utilities;
  * @author S.A.M. Janssen
  */
 public class FlightSpecificAgentGenerator extends AgentGenerator {
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The area in which the agent is generated.
 	 */
@@ -111,7 +114,7 @@ public class FlightSpecificAgentGenerator extends AgentGenerator {
 		// the interarrival time
 		double interArrivalTime = bucketSize / (percentageOfPassengers[bucket] * numberOfPassengers);
 		// poission distributed variable
-		return Utilities.RANDOM_GENERATOR.nextDouble() < 1.0 / interArrivalTime / (1000.0 / timeStep);
+		return getRandomGenerator().nextDouble() < 1.0 / interArrivalTime / (1000.0 / timeStep);
 	}
 
 	@Override
@@ -119,14 +122,14 @@ public class FlightSpecificAgentGenerator extends AgentGenerator {
 		List<HumanAgent> list = new ArrayList<>();
 		for (Flight f : getEligibleFlights()) {
 			if (forced || canGenerate(timeStep, f)) {
-				Luggage luggage = new Luggage(LuggageType.CARRY_ON, Utilities.RANDOM_GENERATOR.nextDouble(),
-						Utilities.RANDOM_GENERATOR.nextDouble());
+				Luggage luggage = new Luggage(LuggageType.CARRY_ON, getRandomGenerator().nextDouble(),
+						getRandomGenerator().nextDouble());
 				if (areas.isEmpty())
 					return null;
-				EntranceArea area = areas.get(Utilities.RANDOM_GENERATOR.nextInt(areas.size()));
+				EntranceArea area = areas.get(getRandomGenerator().nextInt(areas.size()));
 				Position start = area.generatePosition();
 				Passenger p = new Passenger.Builder<>().setFlight(f)
-						.setCheckedIn(Utilities.RANDOM_GENERATOR.nextBoolean()).setFacility(getFacility())
+						.setCheckedIn(getRandomGenerator().nextBoolean()).setFacility(getFacility())
 						.setPosition(start).setLuggage(luggage).build();
 				list.add(p);
 			}
@@ -154,7 +157,7 @@ public class FlightSpecificAgentGenerator extends AgentGenerator {
 	 * @return The facility.
 	 */
 	private Class<? extends Facility> getFacility() {
-		int rand = Utilities.RANDOM_GENERATOR.nextInt(4);
+		int rand = getRandomGenerator().nextInt(4);
 		if (rand == 0)
 			return null;
 		if (rand == 1)
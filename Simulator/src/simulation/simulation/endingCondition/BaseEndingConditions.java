@@ -8,6 +8,10 @@ package simulation.simulation.endingCondition;
  */
 public class BaseEndingConditions extends EndingConditions {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The maximum number of steps.
 	 */
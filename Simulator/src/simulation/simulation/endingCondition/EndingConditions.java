@@ -1,5 +1,7 @@
 package simulation.simulation.endingCondition;
 
+import java.io.Serializable;
+
 import simulation.simulation.Simulator;
 
 /**
@@ -7,12 +9,17 @@ import simulation.simulation.Simulator;
  * 
  * @author S.A.M. Janssen
  */
-public abstract class EndingConditions {
+public abstract class EndingConditions implements Serializable {
 
 	/**
-	 * The {@link Simulator}.
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The {@link Simulator}. Not part of a snapshot, it is set again when the
+	 * simulation continues.
 	 */
-	protected Simulator simulator;
+	protected transient Simulator simulator;
 
 	/**
 	 * The simulation was ended.
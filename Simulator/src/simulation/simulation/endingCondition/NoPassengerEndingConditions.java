@@ -9,6 +9,11 @@ import model.agent.humanAgent.aatom.Passenger;
  * @author S.A.M. Janssen
  */
 public class NoPassengerEndingConditions extends EndingConditions {
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public Object[] getReturnValues() {
 		return null;
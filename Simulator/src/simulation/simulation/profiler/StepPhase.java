@@ -0,0 +1,36 @@
+package simulation.simulation.profiler;
+
+import simulation.simulation.Simulator;
+
+/**
+ * A phase of a {@link Simulator} step.
+ * 
+ * @author S.A.M. Janssen
+ */
+public enum StepPhase {
+
+	/**
+	 * The generation of agents.
+	 */
+	AGENT_GENERATION,
+	/**
+	 * The update of all directly updatable objects.
+	 */
+	UPDATE,
+	/**
+	 * The update of the analytics.
+	 */
+	ANALYTICS,
+	/**
+	 * The update of the logger.
+	 */
+	LOGGER,
+	/**
+	 * The selection and removal of agents that want to leave.
+	 */
+	REMOVAL,
+	/**
+	 * The update of the GUI.
+	 */
+	GUI;
+}
@@ -0,0 +1,293 @@
+package simulation.simulation.profiler;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import simulation.simulation.Simulator;
+import simulation.simulation.util.DirectlyUpdatable;
+
+/**
+ * The step profiler measures the duration of each {@link StepPhase} of a
+ * {@link Simulator} step, the update duration of each class of
+ * {@link DirectlyUpdatable} objects and the number of agents. It is disabled by
+ * default, in which case the simulator does not measure anything.
+ * 
+ * If agents are updated in parallel, the update durations of the agents are
+ * summed over all threads, so the update totals per class can exceed the
+ * duration of the {@link StepPhase#UPDATE} phase.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class StepProfiler implements StepProfilerMXBean {
+
+	/**
+	 * Flag to specify if the profiler is enabled. Volatile for thread safety.
+	 */
+	private volatile boolean enabled;
+	/**
+	 * The statistics of each phase.
+	 */
+	private final Map<StepPhase, TimingStatistics> phases;
+	/**
+	 * The update statistics of each class.
+	 */
+	private final ConcurrentMap<Class<?>, TimingStatistics> updates;
+	/**
+	 * The statistics of the complete steps.
+	 */
+	private final TimingStatistics steps;
+	/**
+	 * The current number of agents.
+	 */
+	private volatile int agentCount;
+	/**
+	 * The maximum number of agents.
+	 */
+	private volatile int maximumAgentCount;
+	/**
+	 * The name under which the profiler is registered as MBean.
+	 */
+	private ObjectName objectName;
+
+	/**
+	 * Creates a disabled step profiler.
+	 */
+	public StepProfiler() {
+		phases = new EnumMap<>(StepPhase.class);
+		for (StepPhase phase : StepPhase.values())
+			phases.put(phase, new TimingStatistics());
+		updates = new ConcurrentHashMap<>();
+		steps = new TimingStatistics();
+	}
+
+	@Override
+	public int getAgentCount() {
+		return agentCount;
+	}
+
+	@Override
+	public double getAverageStepTime() {
+		return steps.getAverage();
+	}
+
+	@Override
+	public int getMaximumAgentCount() {
+		return maximumAgentCount;
+	}
+
+	@Override
+	public long getMaximumStepTime() {
+		return steps.getMaximum();
+	}
+
+	@Override
+	public Map<String, long[]> getPhaseHistograms() {
+		Map<String, long[]> histograms = new TreeMap<>();
+		for (Map.Entry<StepPhase, TimingStatistics> entry : phases.entrySet())
+			histograms.put(entry.getKey().name(), entry.getValue().getHistogram());
+		return histograms;
+	}
+
+	/**
+	 * Gets the statistics of a phase.
+	 * 
+	 * @param phase
+	 *            The phase.
+	 * @return The statistics.
+	 */
+	public TimingStatistics getPhaseStatistics(StepPhase phase) {
+		return phases.get(phase);
+	}
+
+	@Override
+	public Map<String, Long> getPhaseTotals() {
+		Map<String, Long> totals = new TreeMap<>();
+		for (Map.Entry<StepPhase, TimingStatistics> entry : phases.entrySet())
+			totals.put(entry.getKey().name(), entry.getValue().getTotal());
+		return totals;
+	}
+
+	@Override
+	public long getStepCount() {
+		return steps.getCount();
+	}
+
+	@Override
+	public long[] getStepHistogram() {
+		return steps.getHistogram();
+	}
+
+	/**
+	 * Gets the statistics of the complete steps.
+	 * 
+	 * @return The statistics.
+	 */
+	public TimingStatistics getStepStatistics() {
+		return steps;
+	}
+
+	@Override
+	public long getTotalStepTime() {
+		return steps.getTotal();
+	}
+
+	/**
+	 * Gets the update statistics of each class of {@link DirectlyUpdatable}
+	 * objects.
+	 * 
+	 * @return The statistics, by class.
+	 */
+	public Map<Class<?>, TimingStatistics> getUpdateStatistics() {
+		return updates;
+	}
+
+	@Override
+	public Map<String, Long> getUpdateTotals() {
+		Map<String, Long> totals = new TreeMap<>();
+		for (Map.Entry<Class<?>, TimingStatistics> entry : updates.entrySet())
+			totals.put(entry.getKey().getName(), entry.getValue().getTotal());
+		return totals;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Records the number of agents.
+	 * 
+	 * @param agentCount
+	 *            The number of agents.
+	 */
+	public void recordAgentCount(int agentCount) {
+		this.agentCount = agentCount;
+		if (agentCount > maximumAgentCount)
+			maximumAgentCount = agentCount;
+	}
+
+	/**
+	 * Records the duration of a phase that started at a specified time.
+	 * 
+	 * @param phase
+	 *            The phase.
+	 * @param startTime
+	 *            The start time, from {@link System#nanoTime()}.
+	 * @return The current time, which can be used as start time of the next
+	 *         phase.
+	 */
+	public long recordPhase(StepPhase phase, long startTime) {
+		long time = System.nanoTime();
+		recordPhaseDuration(phase, time - startTime);
+		return time;
+	}
+
+	/**
+	 * Records the duration of a phase, for instance of a phase that consists
+	 * of several parts of the step.
+	 * 
+	 * @param phase
+	 *            The phase.
+	 * @param duration
+	 *            The duration (in nanoseconds).
+	 */
+	public void recordPhaseDuration(StepPhase phase, long duration) {
+		phases.get(phase).record(duration);
+	}
+
+	/**
+	 * Records the duration of a step.
+	 * 
+	 * @param duration
+	 *            The duration (in nanoseconds).
+	 */
+	public void recordStep(long duration) {
+		steps.record(duration);
+	}
+
+	/**
+	 * Records the update duration of an object.
+	 * 
+	 * @param updatable
+	 *            The object.
+	 * @param duration
+	 *            The duration (in nanoseconds).
+	 */
+	public void recordUpdate(DirectlyUpdatable updatable, long duration) {
+		Class<?> type = updatable.getClass();
+		TimingStatistics statistics = updates.get(type);
+		if (statistics == null) {
+			updates.putIfAbsent(type, new TimingStatistics());
+			statistics = updates.get(type);
+		}
+		statistics.record(duration);
+	}
+
+	/**
+	 * Registers the profiler at the platform MBean server.
+	 * 
+	 * @param name
+	 *            The name of the simulation.
+	 */
+	public synchronized void registerMBean(String name) {
+		if (objectName != null)
+			return;
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName candidate = new ObjectName(
+					"AATOM:type=StepProfiler,name=" + ObjectName.quote(name + "@" + System.identityHashCode(this)));
+			server.registerMBean(this, candidate);
+			objectName = candidate;
+		} catch (Exception e) {
+			System.err.println("Could not register the step profiler: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public void reset() {
+		for (TimingStatistics statistics : phases.values())
+			statistics.reset();
+		updates.clear();
+		steps.reset();
+		maximumAgentCount = agentCount;
+	}
+
+	@Override
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("steps: ").append(steps).append(System.lineSeparator());
+		for (Map.Entry<StepPhase, TimingStatistics> entry : phases.entrySet())
+			builder.append(entry.getKey()).append(": ").append(entry.getValue()).append(System.lineSeparator());
+		for (Map.Entry<Class<?>, TimingStatistics> entry : updates.entrySet())
+			builder.append(entry.getKey().getName()).append(": ").append(entry.getValue())
+					.append(System.lineSeparator());
+		builder.append("agents: ").append(agentCount).append(" (max ").append(maximumAgentCount).append(")");
+		return builder.toString();
+	}
+
+	/**
+	 * Unregisters the profiler from the platform MBean server.
+	 */
+	public synchronized void unregisterMBean() {
+		if (objectName == null)
+			return;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (Exception e) {
+			System.err.println("Could not unregister the step profiler: " + e.getMessage());
+		}
+		objectName = null;
+	}
+}
@@ -0,0 +1,106 @@
+package simulation.simulation.profiler;
+
+import java.util.Map;
+
+/**
+ * The management interface of the {@link StepProfiler}. All durations are in
+ * nanoseconds.
+ * 
+ * @author S.A.M. Janssen
+ */
+public interface StepProfilerMXBean {
+
+	/**
+	 * Gets the current number of agents.
+	 * 
+	 * @return The number of agents.
+	 */
+	public int getAgentCount();
+
+	/**
+	 * Gets the average duration of a step.
+	 * 
+	 * @return The average duration.
+	 */
+	public double getAverageStepTime();
+
+	/**
+	 * Gets the maximum number of agents.
+	 * 
+	 * @return The maximum number of agents.
+	 */
+	public int getMaximumAgentCount();
+
+	/**
+	 * Gets the maximum duration of a step.
+	 * 
+	 * @return The maximum duration.
+	 */
+	public long getMaximumStepTime();
+
+	/**
+	 * Gets the duration histogram of each {@link StepPhase}. Bucket i of a
+	 * histogram counts the durations d with 2^i &lt;= d &lt; 2^(i+1), see
+	 * {@link TimingStatistics}.
+	 * 
+	 * @return The histograms, by phase name.
+	 */
+	public Map<String, long[]> getPhaseHistograms();
+
+	/**
+	 * Gets the total duration of each {@link StepPhase}.
+	 * 
+	 * @return The durations, by phase name.
+	 */
+	public Map<String, Long> getPhaseTotals();
+
+	/**
+	 * Gets the number of profiled steps.
+	 * 
+	 * @return The number of steps.
+	 */
+	public long getStepCount();
+
+	/**
+	 * Gets the duration histogram of the complete steps, with the same
+	 * buckets as {@link #getPhaseHistograms()}.
+	 * 
+	 * @return The histogram.
+	 */
+	public long[] getStepHistogram();
+
+	/**
+	 * Gets the total duration of all profiled steps.
+	 * 
+	 * @return The total duration.
+	 */
+	public long getTotalStepTime();
+
+	/**
+	 * Gets the total update duration of each class of directly updatable
+	 * objects.
+	 * 
+	 * @return The durations, by class name.
+	 */
+	public Map<String, Long> getUpdateTotals();
+
+	/**
+	 * Indicates if the profiler is enabled.
+	 * 
+	 * @return True if it is, false otherwise.
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Resets all statistics.
+	 */
+	public void reset();
+
+	/**
+	 * Enables or disables the profiler.
+	 * 
+	 * @param enabled
+	 *            True to enable, false to disable.
+	 */
+	public void setEnabled(boolean enabled);
+}
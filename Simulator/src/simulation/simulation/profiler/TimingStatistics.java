@@ -0,0 +1,141 @@
+package simulation.simulation.profiler;
+
+/**
+ * Timing statistics keep track of the number of measurements, the running
+ * total, the minimum and the maximum of a set of durations. It also keeps a
+ * histogram of the durations, in which bucket i contains the durations d (in
+ * nanoseconds) with 2^i &lt;= d &lt; 2^(i+1). Bucket 0 also contains durations
+ * of 0 nanoseconds. The statistics can be recorded from multiple threads.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TimingStatistics {
+
+	/**
+	 * The number of histogram buckets.
+	 */
+	public static final int NUMBER_OF_BUCKETS = 64;
+
+	/**
+	 * The number of measurements.
+	 */
+	private long count;
+	/**
+	 * The total duration (in nanoseconds).
+	 */
+	private long total;
+	/**
+	 * The minimum duration (in nanoseconds).
+	 */
+	private long minimum;
+	/**
+	 * The maximum duration (in nanoseconds).
+	 */
+	private long maximum;
+	/**
+	 * The histogram.
+	 */
+	private final long[] histogram;
+
+	/**
+	 * Creates empty timing statistics.
+	 */
+	public TimingStatistics() {
+		histogram = new long[NUMBER_OF_BUCKETS];
+		reset();
+	}
+
+	/**
+	 * Gets the average duration.
+	 * 
+	 * @return The average duration (in nanoseconds), 0 if nothing is recorded.
+	 */
+	public synchronized double getAverage() {
+		if (count == 0)
+			return 0;
+		return total / (double) count;
+	}
+
+	/**
+	 * Gets the number of measurements.
+	 * 
+	 * @return The number of measurements.
+	 */
+	public synchronized long getCount() {
+		return count;
+	}
+
+	/**
+	 * Gets a copy of the histogram.
+	 * 
+	 * @return The histogram.
+	 */
+	public synchronized long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * Gets the maximum duration.
+	 * 
+	 * @return The maximum duration (in nanoseconds), 0 if nothing is recorded.
+	 */
+	public synchronized long getMaximum() {
+		return maximum;
+	}
+
+	/**
+	 * Gets the minimum duration.
+	 * 
+	 * @return The minimum duration (in nanoseconds), 0 if nothing is recorded.
+	 */
+	public synchronized long getMinimum() {
+		if (count == 0)
+			return 0;
+		return minimum;
+	}
+
+	/**
+	 * Gets the total duration.
+	 * 
+	 * @return The total duration (in nanoseconds).
+	 */
+	public synchronized long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Records a duration.
+	 * 
+	 * @param duration
+	 *            The duration (in nanoseconds).
+	 */
+	public synchronized void record(long duration) {
+		if (duration < 0)
+			duration = 0;
+		count++;
+		total += duration;
+		if (duration < minimum)
+			minimum = duration;
+		if (duration > maximum)
+			maximum = duration;
+		histogram[duration == 0 ? 0 : 63 - Long.numberOfLeadingZeros(duration)]++;
+	}
+
+	/**
+	 * Resets the statistics.
+	 */
+	public synchronized void reset() {
+		count = 0;
+		total = 0;
+		minimum = Long.MAX_VALUE;
+		maximum = 0;
+		for (int i = 0; i < histogram.length; i++)
+			histogram[i] = 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "count=" + count + ", total=" + total / 1e6 + "ms, average=" + getAverage() / 1e6 + "ms, max="
+				+ maximum / 1e6 + "ms";
+	}
+}
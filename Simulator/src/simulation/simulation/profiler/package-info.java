@@ -0,0 +1,6 @@
+/**
+ * Profiling of the simulation steps.
+ * 
+ * @author S.A.M. Janssen
+ */
+package simulation.simulation.profiler;
\ No newline at end of file
@@ -0,0 +1,652 @@
+package simulation.simulation.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.DiscretizedMap;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.FlowField;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.HierarchicalGraph;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.JumpPointSearch;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.PathCache;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.VisibilityGraph;
+import model.map.Map;
+import simulation.simulation.Simulator;
+import util.math.RandomPlus;
+
+/**
+ * The simulation context contains the state that is shared by all components
+ * of a single simulation: the random generator (and named random streams), the
+ * {@link DiscretizedMap}s, {@link FlowField}s, {@link JumpPointSearch}es,
+ * {@link HierarchicalGraph}s, {@link PathCache}s and {@link VisibilityGraph}s
+ * used for navigation, the
+ * simulation clock, the {@link TimingWheel} for timed events and the
+ * {@link UpdateRates} of the agents and if agents can be dormant. Each {@link Map} has its own context,
+ * which is replaced by the {@link Simulator} when it is created. This allows
+ * multiple simulations to run in the same JVM.
+ * 
+ * Components that have access to a {@link Map} should use
+ * {@link Map#getContext()}. Other objects (for instance distributions) use
+ * {@link #current()}, which gives the context bound to the current thread. The
+ * {@link Simulator} binds its context to the thread that creates it and the
+ * threads that run it.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class SimulationContext implements Serializable {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The context that is used if no context is bound to the current thread.
+	 */
+	private static final SimulationContext DEFAULT = createDefault();
+	/**
+	 * The context bound to the current thread.
+	 */
+	private static final ThreadLocal<SimulationContext> CURRENT = new ThreadLocal<>();
+	/**
+	 * The maximum number of flow fields that is kept per precision. If more
+	 * flow fields are requested, the least recently used one is removed.
+	 */
+	private static final int MAXIMUM_FLOW_FIELDS = 64;
+	/**
+	 * The maximum number of paths that is kept per precision.
+	 */
+	private static final int MAXIMUM_PATHS = 4096;
+	/**
+	 * The width and height (in tiles) of the clusters of a
+	 * {@link HierarchicalGraph}.
+	 */
+	private static final int CLUSTER_SIZE = 16;
+	/**
+	 * The radii (in meters) of the {@link VisibilityGraph}s are multiples of
+	 * this step.
+	 */
+	private static final double VISIBILITY_GRAPH_RADIUS_STEP = 0.05;
+
+	/**
+	 * Gets the context that is bound to the current thread. If no context is
+	 * bound, a default context is returned.
+	 * 
+	 * @return The context.
+	 */
+	public static SimulationContext current() {
+		SimulationContext context = CURRENT.get();
+		if (context == null)
+			return DEFAULT;
+		return context;
+	}
+
+	/**
+	 * Creates a context like the default context of a new process: without a
+	 * map and with a random generator with seed 0. It can be bound to a thread
+	 * that prepares a simulation, such that the random numbers that are drawn
+	 * before the simulator is created do not depend on other simulations in
+	 * the same process.
+	 * 
+	 * @return The context.
+	 */
+	public static SimulationContext createDefault() {
+		return new SimulationContext(null, new RandomPlus(0));
+	}
+
+	/**
+	 * Binds a context to the current thread.
+	 * 
+	 * @param context
+	 *            The context, or null to remove the binding.
+	 */
+	public static void setCurrent(SimulationContext context) {
+		if (context == null)
+			CURRENT.remove();
+		else
+			CURRENT.set(context);
+	}
+
+	/**
+	 * The map.
+	 */
+	private final Map map;
+	/**
+	 * The random generator.
+	 */
+	private final RandomPlus randomGenerator;
+	/**
+	 * The named random streams.
+	 */
+	private final java.util.Map<String, RandomPlus> randomStreams;
+	/**
+	 * The discretized maps, by precision.
+	 */
+	private final java.util.Map<Double, DiscretizedMap> discretizedMaps;
+	/**
+	 * The flow fields, by precision and destination tile. A flow field is
+	 * computed by the task outside the lock of the context. They are not part
+	 * of a snapshot of the simulation, and are created again when they are
+	 * requested.
+	 */
+	private transient java.util.Map<Double, java.util.Map<Long, FutureTask<FlowField>>> flowFields;
+	/**
+	 * The jump point searches, by precision. They are not part of a snapshot
+	 * of the simulation, and are created again when they are requested.
+	 */
+	private transient java.util.Map<Double, JumpPointSearch> jumpPointSearches;
+	/**
+	 * The hierarchical graphs, by precision. They are not part of a snapshot
+	 * of the simulation, and are created again when they are requested.
+	 */
+	private transient java.util.Map<Double, HierarchicalGraph> hierarchicalGraphs;
+	/**
+	 * The path caches, by precision.
+	 */
+	private final java.util.Map<Double, PathCache> pathCaches;
+	/**
+	 * The visibility graphs, by radius.
+	 */
+	private final java.util.Map<Double, VisibilityGraph> visibilityGraphs;
+	/**
+	 * The visibility graphs that are being created, by radius. A graph is
+	 * created by the task outside the lock of the context.
+	 */
+	private transient java.util.Map<Double, FutureTask<VisibilityGraph>> visibilityGraphTasks;
+	/**
+	 * The timing wheel.
+	 */
+	private final TimingWheel timingWheel;
+	/**
+	 * The update rates of the agents.
+	 */
+	private UpdateRates updateRates;
+	/**
+	 * Flag to specify if agents can be dormant.
+	 */
+	private boolean dormancy;
+	/**
+	 * The number of agents that requested a number.
+	 */
+	private long numberOfAgents;
+	/**
+	 * The number of steps that are performed.
+	 */
+	private long step;
+	/**
+	 * The time (in seconds).
+	 */
+	private double time;
+	/**
+	 * The time step (in milliseconds).
+	 */
+	private int timeStep;
+
+	/**
+	 * Creates a simulation context.
+	 * 
+	 * @param map
+	 *            The map.
+	 * @param randomGenerator
+	 *            The random generator.
+	 */
+	public SimulationContext(Map map, RandomPlus randomGenerator) {
+		if (randomGenerator == null)
+			throw new IllegalArgumentException("Random generator cannot be null");
+		this.map = map;
+		this.randomGenerator = randomGenerator;
+		randomStreams = new HashMap<>();
+		discretizedMaps = new HashMap<>();
+		flowFields = new HashMap<>();
+		jumpPointSearches = new HashMap<>();
+		hierarchicalGraphs = new HashMap<>();
+		pathCaches = new HashMap<>();
+		visibilityGraphs = new HashMap<>();
+		visibilityGraphTasks = new HashMap<>();
+		timingWheel = new TimingWheel();
+		updateRates = UpdateRates.EVERY_STEP;
+		dormancy = true;
+		timeStep = 100;
+	}
+
+	/**
+	 * Gets the {@link DiscretizedMap} of the {@link Map} in a specified
+	 * precision. The discretized map is created the first time it is requested.
+	 * 
+	 * @param precision
+	 *            The precision.
+	 * @return The discretized map.
+	 */
+	public synchronized DiscretizedMap getDiscretizedMap(double precision) {
+		DiscretizedMap discretizedMap = discretizedMaps.get(precision);
+		if (discretizedMap == null) {
+			if (map == null)
+				throw new IllegalStateException("The context has no map to discretize.");
+			discretizedMap = new DiscretizedMap(map, precision);
+			discretizedMaps.put(precision, discretizedMap);
+		}
+		return discretizedMap;
+	}
+
+	/**
+	 * Gets the {@link DiscretizedMap}s that are created so far.
+	 * 
+	 * @return The discretized maps.
+	 */
+	public synchronized Collection<DiscretizedMap> getDiscretizedMaps() {
+		return new ArrayList<>(discretizedMaps.values());
+	}
+
+	/**
+	 * Gets the {@link FlowField} towards a destination tile of the
+	 * {@link DiscretizedMap} in a specified precision. The flow field is
+	 * created the first time it is requested and shared by all agents. It is
+	 * computed by the thread that requests it first, without holding the lock
+	 * of the context, so agents can get other flow fields in the meantime.
+	 * Other threads that request the same flow field wait for it.
+	 * 
+	 * @param precision
+	 *            The precision.
+	 * @param x
+	 *            The x coordinate of the destination tile.
+	 * @param y
+	 *            The y coordinate of the destination tile.
+	 * @return The flow field.
+	 */
+	@SuppressWarnings("serial")
+	public FlowField getFlowField(double precision, final int x, final int y) {
+		long key = ((long) x << 32) | (y & 0xffffffffL);
+		FutureTask<FlowField> task;
+		boolean created = false;
+		synchronized (this) {
+			if (flowFields == null)
+				flowFields = new HashMap<>();
+			java.util.Map<Long, FutureTask<FlowField>> fields = flowFields.get(precision);
+			if (fields == null) {
+				fields = new LinkedHashMap<Long, FutureTask<FlowField>>(16, 0.75f, true) {
+					@Override
+					protected boolean removeEldestEntry(java.util.Map.Entry<Long, FutureTask<FlowField>> eldest) {
+						return size() > MAXIMUM_FLOW_FIELDS;
+					}
+				};
+				flowFields.put(precision, fields);
+			}
+			task = fields.get(key);
+			if (task == null) {
+				final boolean[][] discretizedMap = getDiscretizedMap(precision).getMap();
+				task = new FutureTask<>(new Callable<FlowField>() {
+					@Override
+					public FlowField call() {
+						return new FlowField(discretizedMap, x, y);
+					}
+				});
+				fields.put(key, task);
+				created = true;
+			}
+		}
+		if (created)
+			task.run();
+		try {
+			return getResult(task);
+		} catch (RuntimeException e) {
+			// do not keep a failed flow field
+			if (created) {
+				synchronized (this) {
+					java.util.Map<Long, FutureTask<FlowField>> fields = flowFields.get(precision);
+					if (fields != null && fields.get(key) == task)
+						fields.remove(key);
+				}
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Gets the {@link HierarchicalGraph} of the {@link DiscretizedMap} in a
+	 * specified precision. The graph is created the first time it is requested
+	 * and shared by all agents.
+	 * 
+	 * @param precision
+	 *            The precision.
+	 * @return The hierarchical graph.
+	 */
+	public synchronized HierarchicalGraph getHierarchicalGraph(double precision) {
+		if (hierarchicalGraphs == null)
+			hierarchicalGraphs = new HashMap<>();
+		HierarchicalGraph graph = hierarchicalGraphs.get(precision);
+		if (graph == null) {
+			graph = new HierarchicalGraph(getDiscretizedMap(precision).getMap(), precision, CLUSTER_SIZE);
+			hierarchicalGraphs.put(precision, graph);
+		}
+		return graph;
+	}
+
+	/**
+	 * Gets the {@link JumpPointSearch} on the {@link DiscretizedMap} in a
+	 * specified precision. The search is created the first time it is
+	 * requested and shared by all agents.
+	 * 
+	 * @param precision
+	 *            The precision.
+	 * @return The jump point search.
+	 */
+	public synchronized JumpPointSearch getJumpPointSearch(double precision) {
+		if (jumpPointSearches == null)
+			jumpPointSearches = new HashMap<>();
+		JumpPointSearch search = jumpPointSearches.get(precision);
+		if (search == null) {
+			search = new JumpPointSearch(getDiscretizedMap(precision).getMap(), precision,
+					getPathCache(precision));
+			jumpPointSearches.put(precision, search);
+		}
+		return search;
+	}
+
+	/**
+	 * Gets the {@link PathCache} of the {@link DiscretizedMap} in a specified
+	 * precision. The cache is created the first time it is requested.
+	 * 
+	 * @param precision
+	 *            The precision.
+	 * @return The path cache.
+	 */
+	public synchronized PathCache getPathCache(double precision) {
+		PathCache pathCache = pathCaches.get(precision);
+		if (pathCache == null) {
+			pathCache = new PathCache(MAXIMUM_PATHS);
+			pathCaches.put(precision, pathCache);
+		}
+		return pathCache;
+	}
+
+	/**
+	 * Gets the map.
+	 * 
+	 * @return The map.
+	 */
+	public Map getMap() {
+		return map;
+	}
+
+	/**
+	 * Gets the random generator.
+	 * 
+	 * @return The random generator.
+	 */
+	public RandomPlus getRandomGenerator() {
+		return randomGenerator;
+	}
+
+	/**
+	 * Gets a named random stream. The stream is seeded with a combination of
+	 * the seed of the random generator and the name, so the same name always
+	 * gives the same sequence for a given seed, independent of the use of other
+	 * streams.
+	 * 
+	 * @param name
+	 *            The name of the stream.
+	 * @return The random stream.
+	 */
+	public synchronized RandomPlus getRandomStream(String name) {
+		RandomPlus stream = randomStreams.get(name);
+		if (stream == null) {
+			stream = new RandomPlus(randomGenerator.getSeed() ^ (name.hashCode() * 0x9E3779B97F4A7C15L));
+			randomStreams.put(name, stream);
+		}
+		return stream;
+	}
+
+	/**
+	 * Gets the result of a task that creates a shared object, waiting for the
+	 * task to finish if another thread runs it.
+	 * 
+	 * @param task
+	 *            The task.
+	 * @param <T>
+	 *            The type of the result.
+	 * @return The result.
+	 */
+	private static <T> T getResult(FutureTask<T> task) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					return task.get();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Gets the current step of the simulation, which is the number of steps
+	 * that are performed. It is counted by {@link #updateTime(int)}.
+	 * 
+	 * @return The step.
+	 */
+	public long getStep() {
+		return step;
+	}
+
+	/**
+	 * Gets the time.
+	 * 
+	 * @return The time (in seconds).
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Gets the time step of the simulation. Components use it to schedule
+	 * events on the {@link TimingWheel} a number of seconds ahead.
+	 * 
+	 * @return The time step (in milliseconds).
+	 */
+	public int getTimeStep() {
+		return timeStep;
+	}
+
+	/**
+	 * Determines if agents that stand still and have nothing to decide can be
+	 * dormant, such that they skip their updates (see
+	 * {@link model.agent.humanAgent.aatom.AatomHumanAgent#isDormant()}).
+	 * 
+	 * @return True if they can, false otherwise.
+	 */
+	public boolean isDormancy() {
+		return dormancy;
+	}
+
+	/**
+	 * Gets the {@link TimingWheel}. It is advanced by the {@link Simulator} at
+	 * the start of each step, before the agents are updated.
+	 * 
+	 * @return The timing wheel.
+	 */
+	public TimingWheel getTimingWheel() {
+		return timingWheel;
+	}
+
+	/**
+	 * Gets the {@link UpdateRates} of the agents.
+	 * 
+	 * @return The update rates.
+	 */
+	public UpdateRates getUpdateRates() {
+		return updateRates;
+	}
+
+	/**
+	 * Gets the {@link VisibilityGraph} of the {@link Map} for agents with a
+	 * specified radius. The radius is rounded up to a multiple of 5 cm, such
+	 * that agents with about the same radius share a graph. The graph is
+	 * created the first time it is requested, outside the lock of the
+	 * context. Other threads that request it in the meantime wait for it.
+	 * 
+	 * @param radius
+	 *            The radius (in meters).
+	 * @return The visibility graph.
+	 */
+	public VisibilityGraph getVisibilityGraph(double radius) {
+		final double graphRadius = getVisibilityGraphRadius(radius);
+		FutureTask<VisibilityGraph> task;
+		boolean created = false;
+		synchronized (this) {
+			VisibilityGraph graph = visibilityGraphs.get(graphRadius);
+			if (graph != null)
+				return graph;
+			if (map == null)
+				throw new IllegalStateException("The context has no map to build a graph of.");
+			if (visibilityGraphTasks == null)
+				visibilityGraphTasks = new HashMap<>();
+			task = visibilityGraphTasks.get(graphRadius);
+			if (task == null) {
+				task = new FutureTask<>(new Callable<VisibilityGraph>() {
+					@Override
+					public VisibilityGraph call() {
+						return new VisibilityGraph(map, graphRadius);
+					}
+				});
+				visibilityGraphTasks.put(graphRadius, task);
+				created = true;
+			}
+		}
+		if (created)
+			task.run();
+		try {
+			VisibilityGraph graph = getResult(task);
+			if (created) {
+				synchronized (this) {
+					visibilityGraphs.put(graphRadius, graph);
+				}
+			}
+			return graph;
+		} finally {
+			if (created) {
+				synchronized (this) {
+					visibilityGraphTasks.remove(graphRadius);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the radius of the {@link VisibilityGraph} that is used for agents
+	 * with a specified radius: the radius rounded up to a multiple of
+	 * {@link #VISIBILITY_GRAPH_RADIUS_STEP}.
+	 * 
+	 * @param radius
+	 *            The radius (in meters).
+	 * @return The radius of the graph.
+	 */
+	private static double getVisibilityGraphRadius(double radius) {
+		return Math.ceil(radius / VISIBILITY_GRAPH_RADIUS_STEP - 1e-9) * VISIBILITY_GRAPH_RADIUS_STEP;
+	}
+
+	/**
+	 * Gets a new agent number. Agents are numbered in the order in which they
+	 * request a number, which is used to stagger their updates (see
+	 * {@link UpdateRates}).
+	 * 
+	 * @return The agent number.
+	 */
+	public synchronized long nextAgentNumber() {
+		return numberOfAgents++;
+	}
+
+	/**
+	 * Sets a precomputed {@link DiscretizedMap} for a specified precision. This
+	 * saves computational time for larger maps.
+	 * 
+	 * @param precision
+	 *            The precision.
+	 * @param discretizedMap
+	 *            The discretized map.
+	 */
+	public synchronized void setDiscretizedMap(double precision, DiscretizedMap discretizedMap) {
+		discretizedMaps.put(precision, discretizedMap);
+		if (flowFields != null)
+			flowFields.remove(precision);
+		if (jumpPointSearches != null)
+			jumpPointSearches.remove(precision);
+		if (hierarchicalGraphs != null)
+			hierarchicalGraphs.remove(precision);
+		pathCaches.remove(precision);
+	}
+
+	/**
+	 * Sets if agents can be dormant. See {@link #isDormancy()}.
+	 * 
+	 * @param dormancy
+	 *            True if agents can be dormant, false otherwise.
+	 */
+	public void setDormancy(boolean dormancy) {
+		this.dormancy = dormancy;
+	}
+
+	/**
+	 * Sets the time step of the simulation.
+	 * 
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 */
+	public void setTimeStep(int timeStep) {
+		if (timeStep <= 0)
+			throw new IllegalArgumentException("Time step should be positive");
+		this.timeStep = timeStep;
+	}
+
+	/**
+	 * Sets the {@link UpdateRates} of the agents.
+	 * 
+	 * @param updateRates
+	 *            The update rates.
+	 */
+	public void setUpdateRates(UpdateRates updateRates) {
+		if (updateRates == null)
+			throw new IllegalArgumentException("Update rates cannot be null");
+		this.updateRates = updateRates;
+	}
+
+	/**
+	 * Sets a precomputed {@link VisibilityGraph}, for instance one that is
+	 * stored in an earlier run. It is used for agents whose radius is rounded
+	 * up to the same multiple of 5 cm as the radius of the graph (see
+	 * {@link #getVisibilityGraph(double)}), so the radius of the graph should
+	 * be such a multiple.
+	 * 
+	 * @param visibilityGraph
+	 *            The visibility graph.
+	 */
+	public synchronized void setVisibilityGraph(VisibilityGraph visibilityGraph) {
+		if (visibilityGraph == null)
+			throw new IllegalArgumentException("Visibility graph cannot be null");
+		visibilityGraphs.put(getVisibilityGraphRadius(visibilityGraph.getRadius()), visibilityGraph);
+	}
+
+	/**
+	 * Updates the time and the step at the end of a step of the simulation.
+	 * 
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 */
+	public void updateTime(int timeStep) {
+		step++;
+		time += timeStep / 1000.0;
+	}
+}
@@ -1,10 +1,13 @@
 package simulation.simulation.util;
 
+import java.io.Serializable;
+
 /**
- * A simulation object is an object that can be added to a simulation.
+ * A simulation object is an object that can be added to a simulation. It is
+ * serializable, such that it can be part of a snapshot of the simulation.
  * 
  * @author S.A.M. Janssen
  */
-public interface SimulationObject {
+public interface SimulationObject extends Serializable {
 
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package simulation.simulation.util;
+
+import java.io.Serializable;
+
+/**
+ * A timed event is fired by the {@link TimingWheel} in the step for which it
+ * is scheduled. It is serializable, such that it can be part of a snapshot of
+ * the simulation.
+ * 
+ * @author S.A.M. Janssen
+ */
+public interface TimedEvent extends Serializable {
+
+	/**
+	 * Fires the event.
+	 * 
+	 * @param step
+	 *            The step of the simulation in which the event is fired.
+	 */
+	public void fire(long step);
+}
@@ -0,0 +1,408 @@
+package simulation.simulation.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A timing wheel fires {@link TimedEvent}s in the step of the simulation for
+ * which they are scheduled, such that components that wait for a certain step
+ * do not have to count down on every step. The wheel is hierarchical: each
+ * level has 64 slots, and the slot of a timer depends on the highest bit in
+ * which its step differs from the current step. Timers of the higher levels
+ * move down one level when the wheel passes their slot, so scheduling,
+ * cancelling and advancing all take constant time per timer. Steps beyond the
+ * range of the levels are kept in an overflow list.
+ * 
+ * Timers that are due in the same step are fired in the order in which they
+ * were scheduled. The wheel can be used from multiple threads.
+ * 
+ * The departures of flights, the recovery of x-ray agents and the wake-ups of
+ * dormant agents are events on the wheel. The timers of the passengers
+ * themselves, such as the service time at a desk or the waiting time at the
+ * gate, are counted by the passenger while it is updated. While it is
+ * dormant, the passenger is woken by the wheel when the first of them
+ * expires, and catches up on the others at once.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TimingWheel implements Serializable {
+
+	/**
+	 * A timer is a scheduled {@link TimedEvent}. It can be used to cancel the
+	 * event.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	public static class Timer implements Serializable {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The event.
+		 */
+		private final TimedEvent event;
+		/**
+		 * The step in which the event is fired.
+		 */
+		private final long step;
+		/**
+		 * The order in which the timer was scheduled.
+		 */
+		private final long sequence;
+		/**
+		 * The level of the wheel, -1 if the timer is not scheduled.
+		 */
+		private transient int level;
+		/**
+		 * The slot in the level.
+		 */
+		private transient int slot;
+		/**
+		 * The previous timer in the slot.
+		 */
+		private transient Timer previous;
+		/**
+		 * The next timer in the slot.
+		 */
+		private transient Timer next;
+
+		/**
+		 * Creates a timer.
+		 * 
+		 * @param event
+		 *            The event.
+		 * @param step
+		 *            The step in which the event is fired.
+		 * @param sequence
+		 *            The order in which the timer was scheduled.
+		 */
+		private Timer(TimedEvent event, long step, long sequence) {
+			this.event = event;
+			this.step = step;
+			this.sequence = sequence;
+			level = -1;
+		}
+
+		/**
+		 * Gets the step in which the event is fired.
+		 * 
+		 * @return The step.
+		 */
+		public long getStep() {
+			return step;
+		}
+
+		/**
+		 * Determines if the timer is scheduled, i.e. it is not fired or
+		 * cancelled.
+		 * 
+		 * @return True if it is scheduled, false otherwise.
+		 */
+		public boolean isScheduled() {
+			return level >= 0;
+		}
+
+		/**
+		 * Reads the timer. It is scheduled again by the wheel.
+		 * 
+		 * @param input
+		 *            The input stream.
+		 * @throws IOException
+		 *             If the timer cannot be read.
+		 * @throws ClassNotFoundException
+		 *             If a class cannot be found.
+		 */
+		private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+			input.defaultReadObject();
+			level = -1;
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The number of bits of the step that each level covers.
+	 */
+	private static final int SLOT_BITS = 6;
+	/**
+	 * The number of slots in each level.
+	 */
+	private static final int SLOTS = 1 << SLOT_BITS;
+	/**
+	 * The number of levels. The overflow list is stored as an extra level
+	 * with a single slot.
+	 */
+	private static final int LEVELS = 4;
+	/**
+	 * Orders the timers in the order in which they were scheduled.
+	 */
+	private static final Comparator<Timer> SEQUENCE_ORDER = new Comparator<Timer>() {
+		@Override
+		public int compare(Timer o1, Timer o2) {
+			return Long.compare(o1.sequence, o2.sequence);
+		}
+	};
+
+	/**
+	 * The first timer of each slot, per level. The timers are written
+	 * separately in a snapshot, to avoid deep recursion over the lists.
+	 */
+	private transient Timer[][] slots;
+	/**
+	 * The current step.
+	 */
+	private long currentStep;
+	/**
+	 * The number of scheduled timers.
+	 */
+	private int size;
+	/**
+	 * The number of timers that were scheduled so far.
+	 */
+	private long sequence;
+
+	/**
+	 * Creates an empty timing wheel at step 0.
+	 */
+	public TimingWheel() {
+		slots = createSlots();
+	}
+
+	/**
+	 * Advances the wheel to a step, and fires the events of all steps up to
+	 * and including that step.
+	 * 
+	 * @param step
+	 *            The step.
+	 */
+	public synchronized void advance(long step) {
+		while (currentStep < step) {
+			if (size == 0) {
+				currentStep = step;
+				return;
+			}
+			currentStep++;
+			for (int level = LEVELS; level > 0; level--) {
+				if ((currentStep & ((1L << (SLOT_BITS * level)) - 1)) == 0)
+					cascade(level, level == LEVELS ? 0 : getSlot(currentStep, level));
+			}
+			fire(getSlot(currentStep, 0));
+		}
+	}
+
+	/**
+	 * Cancels a timer. Nothing happens if the timer is already fired or
+	 * cancelled.
+	 * 
+	 * @param timer
+	 *            The timer.
+	 * @return True if the timer was cancelled, false otherwise.
+	 */
+	public synchronized boolean cancel(Timer timer) {
+		if (!timer.isScheduled())
+			return false;
+		unlink(timer);
+		return true;
+	}
+
+	/**
+	 * Moves the timers of a slot to the lower levels.
+	 * 
+	 * @param level
+	 *            The level.
+	 * @param slot
+	 *            The slot.
+	 */
+	private void cascade(int level, int slot) {
+		Timer timer = slots[level][slot];
+		slots[level][slot] = null;
+		while (timer != null) {
+			Timer next = timer.next;
+			size--;
+			insert(timer);
+			timer = next;
+		}
+	}
+
+	/**
+	 * Creates the empty slots.
+	 * 
+	 * @return The slots.
+	 */
+	private static Timer[][] createSlots() {
+		Timer[][] slots = new Timer[LEVELS + 1][];
+		for (int level = 0; level < LEVELS; level++)
+			slots[level] = new Timer[SLOTS];
+		slots[LEVELS] = new Timer[1];
+		return slots;
+	}
+
+	/**
+	 * Fires the events of a slot of the lowest level.
+	 * 
+	 * @param slot
+	 *            The slot.
+	 */
+	private void fire(int slot) {
+		Timer timer = slots[0][slot];
+		if (timer == null)
+			return;
+		slots[0][slot] = null;
+		List<Timer> due = new ArrayList<>();
+		while (timer != null) {
+			due.add(timer);
+			timer.level = -1;
+			size--;
+			timer = timer.next;
+		}
+		if (due.size() > 1)
+			Collections.sort(due, SEQUENCE_ORDER);
+		for (Timer t : due) {
+			t.previous = null;
+			t.next = null;
+			t.event.fire(currentStep);
+		}
+	}
+
+	/**
+	 * Gets the current step.
+	 * 
+	 * @return The step.
+	 */
+	public synchronized long getCurrentStep() {
+		return currentStep;
+	}
+
+	/**
+	 * Gets the slot of a step in a level.
+	 * 
+	 * @param step
+	 *            The step.
+	 * @param level
+	 *            The level.
+	 * @return The slot.
+	 */
+	private static int getSlot(long step, int level) {
+		return (int) (step >>> (SLOT_BITS * level)) & (SLOTS - 1);
+	}
+
+	/**
+	 * Inserts a timer in the slot of its step.
+	 * 
+	 * @param timer
+	 *            The timer.
+	 */
+	private void insert(Timer timer) {
+		long difference = timer.step ^ currentStep;
+		int level = difference == 0 ? 0 : (63 - Long.numberOfLeadingZeros(difference)) / SLOT_BITS;
+		if (level >= LEVELS) {
+			timer.level = LEVELS;
+			timer.slot = 0;
+		} else {
+			timer.level = level;
+			timer.slot = getSlot(timer.step, level);
+		}
+		Timer first = slots[timer.level][timer.slot];
+		timer.previous = null;
+		timer.next = first;
+		if (first != null)
+			first.previous = timer;
+		slots[timer.level][timer.slot] = timer;
+		size++;
+	}
+
+	/**
+	 * Reads the wheel and schedules its timers again.
+	 * 
+	 * @param input
+	 *            The input stream.
+	 * @throws IOException
+	 *             If the wheel cannot be read.
+	 * @throws ClassNotFoundException
+	 *             If a class cannot be found.
+	 */
+	private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+		input.defaultReadObject();
+		slots = createSlots();
+		int numberOfTimers = size;
+		size = 0;
+		for (int i = 0; i < numberOfTimers; i++)
+			insert((Timer) input.readObject());
+	}
+
+	/**
+	 * Schedules an event.
+	 * 
+	 * @param step
+	 *            The step in which the event is fired. It should be after the
+	 *            current step.
+	 * @param event
+	 *            The event.
+	 * @return The timer, that can be used to cancel the event.
+	 */
+	public synchronized Timer schedule(long step, TimedEvent event) {
+		if (event == null)
+			throw new IllegalArgumentException("Event cannot be null");
+		if (step <= currentStep)
+			throw new IllegalArgumentException("The step should be after the current step.");
+		Timer timer = new Timer(event, step, sequence++);
+		insert(timer);
+		return timer;
+	}
+
+	/**
+	 * Gets the number of scheduled timers.
+	 * 
+	 * @return The number of timers.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	/**
+	 * Removes a timer from its slot.
+	 * 
+	 * @param timer
+	 *            The timer.
+	 */
+	private void unlink(Timer timer) {
+		if (timer.previous != null)
+			timer.previous.next = timer.next;
+		else
+			slots[timer.level][timer.slot] = timer.next;
+		if (timer.next != null)
+			timer.next.previous = timer.previous;
+		timer.previous = null;
+		timer.next = null;
+		timer.level = -1;
+		size--;
+	}
+
+	/**
+	 * Writes the wheel and its timers.
+	 * 
+	 * @param output
+	 *            The output stream.
+	 * @throws IOException
+	 *             If the wheel cannot be written.
+	 */
+	private synchronized void writeObject(ObjectOutputStream output) throws IOException {
+		output.defaultWriteObject();
+		for (Timer[] level : slots) {
+			for (Timer timer : level) {
+				for (; timer != null; timer = timer.next)
+					output.writeObject(timer);
+			}
+		}
+	}
+}
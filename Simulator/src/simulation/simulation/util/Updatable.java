@@ -1,11 +1,14 @@
 package simulation.simulation.util;
 
+import java.io.Serializable;
+
 /**
- * An updatable element in the model can update itself.
+ * An updatable element in the model can update itself. It is serializable,
+ * such that it can be part of a snapshot of the simulation.
  * 
  * @author S.A.M. Janssen
  */
-public interface Updatable {
+public interface Updatable extends Serializable {
 
 	/**
 	 * Updates the updatable element.
@@ -0,0 +1,142 @@
+package simulation.simulation.util;
+
+import java.io.Serializable;
+
+import model.agent.humanAgent.aatom.AatomHumanAgent;
+import model.agent.humanAgent.aatom.operationalLevel.OperationalModel;
+import model.agent.humanAgent.aatom.strategicLevel.StrategicModel;
+import model.agent.humanAgent.aatom.tacticalLevel.TacticalModel;
+
+/**
+ * The update rates specify how often the {@link StrategicModel},
+ * {@link TacticalModel} and {@link OperationalModel} of an
+ * {@link AatomHumanAgent} are updated. A rate is given in updates per second,
+ * and is rounded to a whole number of simulation steps. A model that is not
+ * updated in a step is updated with the time of all steps since its last
+ * update. The agents are staggered over the steps, such that the updates of a
+ * level are spread evenly.
+ * 
+ * By default, all levels are updated every step. Updating the operational
+ * level less often than every step makes the agents move in larger jumps.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class UpdateRates implements Serializable {
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * All levels are updated every step.
+	 */
+	public static final UpdateRates EVERY_STEP = new UpdateRates(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+			Double.POSITIVE_INFINITY);
+
+	/**
+	 * The rate of the strategic level (in updates per second).
+	 */
+	private final double strategicRate;
+	/**
+	 * The rate of the tactical level (in updates per second).
+	 */
+	private final double tacticalRate;
+	/**
+	 * The rate of the operational level (in updates per second).
+	 */
+	private final double operationalRate;
+
+	/**
+	 * Creates update rates. Use {@link Double#POSITIVE_INFINITY} to update a
+	 * level every step.
+	 * 
+	 * @param strategicRate
+	 *            The rate of the strategic level (in updates per second).
+	 * @param tacticalRate
+	 *            The rate of the tactical level (in updates per second).
+	 * @param operationalRate
+	 *            The rate of the operational level (in updates per second).
+	 */
+	public UpdateRates(double strategicRate, double tacticalRate, double operationalRate) {
+		if (!(strategicRate > 0) || !(tacticalRate > 0) || !(operationalRate > 0))
+			throw new IllegalArgumentException("The update rates should be larger than 0.");
+		this.strategicRate = strategicRate;
+		this.tacticalRate = tacticalRate;
+		this.operationalRate = operationalRate;
+	}
+
+	/**
+	 * Gets the number of steps between two updates for a rate.
+	 * 
+	 * @param rate
+	 *            The rate (in updates per second).
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 * @return The number of steps, at least 1.
+	 */
+	private static int getInterval(double rate, int timeStep) {
+		if (rate == Double.POSITIVE_INFINITY)
+			return 1;
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.round(1000 / (rate * timeStep))));
+	}
+
+	/**
+	 * Gets the number of steps between two updates of the operational level.
+	 * 
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 * @return The number of steps, at least 1.
+	 */
+	public int getOperationalInterval(int timeStep) {
+		return getInterval(operationalRate, timeStep);
+	}
+
+	/**
+	 * Gets the rate of the operational level.
+	 * 
+	 * @return The rate (in updates per second).
+	 */
+	public double getOperationalRate() {
+		return operationalRate;
+	}
+
+	/**
+	 * Gets the number of steps between two updates of the strategic level.
+	 * 
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 * @return The number of steps, at least 1.
+	 */
+	public int getStrategicInterval(int timeStep) {
+		return getInterval(strategicRate, timeStep);
+	}
+
+	/**
+	 * Gets the rate of the strategic level.
+	 * 
+	 * @return The rate (in updates per second).
+	 */
+	public double getStrategicRate() {
+		return strategicRate;
+	}
+
+	/**
+	 * Gets the number of steps between two updates of the tactical level.
+	 * 
+	 * @param timeStep
+	 *            The time step (in milliseconds).
+	 * @return The number of steps, at least 1.
+	 */
+	public int getTacticalInterval(int timeStep) {
+		return getInterval(tacticalRate, timeStep);
+	}
+
+	/**
+	 * Gets the rate of the tactical level.
+	 * 
+	 * @return The rate (in updates per second).
+	 */
+	public double getTacticalRate() {
+		return tacticalRate;
+	}
+}
@@ -9,7 +9,6 @@ import model.environment.position.Position;
 import model.environment.position.Vector;
 import model.map.MapComponent;
 import model.map.PhysicalMapComponent;
-import util.math.RandomPlus;
 
 /**
  * Utilities are a set of utility methods that can be used by all classes across
@@ -21,11 +20,6 @@ import util.math.RandomPlus;
  */
 public class Utilities {
 
-	/**
-	 * A random generator.
-	 */
-	public static RandomPlus RANDOM_GENERATOR = new RandomPlus(0);
-
 	/**
 	 * Gets the central position of a set of points.
 	 * 
@@ -248,16 +242,37 @@ public class Utilities {
 	 */
 	public static boolean isLineCollision(Position firstLineStart, Position firstLineEnd, Position secondLineStart,
 			Position secondLineEnd) {
+		return isLineCollision(firstLineStart.x, firstLineStart.y, firstLineEnd.x, firstLineEnd.y, secondLineStart.x,
+				secondLineStart.y, secondLineEnd.x, secondLineEnd.y);
+	}
+
+	/**
+	 * Checks if two lines intersect. This gives the same result as
+	 * {@link #isLineCollision(Position, Position, Position, Position)}, without
+	 * creating positions.
+	 * 
+	 * @param x1
+	 *            The x coordinate of the start of the first line.
+	 * @param y1
+	 *            The y coordinate of the start of the first line.
+	 * @param x2
+	 *            The x coordinate of the end of the first line.
+	 * @param y2
+	 *            The y coordinate of the end of the first line.
+	 * @param x3
+	 *            The x coordinate of the start of the second line.
+	 * @param y3
+	 *            The y coordinate of the start of the second line.
+	 * @param x4
+	 *            The x coordinate of the end of the second line.
+	 * @param y4
+	 *            The y coordinate of the end of the second line.
+	 * @return True if they intersect, false otherwise.
+	 */
+	public static boolean isLineCollision(double x1, double y1, double x2, double y2, double x3, double y3, double x4,
+			double y4) {
 		// Code adapted from: http://www.java-gaming.org/index.php?topic=22590.0
 
-		double x1 = firstLineStart.x;
-		double x2 = firstLineEnd.x;
-		double x3 = secondLineStart.x;
-		double x4 = secondLineEnd.x;
-		double y1 = firstLineStart.y;
-		double y2 = firstLineEnd.y;
-		double y3 = secondLineStart.y;
-		double y4 = secondLineEnd.y;
 		// Return false if either of the lines have zero length
 		if (x1 == x2 && y1 == y2 || x3 == x4 && y3 == y4) {
 			return false;
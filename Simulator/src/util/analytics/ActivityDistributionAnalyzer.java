@@ -2,7 +2,6 @@ package util.analytics;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 
 import model.agent.humanAgent.aatom.Passenger;
@@ -15,16 +14,52 @@ import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
  */
 public class ActivityDistributionAnalyzer extends Analyzer {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The relevant activities.
 	 */
 	private List<String> activities;
+	/**
+	 * The number of passengers that perform each activity.
+	 */
+	private double[] numbersOfPassengers;
 
 	/**
 	 * Creates the analyzer.
 	 */
 	public ActivityDistributionAnalyzer() {
 		activities = new ArrayList<>(Arrays.asList("Checkpoint", "Gate", "CheckIn"));
+		numbersOfPassengers = new double[activities.size()];
+	}
+
+	@Override
+	public void activityChanged(Passenger passenger, Activity previous, Activity current) {
+		int index = getIndex(previous);
+		if (index >= 0)
+			numbersOfPassengers[index]--;
+		index = getIndex(current);
+		if (index >= 0)
+			numbersOfPassengers[index]++;
+	}
+
+	/**
+	 * Gets the index of an activity in the relevant activities.
+	 * 
+	 * @param activity
+	 *            The activity.
+	 * @return The index, or -1 if it is not relevant.
+	 */
+	private int getIndex(Activity activity) {
+		if (activity != null) {
+			for (int i = 0; i < activities.size(); i++) {
+				if (activity.getClass().getSimpleName().equals(activities.get(i) + "Activity"))
+					return i;
+			}
+		}
+		return -1;
 	}
 
 	@Override
@@ -42,19 +77,7 @@ public class ActivityDistributionAnalyzer extends Analyzer {
 
 	@Override
 	public double[] getValues() {
-		Collection<Passenger> passengers = map.getMapComponents(Passenger.class);
-		double[] values = new double[activities.size()];
-		for (Passenger passenger : passengers) {
-			Activity activity = passenger.getActiveActivity();
-			if (activity != null) {
-				for (int i = 0; i < activities.size(); i++) {
-					if (activity.getClass().getSimpleName().equals(activities.get(i) + "Activity"))
-						values[i]++;
-				}
-			}
-		}
-		return values;
-
+		return numbersOfPassengers.clone();
 	}
 
 	@Override
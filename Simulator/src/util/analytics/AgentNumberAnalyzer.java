@@ -9,6 +9,11 @@ import model.agent.humanAgent.aatom.Passenger;
  */
 public class AgentNumberAnalyzer extends Analyzer {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public String[] getLineNames() {
 		return new String[] { "Passengers" };
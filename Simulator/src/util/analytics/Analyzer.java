@@ -3,21 +3,33 @@ package util.analytics;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.PassengerEventListener;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
+import model.environment.objects.area.Area;
 import model.map.Map;
 import simulation.simulation.util.DirectlyUpdatable;
 import simulation.simulation.util.SimulationObject;
 
 /**
- * A parameter tracker tracks parameters.
+ * A parameter tracker tracks parameters. Analyzers that depend on the
+ * transitions of the {@link Passenger}s override the methods of the
+ * {@link PassengerEventListener}, which do nothing by default, and keep
+ * running values instead of inspecting all passengers. Analyzers that
+ * override the area events also override {@link #isAreaListener()}.
  * 
  * @author S.A.M. Janssen
  */
-public abstract class Analyzer implements SimulationObject, DirectlyUpdatable {
+public abstract class Analyzer implements SimulationObject, DirectlyUpdatable, PassengerEventListener {
 
 	/**
-	 * The collection of lines.
+	 * Serial version UID.
 	 */
-	private XYSeriesCollection dataset;
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The samples of the lines.
+	 */
+	private TimeSeries timeSeries;
 	/**
 	 * The last update time.
 	 */
@@ -45,40 +57,91 @@ public abstract class Analyzer implements SimulationObject, DirectlyUpdatable {
 	 *            The seconds delay.
 	 */
 	public Analyzer(float secondsDelay) {
-		dataset = new XYSeriesCollection();
+		timeSeries = new TimeSeries();
 		this.secondsDelay = secondsDelay;
 	}
 
+	@Override
+	public void activityChanged(Passenger passenger, Activity previous, Activity current) {
+	}
+
+	@Override
+	public void areaEntered(Passenger passenger, Area area) {
+	}
+
+	@Override
+	public void areaLeft(Passenger passenger, Area area) {
+	}
+
 	/**
-	 * exports the data of the graph.
+	 * exports the data of the graph. This copies all samples, use
+	 * {@link #exportTimeSeries()} to read them directly.
 	 * 
 	 * @return The data.
 	 */
 	public float[][][] exportData() {
-		if (dataset.getSeriesCount() == 0)
+		TimeSeries series = exportTimeSeries();
+		if (series.getNumberOfLines() == 0)
 			return null;
 
-		updateValues();
-
-		float[][][] data = new float[dataset.getSeriesCount()][dataset.getItemCount(0)][2];
-		for (int i = 0; i < dataset.getSeriesCount(); i++) {
-			for (int j = 0; j < dataset.getItemCount(i); j++) {
-				data[i][j][0] = (float) dataset.getXValue(i, j);
-				data[i][j][1] = (float) dataset.getYValue(i, j);
+		float[][][] data = new float[series.getNumberOfLines()][series.size()][2];
+		for (int i = 0; i < data.length; i++) {
+			for (int j = 0; j < data[i].length; j++) {
+				data[i][j][0] = (float) series.getTime(j);
+				data[i][j][1] = (float) series.getValue(i, j);
 			}
 		}
 		return data;
 	}
 
 	/**
-	 * Gets the data set.
+	 * Adds the current values and gets the {@link TimeSeries} with all
+	 * samples, for instance to export them at the end of a simulation.
+	 * 
+	 * @return The time series.
+	 */
+	public TimeSeries exportTimeSeries() {
+		if (timeSeries.getNumberOfLines() > 0)
+			updateValues();
+		return timeSeries;
+	}
+
+	/**
+	 * Gets the data set. Lines with the same name are numbered.
 	 * 
-	 * @return The data set.
+	 * @return A copy of the samples as a data set.
+	 * @deprecated The samples are stored in a {@link TimeSeries}, use
+	 *             {@link #getTimeSeries()} instead.
 	 */
+	@Deprecated
 	public XYSeriesCollection getDataset() {
+		TimeSeries.Snapshot snapshot = timeSeries.getSnapshot();
+		XYSeriesCollection dataset = new XYSeriesCollection();
+		for (int i = 0; i < snapshot.getNumberOfLines(); i++) {
+			String name = snapshot.getLineName(i);
+			String key = name;
+			int number = 2;
+			while (dataset.getSeriesIndex(key) >= 0) {
+				key = name + " (" + number + ")";
+				number++;
+			}
+			XYSeries series = new XYSeries(key);
+			for (int j = 0; j < snapshot.size(); j++)
+				series.add(snapshot.getTime(j), snapshot.getValue(i, j));
+			dataset.addSeries(series);
+		}
 		return dataset;
 	}
 
+	/**
+	 * Gets the {@link TimeSeries} with the samples.
+	 * 
+	 * @return The time series.
+	 */
+	public TimeSeries getTimeSeries() {
+		return timeSeries;
+	}
+
 	/**
 	 * Gets the names of the lines.
 	 * 
@@ -120,15 +183,16 @@ public abstract class Analyzer implements SimulationObject, DirectlyUpdatable {
 	 * Initialize the parameters.
 	 */
 	private void init() {
-		for (String s : getLineNames()) {
-			XYSeries series = new XYSeries(s);
-			int number = 2;
-			while (dataset.getSeries().contains(series)) {
-				series = new XYSeries(s + " (" + number + ")");
-				number++;
-			}
-			dataset.addSeries(series);
-		}
+		timeSeries.setLineNames(getLineNames());
+	}
+
+	@Override
+	public boolean isAreaListener() {
+		return false;
+	}
+
+	@Override
+	public void passengerRemoved(Passenger passenger) {
 	}
 
 	/**
@@ -163,9 +227,6 @@ public abstract class Analyzer implements SimulationObject, DirectlyUpdatable {
 	 * Updates the values.
 	 */
 	private void updateValues() {
-		double[] values = getValues();
-		for (int i = 0; i < values.length; i++) {
-			dataset.getSeries(i).add(map.getTime(), values[i]);
-		}
+		timeSeries.add(map.getTime(), getValues());
 	}
 }
\ No newline at end of file
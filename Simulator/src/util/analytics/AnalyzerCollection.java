@@ -4,15 +4,23 @@ import java.util.ArrayList;
 import java.util.Collection;
 
 import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.PassengerEventListener;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
+import model.environment.objects.area.Area;
 import simulation.simulation.util.DirectlyUpdatable;
 
 /**
- * Analytics module of the simulation.
+ * Analytics module of the simulation. It passes the events of the
+ * {@link Passenger}s on to its analyzers.
  * 
  * @author S.A.M. Janssen
  */
-public class AnalyzerCollection implements DirectlyUpdatable {
+public class AnalyzerCollection implements DirectlyUpdatable, PassengerEventListener {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The set of analyzers.
 	 */
@@ -38,6 +46,24 @@ public class AnalyzerCollection implements DirectlyUpdatable {
 		}
 	}
 
+	@Override
+	public void activityChanged(Passenger passenger, Activity previous, Activity current) {
+		for (Analyzer analyzer : analyzers)
+			analyzer.activityChanged(passenger, previous, current);
+	}
+
+	@Override
+	public void areaEntered(Passenger passenger, Area area) {
+		for (Analyzer analyzer : analyzers)
+			analyzer.areaEntered(passenger, area);
+	}
+
+	@Override
+	public void areaLeft(Passenger passenger, Area area) {
+		for (Analyzer analyzer : analyzers)
+			analyzer.areaLeft(passenger, area);
+	}
+
 	/**
 	 * Adds a passenger to the analyzers.
 	 * 
@@ -60,6 +86,21 @@ public class AnalyzerCollection implements DirectlyUpdatable {
 		return analyzers;
 	}
 
+	@Override
+	public boolean isAreaListener() {
+		for (Analyzer analyzer : analyzers) {
+			if (analyzer.isAreaListener())
+				return true;
+		}
+		return false;
+	}
+
+	@Override
+	public void passengerRemoved(Passenger passenger) {
+		for (Analyzer analyzer : analyzers)
+			analyzer.passengerRemoved(passenger);
+	}
+
 	/**
 	 * Removes an analyzer.
 	 * 
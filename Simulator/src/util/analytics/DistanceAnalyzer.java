@@ -17,6 +17,10 @@ import model.map.Map;
  */
 public class DistanceAnalyzer extends Analyzer implements PassengerAnalyzer {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The map.
 	 */
@@ -16,6 +16,10 @@ import model.map.Map;
  */
 public class MissedFlightsAnalyzer extends Analyzer {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The flight schedule.
 	 */
@@ -1,9 +1,11 @@
 package util.analytics;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 import model.agent.humanAgent.aatom.Passenger;
+import model.environment.objects.area.Area;
 import model.environment.objects.area.QueuingArea;
 import model.map.Map;
 
@@ -14,10 +16,36 @@ import model.map.Map;
  */
 public class QueueAnalyzer extends Analyzer {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The queues.
 	 */
 	private List<QueuingArea> queues;
+	/**
+	 * The index of each queue.
+	 */
+	private HashMap<Area, Integer> queueIndices;
+	/**
+	 * The number of passengers in each queue.
+	 */
+	private int[] numbersOfPassengers;
+
+	@Override
+	public void areaEntered(Passenger passenger, Area area) {
+		Integer index = queueIndices.get(area);
+		if (index != null)
+			numbersOfPassengers[index]++;
+	}
+
+	@Override
+	public void areaLeft(Passenger passenger, Area area) {
+		Integer index = queueIndices.get(area);
+		if (index != null)
+			numbersOfPassengers[index]--;
+	}
 
 	@Override
 	public String[] getLineNames() {
@@ -28,23 +56,6 @@ public class QueueAnalyzer extends Analyzer {
 		return names;
 	}
 
-	/**
-	 * Gets the number of passengers in a queue.
-	 * 
-	 * @param queue
-	 *            The queuing area.
-	 * @return The number of passengers.
-	 */
-	private int getNumberOfPassengersInQueue(QueuingArea queue) {
-		int number = 0;
-		for (Passenger a : map.getMapComponents(Passenger.class)) {
-			if (queue.contains(a.getPosition())) {
-				number++;
-			}
-		}
-		return number;
-	}
-
 	@Override
 	public String getTitle() {
 		return "Passengers in Queue";
@@ -54,7 +65,7 @@ public class QueueAnalyzer extends Analyzer {
 	public double[] getValues() {
 		double[] values = new double[queues.size()];
 		for (int i = 0; i < queues.size(); i++) {
-			values[i] = getNumberOfPassengersInQueue(queues.get(i));
+			values[i] = numbersOfPassengers[i];
 		}
 		return values;
 	}
@@ -64,12 +75,21 @@ public class QueueAnalyzer extends Analyzer {
 		return "# Passengers in Queue";
 	}
 
+	@Override
+	public boolean isAreaListener() {
+		return true;
+	}
+
 	@Override
 	public void setMap(Map map) {
 		super.setMap(map);
 		queues = new ArrayList<>();
-		for (QueuingArea queue : map.getMapComponents(QueuingArea.class))
+		queueIndices = new HashMap<>();
+		for (QueuingArea queue : map.getMapComponents(QueuingArea.class)) {
+			queueIndices.put(queue, queues.size());
 			queues.add(queue);
+		}
+		numbersOfPassengers = new int[queues.size()];
 	}
 
 }
@@ -1,31 +1,82 @@
 package util.analytics;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import model.agent.humanAgent.aatom.Passenger;
+import model.environment.objects.area.Area;
 import model.environment.objects.area.QueuingArea;
 import model.map.Map;
 
 /**
  * A time in queue parameter tracker keeps track of the average time that
- * passengers spent in the queues.
+ * passengers spent in the queues. The time of a passenger in a queue runs
+ * from entering to leaving the queue, and is summed if it enters the queue
+ * more than once. Only the passengers that are on the map are remembered, the
+ * passengers that left the map are counted.
  * 
  * @author S.A.M. Janssen
  */
 public class TimeInQueueAnalyzer extends Analyzer {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The queues.
 	 */
 	private List<QueuingArea> queues;
 	/**
-	 * The time in queue for each agent.
+	 * The index of each queue.
 	 */
-	private List<HashMap<Passenger, double[]>> times;
+	private HashMap<Area, Integer> queueIndices;
+	/**
+	 * The passengers on the map that have been in each queue.
+	 */
+	private List<Set<Passenger>> visitors;
+	/**
+	 * The number of passengers that have been in each queue.
+	 */
+	private int[] numbersOfVisitors;
+	/**
+	 * The entry times of the passengers that are in each queue.
+	 */
+	private List<HashMap<Passenger, Double>> entryTimes;
+	/**
+	 * The sum of the entry times of the passengers that are in each queue.
+	 */
+	private double[] totalEntryTimes;
+	/**
+	 * The total time of the passengers that left each queue.
+	 */
+	private double[] totalTimes;
+
+	@Override
+	public void areaEntered(Passenger passenger, Area area) {
+		Integer index = queueIndices.get(area);
+		if (index != null) {
+			if (visitors.get(index).add(passenger))
+				numbersOfVisitors[index]++;
+			entryTimes.get(index).put(passenger, map.getTime());
+			totalEntryTimes[index] += map.getTime();
+		}
+	}
+
+	@Override
+	public void areaLeft(Passenger passenger, Area area) {
+		Integer index = queueIndices.get(area);
+		if (index != null) {
+			Double entryTime = entryTimes.get(index).remove(passenger);
+			if (entryTime != null) {
+				totalEntryTimes[index] -= entryTime;
+				totalTimes[index] += map.getTime() - entryTime;
+			}
+		}
+	}
 
 	@Override
 	public String[] getLineNames() {
@@ -45,14 +96,12 @@ public class TimeInQueueAnalyzer extends Analyzer {
 	public double[] getValues() {
 		double[] values = new double[queues.size()];
 		for (int i = 0; i < queues.size(); i++) {
-			int count = 0;
-			Set<Passenger> agents = times.get(i).keySet();
-			for (Passenger agent : agents) {
-				values[i] += times.get(i).get(agent)[1];
-				count++;
+			int count = numbersOfVisitors[i];
+			if (count != 0) {
+				// the passengers in the queue count up to now
+				double openTime = entryTimes.get(i).size() * map.getTime() - totalEntryTimes[i];
+				values[i] = (totalTimes[i] + openTime) / count;
 			}
-			if (count != 0)
-				values[i] /= count;
 		}
 		return values;
 	}
@@ -62,40 +111,34 @@ public class TimeInQueueAnalyzer extends Analyzer {
 		return "Average time in queue (s)";
 	}
 
+	@Override
+	public boolean isAreaListener() {
+		return true;
+	}
+
+	@Override
+	public void passengerRemoved(Passenger passenger) {
+		// it already left the queues
+		for (Set<Passenger> queueVisitors : visitors)
+			queueVisitors.remove(passenger);
+	}
+
 	@Override
 	public void setMap(Map map) {
 		super.setMap(map);
 		queues = new ArrayList<>();
-		times = new ArrayList<>();
+		queueIndices = new HashMap<>();
+		visitors = new ArrayList<>();
+		entryTimes = new ArrayList<>();
 		for (QueuingArea queue : map.getMapComponents(QueuingArea.class)) {
+			queueIndices.put(queue, queues.size());
 			queues.add(queue);
-			times.add(new HashMap<Passenger, double[]>());
-		}
-	}
-
-	@Override
-	public void update(int timeStep) {
-		Collection<Passenger> passengers = map.getMapComponents(Passenger.class);
-		for (int i = 0; i < queues.size(); i++) {
-			HashMap<Passenger, double[]> queueMap = times.get(i);
-			for (Passenger a : passengers) {
-				// the agents currently in the queue
-				if (queues.get(i).contains(a.getPosition())) {
-					// this is an old guy
-					if (queueMap.containsKey(a)) {
-						double[] time = queueMap.get(a);
-						time[1] += timeStep / 1000.0;
-						queueMap.put(a, time);
-					}
-					// this is a new guy
-					else {
-						queueMap.put(a, new double[] { map.getTime(), 0.0 });
-					}
-				}
-
-			}
+			visitors.add(new HashSet<Passenger>());
+			entryTimes.add(new HashMap<Passenger, Double>());
 		}
-		super.update(timeStep);
+		numbersOfVisitors = new int[queues.size()];
+		totalEntryTimes = new double[queues.size()];
+		totalTimes = new double[queues.size()];
 	}
 
 }
@@ -0,0 +1,337 @@
+package util.analytics;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A time series stores the samples of an {@link Analyzer}: a time and a value
+ * for each line. The times and values are stored in growable primitive
+ * arrays, which takes a fraction of the memory of chart data structures and
+ * does not depend on a chart library. The time series can be read while
+ * samples are added from another thread, and
+ * {@link TimeSeriesListener}s are notified of new samples. A reader that
+ * needs several consistent reads, such as a chart, uses a {@link Snapshot}.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TimeSeries implements Serializable {
+
+	/**
+	 * An immutable snapshot of a time series. It shares the arrays of the time
+	 * series, since samples are only added after the snapshot size and the
+	 * arrays are replaced when the lines change, so taking a snapshot does not
+	 * copy the samples.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	public static class Snapshot {
+
+		/**
+		 * The names of the lines.
+		 */
+		private final String[] lineNames;
+		/**
+		 * The times of the samples.
+		 */
+		private final double[] times;
+		/**
+		 * The values of the samples, per line.
+		 */
+		private final double[][] values;
+		/**
+		 * The number of samples.
+		 */
+		private final int size;
+
+		/**
+		 * Creates a snapshot.
+		 * 
+		 * @param lineNames
+		 *            The names of the lines.
+		 * @param times
+		 *            The times of the samples.
+		 * @param values
+		 *            The values of the samples, per line.
+		 * @param size
+		 *            The number of samples.
+		 */
+		private Snapshot(String[] lineNames, double[] times, double[][] values, int size) {
+			this.lineNames = lineNames;
+			this.times = times;
+			this.values = values;
+			this.size = size;
+		}
+
+		/**
+		 * Gets the name of a line.
+		 * 
+		 * @param line
+		 *            The index of the line.
+		 * @return The name.
+		 */
+		public String getLineName(int line) {
+			return lineNames[line];
+		}
+
+		/**
+		 * Gets the number of lines.
+		 * 
+		 * @return The number of lines.
+		 */
+		public int getNumberOfLines() {
+			return lineNames.length;
+		}
+
+		/**
+		 * Gets the time of a sample.
+		 * 
+		 * @param index
+		 *            The index of the sample.
+		 * @return The time.
+		 */
+		public double getTime(int index) {
+			checkIndex(index, size);
+			return times[index];
+		}
+
+		/**
+		 * Gets the value of a line in a sample.
+		 * 
+		 * @param line
+		 *            The index of the line.
+		 * @param index
+		 *            The index of the sample.
+		 * @return The value.
+		 */
+		public double getValue(int line, int index) {
+			checkIndex(index, size);
+			return values[line][index];
+		}
+
+		/**
+		 * Gets the number of samples.
+		 * 
+		 * @return The number of samples.
+		 */
+		public int size() {
+			return size;
+		}
+	}
+
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The initial number of samples that fit in the arrays.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/**
+	 * The names of the lines.
+	 */
+	private String[] lineNames;
+	/**
+	 * The times of the samples.
+	 */
+	private double[] times;
+	/**
+	 * The values of the samples, per line.
+	 */
+	private double[][] values;
+	/**
+	 * The number of samples.
+	 */
+	private int size;
+	/**
+	 * The listeners. They are not part of a snapshot of the simulation.
+	 */
+	private transient List<TimeSeriesListener> listeners;
+
+	/**
+	 * Creates an empty time series without lines.
+	 */
+	public TimeSeries() {
+		lineNames = new String[0];
+		times = new double[0];
+		values = new double[0][];
+		listeners = new ArrayList<>();
+	}
+
+	/**
+	 * Adds a listener.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 */
+	public void addListener(TimeSeriesListener listener) {
+		synchronized (listeners) {
+			listeners.add(listener);
+		}
+	}
+
+	/**
+	 * Adds a sample.
+	 * 
+	 * @param time
+	 *            The time.
+	 * @param sample
+	 *            The values, one for each line.
+	 */
+	public void add(double time, double[] sample) {
+		synchronized (this) {
+			if (sample.length != lineNames.length)
+				throw new IllegalArgumentException(
+						"Expected " + lineNames.length + " values, but got " + sample.length + ".");
+			if (size == times.length) {
+				int capacity = Math.max(INITIAL_CAPACITY, 2 * size);
+				times = Arrays.copyOf(times, capacity);
+				for (int i = 0; i < values.length; i++)
+					values[i] = Arrays.copyOf(values[i], capacity);
+			}
+			times[size] = time;
+			for (int i = 0; i < sample.length; i++)
+				values[i][size] = sample[i];
+			size++;
+		}
+		notifyListeners();
+	}
+
+	/**
+	 * Gets the name of a line.
+	 * 
+	 * @param line
+	 *            The index of the line.
+	 * @return The name.
+	 */
+	public synchronized String getLineName(int line) {
+		return lineNames[line];
+	}
+
+	/**
+	 * Gets the number of lines.
+	 * 
+	 * @return The number of lines.
+	 */
+	public synchronized int getNumberOfLines() {
+		return lineNames.length;
+	}
+
+	/**
+	 * Gets the time of a sample.
+	 * 
+	 * @param index
+	 *            The index of the sample.
+	 * @return The time.
+	 */
+	public synchronized double getTime(int index) {
+		checkIndex(index, size);
+		return times[index];
+	}
+
+	/**
+	 * Gets the value of a line in a sample.
+	 * 
+	 * @param line
+	 *            The index of the line.
+	 * @param index
+	 *            The index of the sample.
+	 * @return The value.
+	 */
+	public synchronized double getValue(int line, int index) {
+		checkIndex(index, size);
+		return values[line][index];
+	}
+
+	/**
+	 * Gets an immutable snapshot of the current lines and samples.
+	 * 
+	 * @return The snapshot.
+	 */
+	public synchronized Snapshot getSnapshot() {
+		return new Snapshot(lineNames, times, values.clone(), size);
+	}
+
+	/**
+	 * Checks if an index is a valid sample index.
+	 * 
+	 * @param index
+	 *            The index.
+	 * @param size
+	 *            The number of samples.
+	 */
+	private static void checkIndex(int index, int size) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("No sample at index " + index + ".");
+	}
+
+	/**
+	 * Notifies the listeners of a change.
+	 */
+	private void notifyListeners() {
+		TimeSeriesListener[] current;
+		synchronized (listeners) {
+			if (listeners.isEmpty())
+				return;
+			current = listeners.toArray(new TimeSeriesListener[listeners.size()]);
+		}
+		for (TimeSeriesListener listener : current)
+			listener.timeSeriesChanged(this);
+	}
+
+	/**
+	 * Reads the time series, without listeners.
+	 * 
+	 * @param input
+	 *            The input stream.
+	 * @throws IOException
+	 *             If the time series cannot be read.
+	 * @throws ClassNotFoundException
+	 *             If a class cannot be found.
+	 */
+	private void readObject(ObjectInputStream input) throws IOException, ClassNotFoundException {
+		input.defaultReadObject();
+		listeners = new ArrayList<>();
+	}
+
+	/**
+	 * Removes a listener.
+	 * 
+	 * @param listener
+	 *            The listener.
+	 */
+	public void removeListener(TimeSeriesListener listener) {
+		synchronized (listeners) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Sets the names of the lines. This removes all samples.
+	 * 
+	 * @param lineNames
+	 *            The names.
+	 */
+	public void setLineNames(String[] lineNames) {
+		synchronized (this) {
+			this.lineNames = lineNames.clone();
+			times = new double[0];
+			values = new double[lineNames.length][0];
+			size = 0;
+		}
+		notifyListeners();
+	}
+
+	/**
+	 * Gets the number of samples.
+	 * 
+	 * @return The number of samples.
+	 */
+	public synchronized int size() {
+		return size;
+	}
+}
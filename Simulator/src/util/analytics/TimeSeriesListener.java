@@ -0,0 +1,18 @@
+package util.analytics;
+
+/**
+ * A time series listener is notified when samples are added to a
+ * {@link TimeSeries}, or when its lines change.
+ * 
+ * @author S.A.M. Janssen
+ */
+public interface TimeSeriesListener {
+
+	/**
+	 * The time series changed. Called on the thread that changed it.
+	 * 
+	 * @param timeSeries
+	 *            The time series.
+	 */
+	public void timeSeriesChanged(TimeSeries timeSeries);
+}
@@ -1,39 +1,52 @@
 package util.analytics;
 
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Map.Entry;
 
 import model.agent.humanAgent.aatom.Passenger;
+import model.environment.objects.area.Area;
 import model.map.Map;
 
 /**
- * Determines the average time to gate for all passengers.
+ * Determines the average time to gate for all passengers. The time to gate of
+ * a passenger is recorded when it first enters the gate area of its flight.
  * 
  * @author S.A.M. Janssen
  */
 public class TimeToGateAnalyzer extends Analyzer implements PassengerAnalyzer {
 
 	/**
-	 * The passengers.
+	 * Serial version UID.
 	 */
-	private List<Passenger> passengers;
+	private static final long serialVersionUID = 1L;
 	/**
-	 * The time to gate hashmap.
+	 * The arrival times of the passengers that did not reach their gate yet.
 	 */
-	private HashMap<Passenger, Double> timeToGate;
+	private HashMap<Passenger, Double> arrivalTimes;
 	/**
-	 * The arrival times.
+	 * The sum of the times to gate.
 	 */
-	private HashMap<Passenger, Double> arrivalTimes;
+	private double totalTime;
+	/**
+	 * The number of passengers that reached their gate.
+	 */
+	private int numberOfPassengers;
 
 	@Override
 	public void addPassenger(Passenger passenger) {
-		passengers.add(passenger);
 		arrivalTimes.put(passenger, map.getTime());
 	}
 
+	@Override
+	public void areaEntered(Passenger passenger, Area area) {
+		if (area.equals(passenger.getFlight().getGateArea())) {
+			Double arrivalTime = arrivalTimes.remove(passenger);
+			if (arrivalTime != null) {
+				totalTime += map.getTime() - arrivalTime;
+				numberOfPassengers++;
+			}
+		}
+	}
+
 	@Override
 	public String[] getLineNames() {
 		return new String[] { "Average time to gate" };
@@ -46,20 +59,7 @@ public class TimeToGateAnalyzer extends Analyzer implements PassengerAnalyzer {
 
 	@Override
 	public double[] getValues() {
-		double[] times = new double[1];
-		for (Passenger p : passengers) {
-			if (reachedGate(p)) {
-				if (!timeToGate.containsKey(p)) {
-					timeToGate.put(p, map.getTime() - arrivalTimes.get(p));
-				}
-			}
-		}
-
-		double time = 0;
-		for (Entry<Passenger, Double> p : timeToGate.entrySet())
-			time += p.getValue();
-		times[0] = time / timeToGate.keySet().size();
-		return times;
+		return new double[] { totalTime / numberOfPassengers };
 	}
 
 	@Override
@@ -67,27 +67,24 @@ public class TimeToGateAnalyzer extends Analyzer implements PassengerAnalyzer {
 		return "Average Time To Gate (s)";
 	}
 
-	/**
-	 * Determines if the passenger reached its gate.
-	 * 
-	 * @param passenger
-	 *            The passenger.
-	 * @return True if it reached the gate, false otherwise.
-	 */
-	private boolean reachedGate(Passenger passenger) {
-		return passenger.getFlight().getGateArea().contains(passenger.getPosition());
+	@Override
+	public boolean isAreaListener() {
+		return true;
+	}
+
+	@Override
+	public void passengerRemoved(Passenger passenger) {
+		arrivalTimes.remove(passenger);
 	}
 
 	@Override
 	public void setMap(Map map) {
 		super.setMap(map);
-		timeToGate = new HashMap<>();
-		passengers = new ArrayList<>();
 		arrivalTimes = new HashMap<>();
-		for (Passenger p : map.getMapComponents(Passenger.class)) {
-			passengers.add(p);
+		totalTime = 0;
+		numberOfPassengers = 0;
+		for (Passenger p : map.getMapComponents(Passenger.class))
 			arrivalTimes.put(p, 0.0);
-		}
 	}
 
 }
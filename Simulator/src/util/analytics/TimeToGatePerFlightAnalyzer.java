@@ -3,43 +3,64 @@ package util.analytics;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
 
 import model.agent.humanAgent.aatom.Passenger;
+import model.environment.objects.area.Area;
 import model.environment.objects.flight.Flight;
 import model.map.Map;
 
 /**
  * A Time To Gate Per Flight Parameter Tracker indicates the average times to
- * gate for the different flights.
+ * gate for the different flights. The time to gate of a passenger is recorded
+ * when it first enters the gate area of its flight.
  * 
  * @author S.A.M. Janssen
  */
 public class TimeToGatePerFlightAnalyzer extends Analyzer implements PassengerAnalyzer {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The flight schedule.
 	 */
 	private List<Flight> schedule;
 	/**
-	 * The passengers.
+	 * The index of each flight in the schedule.
+	 */
+	private HashMap<Flight, Integer> flightIndices;
+	/**
+	 * The sum of the times to gate, per flight.
 	 */
-	private List<Passenger> passengers;
+	private double[] totalTimes;
 	/**
-	 * The time to gate hashmap.
+	 * The number of passengers that reached their gate, per flight.
 	 */
-	private HashMap<Flight, HashMap<Passenger, Double>> timeToGate;
+	private int[] numbersOfPassengers;
 	/**
-	 * The arrival times.
+	 * The arrival times of the passengers that did not reach their gate yet.
 	 */
 	private HashMap<Passenger, Double> arrivalTimes;
 
 	@Override
 	public void addPassenger(Passenger passenger) {
-		passengers.add(passenger);
 		arrivalTimes.put(passenger, map.getTime());
 	}
 
+	@Override
+	public void areaEntered(Passenger passenger, Area area) {
+		Flight flight = passenger.getFlight();
+		if (area.equals(flight.getGateArea())) {
+			Integer index = flightIndices.get(flight);
+			Double arrivalTime = arrivalTimes.remove(passenger);
+			if (index != null && arrivalTime != null) {
+				totalTimes[index] += map.getTime() - arrivalTime;
+				numbersOfPassengers[index]++;
+			}
+		}
+	}
+
 	@Override
 	public String[] getLineNames() {
 		String[] names = new String[schedule.size()];
@@ -57,23 +78,8 @@ public class TimeToGatePerFlightAnalyzer extends Analyzer implements PassengerAn
 	@Override
 	public double[] getValues() {
 		double[] times = new double[schedule.size()];
-		for (Passenger p : passengers) {
-			if (reachedGate(p)) {
-				HashMap<Passenger, Double> currentHash = timeToGate.get(p.getFlight());
-				if (!currentHash.containsKey(p)) {
-					currentHash.put(p, map.getTime() - arrivalTimes.get(p));
-				}
-			}
-		}
-
-		for (int i = 0; i < schedule.size(); i++) {
-			Set<Passenger> set = timeToGate.get(schedule.get(i)).keySet();
-			double time = 0;
-			for (Passenger p : set)
-				time += timeToGate.get(schedule.get(i)).get(p);
-			times[i] = time / set.size();
-		}
-
+		for (int i = 0; i < schedule.size(); i++)
+			times[i] = totalTimes[i] / numbersOfPassengers[i];
 		return times;
 	}
 
@@ -82,34 +88,32 @@ public class TimeToGatePerFlightAnalyzer extends Analyzer implements PassengerAn
 		return "Average Time To Gate (s)";
 	}
 
-	/**
-	 * Determines if the passenger reached its gate.
-	 * 
-	 * @param passenger
-	 *            The passenger.
-	 * @return True if it reached the gate, false otherwise.
-	 */
-	private boolean reachedGate(Passenger passenger) {
-		return passenger.getFlight().getGateArea().contains(passenger.getPosition());
+	@Override
+	public boolean isAreaListener() {
+		return true;
+	}
+
+	@Override
+	public void passengerRemoved(Passenger passenger) {
+		arrivalTimes.remove(passenger);
 	}
 
 	@Override
 	public void setMap(Map map) {
 		super.setMap(map);
 		schedule = new ArrayList<>();
-		timeToGate = new HashMap<>();
-		passengers = new ArrayList<>();
+		flightIndices = new HashMap<>();
 		arrivalTimes = new HashMap<>();
 
 		for (Flight f : map.getMapComponents(Flight.class)) {
+			flightIndices.put(f, schedule.size());
 			schedule.add(f);
-			timeToGate.put(f, new HashMap<Passenger, Double>());
 		}
+		totalTimes = new double[schedule.size()];
+		numbersOfPassengers = new int[schedule.size()];
 
-		for (Passenger p : map.getMapComponents(Passenger.class)) {
-			passengers.add(p);
+		for (Passenger p : map.getMapComponents(Passenger.class))
 			arrivalTimes.put(p, 0.0);
-		}
 	}
 
 }
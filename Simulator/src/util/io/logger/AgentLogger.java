@@ -34,10 +34,12 @@ public class AgentLogger extends Logger {
 			return null;
 
 		StringBuilder builder = new StringBuilder();
-		for (String s : toLog)
-			builder.append(s + ",");
-		String myString = builder.toString();
-		return myString.substring(0, myString.length() - 1);
+		for (int i = 0; i < toLog.length; i++) {
+			if (i > 0)
+				builder.append(',');
+			builder.append(toLog[i]);
+		}
+		return builder.toString();
 	}
 
 	@Override
@@ -45,7 +47,7 @@ public class AgentLogger extends Logger {
 		for (Agent a : simulator.getMap().getMapComponents(Agent.class)) {
 			String info = getAgentInformation(a);
 			if (info != null)
-				printLine(time + "," + a.toString() + "," + info);
+				printLine(new StringBuilder().append(time).append(',').append(a).append(',').append(info).toString());
 		}
 	}
 }
@@ -3,6 +3,7 @@ package util.io.logger;
 import java.io.File;
 
 import util.analytics.Analyzer;
+import util.analytics.TimeSeries;
 
 /**
  * Logs the tracked parameters.
@@ -27,14 +28,13 @@ public class AnalyticsLogger extends Logger {
 			return;
 
 		for (Analyzer analyzer : simulator.getAnalytics().getAnalyzers()) {
-			float[][][] data = analyzer.exportData();
+			TimeSeries series = analyzer.exportTimeSeries();
 			printLine("_graph_" + analyzer.getYAxis() + "_" + analyzer.getTitle());
-			for (int i = 0; i < data.length; i++) {
-				if (analyzer.getLineNames().length > i) {
-					printLine("_line_" + analyzer.getLineNames()[i]);
-					for (int j = 0; j < data[0].length; j++) {
-						printLine(data[i][j][0] + "," + data[i][j][1]);
-					}
+			for (int i = 0; i < series.getNumberOfLines(); i++) {
+				printLine("_line_" + series.getLineName(i));
+				for (int j = 0; j < series.size(); j++) {
+					// the log contains single precision values
+					printLine((float) series.getTime(j) + "," + (float) series.getValue(i, j));
 				}
 			}
 		}
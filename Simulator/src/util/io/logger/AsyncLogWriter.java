@@ -0,0 +1,272 @@
+package util.io.logger;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * The asynchronous log writer writes lines to a file on a background thread.
+ * Lines are handed to the thread through a bounded ring buffer, so the
+ * simulation does not wait for file I/O unless the buffer is full. The thread
+ * takes all lines that are in the buffer at once and writes them through a
+ * large buffer. Closing the writer writes all remaining lines before the file
+ * is closed.
+ * 
+ * Binary data, such as a trace in the {@link util.io.trace.TraceFormat}, is
+ * written in the same way through {@link #getOutputStream()}.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class AsyncLogWriter {
+
+	/**
+	 * The default number of lines in the ring buffer.
+	 */
+	public static final int DEFAULT_CAPACITY = 8192;
+	/**
+	 * The size of the buffer of the file writer (in characters).
+	 */
+	private static final int WRITE_BUFFER_SIZE = 1 << 16;
+	/**
+	 * The line separator.
+	 */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+	/**
+	 * The ring buffer, with lines (strings) and binary data (byte arrays).
+	 */
+	private final Object[] lines;
+	/**
+	 * The index of the first line in the ring buffer.
+	 */
+	private int first;
+	/**
+	 * The number of lines in the ring buffer.
+	 */
+	private int size;
+	/**
+	 * Closed or not.
+	 */
+	private boolean closed;
+	/**
+	 * The file output stream, only used by the background thread.
+	 */
+	private final OutputStream output;
+	/**
+	 * The file writer on top of the output stream, only used by the
+	 * background thread.
+	 */
+	private final Writer writer;
+	/**
+	 * The background thread.
+	 */
+	private final Thread thread;
+
+	/**
+	 * Creates an asynchronous log writer with the default capacity.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @throws FileNotFoundException
+	 *             If the file cannot be created.
+	 */
+	public AsyncLogWriter(String fileName) throws FileNotFoundException {
+		this(fileName, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an asynchronous log writer.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @param capacity
+	 *            The number of lines in the ring buffer.
+	 * @throws FileNotFoundException
+	 *             If the file cannot be created.
+	 */
+	public AsyncLogWriter(String fileName, int capacity) throws FileNotFoundException {
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity should be at least 1.");
+		lines = new Object[capacity];
+		output = new BufferedOutputStream(new FileOutputStream(fileName), WRITE_BUFFER_SIZE);
+		writer = new BufferedWriter(new OutputStreamWriter(output), WRITE_BUFFER_SIZE);
+		thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				writeLines();
+			}
+		}, "Log writer " + fileName);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Closes the writer. All lines that were written before are written to the
+	 * file, after which the file is closed. Lines cannot be written after the
+	 * writer is closed.
+	 */
+	public void close() {
+		synchronized (this) {
+			if (closed)
+				return;
+			closed = true;
+			notifyAll();
+		}
+
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Gets an output stream that writes binary data through this writer. The
+	 * data is copied when it is written, and closing the stream closes the
+	 * writer.
+	 * 
+	 * @return The output stream.
+	 */
+	public OutputStream getOutputStream() {
+		return new OutputStream() {
+
+			@Override
+			public void close() {
+				AsyncLogWriter.this.close();
+			}
+
+			@Override
+			public void write(byte[] bytes, int offset, int length) {
+				if (offset < 0 || length < 0 || offset + length > bytes.length)
+					throw new IndexOutOfBoundsException();
+				if (length > 0)
+					add(Arrays.copyOfRange(bytes, offset, offset + length));
+			}
+
+			@Override
+			public void write(int value) {
+				add(new byte[] { (byte) value });
+			}
+		};
+	}
+
+	/**
+	 * Takes all lines from the ring buffer. Waits until there is at least one
+	 * line, or until the writer is closed.
+	 * 
+	 * @param batch
+	 *            The array to which the lines are copied.
+	 * @return The number of lines, 0 if the writer is closed and there are no
+	 *         more lines.
+	 */
+	private synchronized int takeLines(Object[] batch) {
+		while (size == 0 && !closed) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				// the thread only stops when the writer is closed
+			}
+		}
+
+		int number = size;
+		for (int i = 0; i < number; i++) {
+			int index = (first + i) % lines.length;
+			batch[i] = lines[index];
+			lines[index] = null;
+		}
+		first = (first + number) % lines.length;
+		size = 0;
+		notifyAll();
+		return number;
+	}
+
+	/**
+	 * Adds a line or binary data to the ring buffer. Blocks only if the ring
+	 * buffer is full.
+	 * 
+	 * @param item
+	 *            The line or binary data.
+	 */
+	private void add(Object item) {
+		boolean interrupted = false;
+		synchronized (this) {
+			while (size == lines.length && !closed) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if (closed)
+				throw new IllegalStateException("The log writer is closed.");
+			lines[(first + size) % lines.length] = item;
+			size++;
+			if (size == 1)
+				notifyAll();
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Writes a line. Blocks only if the ring buffer is full.
+	 * 
+	 * @param line
+	 *            The line.
+	 */
+	public void write(String line) {
+		add(line);
+	}
+
+	/**
+	 * Writes the lines from the ring buffer to the file until the writer is
+	 * closed. Runs on the background thread.
+	 */
+	private void writeLines() {
+		Object[] batch = new Object[lines.length];
+		// lines that are buffered by the writer are written before binary data
+		boolean bufferedLines = false;
+		try {
+			int number;
+			while ((number = takeLines(batch)) > 0) {
+				for (int i = 0; i < number; i++) {
+					if (batch[i] instanceof byte[]) {
+						if (bufferedLines)
+							writer.flush();
+						bufferedLines = false;
+						output.write((byte[]) batch[i]);
+					} else {
+						writer.write((String) batch[i]);
+						writer.write(LINE_SEPARATOR);
+						bufferedLines = true;
+					}
+					batch[i] = null;
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			// discard the remaining lines, so the simulation does not block
+			int discarded;
+			do {
+				discarded = takeLines(batch);
+			} while (discarded > 0);
+		} finally {
+			try {
+				writer.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package util.io.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+
+import model.agent.Agent;
+import util.io.trace.TraceConverter;
+import util.io.trace.TraceWriter;
+
+/**
+ * The binary trace logger logs the same positions as the
+ * {@link SimulationLogger}, but in the compact binary trace format. Agents get
+ * an identifier in the order in which they first appear, so the identifiers
+ * are the same for repeated runs. Identifiers are not reused, and the
+ * identifier of an agent is dropped when it is removed from the simulation
+ * (see {@link #agentRemoved(Agent)}), so only the agents on the map are kept.
+ * The trace can be read with a
+ * {@link util.io.trace.TraceReader} or converted to the text format with the
+ * {@link TraceConverter}. Like the other loggers, the trace is written to the
+ * file by an {@link AsyncLogWriter}; each frame is handed to it when it is
+ * logged.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class BinaryTraceLogger extends Logger {
+
+	/**
+	 * The number of skips done.
+	 */
+	private int skips;
+	/**
+	 * The skip factor.
+	 */
+	private int skipFactor;
+	/**
+	 * The trace writer.
+	 */
+	private TraceWriter writer;
+	/**
+	 * The identifiers of the agents on the map.
+	 */
+	private IdentityHashMap<Agent, Integer> agentIds;
+	/**
+	 * The identifier of the next agent that appears.
+	 */
+	private int nextId;
+	/**
+	 * The identifiers of the agents in a frame.
+	 */
+	private int[] ids;
+	/**
+	 * The x coordinates of the agents in a frame.
+	 */
+	private double[] x;
+	/**
+	 * The y coordinates of the agents in a frame.
+	 */
+	private double[] y;
+
+	/**
+	 * Creates a binary trace logger.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 */
+	public BinaryTraceLogger(String fileName) {
+		super(fileName + File.separator + "agentTrace.bin");
+		skipFactor = 10;
+		skips = 10;
+		agentIds = new IdentityHashMap<>();
+		ids = new int[64];
+		x = new double[64];
+		y = new double[64];
+		try {
+			writer = new TraceWriter(getWriter().getOutputStream(), TraceWriter.DEFAULT_SCALE,
+					TraceWriter.DEFAULT_KEY_FRAME_INTERVAL);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void agentRemoved(Agent agent) {
+		agentIds.remove(agent);
+	}
+
+	@Override
+	public void closeLog() {
+		try {
+			writer.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		super.closeLog();
+	}
+
+	/**
+	 * Gets the identifier of an agent.
+	 * 
+	 * @param agent
+	 *            The agent.
+	 * @return The identifier.
+	 */
+	private int getAgentId(Agent agent) {
+		Integer id = agentIds.get(agent);
+		if (id == null) {
+			id = nextId++;
+			agentIds.put(agent, id);
+		}
+		return id;
+	}
+
+	@Override
+	public void update(long time, boolean ended) {
+		if (skips == skipFactor) {
+			skips = 0;
+			Collection<Agent> agents = simulator.getMap().getMapComponents(Agent.class);
+			if (agents.size() > ids.length) {
+				ids = new int[2 * agents.size()];
+				x = new double[ids.length];
+				y = new double[ids.length];
+			}
+			int number = 0;
+			for (Agent a : agents) {
+				ids[number] = getAgentId(a);
+				x[number] = a.getPosition().x;
+				y[number] = a.getPosition().y;
+				number++;
+			}
+			try {
+				writer.writeFrame(time, ids, x, y, number);
+				writer.flush();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+		skips++;
+	}
+}
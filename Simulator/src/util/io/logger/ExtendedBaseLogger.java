@@ -1,10 +1,10 @@
 package util.io.logger;
 
 import java.io.File;
-import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.List;
 
+import model.agent.Agent;
 import simulation.simulation.Simulator;
 
 /**
@@ -34,43 +34,39 @@ public class ExtendedBaseLogger extends Logger {
 	 *            The name of the folder.
 	 */
 	public ExtendedBaseLogger(String folderName) {
-		String logLocation = initLog(folderName);
+		this(folderName, false);
+	}
+
+	/**
+	 * Creates a base logger that logs to a specified directory.
+	 * 
+	 * @param folderName
+	 *            The name of the folder.
+	 * @param binaryTrace
+	 *            Writes the trace in the binary trace format (see
+	 *            {@link BinaryTraceLogger}) instead of the text format or not.
+	 */
+	public ExtendedBaseLogger(String folderName, boolean binaryTrace) {
+		String logLocation = createLogLocation(folderName);
 		loggerList = new ArrayList<>();
-		loggerList.add(new SimulationLogger(logLocation));
+		if (binaryTrace)
+			loggerList.add(new BinaryTraceLogger(logLocation));
+		else
+			loggerList.add(new SimulationLogger(logLocation));
 		loggerList.add(new AnalyticsLogger(logLocation));
 		loggerList.add(new AgentLogger(logLocation));
 	}
 
 	@Override
-	public void closeLog() {
+	public void agentRemoved(Agent agent) {
 		for (Logger logger : loggerList)
-			logger.closeLog();
+			logger.agentRemoved(agent);
 	}
 
-	/**
-	 * Initiates log location.
-	 * 
-	 * @param folderName
-	 *            The name of the base folder.
-	 * @return The name of the log folder.
-	 */
-	private String initLog(String folderName) {
-		File logLocation = new File(folderName);
-		if (!logLocation.exists()) {
-			if (!logLocation.mkdir())
-				throw new RuntimeException("Log location creation failed");
-		}
-		String jvmName = ManagementFactory.getRuntimeMXBean().getName();
-		int index = jvmName.indexOf('@');
-		if (index > 0)
-			jvmName = jvmName.substring(0, index);
-		logLocation = new File(System.getProperty("user.dir") + File.separator + "logfiles" + File.separator
-				+ System.currentTimeMillis() + "_" + jvmName + File.separator);
-		if (!logLocation.exists()) {
-			if (!logLocation.mkdir())
-				throw new RuntimeException("Log location creation failed");
-		}
-		return logLocation.toString();
+	@Override
+	public void closeLog() {
+		for (Logger logger : loggerList)
+			logger.closeLog();
 	}
 
 	/**
@@ -1,12 +1,15 @@
 package util.io.logger;
 
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
 
+import model.agent.Agent;
 import simulation.simulation.Simulator;
 
 /**
- * Abstract notion of a logger.
+ * Abstract notion of a logger. The lines of a logger are written to its file by
+ * an {@link AsyncLogWriter}, so the simulation does not wait for file I/O.
  * 
  * @author S.A.M. Janssen
  */
@@ -23,13 +26,9 @@ public abstract class Logger {
 	};
 
 	/**
-	 * The {@link PrintWriter}.
+	 * The {@link AsyncLogWriter}.
 	 */
-	private PrintWriter writer;
-	/**
-	 * The flush counter ensures regular flushing of the writer.
-	 */
-	private int flushCounter;
+	private AsyncLogWriter writer;
 	/**
 	 * The simulator.
 	 */
@@ -49,19 +48,71 @@ public abstract class Logger {
 	 */
 	public Logger(String fileName) {
 		try {
-			writer = new PrintWriter(fileName);
+			writer = new AsyncLogWriter(fileName);
 		} catch (FileNotFoundException e) {
 			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * Close the log.
+	 * An {@link Agent} is removed from the simulation. Loggers that keep
+	 * information on the agents they logged can drop it here.
+	 * 
+	 * @param agent
+	 *            The agent.
+	 */
+	public void agentRemoved(Agent agent) {
+	}
+
+	/**
+	 * Close the log. Waits until all lines are written.
 	 */
 	public void closeLog() {
 		writer.close();
 	}
 
+	/**
+	 * Creates a new log folder for a simulation run, named after the current
+	 * time and the process id.
+	 * 
+	 * @param folderName
+	 *            The name of the base folder.
+	 * @return The name of the log folder.
+	 */
+	protected static String createLogLocation(String folderName) {
+		File logLocation = new File(folderName);
+		if (!logLocation.exists()) {
+			if (!logLocation.mkdir() && !logLocation.isDirectory())
+				throw new RuntimeException("Log location creation failed");
+		}
+		String jvmName = ManagementFactory.getRuntimeMXBean().getName();
+		int index = jvmName.indexOf('@');
+		if (index > 0)
+			jvmName = jvmName.substring(0, index);
+		String baseName = System.getProperty("user.dir") + File.separator + "logfiles" + File.separator
+				+ System.currentTimeMillis() + "_" + jvmName;
+		logLocation = new File(baseName + File.separator);
+		// multiple simulations in the same process can start in the same
+		// millisecond.
+		int count = 0;
+		while (!logLocation.mkdir()) {
+			if (logLocation.getParentFile() == null || !logLocation.getParentFile().isDirectory() || count == 1000)
+				throw new RuntimeException("Log location creation failed");
+			count++;
+			logLocation = new File(baseName + "_" + count + File.separator);
+		}
+		return logLocation.toString();
+	}
+
+	/**
+	 * Gets the {@link AsyncLogWriter} of the log file.
+	 * 
+	 * @return The writer, or null for a joint logger.
+	 */
+	protected AsyncLogWriter getWriter() {
+		return writer;
+	}
+
 	/**
 	 * Print a line.
 	 * 
@@ -69,13 +120,8 @@ public abstract class Logger {
 	 *            The string.
 	 */
 	public void printLine(String string) {
-		if (string != null) {
-			writer.println(string);
-			flushCounter++;
-		}
-
-		if (flushCounter == 20)
-			writer.flush();
+		if (string != null)
+			writer.write(string);
 	}
 
 	/**
@@ -36,15 +36,17 @@ public class SimulationLogger extends Logger {
 	/**
 	 * Gets the agent information that needs to be printed.
 	 * 
+	 * @param time
+	 *            The time.
 	 * @param agent
 	 *            The agent.
 	 * @return The information to be printed.
 	 */
-	private String getAgentInformation(Agent agent) {
-		StringBuilder builder = new StringBuilder();
-		String string = agent.hashCode() + "," + Utilities.round(agent.getPosition().x, 2) + ","
-				+ Utilities.round(agent.getPosition().y, 2);
-		builder.append(string);
+	private String getAgentInformation(long time, Agent agent) {
+		StringBuilder builder = new StringBuilder(48);
+		builder.append(time).append(',').append(agent.hashCode()).append(',');
+		builder.append(Utilities.round(agent.getPosition().x, 2)).append(',');
+		builder.append(Utilities.round(agent.getPosition().y, 2));
 		return builder.toString();
 	}
 
@@ -53,7 +55,7 @@ public class SimulationLogger extends Logger {
 		if (skips == skipFactor) {
 			skips = 0;
 			for (Agent a : simulator.getMap().getMapComponents(Agent.class)) {
-				printLine(time + "," + getAgentInformation(a));
+				printLine(getAgentInformation(time, a));
 			}
 		}
 		skips++;
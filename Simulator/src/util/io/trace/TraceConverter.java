@@ -0,0 +1,81 @@
+package util.io.trace;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Converts binary trace files to the text format of the agent trace, with one
+ * line (time, agent, x, y) per agent per frame. The agent column contains the
+ * identifier of the agent in the trace. The text files can be imported with
+ * the scripts in the Analytics folder.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TraceConverter {
+
+	/**
+	 * Converts a binary trace file to a text file.
+	 * 
+	 * @param inputFileName
+	 *            The name of the binary trace file.
+	 * @param outputFileName
+	 *            The name of the text file.
+	 * @throws IOException
+	 *             If a file cannot be read or written.
+	 */
+	public static void convert(String inputFileName, String outputFileName) throws IOException {
+		String lineSeparator = System.getProperty("line.separator");
+		TraceReader reader = new TraceReader(inputFileName);
+		try {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFileName)), 1 << 16);
+			try {
+				StringBuilder builder = new StringBuilder(64);
+				while (reader.next()) {
+					for (int i = 0; i < reader.getNumberOfAgents(); i++) {
+						builder.setLength(0);
+						builder.append(reader.getTime()).append(',').append(reader.getAgentId(i)).append(',');
+						builder.append(reader.getX(i)).append(',').append(reader.getY(i)).append(lineSeparator);
+						writer.append(builder);
+					}
+				}
+			} finally {
+				writer.close();
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Converts a binary trace file to a text file. The first argument is the
+	 * binary trace file. The optional second argument is the text file, by
+	 * default agentTrace.txt in the same folder.
+	 * 
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If a file cannot be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length < 1 || args.length > 2) {
+			System.err.println("Usage: TraceConverter <trace file> [<text file>]");
+			return;
+		}
+		String output;
+		if (args.length == 2)
+			output = args[1];
+		else
+			output = new File(new File(args[0]).getAbsoluteFile().getParentFile(), "agentTrace.txt").toString();
+		convert(args[0], output);
+	}
+
+	/**
+	 * Private constructor to prevent object creation.
+	 */
+	private TraceConverter() {
+	}
+}
@@ -0,0 +1,77 @@
+package util.io.trace;
+
+/**
+ * The constants of the binary trace format. A trace file starts with a header
+ * (magic number, version and scale), followed by frames and an index.
+ * 
+ * A frame contains the positions of all agents at a time: a frame type, the
+ * time (in milliseconds), the number of agents and, for each agent, its
+ * identifier and position. Positions are stored as fixed-point numbers
+ * (coordinate times the scale, rounded). Identifiers are stored as the
+ * difference with the previous identifier in the frame, and positions as the
+ * difference with the previous position of the agent. All numbers in frames
+ * are stored as variable-length integers, with signed numbers zigzag encoded.
+ * 
+ * A key frame stores the positions as differences with 0, so reading can start
+ * at any key frame. The index lists the time and file offset of each key
+ * frame. It is followed by its own file offset and the magic number, so it can
+ * be found from the end of the file.
+ * 
+ * @author S.A.M. Janssen
+ */
+final class TraceFormat {
+
+	/**
+	 * The magic number ("AATR").
+	 */
+	static final int MAGIC = 0x41415452;
+	/**
+	 * The version of the format.
+	 */
+	static final int VERSION = 1;
+	/**
+	 * The type of the end marker, after the last frame.
+	 */
+	static final int END = 0;
+	/**
+	 * The type of a key frame.
+	 */
+	static final int KEY_FRAME = 1;
+	/**
+	 * The type of a delta frame.
+	 */
+	static final int DELTA_FRAME = 2;
+	/**
+	 * The size of the footer (index offset and magic number).
+	 */
+	static final int FOOTER_SIZE = 12;
+
+	/**
+	 * Decodes a zigzag encoded number.
+	 * 
+	 * @param value
+	 *            The encoded number.
+	 * @return The number.
+	 */
+	static long fromZigzag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Zigzag encodes a number, such that small negative numbers become small
+	 * positive numbers.
+	 * 
+	 * @param value
+	 *            The number.
+	 * @return The encoded number.
+	 */
+	static long toZigzag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Private constructor to prevent object creation.
+	 */
+	private TraceFormat() {
+	}
+}
@@ -0,0 +1,396 @@
+package util.io.trace;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * The trace reader reads a file in the binary trace format (see
+ * {@link TraceFormat}) one frame at a time, so traces that are larger than the
+ * memory can be read. {@link #next()} moves to the next frame, after which the
+ * agents of the frame can be obtained. {@link #seek(long)} uses the index of
+ * the file to move to a time without reading the frames before it.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TraceReader implements Closeable {
+
+	/**
+	 * The size of the read buffer.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The file.
+	 */
+	private final RandomAccessFile file;
+	/**
+	 * The read buffer.
+	 */
+	private final byte[] buffer;
+	/**
+	 * The file offset of the first byte in the buffer.
+	 */
+	private long bufferOffset;
+	/**
+	 * The number of bytes in the buffer.
+	 */
+	private int bufferSize;
+	/**
+	 * The position in the buffer.
+	 */
+	private int bufferPosition;
+	/**
+	 * The offset of the first frame.
+	 */
+	private final long firstFrameOffset;
+	/**
+	 * The scale.
+	 */
+	private final int scale;
+	/**
+	 * The times of the key frames, null if the file has no index.
+	 */
+	private long[] keyFrameTimes;
+	/**
+	 * The file offsets of the key frames, null if the file has no index.
+	 */
+	private long[] keyFrameOffsets;
+	/**
+	 * The previous fixed-point x coordinates, by agent.
+	 */
+	private long[] previousX;
+	/**
+	 * The previous fixed-point y coordinates, by agent.
+	 */
+	private long[] previousY;
+	/**
+	 * The time of the current frame.
+	 */
+	private long time;
+	/**
+	 * The number of agents in the current frame.
+	 */
+	private int numberOfAgents;
+	/**
+	 * The identifiers of the agents in the current frame.
+	 */
+	private int[] ids;
+	/**
+	 * The fixed-point x coordinates of the agents in the current frame.
+	 */
+	private long[] x;
+	/**
+	 * The fixed-point y coordinates of the agents in the current frame.
+	 */
+	private long[] y;
+	/**
+	 * The end of the frames is reached or not.
+	 */
+	private boolean ended;
+
+	/**
+	 * Opens a trace file.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @throws IOException
+	 *             If the file cannot be read or is not a trace file.
+	 */
+	public TraceReader(String fileName) throws IOException {
+		file = new RandomAccessFile(fileName, "r");
+		buffer = new byte[BUFFER_SIZE];
+		previousX = new long[64];
+		previousY = new long[64];
+		ids = new int[64];
+		x = new long[64];
+		y = new long[64];
+		try {
+			if (readInt() != TraceFormat.MAGIC)
+				throw new IOException(fileName + " is not a trace file.");
+			int version = readInt();
+			if (version != TraceFormat.VERSION)
+				throw new IOException("Unsupported trace version " + version + ".");
+			scale = readInt();
+			firstFrameOffset = getPosition();
+			readIndex();
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+
+	/**
+	 * Fills the buffer from a file offset.
+	 * 
+	 * @param offset
+	 *            The offset.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	private void fillBuffer(long offset) throws IOException {
+		file.seek(offset);
+		bufferOffset = offset;
+		bufferPosition = 0;
+		bufferSize = Math.max(0, file.read(buffer, 0, buffer.length));
+	}
+
+	/**
+	 * Gets the identifier of an agent in the current frame.
+	 * 
+	 * @param index
+	 *            The index of the agent in the frame.
+	 * @return The identifier.
+	 */
+	public int getAgentId(int index) {
+		checkIndex(index);
+		return ids[index];
+	}
+
+	/**
+	 * Checks if an index is a valid agent index in the current frame.
+	 * 
+	 * @param index
+	 *            The index.
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= numberOfAgents)
+			throw new IndexOutOfBoundsException("No agent at index " + index + ".");
+	}
+
+	/**
+	 * Gets the number of agents in the current frame.
+	 * 
+	 * @return The number of agents.
+	 */
+	public int getNumberOfAgents() {
+		return numberOfAgents;
+	}
+
+	/**
+	 * Gets the position in the file.
+	 * 
+	 * @return The file offset.
+	 */
+	private long getPosition() {
+		return bufferOffset + bufferPosition;
+	}
+
+	/**
+	 * Gets the scale, coordinates are stored as multiples of 1 / scale.
+	 * 
+	 * @return The scale.
+	 */
+	public int getScale() {
+		return scale;
+	}
+
+	/**
+	 * Gets the time of the current frame.
+	 * 
+	 * @return The time (in milliseconds).
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	/**
+	 * Gets the x coordinate of an agent in the current frame.
+	 * 
+	 * @param index
+	 *            The index of the agent in the frame.
+	 * @return The x coordinate.
+	 */
+	public double getX(int index) {
+		checkIndex(index);
+		return (double) x[index] / scale;
+	}
+
+	/**
+	 * Gets the y coordinate of an agent in the current frame.
+	 * 
+	 * @param index
+	 *            The index of the agent in the frame.
+	 * @return The y coordinate.
+	 */
+	public double getY(int index) {
+		checkIndex(index);
+		return (double) y[index] / scale;
+	}
+
+	/**
+	 * Determines if the file has an index. Files without an index (for instance
+	 * of simulations that did not end) can be read, but seeking reads all
+	 * frames before the time.
+	 * 
+	 * @return True if it has, false otherwise.
+	 */
+	public boolean hasIndex() {
+		return keyFrameTimes != null;
+	}
+
+	/**
+	 * Moves to the next frame.
+	 * 
+	 * @return True if there is a next frame, false if the end of the trace is
+	 *         reached.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	public boolean next() throws IOException {
+		if (ended)
+			return false;
+		int type = readByte();
+		if (type < 0 || type == TraceFormat.END) {
+			ended = true;
+			numberOfAgents = 0;
+			return false;
+		}
+		if (type == TraceFormat.KEY_FRAME) {
+			Arrays.fill(previousX, 0);
+			Arrays.fill(previousY, 0);
+		} else if (type != TraceFormat.DELTA_FRAME) {
+			throw new IOException("Unknown frame type " + type + ".");
+		}
+
+		time = TraceFormat.fromZigzag(readVarLong());
+		numberOfAgents = (int) readVarLong();
+		if (numberOfAgents > ids.length) {
+			ids = new int[numberOfAgents];
+			x = new long[numberOfAgents];
+			y = new long[numberOfAgents];
+		}
+		int id = 0;
+		for (int i = 0; i < numberOfAgents; i++) {
+			id += (int) TraceFormat.fromZigzag(readVarLong());
+			if (id >= previousX.length) {
+				int length = Math.max(id + 1, 2 * previousX.length);
+				previousX = Arrays.copyOf(previousX, length);
+				previousY = Arrays.copyOf(previousY, length);
+			}
+			previousX[id] += TraceFormat.fromZigzag(readVarLong());
+			previousY[id] += TraceFormat.fromZigzag(readVarLong());
+			ids[i] = id;
+			x[i] = previousX[id];
+			y[i] = previousY[id];
+		}
+		return true;
+	}
+
+	/**
+	 * Reads a byte.
+	 * 
+	 * @return The byte, or -1 if the end of the file is reached.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	private int readByte() throws IOException {
+		if (bufferPosition == bufferSize) {
+			fillBuffer(getPosition());
+			if (bufferSize == 0)
+				return -1;
+		}
+		return buffer[bufferPosition++] & 0xFF;
+	}
+
+	/**
+	 * Reads the index from the end of the file, if it exists.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	private void readIndex() throws IOException {
+		long length = file.length();
+		if (length >= firstFrameOffset + TraceFormat.FOOTER_SIZE) {
+			fillBuffer(length - TraceFormat.FOOTER_SIZE);
+			long indexOffset = ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+			if (readInt() == TraceFormat.MAGIC && indexOffset >= firstFrameOffset && indexOffset < length) {
+				fillBuffer(indexOffset);
+				int numberOfKeyFrames = (int) readVarLong();
+				long[] times = new long[numberOfKeyFrames];
+				long[] offsets = new long[numberOfKeyFrames];
+				long previousTime = 0;
+				long previousOffset = 0;
+				for (int i = 0; i < numberOfKeyFrames; i++) {
+					previousTime += TraceFormat.fromZigzag(readVarLong());
+					previousOffset += readVarLong();
+					times[i] = previousTime;
+					offsets[i] = previousOffset;
+				}
+				keyFrameTimes = times;
+				keyFrameOffsets = offsets;
+			}
+		}
+		fillBuffer(firstFrameOffset);
+	}
+
+	/**
+	 * Reads a 4 byte integer.
+	 * 
+	 * @return The integer.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	private int readInt() throws IOException {
+		int value = 0;
+		for (int i = 0; i < 4; i++) {
+			int b = readByte();
+			if (b < 0)
+				throw new EOFException();
+			value = (value << 8) | b;
+		}
+		return value;
+	}
+
+	/**
+	 * Reads a non-negative integer with a variable length.
+	 * 
+	 * @return The integer.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	private long readVarLong() throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = readByte();
+			if (b < 0)
+				throw new EOFException();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed variable-length integer.");
+	}
+
+	/**
+	 * Moves to the first frame at or after a time. The frame becomes the
+	 * current frame, and {@link #next()} continues after it.
+	 * 
+	 * @param time
+	 *            The time (in milliseconds).
+	 * @return True if there is such a frame, false otherwise.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	public boolean seek(long time) throws IOException {
+		long offset = firstFrameOffset;
+		if (keyFrameTimes != null) {
+			for (int i = 0; i < keyFrameTimes.length && keyFrameTimes[i] <= time; i++)
+				offset = keyFrameOffsets[i];
+		}
+		fillBuffer(offset);
+		ended = false;
+		while (next()) {
+			if (this.time >= time)
+				return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,351 @@
+package util.io.trace;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * The trace writer writes agent positions in the binary trace format, see
+ * {@link TraceFormat}. Agents are identified by small non-negative numbers,
+ * which should be the same for an agent during the whole trace.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TraceWriter implements Closeable, Flushable {
+
+	/**
+	 * The default scale, which stores coordinates with 2 decimals.
+	 */
+	public static final int DEFAULT_SCALE = 100;
+	/**
+	 * The default number of frames between two key frames.
+	 */
+	public static final int DEFAULT_KEY_FRAME_INTERVAL = 100;
+	/**
+	 * The size of the write buffer.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The output stream.
+	 */
+	private final OutputStream output;
+	/**
+	 * The write buffer.
+	 */
+	private final byte[] buffer;
+	/**
+	 * The number of bytes in the write buffer.
+	 */
+	private int bufferSize;
+	/**
+	 * The number of bytes written, including the buffer.
+	 */
+	private long position;
+	/**
+	 * The scale.
+	 */
+	private final int scale;
+	/**
+	 * The number of frames between two key frames.
+	 */
+	private final int keyFrameInterval;
+	/**
+	 * The number of frames since the last key frame.
+	 */
+	private int framesSinceKeyFrame;
+	/**
+	 * The previous fixed-point x coordinates, by agent.
+	 */
+	private long[] previousX;
+	/**
+	 * The previous fixed-point y coordinates, by agent.
+	 */
+	private long[] previousY;
+	/**
+	 * The times of the key frames.
+	 */
+	private long[] keyFrameTimes;
+	/**
+	 * The file offsets of the key frames.
+	 */
+	private long[] keyFrameOffsets;
+	/**
+	 * The number of key frames.
+	 */
+	private int numberOfKeyFrames;
+	/**
+	 * Closed or not.
+	 */
+	private boolean closed;
+
+	/**
+	 * Creates a trace writer with the default scale and key frame interval.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @throws IOException
+	 *             If the file cannot be created.
+	 */
+	public TraceWriter(String fileName) throws IOException {
+		this(fileName, DEFAULT_SCALE, DEFAULT_KEY_FRAME_INTERVAL);
+	}
+
+	/**
+	 * Creates a trace writer.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @param scale
+	 *            The scale, coordinates are stored as multiples of 1 / scale.
+	 * @param keyFrameInterval
+	 *            The number of frames between two key frames.
+	 * @throws IOException
+	 *             If the file cannot be created.
+	 */
+	public TraceWriter(String fileName, int scale, int keyFrameInterval) throws IOException {
+		this(openFile(fileName, scale, keyFrameInterval), scale, keyFrameInterval);
+	}
+
+	/**
+	 * Creates a trace writer that writes to an output stream, for instance the
+	 * stream of an {@link util.io.logger.AsyncLogWriter}. The stream is closed
+	 * when the trace writer is closed.
+	 * 
+	 * @param output
+	 *            The output stream.
+	 * @param scale
+	 *            The scale, coordinates are stored as multiples of 1 / scale.
+	 * @param keyFrameInterval
+	 *            The number of frames between two key frames.
+	 * @throws IOException
+	 *             If the header cannot be written.
+	 */
+	public TraceWriter(OutputStream output, int scale, int keyFrameInterval) throws IOException {
+		if (scale < 1 || keyFrameInterval < 1)
+			throw new IllegalArgumentException("The scale and key frame interval should be at least 1.");
+		this.scale = scale;
+		this.keyFrameInterval = keyFrameInterval;
+		this.output = output;
+		buffer = new byte[BUFFER_SIZE];
+		previousX = new long[64];
+		previousY = new long[64];
+		keyFrameTimes = new long[16];
+		keyFrameOffsets = new long[16];
+		framesSinceKeyFrame = keyFrameInterval;
+
+		writeInt(TraceFormat.MAGIC);
+		writeInt(TraceFormat.VERSION);
+		writeInt(scale);
+	}
+
+	/**
+	 * Writes the end marker and the index, and closes the file.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed)
+			return;
+		closed = true;
+		try {
+			writeByte(TraceFormat.END);
+			long indexOffset = position;
+			writeVarLong(numberOfKeyFrames);
+			long previousTime = 0;
+			long previousOffset = 0;
+			for (int i = 0; i < numberOfKeyFrames; i++) {
+				writeVarLong(TraceFormat.toZigzag(keyFrameTimes[i] - previousTime));
+				writeVarLong(keyFrameOffsets[i] - previousOffset);
+				previousTime = keyFrameTimes[i];
+				previousOffset = keyFrameOffsets[i];
+			}
+			writeLong(indexOffset);
+			writeInt(TraceFormat.MAGIC);
+			flushBuffer();
+		} finally {
+			output.close();
+		}
+	}
+
+	/**
+	 * Writes the frames that are in the write buffer to the output stream, and
+	 * flushes the stream.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	@Override
+	public void flush() throws IOException {
+		if (closed)
+			return;
+		flushBuffer();
+		output.flush();
+	}
+
+	/**
+	 * Writes the write buffer to the file.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	private void flushBuffer() throws IOException {
+		if (bufferSize == 0)
+			return;
+		output.write(buffer, 0, bufferSize);
+		bufferSize = 0;
+	}
+
+	/**
+	 * Opens the file of a trace, after checking the scale and key frame
+	 * interval.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @param scale
+	 *            The scale.
+	 * @param keyFrameInterval
+	 *            The number of frames between two key frames.
+	 * @return The output stream of the file.
+	 * @throws IOException
+	 *             If the file cannot be created.
+	 */
+	private static OutputStream openFile(String fileName, int scale, int keyFrameInterval) throws IOException {
+		if (scale < 1 || keyFrameInterval < 1)
+			throw new IllegalArgumentException("The scale and key frame interval should be at least 1.");
+		return new FileOutputStream(fileName);
+	}
+
+	/**
+	 * Converts a coordinate to a fixed-point number.
+	 * 
+	 * @param coordinate
+	 *            The coordinate.
+	 * @return The fixed-point number.
+	 */
+	private long toFixedPoint(double coordinate) {
+		return Math.round(coordinate * scale);
+	}
+
+	/**
+	 * Writes a byte.
+	 * 
+	 * @param value
+	 *            The byte.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	private void writeByte(int value) throws IOException {
+		if (bufferSize == buffer.length)
+			flushBuffer();
+		buffer[bufferSize++] = (byte) value;
+		position++;
+	}
+
+	/**
+	 * Writes a frame.
+	 * 
+	 * @param time
+	 *            The time (in milliseconds).
+	 * @param ids
+	 *            The identifiers of the agents.
+	 * @param x
+	 *            The x coordinates of the agents.
+	 * @param y
+	 *            The y coordinates of the agents.
+	 * @param numberOfAgents
+	 *            The number of agents in the arrays that are written.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	public void writeFrame(long time, int[] ids, double[] x, double[] y, int numberOfAgents) throws IOException {
+		if (closed)
+			throw new IllegalStateException("The trace writer is closed.");
+
+		if (framesSinceKeyFrame == keyFrameInterval) {
+			framesSinceKeyFrame = 0;
+			Arrays.fill(previousX, 0);
+			Arrays.fill(previousY, 0);
+			if (numberOfKeyFrames == keyFrameTimes.length) {
+				keyFrameTimes = Arrays.copyOf(keyFrameTimes, 2 * numberOfKeyFrames);
+				keyFrameOffsets = Arrays.copyOf(keyFrameOffsets, 2 * numberOfKeyFrames);
+			}
+			keyFrameTimes[numberOfKeyFrames] = time;
+			keyFrameOffsets[numberOfKeyFrames] = position;
+			numberOfKeyFrames++;
+			writeByte(TraceFormat.KEY_FRAME);
+		} else {
+			writeByte(TraceFormat.DELTA_FRAME);
+		}
+		framesSinceKeyFrame++;
+
+		writeVarLong(TraceFormat.toZigzag(time));
+		writeVarLong(numberOfAgents);
+		int previousId = 0;
+		for (int i = 0; i < numberOfAgents; i++) {
+			int id = ids[i];
+			if (id < 0)
+				throw new IllegalArgumentException("Agent identifiers cannot be negative.");
+			if (id >= previousX.length) {
+				int length = Math.max(id + 1, 2 * previousX.length);
+				previousX = Arrays.copyOf(previousX, length);
+				previousY = Arrays.copyOf(previousY, length);
+			}
+			long fixedX = toFixedPoint(x[i]);
+			long fixedY = toFixedPoint(y[i]);
+			writeVarLong(TraceFormat.toZigzag(id - previousId));
+			writeVarLong(TraceFormat.toZigzag(fixedX - previousX[id]));
+			writeVarLong(TraceFormat.toZigzag(fixedY - previousY[id]));
+			previousId = id;
+			previousX[id] = fixedX;
+			previousY[id] = fixedY;
+		}
+	}
+
+	/**
+	 * Writes a 4 byte integer.
+	 * 
+	 * @param value
+	 *            The integer.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	private void writeInt(int value) throws IOException {
+		for (int shift = 24; shift >= 0; shift -= 8)
+			writeByte(value >>> shift);
+	}
+
+	/**
+	 * Writes an 8 byte integer.
+	 * 
+	 * @param value
+	 *            The integer.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	private void writeLong(long value) throws IOException {
+		writeInt((int) (value >>> 32));
+		writeInt((int) value);
+	}
+
+	/**
+	 * Writes a non-negative integer with a variable length, 7 bits per byte.
+	 * 
+	 * @param value
+	 *            The integer.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	private void writeVarLong(long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		writeByte((int) value);
+	}
+}
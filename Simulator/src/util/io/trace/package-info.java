@@ -0,0 +1,7 @@
+/**
+ * The binary agent trace format, with a writer, a streaming reader and a
+ * converter to the text format.
+ * 
+ * @author S.A.M. Janssen
+ */
+package util.io.trace;
@@ -42,4 +42,16 @@ public class RandomPlus extends Random {
 	public long getSeed() {
 		return seed;
 	}
+
+	/**
+	 * Sets the seed, such that {@link #getSeed()} returns the new seed.
+	 * 
+	 * @param seed
+	 *            The seed.
+	 */
+	@Override
+	public synchronized void setSeed(long seed) {
+		super.setSeed(seed);
+		this.seed = seed;
+	}
 }
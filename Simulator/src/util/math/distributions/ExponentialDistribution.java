@@ -9,6 +9,10 @@ import util.math.RandomPlus;
  */
 public class ExponentialDistribution extends MathDistribution {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The lambda.
 	 */
@@ -39,6 +43,6 @@ public class ExponentialDistribution extends MathDistribution {
 
 	@Override
 	public double getValue() {
-		return Math.log(1 - random.nextDouble()) / (-lambda);
+		return Math.log(1 - getRandom().nextDouble()) / (-lambda);
 	}
 }
\ No newline at end of file
@@ -7,6 +7,10 @@ package util.math.distributions;
  */
 public class GammaMathDistribution extends MathDistribution {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The shape parameter k.
 	 */
@@ -40,7 +44,7 @@ public class GammaMathDistribution extends MathDistribution {
 
 			while (true) {
 				// Step 1:
-				final double u = random.nextDouble();
+				final double u = getRandom().nextDouble();
 				final double bGS = 1 + shape / Math.E;
 				final double p = bGS * u;
 
@@ -48,7 +52,7 @@ public class GammaMathDistribution extends MathDistribution {
 					// Step 2:
 
 					final double x = Math.pow(p, 1 / shape);
-					final double u2 = random.nextDouble();
+					final double u2 = getRandom().nextDouble();
 
 					if (u2 > Math.exp(-x)) {
 						// Reject
@@ -60,7 +64,7 @@ public class GammaMathDistribution extends MathDistribution {
 					// Step 3:
 
 					final double x = -1 * Math.log((bGS - p) / shape);
-					final double u2 = random.nextDouble();
+					final double u2 = getRandom().nextDouble();
 
 					if (u2 > Math.pow(x, shape - 1)) {
 						// Reject
@@ -76,7 +80,7 @@ public class GammaMathDistribution extends MathDistribution {
 		final double c = 1 / (3 * Math.sqrt(d));
 
 		while (true) {
-			final double x = random.nextGaussian();
+			final double x = getRandom().nextGaussian();
 			final double v = (1 + c * x) * (1 + c * x) * (1 + c * x);
 
 			if (v <= 0) {
@@ -84,7 +88,7 @@ public class GammaMathDistribution extends MathDistribution {
 			}
 
 			final double x2 = x * x;
-			final double u = random.nextDouble();
+			final double u = getRandom().nextDouble();
 
 			// Squeeze
 			if (u < 1 - 0.0331 * x2 * x2) {
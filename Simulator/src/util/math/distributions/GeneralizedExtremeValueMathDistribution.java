@@ -7,6 +7,10 @@ package util.math.distributions;
  */
 public class GeneralizedExtremeValueMathDistribution extends MathDistribution {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	private double loc;
 	private double scale;
 	private double shape;
@@ -51,10 +55,9 @@ public class GeneralizedExtremeValueMathDistribution extends MathDistribution {
 				0.9999999999999968, 0.9999999999999999, 1.0000000000000000 };
 
 		double a = 0.;
-		double u = random
-				.nextDouble(); /* precaution if u = 0 is ever returned */
+		double u = getRandom().nextDouble(); /* precaution if u = 0 is ever returned */
 		while (u <= 0. || u >= 1.)
-			u = random.nextDouble();
+			u = getRandom().nextDouble();
 		for (;;) {
 			u += u;
 			if (u > 1.)
@@ -67,9 +70,9 @@ public class GeneralizedExtremeValueMathDistribution extends MathDistribution {
 			return a + u;
 
 		int i = 0;
-		double ustar = random.nextDouble(), umin = ustar;
+		double ustar = getRandom().nextDouble(), umin = ustar;
 		do {
-			ustar = random.nextDouble();
+			ustar = getRandom().nextDouble();
 			if (umin > ustar)
 				umin = ustar;
 			i++;
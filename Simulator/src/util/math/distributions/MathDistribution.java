@@ -1,6 +1,8 @@
 package util.math.distributions;
 
-import simulation.simulation.util.Utilities;
+import java.io.Serializable;
+
+import simulation.simulation.util.SimulationContext;
 import util.math.RandomPlus;
 
 /**
@@ -8,19 +10,27 @@ import util.math.RandomPlus;
  * 
  * @author S.A.M. Janssen
  */
-public abstract class MathDistribution {
+public abstract class MathDistribution implements Serializable {
 
 	/**
-	 * The random generator.
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
+	/**
+	 * The random generator, or null if the random generator of the simulation
+	 * is used.
 	 */
-	protected RandomPlus random;
+	private final RandomPlus random;
 
 	/**
-	 * Creates a math distribution.
+	 * Creates a math distribution that draws from the random generator of the
+	 * simulation. The generator is looked up at each draw (see
+	 * {@link SimulationContext#current()}), such that a distribution that is
+	 * created before its simulation uses the generator of that simulation.
 	 * 
 	 */
 	public MathDistribution() {
-		random = Utilities.RANDOM_GENERATOR;
+		random = null;
 	}
 
 	/**
@@ -33,6 +43,19 @@ public abstract class MathDistribution {
 		this.random = random;
 	}
 
+	/**
+	 * Gets the random generator to draw from: the separate random generator
+	 * if there is one, otherwise the random generator of the simulation that
+	 * runs on the current thread.
+	 * 
+	 * @return The random generator.
+	 */
+	protected RandomPlus getRandom() {
+		if (random == null)
+			return SimulationContext.current().getRandomGenerator();
+		return random;
+	}
+
 	/**
 	 * Draws a number from the random distribution.
 	 * 
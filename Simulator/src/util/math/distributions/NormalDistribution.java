@@ -9,6 +9,10 @@ import util.math.RandomPlus;
  */
 public class NormalDistribution extends MathDistribution {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The mean.
 	 */
@@ -49,7 +53,7 @@ public class NormalDistribution extends MathDistribution {
 
 	@Override
 	public double getValue() {
-		return random.nextGaussian() * standardDeviation + mean;
+		return getRandom().nextGaussian() * standardDeviation + mean;
 	}
 
 }
@@ -9,6 +9,10 @@ import util.math.RandomPlus;
  */
 public class PoissonDistribution extends MathDistribution {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * The lambda.
 	 */
@@ -45,7 +49,7 @@ public class PoissonDistribution extends MathDistribution {
 
 		  do {
 		    k++;
-		    p *= Math.random();
+		    p *= getRandom().nextDouble();
 		  } while (p > L);
 
 		  return k - 1;
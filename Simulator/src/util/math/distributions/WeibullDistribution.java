@@ -9,6 +9,10 @@ import util.math.RandomPlus;
  */
 public class WeibullDistribution extends MathDistribution {
 
+	/**
+	 * Serial version UID.
+	 */
+	private static final long serialVersionUID = 1L;
 	/**
 	 * A parameter.
 	 */
@@ -49,6 +53,6 @@ public class WeibullDistribution extends MathDistribution {
 
 	@Override
 	public double getValue() {
-		return Math.pow(a * (-Math.log(random.nextDouble())), 1 / b);
+		return Math.pow(a * (-Math.log(getRandom().nextDouble())), 1 / b);
 	}
 }
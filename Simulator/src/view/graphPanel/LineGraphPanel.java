@@ -17,6 +17,10 @@ public class LineGraphPanel extends ChartPanel {
 	 * The parameter tracker.
 	 */
 	private Analyzer parameterTracker;
+	/**
+	 * The data set that shows the samples of the parameter tracker.
+	 */
+	private TimeSeriesDataset dataset;
 
 	/**
 	 * Creates a line graph panel.
@@ -25,8 +29,28 @@ public class LineGraphPanel extends ChartPanel {
 	 *            The parameter tracker.
 	 */
 	public LineGraphPanel(Analyzer tracker) {
-		super(ChartFactory.createXYLineChart(tracker.getTitle(), "Time (s)", tracker.getYAxis(), tracker.getDataset()));
+		this(tracker, new TimeSeriesDataset(tracker.getTimeSeries()));
+	}
+
+	/**
+	 * Creates a line graph panel with a data set.
+	 * 
+	 * @param tracker
+	 *            The parameter tracker.
+	 * @param dataset
+	 *            The data set.
+	 */
+	private LineGraphPanel(Analyzer tracker, TimeSeriesDataset dataset) {
+		super(ChartFactory.createXYLineChart(tracker.getTitle(), "Time (s)", tracker.getYAxis(), dataset));
 		this.parameterTracker = tracker;
+		this.dataset = dataset;
+	}
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		// only follow the samples while the graph is shown
+		dataset.attach();
 	}
 
 	/**
@@ -37,4 +61,10 @@ public class LineGraphPanel extends ChartPanel {
 	public Analyzer getParameterTracker() {
 		return parameterTracker;
 	}
+
+	@Override
+	public void removeNotify() {
+		dataset.detach();
+		super.removeNotify();
+	}
 }
@@ -0,0 +1,141 @@
+package view.graphPanel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+import org.jfree.data.xy.AbstractXYDataset;
+
+import util.analytics.TimeSeries;
+import util.analytics.TimeSeriesListener;
+
+/**
+ * A time series data set shows a {@link TimeSeries} in a chart, without
+ * copying the samples. The chart is notified of new samples on the event
+ * dispatch thread, and samples that arrive before the notification is handled
+ * are shown together. The chart reads an immutable
+ * {@link TimeSeries.Snapshot} that is only replaced on the event dispatch
+ * thread, so the lines and samples do not change while the chart is drawn.
+ * 
+ * @author S.A.M. Janssen
+ */
+@SuppressWarnings("serial")
+public class TimeSeriesDataset extends AbstractXYDataset implements TimeSeriesListener {
+
+	/**
+	 * The time series.
+	 */
+	private final TimeSeries timeSeries;
+	/**
+	 * The snapshot of the time series that is shown.
+	 */
+	private volatile TimeSeries.Snapshot snapshot;
+	/**
+	 * The unique names of the lines.
+	 */
+	private List<String> seriesKeys;
+	/**
+	 * A change notification is scheduled or not.
+	 */
+	private final AtomicBoolean changePending;
+
+	/**
+	 * Creates a data set for a time series.
+	 * 
+	 * @param timeSeries
+	 *            The time series.
+	 */
+	public TimeSeriesDataset(TimeSeries timeSeries) {
+		this.timeSeries = timeSeries;
+		changePending = new AtomicBoolean();
+		updateSnapshot();
+	}
+
+	/**
+	 * Starts following the changes of the time series.
+	 */
+	public void attach() {
+		timeSeries.addListener(this);
+		timeSeriesChanged(timeSeries);
+	}
+
+	/**
+	 * Stops following the changes of the time series.
+	 */
+	public void detach() {
+		timeSeries.removeListener(this);
+	}
+
+	@Override
+	public int getItemCount(int series) {
+		return snapshot.size();
+	}
+
+	@Override
+	public int getSeriesCount() {
+		return seriesKeys.size();
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public Comparable getSeriesKey(int series) {
+		return seriesKeys.get(series);
+	}
+
+	@Override
+	public Number getX(int series, int item) {
+		return getXValue(series, item);
+	}
+
+	@Override
+	public double getXValue(int series, int item) {
+		return snapshot.getTime(item);
+	}
+
+	@Override
+	public Number getY(int series, int item) {
+		return getYValue(series, item);
+	}
+
+	@Override
+	public double getYValue(int series, int item) {
+		return snapshot.getValue(series, item);
+	}
+
+	@Override
+	public void timeSeriesChanged(TimeSeries timeSeries) {
+		if (changePending.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(new Runnable() {
+				@Override
+				public void run() {
+					changePending.set(false);
+					updateSnapshot();
+					fireDatasetChanged();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Takes a new snapshot of the time series and updates the names of the
+	 * lines. Lines with the same name are numbered.
+	 */
+	private void updateSnapshot() {
+		TimeSeries.Snapshot current = timeSeries.getSnapshot();
+		List<String> keys = new ArrayList<>();
+		for (int i = 0; i < current.getNumberOfLines(); i++) {
+			String name = current.getLineName(i);
+			String key = name;
+			int number = 2;
+			while (keys.contains(key)) {
+				key = name + " (" + number + ")";
+				number++;
+			}
+			keys.add(key);
+		}
+		seriesKeys = keys;
+		snapshot = current;
+	}
+}
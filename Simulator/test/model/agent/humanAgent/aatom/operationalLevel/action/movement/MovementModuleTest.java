@@ -47,6 +47,27 @@ public class MovementModuleTest {
 		Assert.assertTrue(movement.getStopOrder());
 	}
 
+	/**
+	 * Tests the dormant time and the catching up of a stop order.
+	 */
+	@Test
+	public void testDormantTime() {
+		MovementModule movement = new MovementModule(1) {
+
+			@Override
+			public Vector getMove(int timeStep) {
+				return new Vector(1, 1);
+			}
+		};
+		Assert.assertEquals(movement.getDormantTime(), 0, 0.001);
+		movement.setStopOrder(10);
+		Assert.assertEquals(movement.getDormantTime(), 10, 0.001);
+		movement.catchUp(40, 100);
+		Assert.assertEquals(movement.getDormantTime(), 6, 0.001);
+		movement.setStopOrder(-1);
+		Assert.assertEquals(movement.getDormantTime(), Double.POSITIVE_INFINITY, 0.001);
+	}
+
 	/**
 	 * Tests the constructor with an illegal argument.
 	 */
@@ -108,10 +108,10 @@ public class HelbingMovementModuleTest {
 		Simulator s = new Simulator.Builder<>().setGui(false).setEndingConditions(new BaseEndingConditions(20)).build();
 		s.add(a);
 
+		Assert.assertEquals(a.getPosition(), new Position(10, 10));
 		Thread t = new Thread(s);
 		t.start();
 
-		Assert.assertEquals(a.getPosition(), new Position(10, 10));
 		try {
 			t.join();
 		} catch (InterruptedException e) {
@@ -131,10 +131,10 @@ public class HelbingMovementModuleTest {
 		Wall w = new Wall(7, 2, 0.1, 8);
 		s2.add(w);
 		s2.add(a2);
+		Assert.assertEquals(a2.getPosition(), new Position(10, 10));
 		Thread t2 = new Thread(s2);
 		t2.start();
 
-		Assert.assertEquals(a2.getPosition(), new Position(10, 10));
 		try {
 			t2.join();
 		} catch (InterruptedException e) {
@@ -163,11 +163,10 @@ public class HelbingMovementModuleTest {
 		s3.add(w4);
 
 		s3.add(a3);
-		Thread t3 = new Thread(s3);
-		t3.start();
-
 		Assert.assertEquals(a3.getPosition(), new Position(10, 10));
 		Assert.assertEquals(a3.getGoalPosition(), new Position(1, 1));
+		Thread t3 = new Thread(s3);
+		t3.start();
 
 		try {
 			t3.join();
@@ -0,0 +1,223 @@
+package model.agent.humanAgent.aatom.operationalLevel.action.movement.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.agent.humanAgent.aatom.AatomHumanAgent;
+import model.agent.humanAgent.aatom.OperatorAgent;
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.operationalLevel.OperationalModel;
+import model.agent.humanAgent.aatom.operationalLevel.action.communication.CommunicationModule;
+import model.agent.humanAgent.aatom.operationalLevel.action.communication.CommunicationType;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.MovementModule;
+import model.agent.humanAgent.aatom.operationalLevel.observation.ObservationModule;
+import model.agent.humanAgent.aatom.operationalLevel.observation.impl.BasicPassengerObservationModule;
+import model.agent.humanAgent.aatom.strategicLevel.StrategicModel;
+import model.agent.humanAgent.aatom.strategicLevel.belief.BeliefModule;
+import model.agent.humanAgent.aatom.strategicLevel.goal.Goal;
+import model.agent.humanAgent.aatom.strategicLevel.goal.GoalModule;
+import model.agent.humanAgent.aatom.strategicLevel.reasoning.planning.PlanningModule;
+import model.agent.humanAgent.aatom.tacticalLevel.TacticalModel;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.ActivityModule;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.operator.impl.BasicLuggageDropActivity;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.NavigationModule;
+import model.environment.objects.area.GateArea;
+import model.environment.objects.area.QueuingArea;
+import model.environment.objects.flight.Flight;
+import model.environment.objects.flight.FlightType;
+import model.environment.objects.physicalObject.Desk;
+import model.environment.objects.physicalObject.Wall;
+import model.environment.position.Position;
+import simulation.simulation.Simulator;
+
+/**
+ * Tests the primitive Helbing movement module.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class PrimitiveHelbingMovementModuleTest {
+
+	/**
+	 * Tests the constructor.
+	 */
+	@Test
+	public void testConstructor() {
+		PrimitiveHelbingMovementModule movement = new PrimitiveHelbingMovementModule(1);
+		Assert.assertEquals(movement.getDesiredSpeed(), 1, 0.001);
+	}
+
+	/**
+	 * Generates a flight for the base agents.
+	 * 
+	 * @return The flight.
+	 */
+	private static Flight generateFlight() {
+		List<Desk> desks = new ArrayList<>();
+		desks.add(new Desk(4, 4, 1, 0.1, new Position(4.5, 4.3)));
+		return new Flight(FlightType.DEPARTING, 7200, new GateArea(1, 1, 5, 5), desks,
+				new QueuingArea(4, 5, 3, 3, new Position(7, 8), new Position(4, 5)),
+				new QueuingArea(10, 10, 4, 4, new Position(10, 10), new Position(14, 14)));
+	}
+
+	/**
+	 * Generates a base agent. The agent is a passenger, because the movement
+	 * modules only consider passengers in the agent interaction force.
+	 * 
+	 * @param start
+	 *            The start position.
+	 * @param goal
+	 *            The goal position.
+	 * @param primitive
+	 *            Use the primitive movement module or not.
+	 * @return The agent.
+	 */
+	public static Passenger generateBaseAgent(Position start, Position goal, boolean primitive) {
+		return generateBaseAgent(start, goal,
+				primitive ? new PrimitiveHelbingMovementModule(1) : new HelbingMovementModule(1));
+	}
+
+	/**
+	 * Generates a base agent with a movement module.
+	 * 
+	 * @param start
+	 *            The start position.
+	 * @param goal
+	 *            The goal position.
+	 * @param movement
+	 *            The movement module.
+	 * @return The agent.
+	 */
+	public static Passenger generateBaseAgent(Position start, Position goal, MovementModule movement) {
+		PlanningModule planner = new PlanningModule() {
+
+			@Override
+			public void update(int timeStep) {
+			}
+
+			@Override
+			public Activity getNextActivity() {
+				return null;
+			}
+		};
+
+		GoalModule goalModule = new GoalModule(new ArrayList<Goal>()) {
+		};
+
+		BeliefModule belief = new BeliefModule();
+
+		StrategicModel strategy = new StrategicModel(planner, goalModule, belief) {
+
+			@Override
+			public boolean wantsToBeDestroyed() {
+				return false;
+			}
+		};
+
+		ActivityModule activity = new ActivityModule();
+		ArrayList<Position> goals = new ArrayList<>();
+		goals.add(goal);
+		NavigationModule navigation = new NavigationModule(goals);
+
+		TacticalModel tactical = new TacticalModel(activity, navigation) {
+		};
+
+		ObservationModule observation = new BasicPassengerObservationModule();
+		CommunicationModule communication = new CommunicationModule() {
+
+			@Override
+			public void communicate(CommunicationType type, Object communication) {
+			}
+		};
+
+		OperationalModel operational = new OperationalModel(movement, observation, communication) {
+		};
+
+		return new Passenger.Builder<>().setFlight(generateFlight()).setPosition(start).setRadius(0.2)
+				.setMass(80).setStrategicModel(strategy).setTacticalModel(tactical).setOperationalModel(operational)
+				.build();
+	}
+
+	/**
+	 * Generates a simulator with walls and agents that walk towards each
+	 * other.
+	 * 
+	 * @param primitive
+	 *            Use the primitive movement module or not.
+	 * @param agents
+	 *            The list to which the agents are added.
+	 * @return The simulator.
+	 */
+	private Simulator generateSimulator(boolean primitive, List<AatomHumanAgent> agents) {
+		Simulator simulator = new Simulator.Builder<>().setGui(false).build();
+		simulator.add(new Wall(5, 2, 0.1, 4));
+		simulator.add(new Wall(5, 7, 0.1, 4));
+		simulator.add(new Wall(0, 1.5, 12, 0.1));
+		agents.add(generateBaseAgent(new Position(1, 6), new Position(10, 6), primitive));
+		agents.add(generateBaseAgent(new Position(10, 6.2), new Position(1, 6), primitive));
+		agents.add(generateBaseAgent(new Position(2, 3), new Position(9, 9), primitive));
+		agents.add(generateBaseAgent(new Position(9, 3), new Position(2, 9), primitive));
+		for (AatomHumanAgent agent : agents)
+			simulator.add(agent);
+		simulator.init();
+		return simulator;
+	}
+
+	/**
+	 * Passengers that also consider other agents than passengers generate the
+	 * same moves with both modules when they pass an operator.
+	 */
+	@Test
+	public void operatorTest() {
+		List<Passenger> passengers = new ArrayList<>();
+		for (boolean primitive : new boolean[] { false, true }) {
+			Simulator simulator = new Simulator.Builder<>().setGui(false).build();
+			simulator.add(new OperatorAgent(new Position(5, 6.3), 0.25, 80, new BasicLuggageDropActivity()));
+			Passenger passenger = generateBaseAgent(new Position(1, 6), new Position(10, 6),
+					primitive ? new PrimitiveHelbingMovementModule(1, false) : new HelbingMovementModule(1, false));
+			simulator.add(passenger);
+			simulator.init();
+			passengers.add(passenger);
+			double minimumDistance = Double.MAX_VALUE;
+			for (int i = 0; i < 100; i++) {
+				simulator.step();
+				minimumDistance = Math.min(minimumDistance, passenger.getPosition().distanceTo(new Position(5, 6.3)));
+			}
+			Assert.assertTrue(minimumDistance < 1);
+		}
+		Assert.assertEquals(passengers.get(0).getPosition(), passengers.get(1).getPosition());
+		Assert.assertTrue(passengers.get(0).getPosition().x > 8);
+	}
+
+	/**
+	 * The primitive module should generate exactly the same moves as the
+	 * Helbing movement module, also when walls and other passengers are
+	 * close.
+	 */
+	@Test
+	public void sameMovementTest() {
+		List<AatomHumanAgent> agents = new ArrayList<>();
+		List<AatomHumanAgent> primitiveAgents = new ArrayList<>();
+		Simulator simulator = generateSimulator(false, agents);
+		Simulator primitiveSimulator = generateSimulator(true, primitiveAgents);
+
+		Position start = agents.get(0).getPosition();
+		double minimumDistance = Double.MAX_VALUE;
+		for (int i = 0; i < 200; i++) {
+			simulator.step();
+			primitiveSimulator.step();
+			for (int j = 0; j < agents.size(); j++) {
+				Assert.assertEquals(agents.get(j).getPosition(), primitiveAgents.get(j).getPosition());
+				Assert.assertEquals(agents.get(j).getCurrentVelocity(), primitiveAgents.get(j).getCurrentVelocity());
+			}
+			minimumDistance = Math.min(minimumDistance,
+					agents.get(0).getPosition().distanceTo(agents.get(1).getPosition()));
+		}
+		Assert.assertTrue(agents.get(0).getPosition().distanceTo(start) > 1);
+		// the passengers in the corridor have to pass each other
+		Assert.assertTrue(minimumDistance < 1);
+	}
+}
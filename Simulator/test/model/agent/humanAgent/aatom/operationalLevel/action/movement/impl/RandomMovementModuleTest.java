@@ -116,9 +116,10 @@ public class RandomMovementModuleTest {
 		AatomHumanAgent a = generateBaseAgent();
 		Simulator s = new Simulator.Builder<>().setGui(false).setEndingConditions(new BaseEndingConditions(20)).build();
 		s.add(a);
+		Assert.assertEquals(a.getPosition(), new Position(5, 5));
 		Thread t = new Thread(s);
 		t.start();
-		Assert.assertEquals(a.getPosition(), new Position(5, 5));
+
 		try {
 			t.join();
 		} catch (InterruptedException e) {
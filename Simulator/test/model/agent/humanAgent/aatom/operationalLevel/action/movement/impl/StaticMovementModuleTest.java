@@ -113,9 +113,10 @@ public class StaticMovementModuleTest {
 		AatomHumanAgent a = generateBaseAgent();
 		Simulator s = new Simulator.Builder<>().setGui(false).setEndingConditions(new BaseEndingConditions(20)).build();
 		s.add(a);
+		Assert.assertEquals(a.getPosition(), new Position(10, 10));
 		Thread t = new Thread(s);
 		t.start();
-		Assert.assertEquals(a.getPosition(), new Position(10, 10));
+
 		try {
 			t.join();
 		} catch (InterruptedException e) {
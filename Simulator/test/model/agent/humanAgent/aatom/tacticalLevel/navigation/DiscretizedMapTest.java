@@ -0,0 +1,88 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.environment.objects.physicalObject.PhysicalObject;
+import model.environment.objects.physicalObject.QueueSeparator;
+import model.environment.objects.physicalObject.Wall;
+import model.environment.position.Position;
+import model.map.Map;
+import model.map.shapes.PolygonMapComponent;
+
+/**
+ * Tests the discretized map.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class DiscretizedMapTest {
+
+	/**
+	 * Tests that the rasterized tiles are the tiles whose square collides
+	 * with an object, for walls on and between the tile borders, thin
+	 * separators and a concave polygon.
+	 */
+	@Test
+	public void testCollision() {
+		Map map = new Map();
+		map.add(new Wall(0, 0, 20, 0.1));
+		map.add(new Wall(0, 0, 0.1, 20));
+		map.add(new Wall(3.5, 3.5, 3.5, 0.7));
+		map.add(new Wall(1.23, 8.71, 6.02, 2.3));
+		for (int i = 0; i < 6; i++)
+			map.add(new QueueSeparator(10 + i * 1.1, 2, 0.05, 6));
+		List<Position> corners = new ArrayList<>();
+		corners.add(new Position(12, 12));
+		corners.add(new Position(18, 13));
+		corners.add(new Position(14.3, 14.1));
+		corners.add(new Position(17.5, 19));
+		corners.add(new Position(11.1, 17.7));
+		map.add(new Wall(corners));
+
+		for (double precision : new double[] { 0.35, 0.5, 1 }) {
+			boolean[][] tiles = new DiscretizedMap(map, precision).getMap();
+			Assert.assertEquals((int) (map.getHeight() / precision), tiles.length);
+			Assert.assertEquals((int) (map.getWidth() / precision), tiles[0].length);
+			for (int y = 0; y < tiles.length; y++) {
+				for (int x = 0; x < tiles[0].length; x++) {
+					Position position = new Position(x * precision, y * precision);
+					PolygonMapComponent tile = new PolygonMapComponent(position.x, position.y, precision,
+							precision) {
+					};
+					boolean collision = false;
+					for (PhysicalObject object : map.getMapComponents(PhysicalObject.class))
+						collision |= tile.isCollision(object);
+					Assert.assertEquals(collision, tiles[y][x]);
+				}
+			}
+		}
+	}
+	/**
+	 * Tests that objects that lie outside the map are skipped, both when the
+	 * objects are rasterized at once and in parallel.
+	 */
+	@Test
+	public void testObjectOutsideMap() {
+		for (int walls : new int[] { 1, 20 }) {
+			Map map = new Map();
+			Map outside = new Map();
+			outside.add(new Wall(-5, 2, 1, 1));
+			outside.add(new Wall(2, -5, 1, 1));
+			// both maps are 20 by 20 meters
+			map.add(new Wall(19.9, 19.9, 0.1, 0.1));
+			outside.add(new Wall(19.9, 19.9, 0.1, 0.1));
+			for (int i = 0; i < walls; i++) {
+				map.add(new Wall(0, i, 10, 0.1));
+				outside.add(new Wall(0, i, 10, 0.1));
+			}
+			boolean[][] expected = new DiscretizedMap(map, 0.5).getMap();
+			boolean[][] tiles = new DiscretizedMap(outside, 0.5).getMap();
+			Assert.assertEquals(expected.length, tiles.length);
+			for (int y = 0; y < tiles.length; y++)
+				Assert.assertArrayEquals(expected[y], tiles[y]);
+		}
+	}
+}
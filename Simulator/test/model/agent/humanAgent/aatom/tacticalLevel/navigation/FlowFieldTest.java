@@ -0,0 +1,201 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the flow field.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class FlowFieldTest {
+
+	/**
+	 * Computes the shortest distances to a destination tile with a plain
+	 * Dijkstra search over the eight neighbors of each tile, without cutting
+	 * corners.
+	 * 
+	 * @param map
+	 *            The discretized map.
+	 * @param destinationX
+	 *            The x coordinate of the destination tile.
+	 * @param destinationY
+	 *            The y coordinate of the destination tile.
+	 * @return The distances, by tile (y * width + x).
+	 */
+	private static double[] getDistances(boolean[][] map, int destinationX, int destinationY) {
+		int height = map.length;
+		int width = map[0].length;
+		double[] distances = new double[width * height];
+		Arrays.fill(distances, Double.MAX_VALUE);
+		distances[destinationY * width + destinationX] = 0;
+		PriorityQueue<double[]> queue = new PriorityQueue<>(16, new java.util.Comparator<double[]>() {
+			@Override
+			public int compare(double[] o1, double[] o2) {
+				return Double.compare(o1[0], o2[0]);
+			}
+		});
+		queue.add(new double[] { 0, destinationY * width + destinationX });
+		while (!queue.isEmpty()) {
+			double[] entry = queue.poll();
+			int tile = (int) entry[1];
+			if (entry[0] > distances[tile])
+				continue;
+			int x = tile % width;
+			int y = tile / width;
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					int nx = x + dx;
+					int ny = y + dy;
+					if ((dx == 0 && dy == 0) || !isFree(map, nx, ny, destinationX, destinationY))
+						continue;
+					if (dx != 0 && dy != 0 && (!isFree(map, nx, y, destinationX, destinationY)
+							|| !isFree(map, x, ny, destinationX, destinationY)))
+						continue;
+					double distance = entry[0] + (dx != 0 && dy != 0 ? Math.sqrt(2) : 1);
+					if (distance < distances[ny * width + nx]) {
+						distances[ny * width + nx] = distance;
+						queue.add(new double[] { distance, ny * width + nx });
+					}
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Determines if a tile is free, where the destination is always free.
+	 * 
+	 * @param map
+	 *            The discretized map.
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @param destinationX
+	 *            The x coordinate of the destination tile.
+	 * @param destinationY
+	 *            The y coordinate of the destination tile.
+	 * @return True if it is, false otherwise.
+	 */
+	private static boolean isFree(boolean[][] map, int x, int y, int destinationX, int destinationY) {
+		if (x < 0 || y < 0 || y >= map.length || x >= map[0].length)
+			return false;
+		return !map[y][x] || (x == destinationX && y == destinationY);
+	}
+
+	/**
+	 * Follows a flow field from a tile to the destination and checks each
+	 * step.
+	 * 
+	 * @param field
+	 *            The flow field.
+	 * @param map
+	 *            The discretized map.
+	 * @param x
+	 *            The x coordinate of the tile.
+	 * @param y
+	 *            The y coordinate of the tile.
+	 * @return The length of the path (in tiles).
+	 */
+	private static double follow(FlowField field, boolean[][] map, int x, int y) {
+		double length = 0;
+		int steps = 0;
+		while (!field.isDestination(x, y)) {
+			int next = field.getNextTile(x, y);
+			Assert.assertTrue(next >= 0);
+			int nextX = next % field.getWidth();
+			int nextY = next / field.getWidth();
+			Assert.assertTrue(Math.abs(nextX - x) <= 1 && Math.abs(nextY - y) <= 1);
+			Assert.assertTrue(isFree(map, nextX, nextY, field.getDestinationX(), field.getDestinationY()));
+			if (nextX != x && nextY != y) {
+				// no corners are cut
+				Assert.assertTrue(isFree(map, nextX, y, field.getDestinationX(), field.getDestinationY()));
+				Assert.assertTrue(isFree(map, x, nextY, field.getDestinationX(), field.getDestinationY()));
+				length += Math.sqrt(2);
+			} else {
+				length += 1;
+			}
+			x = nextX;
+			y = nextY;
+			Assert.assertTrue(++steps <= field.getWidth() * field.getHeight());
+		}
+		return length;
+	}
+
+	/**
+	 * Tests a destination that is blocked, which can still be reached.
+	 */
+	@Test
+	public void testBlockedDestination() {
+		boolean[][] map = new boolean[10][10];
+		for (int x = 0; x < 10; x++)
+			map[5][x] = true;
+		FlowField field = new FlowField(map, 4, 5);
+		Assert.assertTrue(field.isReachable(0, 0));
+		Assert.assertTrue(field.isReachable(9, 9));
+		Assert.assertFalse(field.isReachable(0, 5));
+		Assert.assertEquals(-1, field.getNextTile(4, 5));
+		Assert.assertEquals(5, follow(field, map, 4, 0), 1e-4);
+	}
+
+	/**
+	 * Tests that a destination outside the map is moved inside.
+	 */
+	@Test
+	public void testDestinationOutsideMap() {
+		FlowField field = new FlowField(new boolean[10][20], 25, -3);
+		Assert.assertEquals(19, field.getDestinationX());
+		Assert.assertEquals(0, field.getDestinationY());
+		Assert.assertTrue(field.isReachable(0, 9));
+	}
+
+	/**
+	 * Tests that the flow field gives shortest paths on random maps, with the
+	 * same length as a plain Dijkstra search.
+	 */
+	@Test
+	public void testShortestPaths() {
+		Random random = new Random(5);
+		for (int i = 0; i < 20; i++) {
+			boolean[][] map = new boolean[25][30];
+			for (int y = 0; y < 25; y++)
+				for (int x = 0; x < 30; x++)
+					map[y][x] = random.nextDouble() < 0.3;
+			int destinationX = random.nextInt(30);
+			int destinationY = random.nextInt(25);
+			FlowField field = new FlowField(map, destinationX, destinationY);
+			double[] distances = getDistances(map, destinationX, destinationY);
+			for (int y = 0; y < 25; y++) {
+				for (int x = 0; x < 30; x++) {
+					boolean reachable = distances[y * 30 + x] < Double.MAX_VALUE
+							&& isFree(map, x, y, destinationX, destinationY);
+					Assert.assertEquals(reachable, field.isReachable(x, y));
+					if (reachable)
+						Assert.assertEquals(distances[y * 30 + x], follow(field, map, x, y), 1e-4);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Tests a closed room, from which the destination cannot be reached.
+	 */
+	@Test
+	public void testUnreachable() {
+		boolean[][] map = new boolean[10][10];
+		for (int i = 0; i < 4; i++) {
+			map[3][i] = true;
+			map[i][3] = true;
+		}
+		FlowField field = new FlowField(map, 8, 8);
+		Assert.assertFalse(field.isReachable(1, 1));
+		Assert.assertEquals(-1, field.getNextTile(1, 1));
+		Assert.assertTrue(field.isReachable(4, 4));
+		Assert.assertEquals(-1, field.getNextTile(-1, 4));
+	}
+}
@@ -0,0 +1,191 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.environment.position.Position;
+
+/**
+ * Tests the hierarchical graph.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class HierarchicalGraphTest {
+
+	/**
+	 * Creates an empty map of 40 by 40 tiles with a vertical wall at x = 20.
+	 * 
+	 * @param gap
+	 *            The y coordinate of the gap in the wall, or -1 for no gap.
+	 * @return The map.
+	 */
+	private static boolean[][] getMap(int gap) {
+		boolean[][] map = new boolean[40][40];
+		for (int y = 0; y < 40; y++)
+			map[y][20] = y != gap;
+		return map;
+	}
+
+	/**
+	 * Gets the length of a path.
+	 * 
+	 * @param start
+	 *            The start position.
+	 * @param path
+	 *            The path.
+	 * @return The length.
+	 */
+	private static double getLength(Position start, List<Position> path) {
+		double length = 0;
+		Position previous = start;
+		for (Position position : path) {
+			length += previous.distanceTo(position);
+			previous = position;
+		}
+		return length;
+	}
+
+	/**
+	 * Tests a path through a gap in a wall.
+	 */
+	@Test
+	public void testGap() {
+		HierarchicalGraph graph = new HierarchicalGraph(getMap(35), 1, 8);
+		Position goal = new Position(35.5, 5.5);
+		List<Position> path = graph.findPath(new Position(5.5, 5.5), goal);
+		Assert.assertNotNull(path);
+		Assert.assertTrue(path.size() > 1);
+		Assert.assertEquals(goal, path.get(path.size() - 1));
+		boolean throughGap = false;
+		for (Position position : path)
+			throughGap |= position.y > 33;
+		Assert.assertTrue(throughGap);
+	}
+
+	/**
+	 * Tests a goal that lies in a wall, which is reached through the free tile
+	 * next to it on the side of the start. The paths go around a second wall
+	 * that crosses the first one, and do not cross the first wall.
+	 */
+	@Test
+	public void testGoalInWall() {
+		boolean[][] map = new boolean[40][40];
+		for (int x = 0; x < 40; x++)
+			map[20][x] = true;
+		for (int y = 10; y < 31; y++)
+			map[y][20] = true;
+		HierarchicalGraph graph = new HierarchicalGraph(map, 1, 8);
+		Position goal = new Position(12.5, 20.5);
+
+		List<Position> path = graph.findPath(new Position(30.5, 25.5), goal);
+		Assert.assertNotNull(path);
+		Assert.assertTrue(path.size() > 1);
+		Assert.assertEquals(goal, path.get(path.size() - 1));
+		boolean aroundWall = false;
+		for (Position position : path.subList(0, path.size() - 1)) {
+			Assert.assertTrue(position.y > 21);
+			aroundWall |= position.y > 31;
+		}
+		Assert.assertTrue(aroundWall);
+
+		path = graph.findPath(new Position(30.5, 15.5), goal);
+		Assert.assertNotNull(path);
+		Assert.assertTrue(path.size() > 1);
+		Assert.assertEquals(goal, path.get(path.size() - 1));
+		aroundWall = false;
+		for (Position position : path.subList(0, path.size() - 1)) {
+			Assert.assertTrue(position.y < 20);
+			aroundWall |= position.y < 10;
+		}
+		Assert.assertTrue(aroundWall);
+	}
+
+	/**
+	 * Tests that the line of sight does not pass between two blocked tiles
+	 * that touch at a corner. The path takes the diagonal step between them
+	 * explicitly.
+	 */
+	@Test
+	public void testCornerGap() {
+		boolean[][] map = new boolean[10][10];
+		for (int x = 0; x < 10; x++)
+			map[9 - x][x] = true;
+		HierarchicalGraph graph = new HierarchicalGraph(map, 1, 4);
+		Position goal = new Position(7.5, 7.5);
+		List<Position> path = graph.findPath(new Position(2.5, 2.5), goal);
+		Assert.assertNotNull(path);
+		Assert.assertEquals(3, path.size());
+		Assert.assertEquals(new Position(4.5, 4.5), path.get(0));
+		Assert.assertEquals(new Position(5.5, 5.5), path.get(1));
+		Assert.assertEquals(goal, path.get(2));
+	}
+
+	/**
+	 * Tests that the paths on random maps are at most 15% longer than the
+	 * shortest paths over all tiles, as found by jump point search. The paths
+	 * can be shorter, since the corners of a path are connected by straight
+	 * lines.
+	 */
+	@Test
+	public void testCostComparedToJumpPointSearch() {
+		Random random = new Random(0);
+		int reachable = 0;
+		for (int i = 0; i < 20; i++) {
+			boolean[][] map = new boolean[40][40];
+			for (int y = 0; y < 40; y++) {
+				for (int x = 0; x < 40; x++)
+					map[y][x] = random.nextDouble() < 0.25;
+			}
+			HierarchicalGraph graph = new HierarchicalGraph(map, 1, 8);
+			JumpPointSearch search = new JumpPointSearch(map, 1, null);
+			for (int j = 0; j < 20; j++) {
+				int[] start = new int[] { random.nextInt(40), random.nextInt(40) };
+				int[] goal = new int[] { random.nextInt(40), random.nextInt(40) };
+				if (map[start[1]][start[0]] || map[goal[1]][goal[0]] || Arrays.equals(start, goal))
+					continue;
+				Position startPosition = JumpPointSearchTest.getCenter(start);
+				Position goalPosition = JumpPointSearchTest.getCenter(goal);
+				List<Position> shortest = search.findPath(startPosition, goalPosition);
+				List<Position> path = graph.findPath(startPosition, goalPosition);
+				if (shortest.isEmpty()) {
+					Assert.assertNull(path);
+					continue;
+				}
+				double shortestLength = getLength(startPosition, shortest);
+				Assert.assertEquals(JumpPointSearchTest.getShortestPathLength(map, start, goal), shortestLength,
+						1e-3);
+				Assert.assertNotNull(path);
+				double length = getLength(startPosition, path);
+				Assert.assertTrue(length >= startPosition.distanceTo(goalPosition) - 1e-6);
+				Assert.assertTrue(length <= 1.15 * shortestLength);
+				reachable++;
+			}
+		}
+		Assert.assertTrue(reachable > 100);
+	}
+
+	/**
+	 * Tests a path without obstacles.
+	 */
+	@Test
+	public void testStraightPath() {
+		HierarchicalGraph graph = new HierarchicalGraph(new boolean[40][40], 1, 8);
+		Position goal = new Position(30.5, 20.5);
+		List<Position> path = graph.findPath(new Position(0.5, 0.5), goal);
+		Assert.assertEquals(1, path.size());
+		Assert.assertEquals(goal, path.get(0));
+	}
+
+	/**
+	 * Tests a goal that cannot be reached.
+	 */
+	@Test
+	public void testUnreachable() {
+		HierarchicalGraph graph = new HierarchicalGraph(getMap(-1), 1, 8);
+		Assert.assertNull(graph.findPath(new Position(5.5, 5.5), new Position(35.5, 5.5)));
+	}
+}
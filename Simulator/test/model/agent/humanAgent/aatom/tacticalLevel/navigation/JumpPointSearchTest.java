@@ -0,0 +1,267 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder.JumpPointSearchPathFinder;
+import model.environment.position.Position;
+import model.map.Map;
+
+/**
+ * Tests the jump point search against a search over all tiles.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class JumpPointSearchTest {
+
+	/**
+	 * Gets the length of the shortest path between the centers of two tiles,
+	 * using Dijkstra's algorithm over all tiles. A step goes to one of the
+	 * eight neighboring tiles, if that tile is free. This is the movement of
+	 * the jump point search.
+	 * 
+	 * @param map
+	 *            The map, where true means that a tile is blocked.
+	 * @param start
+	 *            The start tile (x and y).
+	 * @param goal
+	 *            The goal tile (x and y).
+	 * @return The length (in tiles), or infinity if the goal cannot be
+	 *         reached.
+	 */
+	static double getShortestPathLength(boolean[][] map, int[] start, int[] goal) {
+		final int width = map[0].length;
+		final double[] distances = new double[width * map.length];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		PriorityQueue<double[]> queue = new PriorityQueue<>(16, new Comparator<double[]>() {
+			@Override
+			public int compare(double[] o1, double[] o2) {
+				return Double.compare(o1[0], o2[0]);
+			}
+		});
+		distances[start[1] * width + start[0]] = 0;
+		queue.add(new double[] { 0, start[1] * width + start[0] });
+		while (!queue.isEmpty()) {
+			double[] entry = queue.poll();
+			int node = (int) entry[1];
+			if (entry[0] > distances[node])
+				continue;
+			int x = node % width;
+			int y = node / width;
+			for (int dx = -1; dx <= 1; dx++) {
+				for (int dy = -1; dy <= 1; dy++) {
+					int nx = x + dx;
+					int ny = y + dy;
+					if ((dx == 0 && dy == 0) || nx < 0 || ny < 0 || nx >= width || ny >= map.length || map[ny][nx])
+						continue;
+					double distance = entry[0] + (dx != 0 && dy != 0 ? Math.sqrt(2) : 1);
+					if (distance < distances[ny * width + nx]) {
+						distances[ny * width + nx] = distance;
+						queue.add(new double[] { distance, ny * width + nx });
+					}
+				}
+			}
+		}
+		return distances[goal[1] * width + goal[0]];
+	}
+
+	/**
+	 * Gets the center of a tile of 1 by 1.
+	 * 
+	 * @param tile
+	 *            The tile (x and y).
+	 * @return The center.
+	 */
+	static Position getCenter(int[] tile) {
+		return new Position(tile[0] + 0.5, tile[1] + 0.5);
+	}
+
+	/**
+	 * Gets the length of a path of a search with tiles of 1 by 1. Each part
+	 * of the path should be a horizontal, vertical or diagonal line over free
+	 * tiles, such that the path can be followed step by step.
+	 * 
+	 * @param map
+	 *            The map, where true means that a tile is blocked.
+	 * @param start
+	 *            The start position.
+	 * @param path
+	 *            The path.
+	 * @return The length.
+	 */
+	private static double getLength(boolean[][] map, Position start, List<Position> path) {
+		double length = 0;
+		Position previous = start;
+		for (Position position : path) {
+			int x = (int) previous.x;
+			int y = (int) previous.y;
+			int dx = (int) position.x - x;
+			int dy = (int) position.y - y;
+			Assert.assertTrue(dx == 0 || dy == 0 || Math.abs(dx) == Math.abs(dy));
+			for (int i = 1; i <= Math.max(Math.abs(dx), Math.abs(dy)); i++)
+				Assert.assertFalse(map[y + i * Integer.signum(dy)][x + i * Integer.signum(dx)]);
+			length += previous.distanceTo(position);
+			previous = position;
+		}
+		return length;
+	}
+
+	/**
+	 * Creates a map with randomly blocked tiles.
+	 * 
+	 * @param random
+	 *            The random generator.
+	 * @param size
+	 *            The width and height of the map.
+	 * @param blocked
+	 *            The probability that a tile is blocked.
+	 * @return The map.
+	 */
+	private static boolean[][] getRandomMap(Random random, int size, double blocked) {
+		boolean[][] map = new boolean[size][size];
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++)
+				map[y][x] = random.nextDouble() < blocked;
+		}
+		return map;
+	}
+
+	/**
+	 * Gets a random free tile of a map.
+	 * 
+	 * @param random
+	 *            The random generator.
+	 * @param map
+	 *            The map.
+	 * @return The tile (x and y).
+	 */
+	private static int[] getRandomTile(Random random, boolean[][] map) {
+		while (true) {
+			int x = random.nextInt(map[0].length);
+			int y = random.nextInt(map.length);
+			if (!map[y][x])
+				return new int[] { x, y };
+		}
+	}
+
+	/**
+	 * Tests a step between two blocked tiles that touch at a corner, which
+	 * the search allows.
+	 */
+	@Test
+	public void testBlockedCorner() {
+		boolean[][] map = new boolean[3][3];
+		map[0][1] = true;
+		map[1][0] = true;
+		JumpPointSearch search = new JumpPointSearch(map, 1, null);
+		int[] start = new int[] { 0, 0 };
+		int[] goal = new int[] { 2, 2 };
+		List<Position> path = search.findPath(getCenter(start), getCenter(goal));
+		Assert.assertEquals(2 * Math.sqrt(2), getLength(map, getCenter(start), path), 1e-4);
+		Assert.assertEquals(getShortestPathLength(map, start, goal), getLength(map, getCenter(start), path), 1e-4);
+	}
+
+	/**
+	 * Tests a diagonal path on an empty map, which has one jump point for each
+	 * change of direction.
+	 */
+	@Test
+	public void testDiagonal() {
+		boolean[][] map = new boolean[10][10];
+		JumpPointSearch search = new JumpPointSearch(map, 1, null);
+		int[] start = new int[] { 1, 1 };
+		int[] goal = new int[] { 8, 6 };
+		List<Position> path = search.findPath(getCenter(start), getCenter(goal));
+		Assert.assertEquals(5 * Math.sqrt(2) + 2, getLength(map, getCenter(start), path), 1e-4);
+		Assert.assertEquals(2, path.size());
+		Assert.assertEquals(getCenter(goal), path.get(1));
+	}
+
+	/**
+	 * Tests a path around the corners of a wall.
+	 */
+	@Test
+	public void testAroundWall() {
+		boolean[][] map = new boolean[10][10];
+		for (int y = 0; y < 8; y++)
+			map[y][5] = true;
+		for (int x = 2; x < 6; x++)
+			map[7][x] = true;
+		JumpPointSearch search = new JumpPointSearch(map, 1, null);
+		int[] start = new int[] { 3, 2 };
+		int[] goal = new int[] { 8, 2 };
+		List<Position> path = search.findPath(getCenter(start), getCenter(goal));
+		double length = getLength(map, getCenter(start), path);
+		Assert.assertEquals(getShortestPathLength(map, start, goal), length, 1e-4);
+		Assert.assertEquals(getCenter(goal), path.get(path.size() - 1));
+	}
+
+	/**
+	 * Tests that the path finder uses a discretized map that is set after its
+	 * first path.
+	 */
+	@Test
+	public void testSetDiscretizedMap() {
+		Map map = new Map(10, 10);
+		JumpPointSearchPathFinder finder = new JumpPointSearchPathFinder(map, 1);
+		Position start = new Position(1.5, 1.5);
+		Position goal = new Position(8.5, 1.5);
+		Assert.assertEquals(7, getLength(new boolean[10][10], start, finder.getPath(start, goal, false)), 1e-4);
+
+		boolean[][] wall = new boolean[10][10];
+		for (int y = 0; y < 9; y++)
+			wall[y][5] = true;
+		map.getContext().setDiscretizedMap(1, new DiscretizedMap(wall));
+		int[] startTile = new int[] { 1, 1 };
+		int[] goalTile = new int[] { 8, 1 };
+		Assert.assertEquals(getShortestPathLength(wall, startTile, goalTile),
+				getLength(wall, start, finder.getPath(start, goal, false)), 1e-4);
+	}
+
+	/**
+	 * Tests a goal that cannot be reached, for which the path is empty.
+	 */
+	@Test
+	public void testUnreachable() {
+		boolean[][] map = new boolean[10][10];
+		for (int y = 0; y < 10; y++)
+			map[y][5] = true;
+		JumpPointSearch search = new JumpPointSearch(map, 1, null);
+		Assert.assertTrue(search.findPath(new Position(1.5, 1.5), new Position(8.5, 8.5)).isEmpty());
+	}
+
+	/**
+	 * Tests that the paths on random maps are as short as the shortest paths
+	 * over all tiles.
+	 */
+	@Test
+	public void testRandomMaps() {
+		Random random = new Random(0);
+		int reachable = 0;
+		for (int i = 0; i < 50; i++) {
+			boolean[][] map = getRandomMap(random, 5 + random.nextInt(15), 0.3);
+			JumpPointSearch search = new JumpPointSearch(map, 1, null);
+			for (int j = 0; j < 20; j++) {
+				int[] start = getRandomTile(random, map);
+				int[] goal = getRandomTile(random, map);
+				if (Arrays.equals(start, goal))
+					continue;
+				double expected = getShortestPathLength(map, start, goal);
+				List<Position> path = search.findPath(getCenter(start), getCenter(goal));
+				if (Double.isInfinite(expected)) {
+					Assert.assertTrue(path.isEmpty());
+				} else {
+					Assert.assertEquals(expected, getLength(map, getCenter(start), path), 1e-3);
+					reachable++;
+				}
+			}
+		}
+		Assert.assertTrue(reachable > 100);
+	}
+}
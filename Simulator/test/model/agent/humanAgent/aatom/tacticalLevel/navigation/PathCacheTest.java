@@ -0,0 +1,103 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.environment.position.Position;
+
+/**
+ * Tests the path cache.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class PathCacheTest {
+
+	/**
+	 * Tests clearing the cache.
+	 */
+	@Test
+	public void testClear() {
+		PathCache cache = new PathCache(10);
+		cache.put(1, 4, new int[] { 2, 4 });
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+		Assert.assertNull(cache.get(1, 4));
+	}
+
+	/**
+	 * Tests evicting the least recently used path.
+	 */
+	@Test
+	public void testEviction() {
+		PathCache cache = new PathCache(2);
+		cache.put(1, 10, new int[] { 10 });
+		cache.put(2, 10, new int[] { 10 });
+		cache.get(1, 10);
+		cache.put(3, 10, new int[] { 10 });
+		Assert.assertEquals(2, cache.size());
+		Assert.assertEquals(1, cache.getEvictions());
+		Assert.assertNotNull(cache.get(1, 10));
+		Assert.assertNull(cache.get(2, 10));
+		Assert.assertNotNull(cache.get(3, 10));
+	}
+
+	/**
+	 * Tests getting a path.
+	 */
+	@Test
+	public void testGet() {
+		PathCache cache = new PathCache(10);
+		Assert.assertNull(cache.get(1, 4));
+		cache.put(1, 4, new int[] { 2, 3, 4 });
+		int[] path = cache.get(1, 4);
+		Assert.assertArrayEquals(new int[] { 2, 3, 4 }, path);
+		path[0] = 7;
+		Assert.assertArrayEquals(new int[] { 2, 3, 4 }, cache.get(1, 4));
+		Assert.assertEquals(2, cache.getHits());
+		Assert.assertEquals(1, cache.getMisses());
+	}
+
+	/**
+	 * Tests that only the path of the exact start and goal tile is stored.
+	 */
+	@Test
+	public void testExactPath() {
+		PathCache cache = new PathCache(10);
+		cache.put(1, 9, new int[] { 3, 5, 6, 9 });
+		Assert.assertEquals(1, cache.size());
+		Assert.assertArrayEquals(new int[] { 3, 5, 6, 9 }, cache.get(1, 9));
+		Assert.assertNull(cache.get(3, 9));
+		Assert.assertNull(cache.get(5, 9));
+	}
+
+	/**
+	 * Tests that a jump point search with a path cache finds the same paths as
+	 * a search without one, on a map with random walls.
+	 */
+	@Test
+	public void testSamePaths() {
+		Random random = new Random(1);
+		boolean[][] map = new boolean[30][30];
+		for (int i = 0; i < 40; i++) {
+			int x = random.nextInt(30);
+			int y = random.nextInt(30);
+			for (int j = 0; j < 6; j++) {
+				if (random.nextBoolean())
+					map[y][Math.min(29, x + j)] = true;
+				else
+					map[Math.min(29, y + j)][x] = true;
+			}
+		}
+		PathCache cache = new PathCache(200);
+		JumpPointSearch cached = new JumpPointSearch(map, 0.5, cache);
+		JumpPointSearch uncached = new JumpPointSearch(map, 0.5, null);
+		for (int i = 0; i < 2000; i++) {
+			Position start = new Position(random.nextInt(6) * 2.5 + 0.1, random.nextInt(6) * 2.5 + 0.1);
+			Position goal = new Position(random.nextInt(3) * 6 + 1.2, 14.6);
+			Assert.assertEquals(uncached.findPath(start, goal), cached.findPath(start, goal));
+		}
+		Assert.assertTrue(cache.getHits() > 1000);
+	}
+}
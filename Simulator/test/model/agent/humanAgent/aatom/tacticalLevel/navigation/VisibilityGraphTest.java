@@ -0,0 +1,178 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.environment.objects.physicalObject.Wall;
+import model.environment.position.Position;
+import model.map.Map;
+
+/**
+ * Tests the visibility graph.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class VisibilityGraphTest {
+
+	/**
+	 * Creates a map of 40 by 40 meters with a wall from (19, 0) to (21, 30).
+	 * 
+	 * @return The map.
+	 */
+	private static Map getMap() {
+		Map map = new Map();
+		map.add(new Wall(0, 0, 40, 0.1));
+		map.add(new Wall(0, 39.9, 40, 0.1));
+		map.add(new Wall(19, 0, 2, 30));
+		return map;
+	}
+
+	/**
+	 * Tests that concurrent requests for a graph of the context share one
+	 * graph.
+	 * 
+	 * @throws Exception
+	 *             If a request fails.
+	 */
+	@Test
+	public void testConcurrentRequests() throws Exception {
+		final Map map = getMap();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<VisibilityGraph>> graphs = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				graphs.add(executor.submit(new Callable<VisibilityGraph>() {
+					@Override
+					public VisibilityGraph call() {
+						return map.getContext().getVisibilityGraph(0.3);
+					}
+				}));
+			}
+			for (Future<VisibilityGraph> graph : graphs)
+				Assert.assertSame(graphs.get(0).get(), graph.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Tests a path around a wall, which keeps the radius from the wall.
+	 */
+	@Test
+	public void testDetour() {
+		VisibilityGraph graph = new VisibilityGraph(getMap(), 0.5);
+		Position start = new Position(10, 10);
+		Position goal = new Position(30, 10);
+		List<Position> path = graph.findPath(start, goal);
+		Assert.assertNotNull(path);
+		Assert.assertEquals(3, path.size());
+		Assert.assertEquals(goal, path.get(2));
+		Position previous = start;
+		double length = 0;
+		for (Position position : path) {
+			// sample the segment and test the distance to the wall
+			for (int i = 0; i <= 100; i++) {
+				double x = previous.x + (position.x - previous.x) * i / 100;
+				double y = previous.y + (position.y - previous.y) * i / 100;
+				double dx = Math.max(0, Math.max(19 - x, x - 21));
+				double dy = Math.max(0, y - 30);
+				Assert.assertTrue(Math.hypot(dx, dy) >= 0.5 - 1e-6);
+			}
+			length += Math.hypot(position.x - previous.x, position.y - previous.y);
+			previous = position;
+		}
+		Assert.assertEquals(2 * Math.hypot(8.5, 20.5) + 3, length, 0.1);
+	}
+
+	/**
+	 * Tests a path without obstacles.
+	 */
+	@Test
+	public void testDirectPath() {
+		VisibilityGraph graph = new VisibilityGraph(getMap(), 0.5);
+		Position goal = new Position(15, 20);
+		List<Position> path = graph.findPath(new Position(5, 35), goal);
+		Assert.assertEquals(1, path.size());
+		Assert.assertEquals(goal, path.get(0));
+	}
+
+	/**
+	 * Tests a goal that lies in a wall.
+	 */
+	@Test
+	public void testGoalInWall() {
+		VisibilityGraph graph = new VisibilityGraph(getMap(), 0.5);
+		Position goal = new Position(20, 10);
+		List<Position> path = graph.findPath(new Position(30, 10), goal);
+		Assert.assertNotNull(path);
+		Assert.assertEquals(goal, path.get(path.size() - 1));
+	}
+
+	/**
+	 * Tests that a graph that is stored and loaded again gives the same paths.
+	 * 
+	 * @throws IOException
+	 *             If the graph cannot be stored.
+	 * @throws ClassNotFoundException
+	 *             If the graph cannot be loaded.
+	 */
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		VisibilityGraph graph = new VisibilityGraph(getMap(), 0.5);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(graph);
+		}
+		VisibilityGraph copy;
+		try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (VisibilityGraph) input.readObject();
+		}
+		Assert.assertEquals(graph.getNumberOfNodes(), copy.getNumberOfNodes());
+		Assert.assertEquals(graph.getNumberOfEdges(), copy.getNumberOfEdges());
+		Position start = new Position(10, 10);
+		Position goal = new Position(30, 10);
+		Assert.assertEquals(graph.findPath(start, goal), copy.findPath(start, goal));
+	}
+
+	/**
+	 * Tests that agents with about the same radius share the graph of the
+	 * context, of which the radius is rounded up to a multiple of 5 cm.
+	 */
+	@Test
+	public void testSharedRadius() {
+		Map map = getMap();
+		VisibilityGraph graph = map.getContext().getVisibilityGraph(0.21);
+		Assert.assertEquals(0.25, graph.getRadius(), 1e-9);
+		Assert.assertSame(graph, map.getContext().getVisibilityGraph(0.24));
+		Assert.assertSame(graph, map.getContext().getVisibilityGraph(0.25));
+		Assert.assertNotSame(graph, map.getContext().getVisibilityGraph(0.26));
+
+		VisibilityGraph precomputed = new VisibilityGraph(map, 0.4);
+		map.getContext().setVisibilityGraph(precomputed);
+		Assert.assertSame(precomputed, map.getContext().getVisibilityGraph(0.36));
+	}
+
+	/**
+	 * Tests a goal that cannot be reached.
+	 */
+	@Test
+	public void testUnreachable() {
+		Map map = getMap();
+		map.add(new Wall(19, 29, 21, 2));
+		map.add(new Wall(39, 0, 1, 31));
+		VisibilityGraph graph = new VisibilityGraph(map, 0.5);
+		Assert.assertNull(graph.findPath(new Position(10, 10), new Position(30, 10)));
+	}
+}
@@ -0,0 +1,135 @@
+package model.agent.humanAgent.aatom.tacticalLevel.navigation.pathfinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.DiscretizedMap;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.FlowField;
+import model.environment.objects.physicalObject.Wall;
+import model.environment.position.Position;
+import model.map.Map;
+
+/**
+ * Tests the flow field path finder.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class FlowFieldPathFinderTest {
+
+	/**
+	 * Creates a map of 20 by 20 meters with a wall from (9, 0) to (10, 15).
+	 * 
+	 * @param closed
+	 *            Close the gap above the wall or not.
+	 * @return The map.
+	 */
+	private static Map getMap(boolean closed) {
+		Map map = new Map();
+		map.add(new Wall(0, 0, 20, 0.1));
+		map.add(new Wall(0, 19.9, 20, 0.1));
+		map.add(new Wall(9, 0, 1, closed ? 22 : 15));
+		return map;
+	}
+
+	/**
+	 * Tests that concurrent requests for the same flow field share one flow
+	 * field.
+	 * 
+	 * @throws Exception
+	 *             If a request fails.
+	 */
+	@Test
+	public void testSharedFlowField() throws Exception {
+		final Map map = getMap(false);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<FlowField>> futures = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				final int destination = i % 2;
+				futures.add(executor.submit(new Callable<FlowField>() {
+					@Override
+					public FlowField call() {
+						return map.getContext().getFlowField(0.5, 30 + destination, 5);
+					}
+				}));
+			}
+			for (int i = 0; i < futures.size(); i++)
+				Assert.assertSame(futures.get(i % 2).get(), futures.get(i).get());
+			Assert.assertNotSame(futures.get(0).get(), futures.get(1).get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Tests a path around the wall.
+	 */
+	@Test
+	public void testPath() {
+		Map map = getMap(false);
+		FlowFieldPathFinder finder = new FlowFieldPathFinder(map, 0.5);
+		Position start = new Position(3, 3);
+		Position goal = new Position(17, 3);
+		List<Position> path = finder.getPath(start, goal);
+		Assert.assertTrue(path.size() > 1);
+		Assert.assertEquals(goal, path.get(path.size() - 1));
+
+		Position previous = start;
+		boolean aroundWall = false;
+		double length = 0;
+		for (Position position : path) {
+			Assert.assertFalse(map.isLineCollision(previous, position));
+			aroundWall |= position.y > 15;
+			length += previous.distanceTo(position);
+			previous = position;
+		}
+		Assert.assertTrue(aroundWall);
+		// the shortest path over the tiles around the wall, plus a margin
+		Assert.assertTrue(length < 2 * (6 * Math.sqrt(2) + 6) + 1 + 3);
+
+		// the next waypoint is the center of a neighboring tile
+		Position waypoint = finder.getNextWaypoint(start, goal);
+		Assert.assertTrue(waypoint.distanceTo(start) < 2 * Math.sqrt(2) * 0.5);
+		Assert.assertEquals(goal, finder.getNextWaypoint(goal, goal));
+	}
+
+	/**
+	 * Tests that the tiles are taken from the discretized map that is queried,
+	 * also when it is replaced after the path finder is created.
+	 */
+	@Test
+	public void testReplacedDiscretizedMap() {
+		Map map = getMap(false);
+		FlowFieldPathFinder finder = new FlowFieldPathFinder(map, 0.5);
+		// a free discretized map of 40 by 20 meters
+		map.getContext().setDiscretizedMap(0.5, new DiscretizedMap(new boolean[40][80]));
+		Position goal = new Position(30, 3);
+		Position start = new Position(25, 3);
+		Position waypoint = finder.getNextWaypoint(start, goal);
+		Assert.assertTrue(waypoint.x > start.x);
+		Assert.assertTrue(waypoint.distanceTo(start) < 2 * Math.sqrt(2) * 0.5);
+		Assert.assertEquals(goal, finder.getNextWaypoint(new Position(30.1, 3.1), goal));
+	}
+
+	/**
+	 * Tests a goal that cannot be reached, for which only the goal is
+	 * returned.
+	 */
+	@Test
+	public void testUnreachable() {
+		Map map = getMap(true);
+		FlowFieldPathFinder finder = new FlowFieldPathFinder(map, 0.5);
+		Position goal = new Position(17, 3);
+		List<Position> path = finder.getPath(new Position(3, 3), goal);
+		Assert.assertEquals(1, path.size());
+		Assert.assertEquals(goal, path.get(0));
+		Assert.assertEquals(goal, finder.getNextWaypoint(new Position(3, 3), goal));
+	}
+}
@@ -7,12 +7,14 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.PrimitiveHelbingMovementModuleTest;
 import model.environment.objects.area.GateArea;
 import model.environment.objects.area.QueuingArea;
 import model.environment.objects.physicalObject.Desk;
 import model.environment.position.Position;
 import simulation.simulation.Simulator;
 import simulation.simulation.endingCondition.BaseEndingConditions;
+import util.io.logger.Logger;
 
 /**
  * The flight test class.
@@ -44,6 +46,36 @@ public class FlightTest {
 		Assert.assertFalse(f.alreadyCheckedIn(p));
 	}
 
+	/**
+	 * Tests that the departure is scheduled on the timing wheel, and that it
+	 * counts the passengers that are not at the gate.
+	 */
+	@Test
+	public void testDeparture() {
+		GateArea gate = new GateArea(1, 1, 5, 5);
+		Flight f = new Flight(FlightType.DEPARTING, 10, gate, new ArrayList<Desk>(), null, null);
+		Simulator sim = new Simulator.Builder<>().setGui(false).setTimeStep(100).setLogger(Logger.NO_LOGGER)
+				.build();
+		sim.add(gate);
+		sim.add(f);
+		sim.add(PrimitiveHelbingMovementModuleTest.generateBaseAgent(new Position(30, 30), new Position(30, 31),
+				false));
+		sim.init();
+		Assert.assertEquals(1, sim.getMap().getContext().getTimingWheel().size());
+
+		for (int i = 0; i < 100; i++) {
+			Assert.assertFalse(f.timeToFlightExceeded());
+			Assert.assertEquals(10 - i * 0.1, f.getTimeToFlight(), 1e-4);
+			sim.step();
+		}
+		Assert.assertEquals(0, f.getNumberOfPassengersMissedFlight());
+		sim.step();
+		Assert.assertTrue(f.timeToFlightExceeded());
+		Assert.assertEquals(1, f.getNumberOfPassengersMissedFlight());
+		Assert.assertEquals(0, sim.getMap().getContext().getTimingWheel().size());
+		sim.endSimulation();
+	}
+
 	/**
 	 * Tests the flight constructor.
 	 */
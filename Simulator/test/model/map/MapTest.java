@@ -1,11 +1,23 @@
 package model.map;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import model.agent.Agent;
+import model.environment.objects.area.Area;
+import model.environment.objects.area.OpenArea;
 import model.environment.objects.physicalObject.PhysicalObject;
 import model.environment.objects.physicalObject.QueueSeparator;
 import model.environment.objects.physicalObject.Wall;
+import model.environment.position.Position;
+import simulation.simulation.util.Utilities;
+import simulation.simulation.util.SimulationContext;
+import util.math.RandomPlus;
 
 /**
  * Tests the map main functionalities.
@@ -40,6 +52,27 @@ public class MapTest {
 		Assert.assertTrue(m.getMapComponents(MapComponent.class).size() == 1);
 	}
 
+	/**
+	 * Tests that the components of a type stay in the order in which they
+	 * were added when components are removed.
+	 */
+	@Test
+	public void testRemoveOrder() {
+		Map m = new Map();
+		List<Wall> walls = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Wall w = new Wall(i, 1, 0.5, 0.5);
+			walls.add(w);
+			m.add(w);
+		}
+		m.remove(walls.remove(3));
+		m.remove(walls.remove(7));
+		m.remove(walls.remove(0));
+		Assert.assertEquals(new ArrayList<>(m.getMapComponents(Wall.class)), walls);
+		Assert.assertEquals(new ArrayList<>(m.getMapComponents(PhysicalObject.class)), walls);
+		Assert.assertEquals(m.getMapComponents(Object.class).size(), walls.size());
+	}
+
 	/**
 	 * Tests the constructor parameters.
 	 */
@@ -54,6 +87,156 @@ public class MapTest {
 		new Map(-1, -1);
 	}
 
+	/**
+	 * Tests that each map has its own context.
+	 */
+	@Test
+	public void testContext() {
+		Map m1 = new Map();
+		Map m2 = new Map();
+		Assert.assertNotSame(m1.getContext(), m2.getContext());
+		m1.add(new Wall(5, 5, 1, 1));
+		Assert.assertNotSame(m1.getContext().getDiscretizedMap(0.5), m2.getContext().getDiscretizedMap(0.5));
+		Assert.assertSame(m1.getContext().getDiscretizedMap(0.5), m1.getContext().getDiscretizedMap(0.5));
+
+		m1.updateTime(100);
+		Assert.assertEquals(0.1, m1.getTime(), 1e-9);
+		Assert.assertEquals(0, m2.getTime(), 1e-9);
+		Assert.assertEquals(1, m1.getContext().getStep());
+		Assert.assertEquals(0, m2.getContext().getStep());
+
+		SimulationContext context = new SimulationContext(m1, new RandomPlus(1));
+		m1.setContext(context);
+		Assert.assertSame(context, m1.getContext());
+		try {
+			m2.setContext(context);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+		}
+	}
+
+	/**
+	 * Creates an agent that does nothing.
+	 * 
+	 * @param x
+	 *            The x coordinate.
+	 * @param y
+	 *            The y coordinate.
+	 * @return The agent.
+	 */
+	private Agent createAgent(double x, double y) {
+		return new Agent(new Position(x, y)) {
+
+			@Override
+			public void update(int timeStep) {
+			}
+
+			@Override
+			public boolean wantsToBeDestoryed() {
+				return false;
+			}
+
+			@Override
+			public <T> Collection<T> getObservation(Class<T> type) {
+				return null;
+			}
+		};
+	}
+
+	/**
+	 * Tests the neighborhood queries of agents.
+	 */
+	@Test
+	public void testAgentsInNeighborhood() {
+		Map m = new Map();
+		Agent a1 = createAgent(10, 10);
+		Agent a2 = createAgent(3, 3);
+		Agent a3 = createAgent(10.5, 10.5);
+		Agent a4 = createAgent(11.9, 10);
+		m.add(a1);
+		m.add(a2);
+		m.add(a3);
+		m.add(a4);
+
+		Collection<Agent> agents = m.getAgentsInNeighborhood(new Position(10, 10), 1, Agent.class);
+		Assert.assertArrayEquals(new Agent[] { a1, a3 }, agents.toArray());
+		agents = m.getAgentsInNeighborhood(new Position(10, 10), 2, Agent.class);
+		Assert.assertArrayEquals(new Agent[] { a1, a3, a4 }, agents.toArray());
+		agents = m.getAgentsInNeighborhood(new Position(10, 10), 100, Agent.class);
+		Assert.assertArrayEquals(m.getMapComponents(Agent.class).toArray(), agents.toArray());
+
+		// move an agent
+		a2.position = new Position(9.5, 9.5);
+		m.updateAgentPosition(a2);
+		agents = m.getAgentsInNeighborhood(new Position(10, 10), 1, Agent.class);
+		Assert.assertArrayEquals(new Agent[] { a1, a2, a3 }, agents.toArray());
+
+		// remove an agent
+		m.remove(a1);
+		agents = m.getAgentsInNeighborhood(new Position(10, 10), 1, Agent.class);
+		Assert.assertArrayEquals(new Agent[] { a2, a3 }, agents.toArray());
+	}
+
+	/**
+	 * Tests the neighborhood and line collision queries of physical objects.
+	 */
+	@Test
+	public void testPhysicalObjectQueries() {
+		Map m = new Map();
+		Random random = new Random(0);
+		for (int i = 0; i < 200; i++)
+			m.add(new Wall(random.nextDouble() * 100, random.nextDouble() * 100, 0.1 + random.nextDouble() * 5,
+					0.1 + random.nextDouble() * 0.5));
+		Collection<PhysicalObject> objects = m.getMapComponents(PhysicalObject.class);
+
+		for (int i = 0; i < 1000; i++) {
+			Position start = new Position(random.nextDouble() * 110, random.nextDouble() * 110);
+			Position end = new Position(random.nextDouble() * 110, random.nextDouble() * 110);
+			double radius = random.nextDouble() * 5;
+			Assert.assertEquals(new ArrayList<>(Utilities.getMapComponentsInNeighborhood(start, radius, objects)),
+					m.getPhysicalObjectsInNeighborhood(start, radius));
+			Assert.assertEquals(Utilities.isLineCollision(start, end, objects), m.isLineCollision(start, end));
+		}
+
+		// the queries take objects that are added later into account
+		Wall w = new Wall(200, 200, 1, 1);
+		m.add(w);
+		Assert.assertTrue(m.getPhysicalObjectsInNeighborhood(new Position(200.5, 200.5), 0.1).contains(w));
+		Assert.assertTrue(m.isLineCollision(new Position(199, 199), new Position(202, 202)));
+		m.remove(w);
+		Assert.assertTrue(m.getPhysicalObjectsInNeighborhood(new Position(200.5, 200.5), 0.1).isEmpty());
+	}
+
+	/**
+	 * Tests the query of the areas that contain a position.
+	 */
+	@Test
+	public void testAreasContaining() {
+		Map m = new Map();
+		Random random = new Random(0);
+		for (int i = 0; i < 100; i++)
+			m.add(new OpenArea(random.nextDouble() * 100, random.nextDouble() * 100, 0.1 + random.nextDouble() * 10,
+					0.1 + random.nextDouble() * 10));
+		Collection<Area> areas = m.getMapComponents(Area.class);
+
+		for (int i = 0; i < 1000; i++) {
+			Position position = new Position(random.nextDouble() * 110, random.nextDouble() * 110);
+			Collection<Area> expected = new ArrayList<>();
+			for (Area area : areas) {
+				if (area.contains(position))
+					expected.add(area);
+			}
+			Assert.assertEquals(expected, m.getAreasContaining(position));
+		}
+
+		// the query takes areas that are added later into account
+		OpenArea a = new OpenArea(200, 200, 1, 1);
+		m.add(a);
+		Assert.assertTrue(m.getAreasContaining(new Position(200.5, 200.5)).contains(a));
+		m.remove(a);
+		Assert.assertTrue(m.getAreasContaining(new Position(200.5, 200.5)).isEmpty());
+	}
+
 	/**
 	 * Tests the automatic resizing of the map.
 	 */
@@ -71,4 +254,53 @@ public class MapTest {
 
 	}
 
+	/**
+	 * Tests the resizing of the map when agents are added, move and are
+	 * removed.
+	 */
+	@Test
+	public void testMapResizingWithAgents() {
+		Map m = new Map();
+		m.add(new Wall(0, 0, 10, 10));
+		Agent a1 = createAgent(20, 5);
+		Agent a2 = createAgent(15, 30);
+		Agent a3 = createAgent(12, 12);
+
+		// add
+		m.add(a1);
+		m.add(a2);
+		m.add(a3);
+		Assert.assertEquals(21, m.getWidth(), 0.001);
+		Assert.assertEquals(31, m.getHeight(), 0.001);
+
+		// move inward and outward
+		a1.position = new Position(5, 5);
+		m.updateAgentPositions();
+		Assert.assertEquals(16, m.getWidth(), 0.001);
+		Assert.assertEquals(31, m.getHeight(), 0.001);
+		a2.position = new Position(17, 40);
+		m.updateAgentPositions();
+		Assert.assertEquals(18, m.getWidth(), 0.001);
+		Assert.assertEquals(41, m.getHeight(), 0.001);
+		// an agent without the largest coordinates moves past them
+		a3.position = new Position(24, 12);
+		m.updateAgentPositions();
+		Assert.assertEquals(25, m.getWidth(), 0.001);
+		Assert.assertEquals(41, m.getHeight(), 0.001);
+		a3.position = new Position(12, 12);
+		m.updateAgentPositions();
+		Assert.assertEquals(18, m.getWidth(), 0.001);
+
+		// remove
+		m.remove(a2);
+		Assert.assertEquals(13, m.getWidth(), 0.001);
+		Assert.assertEquals(13, m.getHeight(), 0.001);
+		m.remove(a3);
+		Assert.assertEquals(11, m.getWidth(), 0.001);
+		Assert.assertEquals(11, m.getHeight(), 0.001);
+		m.remove(a1);
+		Assert.assertEquals(11, m.getWidth(), 0.001);
+		Assert.assertEquals(11, m.getHeight(), 0.001);
+	}
+
 }
@@ -0,0 +1,186 @@
+package simulation.main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.PrimitiveHelbingMovementModuleTest;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.DiscretizedMap;
+import model.environment.objects.area.EntranceArea;
+import model.environment.objects.physicalObject.Wall;
+import model.environment.position.Position;
+import simulation.simulation.Simulator;
+import simulation.simulation.endingCondition.EndingConditions;
+import util.io.logger.Logger;
+
+/**
+ * Tests the experimenter with simulations in this process.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class ExperimenterTest {
+
+	/**
+	 * Ending conditions that end a simulation after a number of steps and
+	 * return the positions of the passengers.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	private static class PositionEndingConditions extends EndingConditions {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * The number of steps.
+		 */
+		private final long numberOfSteps;
+
+		/**
+		 * Creates the ending conditions.
+		 * 
+		 * @param numberOfSteps
+		 *            The number of steps.
+		 */
+		private PositionEndingConditions(long numberOfSteps) {
+			this.numberOfSteps = numberOfSteps;
+		}
+
+		@Override
+		public Object[] getReturnValues() {
+			List<Position> positions = new ArrayList<>();
+			for (Passenger passenger : simulator.getMap().getMapComponents(Passenger.class))
+				positions.add(passenger.getPosition());
+			return positions.toArray();
+		}
+
+		@Override
+		public boolean hasEnded(long numberOfSteps) {
+			return numberOfSteps >= this.numberOfSteps || super.hasEnded(numberOfSteps);
+		}
+	}
+
+	/**
+	 * Adds passengers that walk from the left to a random goal on the right
+	 * of a simulator.
+	 * 
+	 * @param simulator
+	 *            The simulator.
+	 * @param starts
+	 *            The start positions of the passengers.
+	 */
+	private static void addPassengers(Simulator simulator, List<Position> starts) {
+		for (Position start : starts) {
+			Position goal = new Position(15, 1 + 8 * simulator.getContext().getRandomGenerator().nextDouble());
+			simulator.add(PrimitiveHelbingMovementModuleTest.generateBaseAgent(start, goal, false));
+		}
+	}
+
+	/**
+	 * Asserts that the results of an experiment with the seeds 1 and 2 are the
+	 * results of an experiment with the seeds 2 and 1, and that they depend on
+	 * the seed.
+	 * 
+	 * @param experiment
+	 *            The experiment with the seeds 1 and 2.
+	 * @param reversedExperiment
+	 *            The experiment with the seeds 2 and 1.
+	 */
+	private static void assertSameResults(Experimenter experiment, Experimenter reversedExperiment) {
+		List<Object[]> results = experiment.getReturnValues();
+		List<Object[]> reversedResults = reversedExperiment.getReturnValues();
+		Assert.assertEquals(4, results.get(0).length);
+		Assert.assertArrayEquals(results.get(0), reversedResults.get(1));
+		Assert.assertArrayEquals(results.get(1), reversedResults.get(0));
+		Assert.assertFalse(Arrays.equals(results.get(0), results.get(1)));
+	}
+
+	/**
+	 * Draws start positions from the random generator of the current thread.
+	 * 
+	 * @return The start positions.
+	 */
+	private static List<Position> generateStarts() {
+		EntranceArea entrance = new EntranceArea(1, 1, 3, 8);
+		List<Position> starts = new ArrayList<>();
+		for (int i = 0; i < 4; i++)
+			starts.add(entrance.generatePosition());
+		return starts;
+	}
+
+	/**
+	 * Creates a list of inputs that each contain a random seed.
+	 * 
+	 * @param seeds
+	 *            The random seeds.
+	 * @return The inputs.
+	 */
+	private static List<String[]> getInputs(String... seeds) {
+		List<String[]> inputs = new ArrayList<>();
+		for (String seed : seeds)
+			inputs.add(new String[] { seed });
+		return inputs;
+	}
+
+	/**
+	 * Tests that the branches of a simulator share its discretized map and
+	 * that their results only depend on their inputs.
+	 */
+	@Test
+	public void testBranches() {
+		Simulator simulator = new Simulator.Builder<>().setGui(false).setLogger(Logger.NO_LOGGER)
+				.setEndingConditions(new PositionEndingConditions(100)).build();
+		simulator.add(new Wall(8, 4, 0.1, 2));
+		final DiscretizedMap discretizedMap = simulator.getContext().getDiscretizedMap(1);
+		final List<DiscretizedMap> discretizedMaps = Collections.synchronizedList(new ArrayList<DiscretizedMap>());
+		BranchConfigurator configurator = new BranchConfigurator() {
+			@Override
+			public void configure(Simulator branch, String[] input) {
+				discretizedMaps.add(branch.getContext().getDiscretizedMap(1));
+				branch.getContext().getRandomGenerator().setSeed(Long.parseLong(input[0]));
+				addPassengers(branch, generateStarts());
+			}
+		};
+		Experimenter parallel = new Experimenter(getInputs("1", "2"), simulator, configurator, 2);
+		parallel.run();
+		Experimenter sequential = new Experimenter(getInputs("2", "1"), simulator, configurator, 1);
+		sequential.run();
+
+		assertSameResults(parallel, sequential);
+		Assert.assertEquals(4, discretizedMaps.size());
+		for (DiscretizedMap map : discretizedMaps)
+			Assert.assertSame(discretizedMap, map);
+	}
+
+	/**
+	 * Tests that simulations that run at the same time have the same results
+	 * as simulations that run one by one in another order, also if the
+	 * factory draws random numbers before it creates the simulator.
+	 */
+	@Test
+	public void testSimulatorFactory() {
+		SimulatorFactory factory = new SimulatorFactory() {
+			@Override
+			public Simulator createSimulator(String[] input) {
+				List<Position> starts = generateStarts();
+				Simulator simulator = new Simulator.Builder<>().setGui(false).setLogger(Logger.NO_LOGGER)
+						.setRandomSeed(Long.parseLong(input[0])).setEndingConditions(new PositionEndingConditions(100))
+						.build();
+				addPassengers(simulator, starts);
+				return simulator;
+			}
+		};
+		Experimenter parallel = new Experimenter(getInputs("1", "2"), factory, 2);
+		parallel.run();
+		Experimenter sequential = new Experimenter(getInputs("2", "1"), factory, 1);
+		sequential.run();
+
+		assertSameResults(parallel, sequential);
+	}
+}
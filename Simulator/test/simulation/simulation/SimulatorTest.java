@@ -0,0 +1,485 @@
+package simulation.simulation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.operationalLevel.action.communication.CommunicationType;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.Activity;
+import model.agent.humanAgent.aatom.tacticalLevel.navigation.DiscretizedMap;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.PrimitiveHelbingMovementModuleTest;
+import model.environment.objects.area.EntranceArea;
+import model.environment.objects.area.Restaurant;
+import model.environment.objects.area.Toilet;
+import model.environment.objects.flight.Flight;
+import model.environment.objects.physicalObject.Wall;
+import model.environment.objects.physicalObject.sensor.XRaySystem;
+import model.environment.position.Position;
+import simulation.modelBuilder.ModelBuilder;
+import simulation.simulation.util.SimulationContext;
+import util.io.logger.Logger;
+
+/**
+ * Tests the simulator.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class SimulatorTest {
+
+	/**
+	 * The positions of the passengers of the airport simulation with random
+	 * seed 3 after 3400 steps, in which they wait for 30 seconds from step
+	 * 3000. They were recorded before agents could be dormant, when all
+	 * agents were updated every step.
+	 */
+	private static final Position[] BASELINE_POSITIONS = {
+			new Position(55.223526f, 36.318707f),
+			new Position(29.660103f, 58.910194f),
+			new Position(33.885605f, 49.635216f),
+			new Position(35.971645f, 53.959614f),
+			new Position(43.980724f, 33.883987f),
+			new Position(27.471697f, 50.845932f),
+			new Position(32.127125f, 53.921635f),
+			new Position(31.062368f, 59.01499f),
+			new Position(37.193726f, 49.64285f),
+			new Position(27.481375f, 52.06447f),
+			new Position(14.7f, 23.3f),
+			new Position(14.7f, 25.099998f),
+			new Position(32.617474f, 50.851627f),
+			new Position(25.559298f, 29.569237f),
+			new Position(35.968433f, 47.321453f),
+			new Position(19.599998f, 23.3f),
+			new Position(35.274414f, 49.721386f),
+			new Position(20.62776f, 42.30873f),
+			new Position(29.555183f, 60.827286f),
+			new Position(36.33228f, 49.73287f),
+			new Position(31.542715f, 60.86083f),
+			new Position(16.8f, 28.699999f),
+			new Position(33.545807f, 53.975792f),
+			new Position(36.70687f, 47.975338f),
+			new Position(31.74233f, 40.35781f),
+			new Position(31.723871f, 51.65374f),
+			new Position(37.34385f, 48.740467f),
+			new Position(33.538197f, 55.794117f),
+			new Position(31.041298f, 60.78457f),
+			new Position(36.85901f, 55.03067f),
+			new Position(34.05534f, 53.878227f),
+			new Position(33.43107f, 60.794827f),
+			new Position(31.076797f, 60.113052f),
+			new Position(35.357224f, 61.085205f),
+			new Position(32.201557f, 55.830532f),
+			new Position(42.298893f, 64.550575f),
+			new Position(33.518974f, 58.92647f),
+			new Position(35.94134f, 55.817276f),
+			new Position(44.52817f, 62.545807f),
+			new Position(51.16399f, 60.22505f),
+			new Position(38.5186f, 65.21089f),
+			new Position(38.86236f, 61.546368f),
+			new Position(49.35416f, 61.24279f),
+			new Position(50.889015f, 61.24586f),
+			new Position(66.6983f, 64.02867f),
+			new Position(49.738995f, 60.241795f),
+			new Position(48.210148f, 60.23625f),
+			new Position(40.971027f, 64.5504f),
+			new Position(48.614254f, 62.249695f) };
+
+	/**
+	 * Generates a simulator with passengers that walk in separate lanes, or
+	 * towards each other through a corridor.
+	 * 
+	 * @param parallelism
+	 *            The number of threads that update the agents.
+	 * @param interacting
+	 *            The passengers walk towards each other or not.
+	 * @param agents
+	 *            The list to which the passengers are added.
+	 * @return The simulator.
+	 */
+	private Simulator generateSimulator(int parallelism, boolean interacting, List<Passenger> agents) {
+		Simulator simulator = new Simulator.Builder<>().setGui(false).setRandomSeed(3).setParallelism(parallelism)
+				.setLogger(Logger.NO_LOGGER).build();
+		if (interacting) {
+			simulator.add(new Wall(5, 2, 0.1, 4));
+			simulator.add(new Wall(5, 7, 0.1, 4));
+			agents.add(generateAgent(new Position(1, 6), new Position(10, 6)));
+			agents.add(generateAgent(new Position(10, 6.2), new Position(1, 6)));
+			agents.add(generateAgent(new Position(2, 6.8), new Position(9, 6.5)));
+			agents.add(generateAgent(new Position(9, 6.6), new Position(2, 6.2)));
+		} else {
+			for (int i = 0; i < 4; i++) {
+				simulator.add(new Wall(5, 3 * i + 2, 0.1, 1));
+				agents.add(generateAgent(new Position(1, 3 * i + 1.5), new Position(10, 3 * i + 3.5)));
+			}
+		}
+		for (Passenger agent : agents)
+			simulator.add(agent);
+		simulator.init();
+		return simulator;
+	}
+
+	/**
+	 * Generates a passenger that walks with the Helbing movement module and
+	 * does not make random choices.
+	 * 
+	 * @param start
+	 *            The start position.
+	 * @param goal
+	 *            The goal position.
+	 * @return The passenger.
+	 */
+	private Passenger generateAgent(Position start, Position goal) {
+		return PrimitiveHelbingMovementModuleTest.generateBaseAgent(start, goal, false);
+	}
+
+	/**
+	 * Generates a simulation of an airport, in which a number of passengers
+	 * visit a restaurant or toilet and navigate with flow fields.
+	 * 
+	 * @param randomSeed
+	 *            The random seed.
+	 * @return The simulator.
+	 */
+	private Simulator generateAirport(long randomSeed) {
+		return generateAirport(randomSeed, true);
+	}
+
+	/**
+	 * Generates a simulation of an airport, in which a number of passengers
+	 * visit a restaurant or toilet and navigate with flow fields.
+	 * 
+	 * @param randomSeed
+	 *            The random seed.
+	 * @param dormancy
+	 *            Agents can be dormant or not.
+	 * @return The simulator.
+	 */
+	private Simulator generateAirport(long randomSeed, boolean dormancy) {
+		Simulator simulator = ModelBuilder.rotterdamTheHagueAirport(new Simulator.Builder<>().setGui(false)
+				.setTimeStep(100).setRandomSeed(randomSeed).setDormancy(dormancy).setLogger(Logger.NO_LOGGER));
+		List<Flight> flights = new ArrayList<>();
+		for (Flight flight : simulator.getMap().getMapComponents(Flight.class)) {
+			if (flight.getTimeToFlight() > 1800)
+				flights.add(flight);
+		}
+		List<EntranceArea> entrances = new ArrayList<>(simulator.getMap().getMapComponents(EntranceArea.class));
+		for (int i = 0; i < 10; i++) {
+			Position start = entrances.get(i % entrances.size())
+					.generatePosition(simulator.getContext().getRandomGenerator());
+			simulator.add(new Passenger.Builder<>().setFlight(flights.get(i % flights.size())).setPosition(start)
+					.setFacility(i % 2 == 0 ? Restaurant.class : Toilet.class).setFlowFieldNavigation(true).build());
+		}
+		simulator.init();
+		return simulator;
+	}
+
+	/**
+	 * Gets the positions of all passengers of a simulator.
+	 * 
+	 * @param simulator
+	 *            The simulator.
+	 * @return The positions.
+	 */
+	private List<Position> getPositions(Simulator simulator) {
+		List<Position> positions = new ArrayList<>();
+		for (Passenger passenger : simulator.getMap().getMapComponents(Passenger.class))
+			positions.add(passenger.getPosition());
+		return positions;
+	}
+
+	/**
+	 * Steps two simulators and checks that their agents follow the same
+	 * trajectories.
+	 * 
+	 * @param first
+	 *            The first simulator.
+	 * @param firstAgents
+	 *            The agents of the first simulator.
+	 * @param second
+	 *            The second simulator.
+	 * @param secondAgents
+	 *            The agents of the second simulator.
+	 */
+	private void assertSameTrajectories(Simulator first, List<Passenger> firstAgents, Simulator second,
+			List<Passenger> secondAgents) {
+		List<Position> starts = new ArrayList<>();
+		for (Passenger agent : firstAgents)
+			starts.add(agent.getPosition());
+		for (int i = 0; i < 200; i++) {
+			first.step();
+			second.step();
+			for (int j = 0; j < firstAgents.size(); j++) {
+				Assert.assertEquals(firstAgents.get(j).getPosition(), secondAgents.get(j).getPosition());
+				Assert.assertEquals(firstAgents.get(j).getCurrentVelocity(), secondAgents.get(j).getCurrentVelocity());
+			}
+		}
+		for (int j = 0; j < firstAgents.size(); j++)
+			Assert.assertTrue(firstAgents.get(j).getPosition().distanceTo(starts.get(j)) > 1);
+		first.endSimulation();
+		second.endSimulation();
+	}
+
+	/**
+	 * A default run, in which passengers that sit at the gate or wait can be
+	 * dormant, follows the trajectory that was recorded when all agents were
+	 * updated every step. The timers of dormant passengers are caught up
+	 * with the same floating point additions as in the updates, such that
+	 * the stop order of the waiting passengers ends in the same step.
+	 */
+	@Test
+	public void testBaselineTrajectory() {
+		Simulator simulator = generateAirport(3);
+		Assert.assertTrue(simulator.getContext().isDormancy());
+		int dormantSteps = 0;
+		for (int i = 0; i < 3400; i++) {
+			if (i == 3000) {
+				for (Passenger passenger : simulator.getMap().getMapComponents(Passenger.class))
+					passenger.communicate(CommunicationType.WAIT, 30.0);
+			}
+			simulator.step();
+			for (Passenger passenger : simulator.getMap().getMapComponents(Passenger.class)) {
+				if (passenger.isDormant())
+					dormantSteps++;
+			}
+		}
+		Assert.assertTrue(dormantSteps > 0);
+		Assert.assertEquals(Arrays.asList(BASELINE_POSITIONS), getPositions(simulator));
+		simulator.endSimulation();
+	}
+
+	/**
+	 * Passengers that are dormant while they sit at the gate or wait in a
+	 * restaurant, toilet or on request follow the same trajectories and end in
+	 * the same state as passengers that are updated every step.
+	 */
+	@Test
+	public void testDormancy() {
+		Simulator simulator = generateAirport(3, true);
+		Simulator reference = generateAirport(3, false);
+		List<Passenger> passengers = new ArrayList<>(simulator.getMap().getMapComponents(Passenger.class));
+		List<Passenger> referencePassengers = new ArrayList<>(reference.getMap().getMapComponents(Passenger.class));
+		int dormantSteps = 0;
+		for (int i = 0; i < 7000; i++) {
+			if (i == 3000) {
+				// all passengers wait for 30 seconds
+				for (Passenger passenger : simulator.getMap().getMapComponents(Passenger.class))
+					passenger.communicate(CommunicationType.WAIT, 30.0);
+				for (Passenger passenger : reference.getMap().getMapComponents(Passenger.class))
+					passenger.communicate(CommunicationType.WAIT, 30.0);
+			}
+			simulator.step();
+			reference.step();
+			Assert.assertEquals(getPositions(reference), getPositions(simulator));
+			for (Passenger passenger : simulator.getMap().getMapComponents(Passenger.class)) {
+				if (passenger.isDormant())
+					dormantSteps++;
+			}
+		}
+		Assert.assertTrue(dormantSteps > 0);
+		for (Passenger passenger : referencePassengers)
+			Assert.assertFalse(passenger.isDormant());
+
+		// passengers that are dormant catch up when they are woken up by a
+		// communication, which does not change anything else
+		for (Passenger passenger : passengers)
+			passenger.communicate(CommunicationType.GOTO, null);
+		for (Passenger passenger : referencePassengers)
+			passenger.communicate(CommunicationType.GOTO, null);
+		for (int i = 0; i < 100; i++) {
+			simulator.step();
+			reference.step();
+		}
+		for (int i = 0; i < passengers.size(); i++) {
+			Passenger passenger = passengers.get(i);
+			Passenger referencePassenger = referencePassengers.get(i);
+			Assert.assertEquals(referencePassenger.getPosition(), passenger.getPosition());
+			Assert.assertEquals(referencePassenger.isSitting(), passenger.isSitting());
+			Assert.assertEquals(referencePassenger.getCurrentVelocity(), passenger.getCurrentVelocity());
+			Activity activity = passenger.getActiveActivity();
+			Activity referenceActivity = referencePassenger.getActiveActivity();
+			Assert.assertEquals(referenceActivity == null ? null : referenceActivity.getClass(),
+					activity == null ? null : activity.getClass());
+		}
+		simulator.endSimulation();
+		reference.endSimulation();
+	}
+
+	/**
+	 * A branch continues exactly like its parent, also if they are stepped in
+	 * turns on the same thread, since each step binds the context of the
+	 * simulator to the thread.
+	 */
+	@Test
+	public void testFork() {
+		List<Passenger> agents = new ArrayList<>();
+		Simulator simulator = generateSimulator(1, true, agents);
+		for (int i = 0; i < 50; i++)
+			simulator.step();
+		Simulator branch = simulator.fork(1).get(0);
+		branch.init();
+		Assert.assertNotSame(simulator.getMap(), branch.getMap());
+		Assert.assertEquals(getPositions(simulator), getPositions(branch));
+
+		for (int i = 0; i < 150; i++) {
+			branch.step();
+			Assert.assertSame(branch.getContext(), SimulationContext.current());
+			simulator.step();
+			Assert.assertSame(simulator.getContext(), SimulationContext.current());
+			Assert.assertEquals(getPositions(simulator), getPositions(branch));
+		}
+		Assert.assertEquals(simulator.getNumberOfSteps(), branch.getNumberOfSteps());
+	}
+
+	/**
+	 * Forking does not change the parent, forking the same state again gives
+	 * the same branches, and the branches have different random streams. The
+	 * discretized maps are shared with the branches and are not changed by
+	 * them.
+	 */
+	@Test
+	public void testForkRandomStreams() {
+		Simulator simulator = generateAirport(3);
+		Simulator twin = generateAirport(3);
+		Simulator reference = generateAirport(3);
+		for (int i = 0; i < 200; i++) {
+			simulator.step();
+			twin.step();
+			reference.step();
+		}
+
+		List<DiscretizedMap> discretizedMaps = new ArrayList<>(simulator.getContext().getDiscretizedMaps());
+		Assert.assertFalse(discretizedMaps.isEmpty());
+		List<boolean[][]> grids = new ArrayList<>();
+		for (DiscretizedMap discretizedMap : discretizedMaps) {
+			boolean[][] grid = new boolean[discretizedMap.getMap().length][];
+			for (int y = 0; y < grid.length; y++)
+				grid[y] = discretizedMap.getMap()[y].clone();
+			grids.add(grid);
+		}
+
+		List<Simulator> branches = simulator.fork(2);
+		List<Simulator> twinBranches = twin.fork(2);
+		for (Simulator branch : branches)
+			Assert.assertTrue(branch.getContext().getDiscretizedMaps().containsAll(discretizedMaps));
+		// closing an x-ray system in a branch does not affect the others
+		XRaySystem xRaySystem = branches.get(0).getMap().getMapComponents(XRaySystem.class).iterator().next();
+		xRaySystem.setOpen(false);
+		twinBranches.get(0).getMap().getMapComponents(XRaySystem.class).iterator().next().setOpen(false);
+		for (XRaySystem other : simulator.getMap().getMapComponents(XRaySystem.class))
+			Assert.assertTrue(other.isOpen());
+
+		List<Simulator> simulators = new ArrayList<>();
+		simulators.add(simulator);
+		simulators.add(reference);
+		simulators.addAll(branches);
+		simulators.addAll(twinBranches);
+		for (int i = 2; i < simulators.size(); i++)
+			simulators.get(i).init();
+		for (int i = 0; i < 300; i++) {
+			for (Simulator s : simulators)
+				s.step();
+		}
+
+		Assert.assertEquals(getPositions(reference), getPositions(simulator));
+		Assert.assertEquals(getPositions(branches.get(0)), getPositions(twinBranches.get(0)));
+		Assert.assertEquals(getPositions(branches.get(1)), getPositions(twinBranches.get(1)));
+		Assert.assertNotEquals(getPositions(branches.get(0)), getPositions(branches.get(1)));
+		Assert.assertNotEquals(getPositions(simulator), getPositions(branches.get(1)));
+		for (int i = 0; i < discretizedMaps.size(); i++)
+			Assert.assertTrue(Arrays.deepEquals(grids.get(i), discretizedMaps.get(i).getMap()));
+	}
+
+	/**
+	 * Interacting agents see the state of the previous step when they are
+	 * updated in parallel, so their trajectories do not depend on the number
+	 * of threads.
+	 */
+	@Test
+	public void testParallelInteraction() {
+		List<Passenger> agents = new ArrayList<>();
+		List<Passenger> parallelAgents = new ArrayList<>();
+		assertSameTrajectories(generateSimulator(2, true, agents), agents, generateSimulator(4, true, parallelAgents),
+				parallelAgents);
+	}
+
+	/**
+	 * Interacting agents that are updated one by one see the moves of the
+	 * agents before them in the same step, and agents that are updated in
+	 * parallel see the previous step. The trajectories are the same until the
+	 * agents observe each other, and then stay within a fraction of a meter,
+	 * after which the agents end at about the same positions.
+	 */
+	@Test
+	public void testParallelInteractionComparedToSequential() {
+		List<Passenger> agents = new ArrayList<>();
+		List<Passenger> parallelAgents = new ArrayList<>();
+		Simulator simulator = generateSimulator(1, true, agents);
+		Simulator parallelSimulator = generateSimulator(4, true, parallelAgents);
+		double maximumDistance = 0;
+		for (int i = 0; i < 200; i++) {
+			simulator.step();
+			parallelSimulator.step();
+			for (int j = 0; j < agents.size(); j++) {
+				double distance = agents.get(j).getPosition().distanceTo(parallelAgents.get(j).getPosition());
+				if (i < 3)
+					Assert.assertEquals(0, distance, 0);
+				Assert.assertTrue(distance < 1);
+				maximumDistance = Math.max(maximumDistance, distance);
+			}
+		}
+		// the agents interact
+		Assert.assertTrue(maximumDistance > 0.1);
+		for (int j = 0; j < agents.size(); j++)
+			Assert.assertEquals(0, agents.get(j).getPosition().distanceTo(parallelAgents.get(j).getPosition()), 0.25);
+		simulator.endSimulation();
+		parallelSimulator.endSimulation();
+	}
+
+	/**
+	 * Agents that do not observe each other follow the same trajectories
+	 * with parallel (two-phase) and sequential updating.
+	 */
+	@Test
+	public void testParallelUpdate() {
+		List<Passenger> agents = new ArrayList<>();
+		List<Passenger> parallelAgents = new ArrayList<>();
+		assertSameTrajectories(generateSimulator(1, false, agents), agents, generateSimulator(4, false, parallelAgents),
+				parallelAgents);
+	}
+
+	/**
+	 * A simulation that is restored from a snapshot continues exactly like
+	 * the original simulation, also if the passengers navigate with flow
+	 * fields (which are not part of the snapshot).
+	 * 
+	 * @throws IOException
+	 *             If the snapshot cannot be written or read.
+	 */
+	@Test
+	public void testSnapshot() throws IOException {
+		Simulator simulator = generateAirport(3);
+		for (int i = 0; i < 300; i++)
+			simulator.step();
+		File file = File.createTempFile("snapshot", ".bin");
+		file.deleteOnExit();
+		simulator.saveSnapshot(file.getPath());
+		Simulator restored = new Simulator.Builder<>().setGui(false).setLogger(Logger.NO_LOGGER)
+				.buildFromSnapshot(file.getPath());
+		restored.init();
+		Assert.assertEquals(getPositions(simulator), getPositions(restored));
+
+		for (int i = 0; i < 300; i++) {
+			simulator.step();
+			restored.step();
+		}
+		Assert.assertEquals(simulator.getNumberOfSteps(), restored.getNumberOfSteps());
+		Assert.assertFalse(getPositions(simulator).isEmpty());
+		Assert.assertEquals(getPositions(simulator), getPositions(restored));
+		file.delete();
+	}
+}
@@ -0,0 +1,122 @@
+package simulation.simulation.profiler;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.environment.objects.physicalObject.Wall;
+import simulation.simulation.Simulator;
+import util.io.logger.Logger;
+
+/**
+ * Tests the step profiler.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class StepProfilerTest {
+
+	/**
+	 * Sums the buckets of a histogram.
+	 * 
+	 * @param histogram
+	 *            The histogram.
+	 * @return The sum.
+	 */
+	private long sum(long[] histogram) {
+		long sum = 0;
+		for (long count : histogram)
+			sum += count;
+		return sum;
+	}
+
+	/**
+	 * Tests the recording of a phase.
+	 */
+	@Test
+	public void testRecordPhase() {
+		StepProfiler profiler = new StepProfiler();
+		profiler.recordPhase(StepPhase.UPDATE, System.nanoTime() - 1000000);
+		TimingStatistics statistics = profiler.getPhaseStatistics(StepPhase.UPDATE);
+		Assert.assertEquals(1, statistics.getCount());
+		Assert.assertTrue(statistics.getTotal() >= 1000000);
+
+		long[] histogram = profiler.getPhaseHistograms().get(StepPhase.UPDATE.name());
+		Assert.assertEquals(TimingStatistics.NUMBER_OF_BUCKETS, histogram.length);
+		Assert.assertEquals(1, sum(histogram));
+		int bucket = 63 - Long.numberOfLeadingZeros(statistics.getTotal());
+		Assert.assertEquals(1, histogram[bucket]);
+		Assert.assertEquals(0, sum(profiler.getPhaseHistograms().get(StepPhase.GUI.name())));
+
+		profiler.reset();
+		Assert.assertEquals(0, sum(profiler.getPhaseHistograms().get(StepPhase.UPDATE.name())));
+		Assert.assertEquals(0, profiler.getPhaseTotals().get(StepPhase.UPDATE.name()).longValue());
+	}
+
+	/**
+	 * Tests the recording of the duration of a phase.
+	 */
+	@Test
+	public void testRecordPhaseDuration() {
+		StepProfiler profiler = new StepProfiler();
+		profiler.recordPhaseDuration(StepPhase.REMOVAL, 3000);
+		profiler.recordPhaseDuration(StepPhase.REMOVAL, 5000);
+		TimingStatistics statistics = profiler.getPhaseStatistics(StepPhase.REMOVAL);
+		Assert.assertEquals(2, statistics.getCount());
+		Assert.assertEquals(8000, statistics.getTotal());
+		Assert.assertEquals(3000, statistics.getMinimum());
+		Assert.assertEquals(5000, statistics.getMaximum());
+		Assert.assertEquals(8000, profiler.getPhaseTotals().get(StepPhase.REMOVAL.name()).longValue());
+	}
+
+	/**
+	 * Tests the phase timings of a profiled simulation, also through the
+	 * platform MBean server.
+	 * 
+	 * @throws Exception
+	 *             If the MBean cannot be read.
+	 */
+	@Test
+	public void testSimulatorProfiling() throws Exception {
+		Simulator simulator = new Simulator.Builder<>().setGui(false).setLogger(Logger.NO_LOGGER)
+				.setSimulationName("StepProfilerTest").setProfiling(true).build();
+		simulator.add(new Wall(0, 0, 10, 0.1));
+		simulator.init();
+		for (int i = 0; i < 10; i++)
+			simulator.step();
+
+		StepProfiler profiler = simulator.getProfiler();
+		Assert.assertEquals(10, profiler.getStepCount());
+		Assert.assertEquals(10, sum(profiler.getStepHistogram()));
+		long phaseTotal = 0;
+		Map<String, long[]> histograms = profiler.getPhaseHistograms();
+		for (StepPhase phase : StepPhase.values()) {
+			Assert.assertEquals(10, profiler.getPhaseStatistics(phase).getCount());
+			Assert.assertEquals(10, sum(histograms.get(phase.name())));
+			phaseTotal += profiler.getPhaseTotals().get(phase.name());
+		}
+		// the phases follow each other, so together they make up the step
+		Assert.assertEquals(profiler.getTotalStepTime(), phaseTotal);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		Set<ObjectName> names = server
+				.queryNames(new ObjectName("AATOM:type=StepProfiler,name=\"StepProfilerTest@*\""), null);
+		Assert.assertEquals(1, names.size());
+		ObjectName name = names.iterator().next();
+		TabularData table = (TabularData) server.getAttribute(name, "PhaseHistograms");
+		Assert.assertEquals(StepPhase.values().length, table.size());
+		CompositeData row = table.get(new Object[] { StepPhase.UPDATE.name() });
+		Assert.assertEquals(10, sum((long[]) row.get("value")));
+		Assert.assertEquals(10, sum((long[]) server.getAttribute(name, "StepHistogram")));
+
+		simulator.endSimulation();
+		Assert.assertTrue(server.queryNames(name, null).isEmpty());
+	}
+}
@@ -0,0 +1,159 @@
+package simulation.simulation.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import simulation.simulation.util.TimingWheel.Timer;
+
+/**
+ * Tests the timing wheel.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TimingWheelTest {
+
+	/**
+	 * An event that records the steps in which it is fired.
+	 * 
+	 * @author S.A.M. Janssen
+	 */
+	@SuppressWarnings("serial")
+	private static class RecordingEvent implements TimedEvent {
+		/**
+		 * The identifier of the event.
+		 */
+		private final long id;
+		/**
+		 * The fired events, as (step, identifier) pairs.
+		 */
+		private final List<long[]> fired;
+
+		/**
+		 * Creates a recording event.
+		 * 
+		 * @param id
+		 *            The identifier.
+		 * @param fired
+		 *            The fired events.
+		 */
+		private RecordingEvent(long id, List<long[]> fired) {
+			this.id = id;
+			this.fired = fired;
+		}
+
+		@Override
+		public void fire(long step) {
+			fired.add(new long[] { step, id });
+		}
+	}
+
+	/**
+	 * Tests that events are fired in the step for which they are scheduled,
+	 * also far beyond the lowest level.
+	 */
+	@Test
+	public void testFire() {
+		TimingWheel wheel = new TimingWheel();
+		List<long[]> fired = new ArrayList<>();
+		Random random = new Random(7);
+		long[] steps = new long[500];
+		for (int i = 0; i < steps.length; i++) {
+			steps[i] = 1 + (random.nextBoolean() ? random.nextInt(100) : random.nextInt(30000000));
+			wheel.schedule(steps[i], new RecordingEvent(i, fired));
+		}
+		Assert.assertEquals(wheel.size(), steps.length);
+		for (long step = 1; step <= 30000001; step += 1 + random.nextInt(1000))
+			wheel.advance(step);
+		wheel.advance(30000001);
+
+		Assert.assertEquals(fired.size(), steps.length);
+		Assert.assertEquals(wheel.size(), 0);
+		for (long[] event : fired)
+			Assert.assertEquals(event[0], steps[(int) event[1]]);
+	}
+
+	/**
+	 * Tests that events in the same step are fired in the order in which they
+	 * were scheduled.
+	 */
+	@Test
+	public void testOrder() {
+		TimingWheel wheel = new TimingWheel();
+		List<long[]> fired = new ArrayList<>();
+		wheel.schedule(5000, new RecordingEvent(0, fired));
+		wheel.advance(4990);
+		wheel.schedule(5000, new RecordingEvent(1, fired));
+		wheel.schedule(5000, new RecordingEvent(2, fired));
+		wheel.advance(5000);
+		Assert.assertEquals(fired.size(), 3);
+		for (int i = 0; i < 3; i++)
+			Assert.assertEquals(fired.get(i)[1], i);
+	}
+
+	/**
+	 * Tests cancelling a timer.
+	 */
+	@Test
+	public void testCancel() {
+		TimingWheel wheel = new TimingWheel();
+		List<long[]> fired = new ArrayList<>();
+		Timer timer = wheel.schedule(100, new RecordingEvent(0, fired));
+		wheel.schedule(100, new RecordingEvent(1, fired));
+		Assert.assertTrue(timer.isScheduled());
+		Assert.assertTrue(wheel.cancel(timer));
+		Assert.assertFalse(timer.isScheduled());
+		Assert.assertFalse(wheel.cancel(timer));
+		wheel.advance(200);
+		Assert.assertEquals(fired.size(), 1);
+		Assert.assertEquals(fired.get(0)[1], 1);
+	}
+
+	/**
+	 * Tests that the timers are kept when the wheel is serialized.
+	 * 
+	 * @throws IOException
+	 *             If the wheel cannot be serialized.
+	 * @throws ClassNotFoundException
+	 *             If a class cannot be found.
+	 */
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		TimingWheel wheel = new TimingWheel();
+		List<long[]> fired = new ArrayList<>();
+		for (int i = 0; i < 50; i++)
+			wheel.schedule(10 + 37 * i, new RecordingEvent(i, fired));
+		wheel.advance(500);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+			output.writeObject(wheel);
+		}
+		TimingWheel copy;
+		try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			copy = (TimingWheel) input.readObject();
+		}
+		Assert.assertEquals(copy.getCurrentStep(), 500);
+		Assert.assertEquals(copy.size(), wheel.size());
+		copy.advance(5000);
+		Assert.assertEquals(copy.size(), 0);
+	}
+
+	/**
+	 * Tests scheduling an event in the past.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalSchedule() {
+		TimingWheel wheel = new TimingWheel();
+		wheel.advance(10);
+		wheel.schedule(10, new RecordingEvent(0, new ArrayList<long[]>()));
+	}
+}
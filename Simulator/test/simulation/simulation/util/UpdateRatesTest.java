@@ -0,0 +1,34 @@
+package simulation.simulation.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the update rates.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class UpdateRatesTest {
+
+	/**
+	 * Tests the conversion of rates to intervals.
+	 */
+	@Test
+	public void testIntervals() {
+		UpdateRates rates = new UpdateRates(1, 4, 10);
+		Assert.assertEquals(rates.getStrategicInterval(100), 10);
+		Assert.assertEquals(rates.getTacticalInterval(100), 3);
+		Assert.assertEquals(rates.getOperationalInterval(100), 1);
+		Assert.assertEquals(rates.getOperationalInterval(250), 1);
+		Assert.assertEquals(UpdateRates.EVERY_STEP.getStrategicInterval(1), 1);
+		Assert.assertEquals(UpdateRates.EVERY_STEP.getTacticalInterval(1000), 1);
+	}
+
+	/**
+	 * Tests an illegal rate.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalRate() {
+		new UpdateRates(0, 1, 1);
+	}
+}
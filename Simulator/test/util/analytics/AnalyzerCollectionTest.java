@@ -0,0 +1,107 @@
+package util.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.agent.humanAgent.aatom.Passenger;
+import model.agent.humanAgent.aatom.operationalLevel.action.movement.impl.PrimitiveHelbingMovementModuleTest;
+import model.environment.objects.area.QueuingArea;
+import model.environment.position.Position;
+import simulation.simulation.Simulator;
+import util.io.logger.Logger;
+
+/**
+ * Tests the analyzers that are driven by the events of the passengers.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class AnalyzerCollectionTest {
+
+	/**
+	 * Tests that the passengers only look up their areas for analyzers that
+	 * are notified of them.
+	 */
+	@Test
+	public void testAreaListener() {
+		AnalyzerCollection analytics = new AnalyzerCollection();
+		Assert.assertFalse(analytics.isAreaListener());
+		analytics.addAnalyzer(new ActivityDistributionAnalyzer());
+		Assert.assertFalse(analytics.isAreaListener());
+		QueueAnalyzer queueAnalyzer = new QueueAnalyzer();
+		analytics.addAnalyzer(queueAnalyzer);
+		Assert.assertTrue(analytics.isAreaListener());
+		analytics.removeAnalyzer(queueAnalyzer);
+		Assert.assertFalse(analytics.isAreaListener());
+	}
+
+	/**
+	 * Tests the queue length and the time in queue of passengers that walk
+	 * through a queue, against the positions of the passengers after each
+	 * step.
+	 */
+	@Test
+	public void testQueueAnalyzers() {
+		Simulator simulator = new Simulator.Builder<>().setGui(false).setTimeStep(100).setRandomSeed(3)
+				.setLogger(Logger.NO_LOGGER).build();
+		QueuingArea queue = new QueuingArea(8, 0, 4, 12, new Position(8, 6), new Position(12, 6));
+		simulator.add(queue);
+		QueueAnalyzer queueAnalyzer = new QueueAnalyzer();
+		TimeInQueueAnalyzer timeInQueueAnalyzer = new TimeInQueueAnalyzer();
+		simulator.add(queueAnalyzer);
+		simulator.add(timeInQueueAnalyzer);
+		List<Passenger> passengers = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			Passenger passenger = PrimitiveHelbingMovementModuleTest.generateBaseAgent(new Position(1 + i, 2 * i + 1),
+					new Position(18, 2 * i + 2), false);
+			passengers.add(passenger);
+			simulator.add(passenger);
+		}
+		simulator.init();
+
+		Set<Passenger> visitors = new HashSet<>();
+		HashMap<Passenger, Double> entryTimes = new HashMap<>();
+		double totalTime = 0;
+		for (int i = 0; i < 300; i++) {
+			double time = simulator.getMap().getTime();
+			simulator.step();
+			// the passengers publish their events before the time is updated
+			for (Passenger passenger : passengers) {
+				boolean inQueue = queue.contains(passenger.getPosition());
+				if (inQueue && !entryTimes.containsKey(passenger)) {
+					visitors.add(passenger);
+					entryTimes.put(passenger, time);
+				} else if (!inQueue && entryTimes.containsKey(passenger)) {
+					totalTime += time - entryTimes.remove(passenger);
+				}
+			}
+
+			Assert.assertEquals(entryTimes.size(), queueAnalyzer.getValues()[0], 0);
+			double expected = 0;
+			if (!visitors.isEmpty()) {
+				double openTime = 0;
+				for (double entryTime : entryTimes.values())
+					openTime += simulator.getMap().getTime() - entryTime;
+				expected = (totalTime + openTime) / visitors.size();
+			}
+			Assert.assertEquals(expected, timeInQueueAnalyzer.getValues()[0], 1e-6);
+		}
+		// all passengers walked through the queue
+		Assert.assertEquals(passengers.size(), visitors.size());
+		Assert.assertTrue(entryTimes.isEmpty());
+		Assert.assertTrue(totalTime > 0);
+
+		// the passengers that are removed are still counted
+		double timeInQueue = timeInQueueAnalyzer.getValues()[0];
+		for (Passenger passenger : passengers)
+			simulator.getMap().remove(passenger);
+		Assert.assertEquals(timeInQueue, timeInQueueAnalyzer.getValues()[0], 0);
+		Assert.assertEquals(0, queueAnalyzer.getValues()[0], 0);
+		simulator.endSimulation();
+	}
+}
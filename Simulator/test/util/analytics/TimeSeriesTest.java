@@ -0,0 +1,227 @@
+package util.analytics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jfree.data.xy.XYSeriesCollection;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the time series.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TimeSeriesTest {
+
+	/**
+	 * Creates a time series with two lines and a number of samples.
+	 * 
+	 * @param samples
+	 *            The number of samples.
+	 * @return The time series.
+	 */
+	private TimeSeries generateTimeSeries(int samples) {
+		TimeSeries series = new TimeSeries();
+		series.setLineNames(new String[] { "a", "b" });
+		for (int i = 0; i < samples; i++)
+			series.add(0.5 * i, new double[] { i, -i });
+		return series;
+	}
+
+	/**
+	 * Serializes and deserializes a time series.
+	 * 
+	 * @param series
+	 *            The time series.
+	 * @return The copy.
+	 * @throws IOException
+	 *             If the time series cannot be serialized.
+	 * @throws ClassNotFoundException
+	 *             If a class cannot be found.
+	 */
+	private TimeSeries serialize(TimeSeries series) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ObjectOutputStream output = new ObjectOutputStream(bytes);
+		output.writeObject(series);
+		output.close();
+		ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		return (TimeSeries) input.readObject();
+	}
+
+	/**
+	 * Tests adding samples, beyond the initial capacity of the arrays.
+	 */
+	@Test
+	public void testAdd() {
+		TimeSeries series = generateTimeSeries(1000);
+		Assert.assertEquals(2, series.getNumberOfLines());
+		Assert.assertEquals("b", series.getLineName(1));
+		Assert.assertEquals(1000, series.size());
+		for (int i = 0; i < 1000; i++) {
+			Assert.assertEquals(0.5 * i, series.getTime(i), 0);
+			Assert.assertEquals(i, series.getValue(0, i), 0);
+			Assert.assertEquals(-i, series.getValue(1, i), 0);
+		}
+	}
+
+	/**
+	 * Tests adding a sample with the wrong number of values.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddWrongLength() {
+		generateTimeSeries(0).add(0, new double[] { 1 });
+	}
+
+	/**
+	 * Tests the deprecated data set, which copies the samples and numbers the
+	 * lines with the same name.
+	 */
+	@Test
+	@SuppressWarnings("deprecation")
+	public void testDataset() {
+		Analyzer analyzer = new Analyzer() {
+
+			/**
+			 * Serial version UID.
+			 */
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public String[] getLineNames() {
+				return new String[] { "line", "line" };
+			}
+
+			@Override
+			public String getTitle() {
+				return "Title";
+			}
+
+			@Override
+			public double[] getValues() {
+				return new double[] { 1, 2 };
+			}
+
+			@Override
+			public String getYAxis() {
+				return "Y";
+			}
+		};
+		analyzer.getTimeSeries().setLineNames(analyzer.getLineNames());
+		analyzer.getTimeSeries().add(3, analyzer.getValues());
+		XYSeriesCollection dataset = analyzer.getDataset();
+		Assert.assertEquals(2, dataset.getSeriesCount());
+		Assert.assertEquals("line", dataset.getSeriesKey(0));
+		Assert.assertEquals("line (2)", dataset.getSeriesKey(1));
+		Assert.assertEquals(1, dataset.getItemCount(1));
+		Assert.assertEquals(3, dataset.getXValue(1, 0), 0);
+		Assert.assertEquals(2, dataset.getYValue(1, 0), 0);
+	}
+
+	/**
+	 * Tests reading a sample that does not exist.
+	 */
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testIndexOutOfBounds() {
+		generateTimeSeries(3).getTime(3);
+	}
+
+	/**
+	 * Tests that the listeners are notified of new samples and lines, and that
+	 * they are not part of a serialized time series.
+	 * 
+	 * @throws Exception
+	 *             If the time series cannot be serialized.
+	 */
+	@Test
+	public void testListeners() throws Exception {
+		TimeSeries series = generateTimeSeries(2);
+		final AtomicInteger changes = new AtomicInteger();
+		TimeSeriesListener listener = new TimeSeriesListener() {
+			@Override
+			public void timeSeriesChanged(TimeSeries timeSeries) {
+				changes.incrementAndGet();
+			}
+		};
+		series.addListener(listener);
+		series.add(1, new double[] { 1, 1 });
+		series.setLineNames(new String[] { "c" });
+		Assert.assertEquals(2, changes.get());
+
+		TimeSeries copy = serialize(series);
+		Assert.assertEquals(1, copy.getNumberOfLines());
+		copy.add(1, new double[] { 1 });
+		Assert.assertEquals(2, changes.get());
+
+		series.removeListener(listener);
+		series.add(1, new double[] { 1 });
+		Assert.assertEquals(2, changes.get());
+	}
+
+	/**
+	 * Tests that a serialized time series has the same samples.
+	 * 
+	 * @throws Exception
+	 *             If the time series cannot be serialized.
+	 */
+	@Test
+	public void testSerialization() throws Exception {
+		TimeSeries copy = serialize(generateTimeSeries(100));
+		Assert.assertEquals(100, copy.size());
+		Assert.assertEquals("a", copy.getLineName(0));
+		Assert.assertEquals(49.5, copy.getTime(99), 0);
+		Assert.assertEquals(-99, copy.getValue(1, 99), 0);
+		copy.add(50, new double[] { 0, 0 });
+		Assert.assertEquals(101, copy.size());
+	}
+
+	/**
+	 * Tests that setting the lines removes all samples.
+	 */
+	@Test
+	public void testSetLineNames() {
+		TimeSeries series = generateTimeSeries(10);
+		String[] names = new String[] { "c", "d", "e" };
+		series.setLineNames(names);
+		names[0] = "f";
+		Assert.assertEquals(0, series.size());
+		Assert.assertEquals(3, series.getNumberOfLines());
+		Assert.assertEquals("c", series.getLineName(0));
+		series.add(1, new double[] { 1, 2, 3 });
+		Assert.assertEquals(3, series.getValue(2, 0), 0);
+	}
+
+	/**
+	 * Tests that a snapshot does not change when samples are added or the
+	 * lines are changed.
+	 */
+	@Test
+	public void testSnapshot() {
+		TimeSeries series = generateTimeSeries(64);
+		TimeSeries.Snapshot snapshot = series.getSnapshot();
+		// grows the arrays
+		series.add(32, new double[] { 100, 100 });
+		TimeSeries.Snapshot grown = series.getSnapshot();
+		series.setLineNames(new String[] { "c" });
+
+		Assert.assertEquals(64, snapshot.size());
+		Assert.assertEquals(2, snapshot.getNumberOfLines());
+		Assert.assertEquals("b", snapshot.getLineName(1));
+		Assert.assertEquals(-63, snapshot.getValue(1, 63), 0);
+		try {
+			snapshot.getValue(0, 64);
+			Assert.fail();
+		} catch (IndexOutOfBoundsException e) {
+			// expected
+		}
+		Assert.assertEquals(65, grown.size());
+		Assert.assertEquals(100, grown.getValue(0, 64), 0);
+		Assert.assertEquals(32, grown.getTime(64), 0);
+		Assert.assertEquals(0, series.getSnapshot().size());
+		Assert.assertEquals(1, series.getSnapshot().getNumberOfLines());
+	}
+}
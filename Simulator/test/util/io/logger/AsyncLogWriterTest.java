@@ -0,0 +1,118 @@
+package util.io.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the asynchronous log writer.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class AsyncLogWriterTest {
+
+	/**
+	 * The number of lines that is written.
+	 */
+	private static final int LINES = 20000;
+
+	/**
+	 * Reads the lines of a file and deletes it.
+	 * 
+	 * @param file
+	 *            The file.
+	 * @return The lines.
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	private List<String> readLines(File file) throws IOException {
+		List<String> lines = Files.readAllLines(file.toPath(), Charset.defaultCharset());
+		file.delete();
+		return lines;
+	}
+
+	/**
+	 * Tests that all lines are written, in order, once the writer is closed,
+	 * also if the ring buffer is much smaller than the number of lines.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be created or read.
+	 */
+	@Test
+	public void testClose() throws IOException {
+		File file = File.createTempFile("log", ".txt");
+		AsyncLogWriter writer = new AsyncLogWriter(file.getPath(), 16);
+		for (int i = 0; i < LINES; i++)
+			writer.write("line " + i);
+		writer.close();
+		// closing twice has no effect
+		writer.close();
+
+		List<String> lines = readLines(file);
+		Assert.assertEquals(LINES, lines.size());
+		for (int i = 0; i < LINES; i++)
+			Assert.assertEquals("line " + i, lines.get(i));
+	}
+
+	/**
+	 * Tests the capacity of the ring buffer.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be created.
+	 */
+	@Test(expected = IllegalArgumentException.class)
+	public void testIllegalCapacity() throws IOException {
+		File file = File.createTempFile("log", ".txt");
+		file.deleteOnExit();
+		new AsyncLogWriter(file.getPath(), 0);
+	}
+
+	/**
+	 * Tests that a logger writes all its lines before closing the log
+	 * returns.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be read.
+	 */
+	@Test
+	public void testLoggerClose() throws IOException {
+		File folder = Files.createTempDirectory("log").toFile();
+		Logger logger = new AgentLogger(folder.getPath());
+		for (int i = 0; i < LINES; i++)
+			logger.printLine(Integer.toString(i));
+		logger.closeLog();
+
+		List<String> lines = readLines(new File(folder, "agentLog.txt"));
+		folder.delete();
+		Assert.assertEquals(LINES, lines.size());
+		Assert.assertEquals(Integer.toString(LINES - 1), lines.get(LINES - 1));
+	}
+
+	/**
+	 * Tests that lines cannot be written after the writer is closed.
+	 * 
+	 * @throws IOException
+	 *             If the file cannot be created.
+	 */
+	@Test
+	public void testWriteAfterClose() throws IOException {
+		File file = File.createTempFile("log", ".txt");
+		AsyncLogWriter writer = new AsyncLogWriter(file.getPath(), 4);
+		writer.write("first");
+		writer.close();
+		try {
+			writer.write("second");
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		List<String> lines = readLines(file);
+		Assert.assertEquals(1, lines.size());
+		Assert.assertEquals("first", lines.get(0));
+	}
+}
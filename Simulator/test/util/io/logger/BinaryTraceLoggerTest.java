@@ -0,0 +1,109 @@
+package util.io.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import model.agent.humanAgent.aatom.OperatorAgent;
+import model.agent.humanAgent.aatom.tacticalLevel.activity.operator.impl.BasicLuggageDropActivity;
+import model.environment.position.Position;
+import simulation.simulation.Simulator;
+import util.io.trace.TraceReader;
+
+/**
+ * Tests the binary trace logger.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class BinaryTraceLoggerTest {
+
+	/**
+	 * An operator that leaves the simulation on request.
+	 */
+	private static class LeavingOperator extends OperatorAgent {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Leaves the simulation or not.
+		 */
+		private boolean leaving;
+
+		/**
+		 * Creates the operator.
+		 * 
+		 * @param position
+		 *            The position.
+		 */
+		public LeavingOperator(Position position) {
+			super(position, 0.25, 80, new BasicLuggageDropActivity());
+		}
+
+		@Override
+		public boolean wantsToBeDestoryed() {
+			return leaving;
+		}
+	}
+
+	/**
+	 * Reads the identifiers of the agents in the last frame of a trace.
+	 * 
+	 * @param fileName
+	 *            The file name.
+	 * @return The identifiers.
+	 * @throws IOException
+	 *             If the trace cannot be read.
+	 */
+	private static List<Integer> readLastFrame(String fileName) throws IOException {
+		List<Integer> ids = new ArrayList<>();
+		try (TraceReader reader = new TraceReader(fileName)) {
+			while (reader.next()) {
+				ids.clear();
+				for (int i = 0; i < reader.getNumberOfAgents(); i++)
+					ids.add(reader.getAgentId(i));
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Tests that an agent that is removed from the simulation is dropped and
+	 * that its identifier is not given to an agent that appears later.
+	 * 
+	 * @throws IOException
+	 *             If the trace cannot be written or read.
+	 */
+	@Test
+	public void testRemovedAgent() throws IOException {
+		File folder = Files.createTempDirectory("trace").toFile();
+		BinaryTraceLogger logger = new BinaryTraceLogger(folder.getPath());
+		Simulator simulator = new Simulator.Builder<>().setGui(false).setLogger(logger).build();
+		LeavingOperator first = new LeavingOperator(new Position(5, 5));
+		simulator.add(first);
+		simulator.add(new LeavingOperator(new Position(10, 5)));
+		simulator.init();
+		simulator.step();
+		first.leaving = true;
+		simulator.step();
+		Assert.assertFalse(simulator.getMap().getMapComponents(OperatorAgent.class).contains(first));
+		simulator.add(new LeavingOperator(new Position(15, 5)));
+		for (int i = 0; i < 10; i++)
+			simulator.step();
+		logger.closeLog();
+
+		File file = new File(folder, "agentTrace.bin");
+		List<Integer> ids = readLastFrame(file.getPath());
+		file.delete();
+		folder.delete();
+		Assert.assertEquals(2, ids.size());
+		Assert.assertTrue(ids.contains(1));
+		Assert.assertTrue(ids.contains(2));
+	}
+}
@@ -0,0 +1,191 @@
+package util.io.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import util.io.logger.AsyncLogWriter;
+
+/**
+ * Tests the binary trace writer and reader.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class TraceReaderTest {
+
+	/**
+	 * The number of frames.
+	 */
+	private static final int FRAMES = 250;
+
+	/**
+	 * Gets the number of agents in a frame.
+	 * 
+	 * @param frame
+	 *            The frame.
+	 * @return The number of agents.
+	 */
+	private int getNumberOfAgents(int frame) {
+		return 5 + frame % 7;
+	}
+
+	/**
+	 * Gets the identifier of an agent in a frame. Agents enter and leave the
+	 * trace over time.
+	 * 
+	 * @param frame
+	 *            The frame.
+	 * @param index
+	 *            The index of the agent in the frame.
+	 * @return The identifier.
+	 */
+	private int getAgentId(int frame, int index) {
+		return frame / 3 + 2 * index;
+	}
+
+	/**
+	 * Gets a coordinate of an agent in a frame.
+	 * 
+	 * @param frame
+	 *            The frame.
+	 * @param id
+	 *            The identifier of the agent.
+	 * @param axis
+	 *            The axis.
+	 * @return The coordinate.
+	 */
+	private double getCoordinate(int frame, int id, int axis) {
+		return new Random(31 * (31 * frame + id) + axis).nextDouble() * 200 - 50;
+	}
+
+	/**
+	 * Writes a trace file.
+	 * 
+	 * @param asynchronous
+	 *            Write the trace through an {@link AsyncLogWriter}, flushing
+	 *            each frame, or not.
+	 * @return The file.
+	 * @throws IOException
+	 *             If the file cannot be written.
+	 */
+	private File writeTrace(boolean asynchronous) throws IOException {
+		File file = File.createTempFile("trace", ".bin");
+		file.deleteOnExit();
+		TraceWriter writer;
+		if (asynchronous)
+			writer = new TraceWriter(new AsyncLogWriter(file.getPath(), 4).getOutputStream(), 100, 10);
+		else
+			writer = new TraceWriter(file.getPath(), 100, 10);
+		int[] ids = new int[20];
+		double[] x = new double[20];
+		double[] y = new double[20];
+		for (int frame = 0; frame < FRAMES; frame++) {
+			for (int i = 0; i < getNumberOfAgents(frame); i++) {
+				ids[i] = getAgentId(frame, i);
+				x[i] = getCoordinate(frame, ids[i], 0);
+				y[i] = getCoordinate(frame, ids[i], 1);
+			}
+			writer.writeFrame(1000L * frame, ids, x, y, getNumberOfAgents(frame));
+			if (asynchronous)
+				writer.flush();
+		}
+		writer.close();
+		return file;
+	}
+
+	/**
+	 * Checks that the current frame of a reader is a specified frame.
+	 * 
+	 * @param reader
+	 *            The reader.
+	 * @param frame
+	 *            The frame.
+	 */
+	private void assertFrame(TraceReader reader, int frame) {
+		Assert.assertEquals(1000L * frame, reader.getTime());
+		Assert.assertEquals(getNumberOfAgents(frame), reader.getNumberOfAgents());
+		for (int i = 0; i < reader.getNumberOfAgents(); i++) {
+			int id = getAgentId(frame, i);
+			Assert.assertEquals(id, reader.getAgentId(i));
+			Assert.assertEquals(Math.round(getCoordinate(frame, id, 0) * 100) / 100.0, reader.getX(i), 0);
+			Assert.assertEquals(Math.round(getCoordinate(frame, id, 1) * 100) / 100.0, reader.getY(i), 0);
+		}
+	}
+
+	/**
+	 * Checks that a trace file contains all frames.
+	 * 
+	 * @param file
+	 *            The file.
+	 * @throws IOException
+	 *             If the trace cannot be read.
+	 */
+	private void assertFrames(File file) throws IOException {
+		TraceReader reader = new TraceReader(file.getPath());
+		Assert.assertTrue(reader.hasIndex());
+		Assert.assertEquals(100, reader.getScale());
+		for (int frame = 0; frame < FRAMES; frame++) {
+			Assert.assertTrue(reader.next());
+			assertFrame(reader, frame);
+		}
+		Assert.assertFalse(reader.next());
+		reader.close();
+	}
+
+	/**
+	 * Tests reading all frames of a trace that is written through an
+	 * {@link AsyncLogWriter}.
+	 * 
+	 * @throws IOException
+	 *             If the trace cannot be written or read.
+	 */
+	@Test
+	public void testAsynchronousRead() throws IOException {
+		assertFrames(writeTrace(true));
+	}
+
+	/**
+	 * Tests reading all frames.
+	 * 
+	 * @throws IOException
+	 *             If the trace cannot be written or read.
+	 */
+	@Test
+	public void testRead() throws IOException {
+		assertFrames(writeTrace(false));
+	}
+
+	/**
+	 * Tests seeking to a time, also in a file without an index.
+	 * 
+	 * @throws IOException
+	 *             If the trace cannot be written or read.
+	 */
+	@Test
+	public void testSeek() throws IOException {
+		File file = writeTrace(false);
+		TraceReader reader = new TraceReader(file.getPath());
+		Assert.assertTrue(reader.seek(137500));
+		assertFrame(reader, 138);
+		Assert.assertTrue(reader.next());
+		assertFrame(reader, 139);
+		Assert.assertTrue(reader.seek(20000));
+		assertFrame(reader, 20);
+		Assert.assertFalse(reader.seek(1000L * FRAMES));
+		reader.close();
+
+		// remove the end marker and the index
+		RandomAccessFile truncated = new RandomAccessFile(file, "rw");
+		truncated.setLength(truncated.length() / 2);
+		truncated.close();
+		reader = new TraceReader(file.getPath());
+		Assert.assertFalse(reader.hasIndex());
+		Assert.assertTrue(reader.seek(5000));
+		assertFrame(reader, 5);
+		reader.close();
+	}
+}
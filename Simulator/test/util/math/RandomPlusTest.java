@@ -0,0 +1,28 @@
+package util.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the random plus class.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class RandomPlusTest {
+
+	/**
+	 * Setting the seed changes the seed and restarts the sequence, like a new
+	 * generator with that seed.
+	 */
+	@Test
+	public void testSetSeed() {
+		RandomPlus random = new RandomPlus(3);
+		Assert.assertEquals(3, random.getSeed());
+		random.nextDouble();
+		random.setSeed(7);
+		Assert.assertEquals(7, random.getSeed());
+		RandomPlus reference = new RandomPlus(7);
+		for (int i = 0; i < 10; i++)
+			Assert.assertEquals(reference.nextLong(), random.nextLong());
+	}
+}
@@ -0,0 +1,63 @@
+package util.math.distributions;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import simulation.simulation.Simulator;
+import simulation.simulation.util.SimulationContext;
+import util.io.logger.Logger;
+import util.math.RandomPlus;
+
+/**
+ * Tests the math distributions.
+ * 
+ * @author S.A.M. Janssen
+ */
+public class MathDistributionTest {
+
+	/**
+	 * Removes the context that is bound to the thread by the simulators.
+	 */
+	@After
+	public void unbind() {
+		SimulationContext.setCurrent(null);
+	}
+
+	/**
+	 * A distribution that is created before the simulators draws from the
+	 * random generator of the simulator that runs on the current thread.
+	 */
+	@Test
+	public void testSimulationRandomGenerator() {
+		MathDistribution distribution = new NormalDistribution(0, 1);
+		Simulator first = new Simulator.Builder<>().setGui(false).setRandomSeed(1).setLogger(Logger.NO_LOGGER)
+				.build();
+		Simulator second = new Simulator.Builder<>().setGui(false).setRandomSeed(2).setLogger(Logger.NO_LOGGER)
+				.build();
+		RandomPlus firstReference = new RandomPlus(first.getContext().getRandomGenerator().getSeed());
+		RandomPlus secondReference = new RandomPlus(second.getContext().getRandomGenerator().getSeed());
+		for (int i = 0; i < 10; i++) {
+			SimulationContext.setCurrent(first.getContext());
+			Assert.assertEquals(firstReference.nextGaussian(), distribution.getValue(), 0);
+			SimulationContext.setCurrent(second.getContext());
+			Assert.assertEquals(secondReference.nextGaussian(), distribution.getValue(), 0);
+		}
+	}
+
+	/**
+	 * A distribution with a separate random generator only draws from that
+	 * generator.
+	 */
+	@Test
+	public void testSeparateRandomGenerator() {
+		Simulator simulator = new Simulator.Builder<>().setGui(false).setRandomSeed(1).setLogger(Logger.NO_LOGGER)
+				.build();
+		MathDistribution distribution = new ExponentialDistribution(2, new RandomPlus(5));
+		RandomPlus reference = new RandomPlus(5);
+		RandomPlus simulationReference = new RandomPlus(1);
+		for (int i = 0; i < 10; i++)
+			Assert.assertEquals(Math.log(1 - reference.nextDouble()) / -2, distribution.getValue(), 0);
+		Assert.assertEquals(simulationReference.nextLong(), simulator.getContext().getRandomGenerator().nextLong());
+	}
+}
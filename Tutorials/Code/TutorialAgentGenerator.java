@@ -8,7 +8,6 @@ import model.environment.objects.physicalObject.luggage.Luggage;
 import model.environment.objects.physicalObject.luggage.LuggageType;
 import model.environment.position.Position;
 import simulation.simulation.agentGenerator.BaseAgentGenerator;
-import simulation.simulation.util.Utilities;
 
 /**
  * THe agent generator in the tutorial.
@@ -32,11 +31,11 @@ public class TutorialAgentGenerator extends BaseAgentGenerator {
 		List<HumanAgent> agents = new ArrayList<>();
 
 		if (forced || canGenerate(timeStep)) {
-			Luggage luggage = new Luggage(LuggageType.CARRY_ON, Utilities.RANDOM_GENERATOR.nextDouble(),
-					Utilities.RANDOM_GENERATOR.nextDouble());
+			Luggage luggage = new Luggage(LuggageType.CARRY_ON, getRandomGenerator().nextDouble(),
+					getRandomGenerator().nextDouble());
 			if (areas.isEmpty())
 				return null;
-			EntranceArea area = areas.get(Utilities.RANDOM_GENERATOR.nextInt(areas.size()));
+			EntranceArea area = areas.get(getRandomGenerator().nextInt(areas.size()));
 			Position start = area.generatePosition();
 			Flight flight = getEligibleFlight();
 			if (flight != null) {